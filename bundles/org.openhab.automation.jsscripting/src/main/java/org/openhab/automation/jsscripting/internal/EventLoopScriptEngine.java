@@ -0,0 +1,110 @@
+/**
+ * Copyright (c) 2010-2023 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.automation.jsscripting.internal;
+
+import java.io.Reader;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.concurrent.Callable;
+
+import javax.script.Bindings;
+import javax.script.Invocable;
+import javax.script.ScriptContext;
+import javax.script.ScriptEngine;
+import javax.script.ScriptException;
+
+import org.openhab.automation.jsscripting.internal.scriptengine.DelegatingScriptEngineWithInvocableAndAutocloseable;
+import org.openhab.automation.jsscripting.internal.threading.ScriptContextExecutor;
+
+/**
+ * Wraps ScriptEngines to run all evaluations and invocations on the event loop of the script, so that they are
+ * serialized with the timers and rule executions of the script without the callers competing for a lock.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+class EventLoopScriptEngine<T extends ScriptEngine & Invocable & AutoCloseable>
+        extends DelegatingScriptEngineWithInvocableAndAutocloseable<T> {
+
+    private final ScriptContextExecutor executor;
+
+    public EventLoopScriptEngine(T delegate, ScriptContextExecutor executor) {
+        super(delegate);
+        this.executor = executor;
+    }
+
+    @Override
+    public Object eval(String s, ScriptContext scriptContext) throws ScriptException {
+        return evalOnEventLoop(() -> super.eval(s, scriptContext));
+    }
+
+    @Override
+    public Object eval(Reader reader, ScriptContext scriptContext) throws ScriptException {
+        return evalOnEventLoop(() -> super.eval(reader, scriptContext));
+    }
+
+    @Override
+    public Object eval(String s) throws ScriptException {
+        return evalOnEventLoop(() -> super.eval(s));
+    }
+
+    @Override
+    public Object eval(Reader reader) throws ScriptException {
+        return evalOnEventLoop(() -> super.eval(reader));
+    }
+
+    @Override
+    public Object eval(String s, Bindings bindings) throws ScriptException {
+        return evalOnEventLoop(() -> super.eval(s, bindings));
+    }
+
+    @Override
+    public Object eval(Reader reader, Bindings bindings) throws ScriptException {
+        return evalOnEventLoop(() -> super.eval(reader, bindings));
+    }
+
+    @Override
+    public Object invokeMethod(Object o, String s, Object... objects)
+            throws ScriptException, NoSuchMethodException, IllegalArgumentException {
+        return invokeOnEventLoop(() -> super.invokeMethod(o, s, objects));
+    }
+
+    @Override
+    public Object invokeFunction(String s, Object... objects) throws ScriptException, NoSuchMethodException {
+        return invokeOnEventLoop(() -> super.invokeFunction(s, objects));
+    }
+
+    private Object evalOnEventLoop(Callable<Object> task) throws ScriptException {
+        try {
+            return executor.call(task);
+        } catch (ScriptException | RuntimeException e) {
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ScriptException("Interrupted while waiting for the script event loop");
+        } catch (Exception e) {
+            throw new UndeclaredThrowableException(e);
+        }
+    }
+
+    private Object invokeOnEventLoop(Callable<Object> task) throws ScriptException, NoSuchMethodException {
+        try {
+            return executor.call(task);
+        } catch (ScriptException | NoSuchMethodException | RuntimeException e) {
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ScriptException("Interrupted while waiting for the script event loop");
+        } catch (Exception e) {
+            throw new UndeclaredThrowableException(e);
+        }
+    }
+}
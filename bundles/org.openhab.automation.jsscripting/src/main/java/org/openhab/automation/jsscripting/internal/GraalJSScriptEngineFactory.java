@@ -21,13 +21,16 @@ import javax.script.ScriptEngine;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.automation.jsscripting.internal.fs.watch.JSDependencyTracker;
+import org.openhab.automation.jsscripting.internal.threading.EventLoopScriptContextExecutor;
 import org.openhab.core.automation.module.script.ScriptDependencyTracker;
 import org.openhab.core.automation.module.script.ScriptEngineFactory;
+import org.openhab.core.common.ThreadPoolManager;
 import org.openhab.core.config.core.ConfigParser;
 import org.openhab.core.config.core.ConfigurableService;
 import org.osgi.framework.Constants;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Modified;
 import org.osgi.service.component.annotations.Reference;
 
@@ -46,6 +49,8 @@ import com.oracle.truffle.js.scriptengine.GraalJSEngineFactory;
 public final class GraalJSScriptEngineFactory implements ScriptEngineFactory {
     private static final String CFG_INJECTION_ENABLED = "injectionEnabled";
     private static final String CFG_INJECTION_CACHING_ENABLED = "injectionCachingEnabled";
+    private static final String CFG_ENGINE_POOL_SIZE = "enginePoolSize";
+    private static final String CFG_EVENT_LOOP_ENABLED = "eventLoopEnabled";
 
     private static final GraalJSEngineFactory factory = new GraalJSEngineFactory();
 
@@ -60,6 +65,8 @@ public final class GraalJSScriptEngineFactory implements ScriptEngineFactory {
 
     private boolean injectionEnabled = true;
     private boolean injectionCachingEnabled = true;
+    private boolean eventLoopEnabled = false;
+    private volatile @Nullable GraalJSScriptEnginePool<OpenhabGraalJSScriptEngine> enginePool;
 
     private final JSScriptServiceUtil jsScriptServiceUtil;
     private final JSDependencyTracker jsDependencyTracker;
@@ -87,8 +94,14 @@ public final class GraalJSScriptEngineFactory implements ScriptEngineFactory {
         if (!scriptTypes.contains(scriptType)) {
             return null;
         }
-        return new DebuggingGraalScriptEngine<>(new OpenhabGraalJSScriptEngine(injectionEnabled,
-                injectionCachingEnabled, jsScriptServiceUtil, jsDependencyTracker));
+        GraalJSScriptEnginePool<OpenhabGraalJSScriptEngine> enginePool = this.enginePool;
+        OpenhabGraalJSScriptEngine engine = enginePool != null ? enginePool.borrow()
+                : new OpenhabGraalJSScriptEngine(injectionEnabled, injectionCachingEnabled, eventLoopEnabled,
+                        jsScriptServiceUtil, jsDependencyTracker);
+        if (engine.getContextExecutor() instanceof EventLoopScriptContextExecutor eventLoop) {
+            return new DebuggingGraalScriptEngine<>(new EventLoopScriptEngine<>(engine, eventLoop));
+        }
+        return new DebuggingGraalScriptEngine<>(engine);
     }
 
     @Override
@@ -101,5 +114,31 @@ public final class GraalJSScriptEngineFactory implements ScriptEngineFactory {
         this.injectionEnabled = ConfigParser.valueAsOrElse(config.get(CFG_INJECTION_ENABLED), Boolean.class, true);
         this.injectionCachingEnabled = ConfigParser.valueAsOrElse(config.get(CFG_INJECTION_CACHING_ENABLED),
                 Boolean.class, true);
+        this.eventLoopEnabled = ConfigParser.valueAsOrElse(config.get(CFG_EVENT_LOOP_ENABLED), Boolean.class, false);
+        int enginePoolSize = ConfigParser.valueAsOrElse(config.get(CFG_ENGINE_POOL_SIZE), Integer.class, 0);
+
+        // the pooled engines are created with the previous configuration
+        closeEnginePool();
+        if (enginePoolSize > 0) {
+            boolean injectionEnabled = this.injectionEnabled;
+            boolean injectionCachingEnabled = this.injectionCachingEnabled;
+            boolean eventLoopEnabled = this.eventLoopEnabled;
+            enginePool = new GraalJSScriptEnginePool<>(() -> new OpenhabGraalJSScriptEngine(injectionEnabled,
+                    injectionCachingEnabled, eventLoopEnabled, jsScriptServiceUtil, jsDependencyTracker),
+                    enginePoolSize, ThreadPoolManager.getPool("jsscripting"));
+        }
+    }
+
+    @Deactivate
+    protected void deactivate() {
+        closeEnginePool();
+    }
+
+    private void closeEnginePool() {
+        GraalJSScriptEnginePool<OpenhabGraalJSScriptEngine> enginePool = this.enginePool;
+        if (enginePool != null) {
+            this.enginePool = null;
+            enginePool.close();
+        }
     }
 }
@@ -0,0 +1,149 @@
+/**
+ * Copyright (c) 2010-2023 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.automation.jsscripting.internal;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pool of {@link OpenhabGraalJSScriptEngine}s that are created and prepared in the background, so that creating a
+ * script engine for a new script does not have to wait for the creation of its polyglot context and the parsing of
+ * the global scripts.
+ *
+ * Each engine is handed out once, engines are never returned to the pool, as they hold the state of their script.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class GraalJSScriptEnginePool<E extends GraalJSScriptEnginePool.PreparableEngine> {
+
+    /**
+     * A script engine that can be prepared before it is used.
+     */
+    public interface PreparableEngine {
+        /**
+         * Does the work that does not depend on the script that uses the engine, e.g. creating its context.
+         */
+        void prepare();
+
+        void close();
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(GraalJSScriptEnginePool.class);
+
+    private final Supplier<E> engineFactory;
+    private final Executor executor;
+    private final BlockingQueue<E> engines;
+    private final AtomicBoolean refilling = new AtomicBoolean();
+    private final AtomicLong pooledCount = new AtomicLong();
+    private final AtomicLong createdOnDemandCount = new AtomicLong();
+    private volatile boolean closed;
+
+    /**
+     * @param engineFactory creates new engines
+     * @param size number of prepared engines to keep
+     * @param executor executor for the creation of the engines
+     */
+    public GraalJSScriptEnginePool(Supplier<E> engineFactory, int size, Executor executor) {
+        this.engineFactory = engineFactory;
+        this.executor = executor;
+        this.engines = new ArrayBlockingQueue<>(size);
+        refill();
+    }
+
+    /**
+     * Takes a prepared engine from the pool, or creates a new one if the pool is empty
+     *
+     * @return an engine that was not used before
+     */
+    public E borrow() {
+        E engine = engines.poll();
+        if (engine == null) {
+            createdOnDemandCount.incrementAndGet();
+            logger.debug("No prepared GraalJS script engine available, creating a new one.");
+            engine = engineFactory.get();
+        } else {
+            pooledCount.incrementAndGet();
+        }
+        refill();
+        return engine;
+    }
+
+    /**
+     * @return the number of prepared engines that are available
+     */
+    public int getAvailableCount() {
+        return engines.size();
+    }
+
+    /**
+     * @return the number of engines that were taken from the pool
+     */
+    public long getPooledCount() {
+        return pooledCount.get();
+    }
+
+    /**
+     * @return the number of engines that had to be created because the pool was empty
+     */
+    public long getCreatedOnDemandCount() {
+        return createdOnDemandCount.get();
+    }
+
+    /**
+     * Closes the engines of the pool and stops preparing new ones
+     */
+    public void close() {
+        closed = true;
+        E engine;
+        while ((engine = engines.poll()) != null) {
+            engine.close();
+        }
+        logger.debug("Closed GraalJS script engine pool, {} engines were taken from the pool, {} created on demand.",
+                pooledCount.get(), createdOnDemandCount.get());
+    }
+
+    private void refill() {
+        if (closed || engines.remainingCapacity() == 0 || !refilling.compareAndSet(false, true)) {
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                while (!closed && engines.remainingCapacity() > 0) {
+                    E engine = engineFactory.get();
+                    engine.prepare();
+                    if (!engines.offer(engine)) {
+                        engine.close();
+                        break;
+                    }
+                    if (closed && engines.remove(engine)) {
+                        // the pool was closed while the engine was prepared
+                        engine.close();
+                    }
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Failed to prepare a GraalJS script engine: {}", e.getMessage());
+            } finally {
+                refilling.set(false);
+            }
+        });
+    }
+}
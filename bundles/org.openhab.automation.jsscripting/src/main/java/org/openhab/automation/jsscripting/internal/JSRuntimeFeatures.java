@@ -14,9 +14,9 @@ package org.openhab.automation.jsscripting.internal;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.locks.Lock;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.automation.jsscripting.internal.threading.ScriptContextExecutor;
 import org.openhab.automation.jsscripting.internal.threading.ThreadsafeTimers;
 
 /**
@@ -32,8 +32,8 @@ public class JSRuntimeFeatures {
     private final Map<String, Object> features = new HashMap<>();
     public final ThreadsafeTimers threadsafeTimers;
 
-    JSRuntimeFeatures(Lock lock, JSScriptServiceUtil jsScriptServiceUtil) {
-        this.threadsafeTimers = new ThreadsafeTimers(lock, jsScriptServiceUtil.getScriptExecution(),
+    JSRuntimeFeatures(ScriptContextExecutor executor, JSScriptServiceUtil jsScriptServiceUtil) {
+        this.threadsafeTimers = new ThreadsafeTimers(executor, jsScriptServiceUtil.getScriptExecution(),
                 jsScriptServiceUtil.getScheduler());
 
         features.put("ThreadsafeTimers", threadsafeTimers);
@@ -12,9 +12,8 @@
  */
 package org.openhab.automation.jsscripting.internal;
 
-import java.util.concurrent.locks.Lock;
-
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.automation.jsscripting.internal.threading.ScriptContextExecutor;
 import org.openhab.core.automation.module.script.action.ScriptExecution;
 import org.openhab.core.scheduler.Scheduler;
 import org.osgi.service.component.annotations.Activate;
@@ -46,7 +45,7 @@ public class JSScriptServiceUtil {
         return scriptExecution;
     }
 
-    public JSRuntimeFeatures getJSRuntimeFeatures(Lock lock) {
-        return new JSRuntimeFeatures(lock, this);
+    public JSRuntimeFeatures getJSRuntimeFeatures(ScriptContextExecutor executor) {
+        return new JSRuntimeFeatures(executor, this);
     }
 }
@@ -51,6 +51,9 @@ import org.openhab.automation.jsscripting.internal.fs.PrefixedSeekableByteChanne
 import org.openhab.automation.jsscripting.internal.fs.ReadOnlySeekableByteArrayChannel;
 import org.openhab.automation.jsscripting.internal.fs.watch.JSDependencyTracker;
 import org.openhab.automation.jsscripting.internal.scriptengine.InvocationInterceptingScriptEngineWithInvocableAndAutoCloseable;
+import org.openhab.automation.jsscripting.internal.threading.EventLoopScriptContextExecutor;
+import org.openhab.automation.jsscripting.internal.threading.LockingScriptContextExecutor;
+import org.openhab.automation.jsscripting.internal.threading.ScriptContextExecutor;
 import org.openhab.core.automation.module.script.ScriptExtensionAccessor;
 import org.openhab.core.items.Item;
 import org.openhab.core.library.types.QuantityType;
@@ -67,9 +70,11 @@ import com.oracle.truffle.js.scriptengine.GraalJSScriptEngine;
  * @author Florian Hotze - Create lock object for multi-thread synchronization; Inject the {@link JSRuntimeFeatures}
  *         into the JS context; Fix memory leak caused by HostObject by making HostAccess reference static; Switch to
  *         {@link Lock} for multi-thread synchronization; globals & openhab-js injection code caching
+ * @author openHAB Contributors - Optional event loop for timers and rule executions
  */
 public class OpenhabGraalJSScriptEngine
-        extends InvocationInterceptingScriptEngineWithInvocableAndAutoCloseable<GraalJSScriptEngine> {
+        extends InvocationInterceptingScriptEngineWithInvocableAndAutoCloseable<GraalJSScriptEngine>
+        implements GraalJSScriptEnginePool.PreparableEngine {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(OpenhabGraalJSScriptEngine.class);
     private static Source GLOBAL_SOURCE;
@@ -131,6 +136,8 @@ public class OpenhabGraalJSScriptEngine
 
     /** {@link Lock} synchronization of multi-thread access */
     private final Lock lock = new ReentrantLock();
+    /** Runs timers and rule executions, either holding the {@link #lock} or on an event loop */
+    private final ScriptContextExecutor contextExecutor;
     private final JSRuntimeFeatures jsRuntimeFeatures;
 
     // these fields start as null because they are populated on first use
@@ -141,16 +148,26 @@ public class OpenhabGraalJSScriptEngine
     private final boolean injectionEnabled;
     private final boolean injectionCachingEnabled;
 
+    // startup metrics, in nanoseconds
+    private final long createdNanos = System.nanoTime();
+    private long preparationNanos = -1;
+
     /**
      * Creates an implementation of ScriptEngine (& Invocable), wrapping the contained engine, that tracks the script
      * lifecycle and provides hooks for scripts to do so too.
+     *
+     * @param eventLoopEnabled whether timers and rule executions run on an event loop instead of competing for a lock,
+     *            timers are queued without blocking their threads
      */
     public OpenhabGraalJSScriptEngine(boolean injectionEnabled, boolean injectionCachingEnabled,
-            JSScriptServiceUtil jsScriptServiceUtil, JSDependencyTracker jsDependencyTracker) {
+            boolean eventLoopEnabled, JSScriptServiceUtil jsScriptServiceUtil,
+            JSDependencyTracker jsDependencyTracker) {
         super(null); // delegate depends on fields not yet initialised, so we cannot set it immediately
         this.injectionEnabled = injectionEnabled;
         this.injectionCachingEnabled = injectionCachingEnabled;
-        this.jsRuntimeFeatures = jsScriptServiceUtil.getJSRuntimeFeatures(lock);
+        this.contextExecutor = eventLoopEnabled ? new EventLoopScriptContextExecutor()
+                : new LockingScriptContextExecutor(lock);
+        this.jsRuntimeFeatures = jsScriptServiceUtil.getJSRuntimeFeatures(contextExecutor);
 
         LOGGER.debug("Initializing GraalJS script engine...");
 
@@ -223,6 +240,32 @@ public class OpenhabGraalJSScriptEngine
                         }));
     }
 
+    /**
+     * Creates the polyglot context and parses the cached global scripts into the code cache of the shared
+     * {@link Engine}, without evaluating them. The scripts depend on the identity of the script that uses this engine,
+     * so they can only be evaluated on the first invocation.
+     *
+     * This is used to prepare engines in the background before they are needed, see {@link GraalJSScriptEnginePool}.
+     */
+    @Override
+    public void prepare() {
+        long start = System.nanoTime();
+        Context context = delegate.getPolyglotContext();
+        context.parse(GLOBAL_SOURCE);
+        if (injectionEnabled && injectionCachingEnabled) {
+            context.parse(OPENHAB_JS_SOURCE);
+        }
+        preparationNanos = System.nanoTime() - start;
+        LOGGER.debug("Prepared GraalJS script engine in {} ms.", Duration.ofNanos(preparationNanos).toMillis());
+    }
+
+    /**
+     * @return the executor that controls the access of timers and rule executions to the context
+     */
+    public ScriptContextExecutor getContextExecutor() {
+        return contextExecutor;
+    }
+
     @Override
     protected void beforeInvocation() {
         super.beforeInvocation();
@@ -233,6 +276,8 @@ public class OpenhabGraalJSScriptEngine
             return;
         }
 
+        long start = System.nanoTime();
+
         ScriptContext ctx = delegate.getContext();
         if (ctx == null) {
             throw new IllegalStateException("Failed to retrieve script context");
@@ -258,7 +303,7 @@ public class OpenhabGraalJSScriptEngine
         }
 
         ScriptExtensionModuleProvider scriptExtensionModuleProvider = new ScriptExtensionModuleProvider(
-                scriptExtensionAccessor, lock);
+                scriptExtensionAccessor, contextExecutor);
 
         // Wrap the "require" function to also allow loading modules from the ScriptExtensionModuleProvider
         Function<Function<Object[], Object>, Function<String, Object>> wrapRequireFn = originalRequireFn -> moduleName -> scriptExtensionModuleProvider
@@ -291,6 +336,11 @@ public class OpenhabGraalJSScriptEngine
         } catch (ScriptException e) {
             LOGGER.error("Could not inject global script", e);
         }
+
+        long initializationNanos = System.nanoTime() - start;
+        LOGGER.debug("Initialized GraalJS script engine for '{}' in {} ms, {} ms after its creation (prepared: {}).",
+                engineIdentifier, Duration.ofNanos(initializationNanos).toMillis(),
+                Duration.ofNanos(System.nanoTime() - createdNanos).toMillis(), preparationNanos >= 0);
     }
 
     @Override
@@ -308,6 +358,7 @@ public class OpenhabGraalJSScriptEngine
     @Override
     public void close() {
         jsRuntimeFeatures.close();
+        contextExecutor.close();
     }
 
     /**
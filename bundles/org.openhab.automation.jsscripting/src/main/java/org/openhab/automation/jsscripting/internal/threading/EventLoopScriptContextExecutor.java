@@ -0,0 +1,183 @@
+/**
+ * Copyright (c) 2010-2023 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.automation.jsscripting.internal.threading;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.common.NamedThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link ScriptContextExecutor} that queues all tasks of a script engine onto a single dedicated thread, the event
+ * loop of the engine. Timers are queued without blocking the threads that trigger them, rule executions and other
+ * callers that need a result wait for it. Promise jobs of the JS runtime are run on the event loop as part of the task
+ * that created them.
+ *
+ * The thread is stopped when the event loop is idle for a while and started again for the next task.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class EventLoopScriptContextExecutor implements ScriptContextExecutor {
+    private static final Duration IDLE_TIMEOUT = Duration.ofMinutes(1);
+
+    private final Logger logger = LoggerFactory.getLogger(EventLoopScriptContextExecutor.class);
+
+    private final ThreadPoolExecutor executor;
+    private volatile @Nullable Thread runningThread;
+
+    // metrics
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final AtomicLong handledCount = new AtomicLong();
+    private final AtomicLong totalQueueNanos = new AtomicLong();
+    private final AtomicLong maxQueueNanos = new AtomicLong();
+    private final AtomicLong totalHandlerNanos = new AtomicLong();
+    private final AtomicLong maxHandlerNanos = new AtomicLong();
+
+    public EventLoopScriptContextExecutor() {
+        this(IDLE_TIMEOUT);
+    }
+
+    /**
+     * @param idleTimeout time after which the thread of an idle event loop stops
+     */
+    EventLoopScriptContextExecutor(Duration idleTimeout) {
+        executor = new ThreadPoolExecutor(1, 1, idleTimeout.toMillis(), TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), new NamedThreadFactory("jsscripting-eventloop"));
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (isEventLoopThread()) {
+            task.run();
+            return;
+        }
+        submit(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                logger.warn("Failed to execute task on the script event loop: {}", e.getMessage(), e);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public <T> T call(Callable<T> task) throws Exception {
+        if (isEventLoopThread()) {
+            // already on the event loop, queueing would wait for this task
+            return task.call();
+        }
+        try {
+            return submit(task).get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception exception) {
+                throw exception;
+            } else if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        logger.debug("Closed script event loop, handled {} tasks, average latency {} ms, max latency {} ms",
+                getHandledCount(), getAverageHandlerLatency().toMillis(), getMaxHandlerLatency().toMillis());
+    }
+
+    /**
+     * @return the number of tasks that are queued and not running yet
+     */
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    /**
+     * @return the number of tasks that were run
+     */
+    public long getHandledCount() {
+        return handledCount.get();
+    }
+
+    /**
+     * @return the average time from the queueing of a task to its completion
+     */
+    public Duration getAverageHandlerLatency() {
+        long count = handledCount.get();
+        return count == 0 ? Duration.ZERO
+                : Duration.ofNanos((totalQueueNanos.get() + totalHandlerNanos.get()) / count);
+    }
+
+    /**
+     * @return the longest time a task waited in the queue
+     */
+    public Duration getMaxQueueTime() {
+        return Duration.ofNanos(maxQueueNanos.get());
+    }
+
+    /**
+     * @return the longest time a task ran
+     */
+    public Duration getMaxHandlerLatency() {
+        return Duration.ofNanos(maxHandlerNanos.get());
+    }
+
+    private boolean isEventLoopThread() {
+        return runningThread == Thread.currentThread();
+    }
+
+    private <T> Future<T> submit(Callable<T> task) {
+        long queuedNanos = System.nanoTime();
+        queueDepth.incrementAndGet();
+        try {
+            return executor.submit(() -> {
+                long startNanos = System.nanoTime();
+                queueDepth.decrementAndGet();
+                runningThread = Thread.currentThread();
+                try {
+                    return task.call();
+                } finally {
+                    runningThread = null;
+                    long handlerNanos = System.nanoTime() - startNanos;
+                    handledCount.incrementAndGet();
+                    totalQueueNanos.addAndGet(startNanos - queuedNanos);
+                    maxQueueNanos.accumulateAndGet(startNanos - queuedNanos, Math::max);
+                    totalHandlerNanos.addAndGet(handlerNanos);
+                    maxHandlerNanos.accumulateAndGet(handlerNanos, Math::max);
+                    logger.trace("Script event loop task waited {} ms, ran {} ms, {} tasks queued",
+                            TimeUnit.NANOSECONDS.toMillis(startNanos - queuedNanos),
+                            TimeUnit.NANOSECONDS.toMillis(handlerNanos), queueDepth.get());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            queueDepth.decrementAndGet();
+            throw e;
+        }
+    }
+}
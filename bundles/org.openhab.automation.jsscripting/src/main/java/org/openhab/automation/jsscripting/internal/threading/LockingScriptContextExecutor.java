@@ -0,0 +1,57 @@
+/**
+ * Copyright (c) 2010-2023 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.automation.jsscripting.internal.threading;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.locks.Lock;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * A {@link ScriptContextExecutor} that runs tasks on the calling thread while holding the {@link Lock} of the script
+ * engine, so that callers block while the context is used by another thread.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class LockingScriptContextExecutor implements ScriptContextExecutor {
+    private final Lock lock;
+
+    public LockingScriptContextExecutor(Lock lock) {
+        this.lock = lock;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        lock.lock();
+        try {
+            task.run();
+        } finally { // Make sure that Lock is unlocked regardless of an exception is thrown or not to avoid deadlocks
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public <T> T call(Callable<T> task) throws Exception {
+        lock.lock();
+        try {
+            return task.call();
+        } finally { // Make sure that Lock is unlocked regardless of an exception is thrown or not to avoid deadlocks
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,50 @@
+/**
+ * Copyright (c) 2010-2023 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.automation.jsscripting.internal.threading;
+
+import java.util.concurrent.Callable;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Controls the multithreaded access to a single-threaded GraalJS context, either by synchronizing the calling threads
+ * with a lock ({@link LockingScriptContextExecutor}) or by running all code on an event loop
+ * ({@link EventLoopScriptContextExecutor}).
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public interface ScriptContextExecutor {
+
+    /**
+     * Runs a task that does not return a result, e.g. a timer callback. Depending on the
+     * implementation, the task runs before this method returns or it is queued.
+     *
+     * @param task the task accessing the context
+     */
+    void execute(Runnable task);
+
+    /**
+     * Runs a task and waits for its result.
+     *
+     * @param task the task accessing the context
+     * @return the result of the task
+     * @throws Exception the exception thrown by the task
+     */
+    <T> T call(Callable<T> task) throws Exception;
+
+    /**
+     * Stops running tasks, called when the script engine is closed.
+     */
+    void close();
+}
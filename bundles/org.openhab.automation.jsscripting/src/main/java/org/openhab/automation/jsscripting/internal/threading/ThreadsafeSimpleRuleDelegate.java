@@ -15,7 +15,6 @@ package org.openhab.automation.jsscripting.internal.threading;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.locks.Lock;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -35,32 +34,35 @@ import org.openhab.core.config.core.Configuration;
  * for rules which wrap GraalJS Contexts, which are not multithreaded.
  *
  * @author Jonathan Gilbert - Initial contribution
+ * @author openHAB Contributors - Run rule executions through the {@link ScriptContextExecutor}
  */
 @NonNullByDefault
 class ThreadsafeSimpleRuleDelegate implements Rule, SimpleRuleActionHandler {
 
-    private final Lock lock;
+    private final ScriptContextExecutor executor;
     private final SimpleRule delegate;
 
     /**
-     * Constructor requires a lock object and delegate to forward invocations to.
+     * Constructor requires an executor and delegate to forward invocations to.
      *
-     * @param lock rule executions will synchronize on this object
+     * @param executor rule executions will be run by this executor
      * @param delegate the delegate to forward invocations to
      */
-    ThreadsafeSimpleRuleDelegate(Lock lock, SimpleRule delegate) {
-        this.lock = lock;
+    ThreadsafeSimpleRuleDelegate(ScriptContextExecutor executor, SimpleRule delegate) {
+        this.executor = executor;
         this.delegate = delegate;
     }
 
     @Override
     @NonNullByDefault({})
     public Object execute(Action module, Map<String, ?> inputs) {
-        lock.lock();
+        // the rule engine expects the rule to be finished when this method returns
         try {
-            return delegate.execute(module, inputs);
-        } finally { // Make sure that Lock is unlocked regardless of an exception is thrown or not to avoid deadlocks
-            lock.unlock();
+            return executor.call(() -> delegate.execute(module, inputs));
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
         }
     }
 
@@ -19,7 +19,6 @@ import java.time.temporal.Temporal;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.locks.Lock;
 
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.core.automation.module.script.action.ScriptExecution;
@@ -34,9 +33,10 @@ import org.openhab.core.scheduler.SchedulerTemporalAdjuster;
  *
  * @author Florian Hotze - Initial contribution; Reimplementation to conform standard JS setTimeout and setInterval;
  *         Threadsafe reimplementation of the timer creation methods of {@link ScriptExecution}
+ * @author openHAB Contributors - Run callbacks through the {@link ScriptContextExecutor}
  */
 public class ThreadsafeTimers {
-    private final Lock lock;
+    private final ScriptContextExecutor executor;
     private final Scheduler scheduler;
     private final ScriptExecution scriptExecution;
     // Mapping of positive, non-zero integer values (used as timeoutID or intervalID) and the Scheduler
@@ -44,8 +44,8 @@ public class ThreadsafeTimers {
     private AtomicLong lastId = new AtomicLong();
     private String identifier = "noIdentifier";
 
-    public ThreadsafeTimers(Lock lock, ScriptExecution scriptExecution, Scheduler scheduler) {
-        this.lock = lock;
+    public ThreadsafeTimers(ScriptContextExecutor executor, ScriptExecution scriptExecution, Scheduler scheduler) {
+        this.executor = executor;
         this.scheduler = scheduler;
         this.scriptExecution = scriptExecution;
     }
@@ -79,15 +79,7 @@ public class ThreadsafeTimers {
      * @return a handle to the created timer, so that it can be canceled or rescheduled
      */
     public Timer createTimer(@Nullable String identifier, ZonedDateTime instant, Runnable closure) {
-        return scriptExecution.createTimer(identifier, instant, () -> {
-            lock.lock();
-            try {
-                closure.run();
-            } finally { // Make sure that Lock is unlocked regardless of an exception is thrown or not to avoid
-                        // deadlocks
-                lock.unlock();
-            }
-        });
+        return scriptExecution.createTimer(identifier, instant, () -> executor.execute(closure));
     }
 
     /**
@@ -101,16 +93,13 @@ public class ThreadsafeTimers {
      */
     public long setTimeout(Runnable callback, Long delay) {
         long id = lastId.incrementAndGet();
-        ScheduledCompletableFuture<Object> future = scheduler.schedule(() -> {
-            lock.lock();
-            try {
+        ScheduledCompletableFuture<Object> future = scheduler.schedule(() -> executor.execute(() -> {
+            // the timeout may have been cleared while the callback was queued
+            if (idSchedulerMapping.containsKey(id)) {
                 callback.run();
                 idSchedulerMapping.remove(id);
-            } finally { // Make sure that Lock is unlocked regardless of an exception is thrown or not to avoid
-                        // deadlocks
-                lock.unlock();
             }
-        }, identifier + ".timeout." + id, Instant.now().plusMillis(delay));
+        }), identifier + ".timeout." + id, Instant.now().plusMillis(delay));
         idSchedulerMapping.put(id, future);
         return id;
     }
@@ -140,15 +129,12 @@ public class ThreadsafeTimers {
      */
     public long setInterval(Runnable callback, Long delay) {
         long id = lastId.incrementAndGet();
-        ScheduledCompletableFuture<Object> future = scheduler.schedule(() -> {
-            lock.lock();
-            try {
+        ScheduledCompletableFuture<Object> future = scheduler.schedule(() -> executor.execute(() -> {
+            // the interval may have been cleared while the callback was queued
+            if (idSchedulerMapping.containsKey(id)) {
                 callback.run();
-            } finally { // Make sure that Lock is unlocked regardless of an exception is thrown or not to avoid
-                        // deadlocks
-                lock.unlock();
             }
-        }, identifier + ".interval." + id, new LoopingAdjuster(Duration.ofMillis(delay)));
+        }), identifier + ".interval." + id, new LoopingAdjuster(Duration.ofMillis(delay)));
         idSchedulerMapping.put(id, future);
         return id;
     }
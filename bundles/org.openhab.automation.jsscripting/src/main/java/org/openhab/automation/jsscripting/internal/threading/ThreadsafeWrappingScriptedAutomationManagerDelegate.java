@@ -13,8 +13,6 @@
 
 package org.openhab.automation.jsscripting.internal.threading;
 
-import java.util.concurrent.locks.Lock;
-
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.openhab.core.automation.Rule;
 import org.openhab.core.automation.module.script.rulesupport.shared.ScriptedAutomationManager;
@@ -33,18 +31,20 @@ import org.openhab.core.automation.type.TriggerType;
  * instance of this class that they are registered with.
  *
  * @author Jonathan Gilbert - Initial contribution
- * @author Florian Hotze - Pass in lock object for multi-thread synchronization; Switch to {@link Lock} for multi-thread
+ * @author Florian Hotze - Pass in lock object for multi-thread synchronization; Switch to Lock for multi-thread
  *         synchronization
+ * @author openHAB Contributors - Switch to {@link ScriptContextExecutor} for multi-thread synchronization
  */
 @NonNullByDefault
 public class ThreadsafeWrappingScriptedAutomationManagerDelegate {
 
     private ScriptedAutomationManager delegate;
-    private final Lock lock;
+    private final ScriptContextExecutor executor;
 
-    public ThreadsafeWrappingScriptedAutomationManagerDelegate(ScriptedAutomationManager delegate, Lock lock) {
+    public ThreadsafeWrappingScriptedAutomationManagerDelegate(ScriptedAutomationManager delegate,
+            ScriptContextExecutor executor) {
         this.delegate = delegate;
-        this.lock = lock;
+        this.executor = executor;
     }
 
     public void removeModuleType(String UID) {
@@ -66,7 +66,7 @@ public class ThreadsafeWrappingScriptedAutomationManagerDelegate {
     public Rule addRule(Rule element) {
         // wrap in a threadsafe version, safe per context
         if (element instanceof SimpleRule rule) {
-            element = new ThreadsafeSimpleRuleDelegate(lock, rule);
+            element = new ThreadsafeSimpleRuleDelegate(executor, rule);
         }
 
         return delegate.addRule(element);
@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) 2010-2023 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.automation.jsscripting.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the {@link GraalJSScriptEnginePool}.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class GraalJSScriptEnginePoolTest {
+    private final List<TestEngine> createdEngines = new ArrayList<>();
+    private final List<Runnable> queuedTasks = new ArrayList<>();
+
+    private static class TestEngine implements GraalJSScriptEnginePool.PreparableEngine {
+        boolean prepared;
+        boolean closed;
+
+        @Override
+        public void prepare() {
+            prepared = true;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    private GraalJSScriptEnginePool<TestEngine> createPool(int size, Executor executor) {
+        return new GraalJSScriptEnginePool<>(() -> {
+            TestEngine engine = new TestEngine();
+            createdEngines.add(engine);
+            return engine;
+        }, size, executor);
+    }
+
+    @Test
+    public void borrowedEnginesArePreparedAndHandedOutOnce() {
+        GraalJSScriptEnginePool<TestEngine> pool = createPool(2, Runnable::run);
+        assertEquals(2, pool.getAvailableCount());
+
+        List<TestEngine> borrowed = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            TestEngine engine = pool.borrow();
+            assertTrue(engine.prepared);
+            assertFalse(engine.closed);
+            assertFalse(borrowed.contains(engine));
+            borrowed.add(engine);
+            // the pool is refilled after every borrowed engine
+            assertEquals(2, pool.getAvailableCount());
+        }
+
+        assertEquals(5, createdEngines.size());
+        assertEquals(3, pool.getPooledCount());
+        assertEquals(0, pool.getCreatedOnDemandCount());
+    }
+
+    @Test
+    public void engineIsCreatedOnDemandIfPoolIsEmpty() {
+        GraalJSScriptEnginePool<TestEngine> pool = createPool(2, queuedTasks::add);
+        assertEquals(0, pool.getAvailableCount());
+
+        TestEngine engine = pool.borrow();
+
+        assertFalse(engine.prepared);
+        assertEquals(1, pool.getCreatedOnDemandCount());
+        // only one refill is queued at a time
+        assertEquals(1, queuedTasks.size());
+        queuedTasks.get(0).run();
+        assertEquals(2, pool.getAvailableCount());
+        assertNotSame(engine, pool.borrow());
+    }
+
+    @Test
+    public void closingThePoolClosesPreparedEngines() {
+        GraalJSScriptEnginePool<TestEngine> pool = createPool(2, Runnable::run);
+        TestEngine borrowed = pool.borrow();
+
+        pool.close();
+
+        assertEquals(0, pool.getAvailableCount());
+        assertFalse(borrowed.closed);
+        assertEquals(2, createdEngines.stream().filter(engine -> engine.closed).count());
+        // no engines are prepared after the pool was closed
+        pool.borrow();
+        assertEquals(4, createdEngines.size());
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2010-2023 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.automation.jsscripting.internal.threading;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the {@link EventLoopScriptContextExecutor}.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class EventLoopScriptContextExecutorTest {
+    private final EventLoopScriptContextExecutor executor = new EventLoopScriptContextExecutor(
+            Duration.ofMillis(100));
+
+    @AfterEach
+    public void tearDown() {
+        executor.close();
+    }
+
+    @Test
+    public void tasksRunInOrderOnOneThread() throws Exception {
+        List<Integer> values = new ArrayList<>();
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        for (int i = 0; i < 100; i++) {
+            int value = i;
+            executor.execute(() -> {
+                values.add(value);
+                threads.add(Thread.currentThread());
+            });
+        }
+
+        List<Integer> result = executor.call(() -> new ArrayList<>(values));
+
+        assertEquals(100, result.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, result.get(i));
+        }
+        assertEquals(1, threads.size());
+        assertFalse(threads.contains(Thread.currentThread()));
+        assertEquals(101, executor.getHandledCount());
+        assertEquals(0, executor.getQueueDepth());
+    }
+
+    @Test
+    public void callsOnTheEventLoopRunImmediately() throws Exception {
+        assertEquals(1, executor.call(() -> executor.call(() -> 1)));
+    }
+
+    @Test
+    public void exceptionsOfCallsAreThrown() {
+        assertThrows(IOException.class, () -> executor.call(() -> {
+            throw new IOException("failed");
+        }));
+    }
+
+    @Test
+    public void failingTaskDoesNotStopTheEventLoop() throws Exception {
+        executor.execute(() -> {
+            throw new IllegalStateException("failed");
+        });
+
+        assertEquals("next", executor.call(() -> "next"));
+    }
+
+    @Test
+    public void threadStopsWhenIdleAndIsStartedAgain() throws Exception {
+        Thread thread = executor.call(Thread::currentThread);
+
+        thread.join(5000);
+        assertFalse(thread.isAlive());
+
+        Thread nextThread = executor.call(Thread::currentThread);
+        assertNotSame(thread, nextThread);
+        assertTrue(nextThread.isAlive());
+    }
+}
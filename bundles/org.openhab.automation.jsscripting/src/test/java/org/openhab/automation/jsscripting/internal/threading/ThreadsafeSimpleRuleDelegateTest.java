@@ -0,0 +1,62 @@
+/**
+ * Copyright (c) 2010-2023 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.automation.jsscripting.internal.threading;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.core.automation.Action;
+import org.openhab.core.automation.module.script.rulesupport.shared.simple.SimpleRule;
+
+/**
+ * Tests that the {@link ThreadsafeSimpleRuleDelegate} runs rules on the event loop and waits for them.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class ThreadsafeSimpleRuleDelegateTest {
+    private final EventLoopScriptContextExecutor executor = new EventLoopScriptContextExecutor(Duration.ofSeconds(1));
+    private final SimpleRule ruleMock = mock(SimpleRule.class);
+    private final Action actionMock = mock(Action.class);
+
+    @AfterEach
+    public void tearDown() {
+        executor.close();
+    }
+
+    @Test
+    public void ruleExecutionReturnsTheResultOfTheRule() {
+        when(ruleMock.execute(any(), any())).thenAnswer(invocation -> Thread.currentThread());
+
+        Object result = new ThreadsafeSimpleRuleDelegate(executor, ruleMock).execute(actionMock, Map.of());
+
+        assertNotNull(result);
+        assertNotSame(Thread.currentThread(), result);
+    }
+
+    @Test
+    public void ruleExecutionThrowsTheExceptionOfTheRule() {
+        when(ruleMock.execute(any(), any())).thenThrow(new IllegalStateException("failed"));
+
+        ThreadsafeSimpleRuleDelegate rule = new ThreadsafeSimpleRuleDelegate(executor, ruleMock);
+
+        assertThrows(IllegalStateException.class, () -> rule.execute(actionMock, Map.of()));
+    }
+}
@@ -0,0 +1,121 @@
+/**
+ * Copyright (c) 2010-2023 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.automation.jsscripting.internal.threading;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.openhab.core.automation.module.script.action.ScriptExecution;
+import org.openhab.core.scheduler.ScheduledCompletableFuture;
+import org.openhab.core.scheduler.Scheduler;
+import org.openhab.core.scheduler.SchedulerRunnable;
+import org.openhab.core.scheduler.SchedulerTemporalAdjuster;
+
+/**
+ * Tests that the callbacks of {@link ThreadsafeTimers} that are cleared while queued do not run.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@NonNullByDefault
+public class ThreadsafeTimersTest {
+    private @Mock @NonNullByDefault({}) Scheduler schedulerMock;
+    private @Mock @NonNullByDefault({}) ScriptExecution scriptExecutionMock;
+    private @Mock @NonNullByDefault({}) ScheduledCompletableFuture<Object> futureMock;
+
+    private final List<SchedulerRunnable> scheduledRunnables = new ArrayList<>();
+    private final List<Runnable> queuedTasks = new ArrayList<>();
+    private final List<String> calls = new ArrayList<>();
+    private @NonNullByDefault({}) ThreadsafeTimers timers;
+
+    @BeforeEach
+    public void setup() {
+        when(schedulerMock.schedule(any(SchedulerRunnable.class), anyString(), any(Instant.class)))
+                .thenAnswer(invocation -> {
+                    scheduledRunnables.add(invocation.getArgument(0));
+                    return futureMock;
+                });
+        when(schedulerMock.schedule(any(SchedulerRunnable.class), anyString(), any(SchedulerTemporalAdjuster.class)))
+                .thenAnswer(invocation -> {
+                    scheduledRunnables.add(invocation.getArgument(0));
+                    return futureMock;
+                });
+        // queues the callbacks like the event loop, so that they can be cleared before they run
+        ScriptContextExecutor queuingExecutor = new ScriptContextExecutor() {
+            @Override
+            public void execute(Runnable task) {
+                queuedTasks.add(task);
+            }
+
+            @Override
+            public <T> T call(Callable<T> task) throws Exception {
+                return task.call();
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        timers = new ThreadsafeTimers(queuingExecutor, scriptExecutionMock, schedulerMock);
+    }
+
+    @Test
+    public void queuedTimeoutRuns() throws Exception {
+        timers.setTimeout(() -> calls.add("timeout"), 10L);
+        scheduledRunnables.get(0).run();
+
+        queuedTasks.get(0).run();
+
+        assertEquals(List.of("timeout"), calls);
+    }
+
+    @Test
+    public void timeoutClearedWhileQueuedDoesNotRun() throws Exception {
+        long id = timers.setTimeout(() -> calls.add("timeout"), 10L);
+        scheduledRunnables.get(0).run();
+
+        timers.clearTimeout(id);
+        queuedTasks.get(0).run();
+
+        verify(futureMock).cancel(true);
+        assertEquals(List.of(), calls);
+    }
+
+    @Test
+    public void intervalClearedWhileQueuedDoesNotRunAgain() throws Exception {
+        long id = timers.setInterval(() -> calls.add("interval"), 10L);
+        scheduledRunnables.get(0).run();
+        scheduledRunnables.get(0).run();
+
+        queuedTasks.get(0).run();
+        timers.clearInterval(id);
+        queuedTasks.get(1).run();
+
+        assertEquals(List.of("interval"), calls);
+    }
+}
@@ -41,4 +41,19 @@ public class LowpassFilter {
 
         return output;
     }
+
+    /**
+     * Executes one low pass filter step for a range of filters, whose values are stored in arrays.
+     *
+     * @param outputs the current filter values, which are replaced by the new filter values
+     * @param newValues the just sampled values
+     * @param timeQuotients quotients of the current time and the time constant
+     * @param from the index of the first filter, inclusive
+     * @param to the index of the last filter, exclusive
+     */
+    public static void calculate(double[] outputs, double[] newValues, double[] timeQuotients, int from, int to) {
+        for (int i = from; i < to; i++) {
+            outputs[i] = calculate(outputs[i], newValues[i], timeQuotients[i]);
+        }
+    }
 }
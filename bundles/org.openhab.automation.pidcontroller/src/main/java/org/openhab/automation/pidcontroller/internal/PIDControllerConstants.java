@@ -28,6 +28,7 @@ public class PIDControllerConstants {
     public static final String CONFIG_SETPOINT_ITEM = "setpoint";
     public static final String CONFIG_COMMAND_ITEM = "commandItem";
     public static final String CONFIG_LOOP_TIME = "loopTime";
+    public static final String CONFIG_GROUPED_LOOP = "groupedLoop";
     public static final String CONFIG_KP_GAIN = "kp";
     public static final String CONFIG_KI_GAIN = "ki";
     public static final String CONFIG_KD_GAIN = "kd";
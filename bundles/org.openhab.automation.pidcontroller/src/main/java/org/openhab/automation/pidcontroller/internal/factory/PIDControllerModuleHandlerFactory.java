@@ -17,6 +17,8 @@ import java.util.Set;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.automation.pidcontroller.internal.handler.PIDControllerEventDispatcher;
+import org.openhab.automation.pidcontroller.internal.handler.PIDControllerGroupRegistry;
 import org.openhab.automation.pidcontroller.internal.handler.PIDControllerTriggerHandler;
 import org.openhab.core.automation.Module;
 import org.openhab.core.automation.Trigger;
@@ -25,7 +27,6 @@ import org.openhab.core.automation.handler.ModuleHandler;
 import org.openhab.core.automation.handler.ModuleHandlerFactory;
 import org.openhab.core.events.EventPublisher;
 import org.openhab.core.items.ItemRegistry;
-import org.osgi.framework.BundleContext;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Reference;
@@ -40,14 +41,17 @@ public class PIDControllerModuleHandlerFactory extends BaseModuleHandlerFactory
     private static final Collection<String> TYPES = Set.of(PIDControllerTriggerHandler.MODULE_TYPE_ID);
     private ItemRegistry itemRegistry;
     private EventPublisher eventPublisher;
-    private BundleContext bundleContext;
+    private PIDControllerEventDispatcher eventDispatcher;
+    private PIDControllerGroupRegistry groupRegistry;
 
     @Activate
     public PIDControllerModuleHandlerFactory(@Reference ItemRegistry itemRegistry,
-            @Reference EventPublisher eventPublisher, BundleContext bundleContext) {
+            @Reference EventPublisher eventPublisher, @Reference PIDControllerEventDispatcher eventDispatcher,
+            @Reference PIDControllerGroupRegistry groupRegistry) {
         this.itemRegistry = itemRegistry;
         this.eventPublisher = eventPublisher;
-        this.bundleContext = bundleContext;
+        this.eventDispatcher = eventDispatcher;
+        this.groupRegistry = groupRegistry;
     }
 
     @Override
@@ -59,7 +63,8 @@ public class PIDControllerModuleHandlerFactory extends BaseModuleHandlerFactory
     protected @Nullable ModuleHandler internalCreate(Module module, String ruleUID) {
         switch (module.getTypeUID()) {
             case PIDControllerTriggerHandler.MODULE_TYPE_ID:
-                return new PIDControllerTriggerHandler((Trigger) module, itemRegistry, eventPublisher, bundleContext);
+                return new PIDControllerTriggerHandler((Trigger) module, itemRegistry, eventPublisher, eventDispatcher,
+                        groupRegistry);
         }
 
         return null;
@@ -22,6 +22,7 @@ import org.openhab.automation.pidcontroller.internal.LowpassFilter;
  * @author George Erhan - Initial contribution
  * @author Hilbrand Bouwkamp - Adapted for new rule engine
  * @author Fabian Wolter - Add T1 to D part, add debugging ability for PID values
+ * @author openHAB Contributors - Access to the state for {@link PIDControllerGroup}s
  */
 @NonNullByDefault
 class PIDController {
@@ -111,4 +112,42 @@ class PIDController {
     public void setDerivativeResult(double derivativeResult) {
         this.derivativeResult = derivativeResult;
     }
+
+    // the parameters and the restored state are copied when the controller joins a group
+
+    double getKp() {
+        return kp;
+    }
+
+    double getKi() {
+        return ki;
+    }
+
+    double getKd() {
+        return kd;
+    }
+
+    double getDerivativeTimeConstantSec() {
+        return derivativeTimeConstantSec;
+    }
+
+    double getIMinResult() {
+        return iMinResult;
+    }
+
+    double getIMaxResult() {
+        return iMaxResult;
+    }
+
+    double getIntegralResult() {
+        return integralResult;
+    }
+
+    double getDerivativeResult() {
+        return derivativeResult;
+    }
+
+    double getPreviousError() {
+        return previousError;
+    }
 }
@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) 2010-2023 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.automation.pidcontroller.internal.handler;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.events.Event;
+import org.openhab.core.events.EventFilter;
+import org.openhab.core.events.EventSubscriber;
+import org.openhab.core.items.events.ItemStateChangedEvent;
+import org.osgi.service.component.annotations.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Single {@link EventSubscriber} of the bundle, which routes the state changes of items to the PID controller trigger
+ * handlers that subscribed to these items. This way each event is looked up once by its item name, instead of being
+ * filtered by an event subscriber per rule.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@Component(service = { EventSubscriber.class, PIDControllerEventDispatcher.class })
+@NonNullByDefault
+public class PIDControllerEventDispatcher implements EventSubscriber {
+    private static final Set<String> SUBSCRIBED_EVENT_TYPES = Set.of(ItemStateChangedEvent.TYPE);
+    private final Logger logger = LoggerFactory.getLogger(PIDControllerEventDispatcher.class);
+    private final Map<String, Set<Consumer<ItemStateChangedEvent>>> listeners = new ConcurrentHashMap<>();
+
+    /**
+     * Subscribes a listener to the state changes of an item
+     *
+     * @param itemName the name of the item
+     * @param listener the listener
+     */
+    public void subscribe(String itemName, Consumer<ItemStateChangedEvent> listener) {
+        listeners.compute(itemName, (name, itemListeners) -> {
+            Set<Consumer<ItemStateChangedEvent>> localItemListeners = itemListeners != null ? itemListeners
+                    : new CopyOnWriteArraySet<>();
+            localItemListeners.add(listener);
+            return localItemListeners;
+        });
+    }
+
+    /**
+     * Unsubscribes a listener from all items
+     *
+     * @param listener the listener
+     */
+    public void unsubscribe(Consumer<ItemStateChangedEvent> listener) {
+        for (String itemName : listeners.keySet()) {
+            listeners.computeIfPresent(itemName, (name, itemListeners) -> {
+                itemListeners.remove(listener);
+                return itemListeners.isEmpty() ? null : itemListeners;
+            });
+        }
+    }
+
+    /**
+     * @return the number of items with subscribed listeners
+     */
+    int getSubscribedItemCount() {
+        return listeners.size();
+    }
+
+    @Override
+    public Set<String> getSubscribedEventTypes() {
+        return SUBSCRIBED_EVENT_TYPES;
+    }
+
+    @Override
+    public @Nullable EventFilter getEventFilter() {
+        return null;
+    }
+
+    @Override
+    public void receive(Event event) {
+        if (event instanceof ItemStateChangedEvent changedEvent) {
+            Set<Consumer<ItemStateChangedEvent>> itemListeners = listeners.get(changedEvent.getItemName());
+            if (itemListeners != null) {
+                for (Consumer<ItemStateChangedEvent> listener : itemListeners) {
+                    try {
+                        listener.accept(changedEvent);
+                    } catch (RuntimeException e) {
+                        logger.warn("Failed to handle state change of item '{}': {}", changedEvent.getItemName(),
+                                e.getMessage(), e);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,427 @@
+/**
+ * Copyright (c) 2010-2023 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.automation.pidcontroller.internal.handler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.automation.pidcontroller.internal.LowpassFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Group of PID controllers with the same loop time, which are calculated together in one scheduled tick.
+ *
+ * The parameters and the state of the controllers are stored in primitive arrays, one slot per controller, and a tick
+ * calculates all slots in one pass over these arrays. The calculation is the same as the one of
+ * {@link PIDController#calculate(double, double, long, int)}. The ticks are scheduled at a fixed rate, so that the
+ * controllers are calculated at deterministic points in time, in the order of their slots. The jitter of the ticks and
+ * the time of the calculation are measured.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+class PIDControllerGroup {
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * A controller of the group, which provides the input and setpoint and receives the output in each tick.
+     */
+    interface Member {
+        /**
+         * @return the current input value, or {@link Double#NaN} if it is not available
+         */
+        double readInput();
+
+        /**
+         * @return the current setpoint, or {@link Double#NaN} if it is not available
+         */
+        double readSetpoint();
+
+        /**
+         * @param output the result of the calculation of the tick
+         */
+        void publish(PIDOutputDTO output);
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(PIDControllerGroup.class);
+    private final int loopTimeMs;
+
+    private int size;
+    private @Nullable Member[] members = new @Nullable Member[INITIAL_CAPACITY];
+
+    // parameters
+    private double[] kps = new double[INITIAL_CAPACITY];
+    private double[] kis = new double[INITIAL_CAPACITY];
+    private double[] kds = new double[INITIAL_CAPACITY];
+    private double[] derivativeTimeConstantsSec = new double[INITIAL_CAPACITY];
+    private double[] iMinResults = new double[INITIAL_CAPACITY];
+    private double[] iMaxResults = new double[INITIAL_CAPACITY];
+
+    // state, the derivative results are the state of the low pass filters of the D-parts
+    private double[] integralResults = new double[INITIAL_CAPACITY];
+    private double[] derivativeResults = new double[INITIAL_CAPACITY];
+    private double[] previousErrors = new double[INITIAL_CAPACITY];
+    private long[] previousTimesMs = new long[INITIAL_CAPACITY];
+
+    // values of the current calculation
+    private boolean[] sampled = new boolean[INITIAL_CAPACITY];
+    private double[] inputs = new double[INITIAL_CAPACITY];
+    private double[] setpoints = new double[INITIAL_CAPACITY];
+    private long[] elapsedTimesMs = new long[INITIAL_CAPACITY];
+    private double[] errors = new double[INITIAL_CAPACITY];
+    private double[] errorDeltas = new double[INITIAL_CAPACITY];
+    private double[] timeQuotients = new double[INITIAL_CAPACITY];
+    private double[] proportionalParts = new double[INITIAL_CAPACITY];
+    private double[] integralParts = new double[INITIAL_CAPACITY];
+    private double[] derivativeParts = new double[INITIAL_CAPACITY];
+    private double[] outputs = new double[INITIAL_CAPACITY];
+
+    private @Nullable ScheduledFuture<?> tickJob;
+
+    // metrics, only updated by the tick job
+    private long firstTickNanos;
+    private volatile long tickCount;
+    private volatile long lastJitterNanos;
+    private volatile long maxJitterNanos;
+    private volatile long lastComputationNanos;
+    private volatile long maxComputationNanos;
+    private volatile long totalComputationNanos;
+
+    PIDControllerGroup(int loopTimeMs) {
+        this.loopTimeMs = loopTimeMs;
+    }
+
+    int getLoopTimeMs() {
+        return loopTimeMs;
+    }
+
+    /**
+     * Adds a controller to the group
+     *
+     * @param controller the controller with the parameters and the restored state
+     * @param member provides the values of the controller in each tick
+     * @return the slot of the controller
+     */
+    int add(PIDController controller, Member member) {
+        return add(controller, member, System.currentTimeMillis());
+    }
+
+    /**
+     * Adds a controller to the group
+     *
+     * @param controller the controller with the parameters and the restored state
+     * @param member provides the values of the controller in each tick
+     * @param nowMs the current time in milliseconds, the start of the first loop of the controller
+     * @return the slot of the controller
+     */
+    synchronized int add(PIDController controller, Member member, long nowMs) {
+        int slot = 0;
+        while (slot < size && members[slot] != null) {
+            slot++;
+        }
+        if (slot == size) {
+            if (size == members.length) {
+                grow(size * 2);
+            }
+            size++;
+        }
+
+        members[slot] = member;
+        kps[slot] = controller.getKp();
+        kis[slot] = controller.getKi();
+        kds[slot] = controller.getKd();
+        derivativeTimeConstantsSec[slot] = controller.getDerivativeTimeConstantSec();
+        iMinResults[slot] = controller.getIMinResult();
+        iMaxResults[slot] = controller.getIMaxResult();
+        integralResults[slot] = controller.getIntegralResult();
+        derivativeResults[slot] = controller.getDerivativeResult();
+        previousErrors[slot] = controller.getPreviousError();
+        previousTimesMs[slot] = nowMs;
+        sampled[slot] = false;
+        return slot;
+    }
+
+    /**
+     * Removes a controller from the group, its slot is reused by the next added controller
+     *
+     * @param slot the slot of the controller
+     */
+    synchronized void remove(int slot) {
+        members[slot] = null;
+        sampled[slot] = false;
+        while (size > 0 && members[size - 1] == null) {
+            size--;
+        }
+    }
+
+    /**
+     * @return the number of controllers of the group
+     */
+    synchronized int getMemberCount() {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (members[i] != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Calculates a single controller outside of the ticks, e.g. when its input changed
+     *
+     * @param slot the slot of the controller
+     * @param input the input value
+     * @param setpoint the setpoint
+     * @param nowMs the current time in milliseconds
+     * @return the result of the calculation
+     */
+    synchronized PIDOutputDTO calculate(int slot, double input, double setpoint, long nowMs) {
+        inputs[slot] = input;
+        setpoints[slot] = setpoint;
+        sampled[slot] = true;
+        calculate(slot, slot + 1, nowMs);
+        return getOutput(slot);
+    }
+
+    /**
+     * Resets the I- and the D-part of a controller
+     *
+     * @param slot the slot of the controller
+     */
+    synchronized void reset(int slot) {
+        integralResults[slot] = 0;
+        derivativeResults[slot] = 0;
+    }
+
+    /**
+     * Starts the ticks of the group
+     *
+     * @param scheduler the scheduler for the ticks
+     */
+    synchronized void start(ScheduledExecutorService scheduler) {
+        firstTickNanos = System.nanoTime();
+        tickJob = scheduler.scheduleAtFixedRate(this::tick, 0, loopTimeMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the ticks of the group
+     */
+    synchronized void stop() {
+        ScheduledFuture<?> localTickJob = tickJob;
+        if (localTickJob != null) {
+            localTickJob.cancel(false);
+            tickJob = null;
+        }
+        logger.debug("Stopped PID controller group with loop time {} ms after {} ticks, max jitter {} ms, "
+                + "average computation time {} µs, max computation time {} µs", loopTimeMs, getTickCount(),
+                getMaxJitter().toMillis(), getAverageComputationTime().toNanos() / 1000,
+                getMaxComputationTime().toNanos() / 1000);
+    }
+
+    /**
+     * Samples the inputs and setpoints of all controllers, calculates them and publishes their outputs
+     */
+    void tick() {
+        long startNanos = System.nanoTime();
+        List<Member> tickMembers = new ArrayList<>();
+        List<PIDOutputDTO> tickOutputs = new ArrayList<>();
+
+        try {
+            synchronized (this) {
+                for (int i = 0; i < size; i++) {
+                    Member member = members[i];
+                    sampled[i] = false;
+                    if (member != null) {
+                        double input = member.readInput();
+                        double setpoint = member.readSetpoint();
+                        if (Double.isFinite(input) && Double.isFinite(setpoint)) {
+                            inputs[i] = input;
+                            setpoints[i] = setpoint;
+                            sampled[i] = true;
+                        }
+                    }
+                }
+
+                calculate(0, size, System.currentTimeMillis());
+
+                for (int i = 0; i < size; i++) {
+                    Member member = members[i];
+                    if (member != null && sampled[i]) {
+                        tickMembers.add(member);
+                        tickOutputs.add(getOutput(i));
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            // an exception would cancel the following ticks
+            logger.warn("Failed to calculate PID controller group with loop time {} ms: {}", loopTimeMs,
+                    e.getMessage(), e);
+        }
+        long computationNanos = System.nanoTime() - startNanos;
+
+        for (int i = 0; i < tickMembers.size(); i++) {
+            try {
+                tickMembers.get(i).publish(tickOutputs.get(i));
+            } catch (RuntimeException e) {
+                logger.warn("Failed to publish PID controller output: {}", e.getMessage(), e);
+            }
+        }
+
+        updateMetrics(startNanos, computationNanos);
+        logger.trace("Calculated {} PID controllers with loop time {} ms in {} µs, jitter {} µs", tickMembers.size(),
+                loopTimeMs, computationNanos / 1000, lastJitterNanos / 1000);
+    }
+
+    /**
+     * @return the number of ticks of the group
+     */
+    long getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * @return the deviation of the last tick from its scheduled time
+     */
+    Duration getLastJitter() {
+        return Duration.ofNanos(lastJitterNanos);
+    }
+
+    /**
+     * @return the largest deviation of a tick from its scheduled time
+     */
+    Duration getMaxJitter() {
+        return Duration.ofNanos(maxJitterNanos);
+    }
+
+    /**
+     * @return the time the sampling and calculation of the last tick took
+     */
+    Duration getLastComputationTime() {
+        return Duration.ofNanos(lastComputationNanos);
+    }
+
+    /**
+     * @return the longest time the sampling and calculation of a tick took
+     */
+    Duration getMaxComputationTime() {
+        return Duration.ofNanos(maxComputationNanos);
+    }
+
+    /**
+     * @return the average time the sampling and calculation of a tick took
+     */
+    Duration getAverageComputationTime() {
+        long count = tickCount;
+        return count == 0 ? Duration.ZERO : Duration.ofNanos(totalComputationNanos / count);
+    }
+
+    private void updateMetrics(long startNanos, long computationNanos) {
+        long count = tickCount;
+        long jitterNanos = Math.abs(startNanos - (firstTickNanos + count * TimeUnit.MILLISECONDS.toNanos(loopTimeMs)));
+        lastJitterNanos = jitterNanos;
+        maxJitterNanos = Math.max(maxJitterNanos, jitterNanos);
+        lastComputationNanos = computationNanos;
+        maxComputationNanos = Math.max(maxComputationNanos, computationNanos);
+        totalComputationNanos += computationNanos;
+        tickCount = count + 1;
+    }
+
+    /**
+     * Calculates the sampled controllers of a range of slots
+     */
+    private void calculate(int from, int to, long nowMs) {
+        for (int i = from; i < to; i++) {
+            if (!sampled[i]) {
+                // keeps the D-part
+                errorDeltas[i] = 0;
+                timeQuotients[i] = 0;
+                continue;
+            }
+            long elapsedTimeMs = nowMs - previousTimesMs[i];
+            previousTimesMs[i] = nowMs;
+            elapsedTimesMs[i] = elapsedTimeMs;
+            errors[i] = setpoints[i] - inputs[i];
+            errorDeltas[i] = errors[i] - previousErrors[i];
+            // a time quotient of 0 keeps the D-part, if it has no T1
+            double derivativeTimeConstantSec = derivativeTimeConstantsSec[i];
+            timeQuotients[i] = derivativeTimeConstantSec != 0 ? elapsedTimeMs / 1000d / derivativeTimeConstantSec : 0;
+        }
+
+        // derivative T1 calculation
+        LowpassFilter.calculate(derivativeResults, errorDeltas, timeQuotients, from, to);
+
+        for (int i = from; i < to; i++) {
+            if (!sampled[i]) {
+                continue;
+            }
+            if (derivativeTimeConstantsSec[i] != 0) {
+                previousErrors[i] = errors[i];
+            }
+
+            // integral calculation
+            double integralResult = integralResults[i] + errors[i] * elapsedTimesMs[i] / loopTimeMs;
+            if (Double.isFinite(iMinResults[i])) {
+                integralResult = Math.max(integralResult, iMinResults[i]);
+            }
+            if (Double.isFinite(iMaxResults[i])) {
+                integralResult = Math.min(integralResult, iMaxResults[i]);
+            }
+            integralResults[i] = integralResult;
+
+            // calculate parts
+            proportionalParts[i] = kps[i] * errors[i];
+            integralParts[i] = kis[i] * integralResult;
+            derivativeParts[i] = kds[i] * derivativeResults[i];
+            outputs[i] = proportionalParts[i] + integralParts[i] + derivativeParts[i];
+        }
+    }
+
+    private PIDOutputDTO getOutput(int slot) {
+        return new PIDOutputDTO(outputs[slot], proportionalParts[slot], integralParts[slot], derivativeParts[slot],
+                errors[slot]);
+    }
+
+    private void grow(int capacity) {
+        members = Arrays.copyOf(members, capacity);
+        kps = Arrays.copyOf(kps, capacity);
+        kis = Arrays.copyOf(kis, capacity);
+        kds = Arrays.copyOf(kds, capacity);
+        derivativeTimeConstantsSec = Arrays.copyOf(derivativeTimeConstantsSec, capacity);
+        iMinResults = Arrays.copyOf(iMinResults, capacity);
+        iMaxResults = Arrays.copyOf(iMaxResults, capacity);
+        integralResults = Arrays.copyOf(integralResults, capacity);
+        derivativeResults = Arrays.copyOf(derivativeResults, capacity);
+        previousErrors = Arrays.copyOf(previousErrors, capacity);
+        previousTimesMs = Arrays.copyOf(previousTimesMs, capacity);
+        sampled = Arrays.copyOf(sampled, capacity);
+        inputs = Arrays.copyOf(inputs, capacity);
+        setpoints = Arrays.copyOf(setpoints, capacity);
+        elapsedTimesMs = Arrays.copyOf(elapsedTimesMs, capacity);
+        errors = Arrays.copyOf(errors, capacity);
+        errorDeltas = Arrays.copyOf(errorDeltas, capacity);
+        timeQuotients = Arrays.copyOf(timeQuotients, capacity);
+        proportionalParts = Arrays.copyOf(proportionalParts, capacity);
+        integralParts = Arrays.copyOf(integralParts, capacity);
+        derivativeParts = Arrays.copyOf(derivativeParts, capacity);
+        outputs = Arrays.copyOf(outputs, capacity);
+    }
+}
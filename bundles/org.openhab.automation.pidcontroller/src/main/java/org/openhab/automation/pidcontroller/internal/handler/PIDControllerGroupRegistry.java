@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) 2010-2023 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.automation.pidcontroller.internal.handler;
+
+import static org.openhab.automation.pidcontroller.internal.PIDControllerConstants.AUTOMATION_NAME;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.core.common.ThreadPoolManager;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+
+/**
+ * Keeps a {@link PIDControllerGroup} per loop time for the PID controllers in group mode. A group is started when its
+ * first controller joins and stopped when its last controller leaves.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@Component(service = PIDControllerGroupRegistry.class)
+@NonNullByDefault
+public class PIDControllerGroupRegistry {
+    private final ScheduledExecutorService scheduler = ThreadPoolManager.getScheduledPool(AUTOMATION_NAME);
+    private final Map<Integer, PIDControllerGroup> groups = new HashMap<>();
+
+    /**
+     * The slot of a controller in its group
+     */
+    record Membership(PIDControllerGroup group, int slot) {
+    }
+
+    /**
+     * Adds a controller to the group of its loop time
+     *
+     * @param loopTimeMs the loop time of the controller
+     * @param controller the controller with the parameters and the restored state
+     * @param member provides the values of the controller in each tick
+     * @return the membership, which is needed to calculate the controller outside of the ticks and to leave the group
+     */
+    synchronized Membership join(int loopTimeMs, PIDController controller, PIDControllerGroup.Member member) {
+        PIDControllerGroup group = groups.get(loopTimeMs);
+        if (group == null) {
+            group = new PIDControllerGroup(loopTimeMs);
+            groups.put(loopTimeMs, group);
+            group.start(scheduler);
+        }
+        return new Membership(group, group.add(controller, member));
+    }
+
+    /**
+     * Removes a controller from its group
+     *
+     * @param membership the membership returned when the controller joined
+     */
+    synchronized void leave(Membership membership) {
+        PIDControllerGroup group = membership.group();
+        group.remove(membership.slot());
+        if (group.getMemberCount() == 0 && groups.remove(group.getLoopTimeMs(), group)) {
+            group.stop();
+        }
+    }
+
+    @Deactivate
+    protected synchronized void deactivate() {
+        groups.values().forEach(PIDControllerGroup::stop);
+        groups.clear();
+    }
+}
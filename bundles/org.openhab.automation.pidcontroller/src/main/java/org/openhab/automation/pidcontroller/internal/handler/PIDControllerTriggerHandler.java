@@ -17,34 +17,29 @@ import static org.openhab.automation.pidcontroller.internal.PIDControllerConstan
 import java.math.BigDecimal;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.automation.pidcontroller.internal.PIDException;
+import org.openhab.automation.pidcontroller.internal.handler.PIDControllerGroupRegistry.Membership;
 import org.openhab.core.automation.ModuleHandlerCallback;
 import org.openhab.core.automation.Trigger;
 import org.openhab.core.automation.handler.BaseTriggerModuleHandler;
 import org.openhab.core.automation.handler.TriggerHandlerCallback;
 import org.openhab.core.config.core.Configuration;
-import org.openhab.core.events.Event;
-import org.openhab.core.events.EventFilter;
 import org.openhab.core.events.EventPublisher;
-import org.openhab.core.events.EventSubscriber;
 import org.openhab.core.items.Item;
 import org.openhab.core.items.ItemNotFoundException;
 import org.openhab.core.items.ItemRegistry;
 import org.openhab.core.items.events.ItemEventFactory;
 import org.openhab.core.items.events.ItemStateChangedEvent;
-import org.openhab.core.items.events.ItemStateEvent;
 import org.openhab.core.library.types.DecimalType;
 import org.openhab.core.library.types.StringType;
 import org.openhab.core.types.RefreshType;
 import org.openhab.core.types.State;
 import org.openhab.core.types.UnDefType;
-import org.osgi.framework.BundleContext;
-import org.osgi.framework.ServiceRegistration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -52,20 +47,23 @@ import org.slf4j.LoggerFactory;
  *
  * @author Hilbrand Bouwkamp - Initial Contribution
  * @author Fabian Wolter - Add PID debug output values
+ * @author openHAB Contributors - Receive item events from the {@link PIDControllerEventDispatcher}; group mode
  */
 @NonNullByDefault
-public class PIDControllerTriggerHandler extends BaseTriggerModuleHandler implements EventSubscriber {
+public class PIDControllerTriggerHandler extends BaseTriggerModuleHandler implements PIDControllerGroup.Member {
     public static final String MODULE_TYPE_ID = AUTOMATION_NAME + ".trigger";
-    private static final Set<String> SUBSCRIBED_EVENT_TYPES = Set.of(ItemStateEvent.TYPE, ItemStateChangedEvent.TYPE);
     private final Logger logger = LoggerFactory.getLogger(PIDControllerTriggerHandler.class);
-    private final ServiceRegistration<?> eventSubscriberRegistration;
+    private final PIDControllerEventDispatcher eventDispatcher;
+    private final Consumer<ItemStateChangedEvent> eventListener = this::receive;
+    private final PIDControllerGroupRegistry groupRegistry;
     private final PIDController controller;
     private final int loopTimeMs;
+    private final boolean groupedLoop;
+    private volatile @Nullable Membership groupMembership;
     private long previousTimeMs = System.currentTimeMillis();
     private Item inputItem;
     private Item setpointItem;
-    private Optional<String> commandTopic;
-    private EventFilter eventFilter;
+    private Optional<String> commandItemName;
     private EventPublisher eventPublisher;
     private @Nullable String pInspector;
     private @Nullable String iInspector;
@@ -74,10 +72,12 @@ public class PIDControllerTriggerHandler extends BaseTriggerModuleHandler implem
     private ItemRegistry itemRegistry;
 
     public PIDControllerTriggerHandler(Trigger module, ItemRegistry itemRegistry, EventPublisher eventPublisher,
-            BundleContext bundleContext) {
+            PIDControllerEventDispatcher eventDispatcher, PIDControllerGroupRegistry groupRegistry) {
         super(module);
         this.itemRegistry = itemRegistry;
         this.eventPublisher = eventPublisher;
+        this.eventDispatcher = eventDispatcher;
+        this.groupRegistry = groupRegistry;
 
         Configuration config = module.getConfiguration();
 
@@ -96,12 +96,7 @@ public class PIDControllerTriggerHandler extends BaseTriggerModuleHandler implem
             throw new IllegalArgumentException("Configured setpoint item not found: " + setpointItemName, e);
         }
 
-        String commandItemName = (String) config.get(CONFIG_COMMAND_ITEM);
-        if (commandItemName != null) {
-            commandTopic = Optional.of("openhab/items/" + commandItemName + "/statechanged");
-        } else {
-            commandTopic = Optional.empty();
-        }
+        commandItemName = Optional.ofNullable((String) config.get(CONFIG_COMMAND_ITEM));
 
         double kpAdjuster = getDoubleFromConfig(config, CONFIG_KP_GAIN);
         double kiAdjuster = getDoubleFromConfig(config, CONFIG_KI_GAIN);
@@ -116,6 +111,7 @@ public class PIDControllerTriggerHandler extends BaseTriggerModuleHandler implem
 
         loopTimeMs = ((BigDecimal) requireNonNull(config.get(CONFIG_LOOP_TIME), CONFIG_LOOP_TIME + " is not set"))
                 .intValue();
+        groupedLoop = Boolean.TRUE.equals(config.get(CONFIG_GROUPED_LOOP));
 
         double previousIntegralPart = getItemNameValueAsNumberOrZero(itemRegistry, iInspector);
         double previousDerivativePart = getItemNameValueAsNumberOrZero(itemRegistry, dInspector);
@@ -124,16 +120,9 @@ public class PIDControllerTriggerHandler extends BaseTriggerModuleHandler implem
         controller = new PIDController(kpAdjuster, kiAdjuster, kdAdjuster, kdTimeConstant, iMinValue, iMaxValue,
                 previousIntegralPart, previousDerivativePart, previousError);
 
-        eventFilter = event -> {
-            String topic = event.getTopic();
-
-            return ("openhab/items/" + inputItemName + "/state").equals(topic)
-                    || ("openhab/items/" + inputItemName + "/statechanged").equals(topic)
-                    || ("openhab/items/" + setpointItemName + "/statechanged").equals(topic)
-                    || commandTopic.map(t -> topic.equals(t)).orElse(false);
-        };
-
-        eventSubscriberRegistration = bundleContext.registerService(EventSubscriber.class.getName(), this, null);
+        eventDispatcher.subscribe(inputItemName, eventListener);
+        eventDispatcher.subscribe(setpointItemName, eventListener);
+        commandItemName.ifPresent(name -> eventDispatcher.subscribe(name, eventListener));
 
         eventPublisher.post(ItemEventFactory.createCommandEvent(inputItemName, RefreshType.REFRESH));
     }
@@ -141,7 +130,12 @@ public class PIDControllerTriggerHandler extends BaseTriggerModuleHandler implem
     @Override
     public void setCallback(ModuleHandlerCallback callback) {
         super.setCallback(callback);
-        getCallback().getScheduler().scheduleWithFixedDelay(this::calculate, 0, loopTimeMs, TimeUnit.MILLISECONDS);
+        if (groupedLoop) {
+            groupMembership = groupRegistry.join(loopTimeMs, controller, this);
+        } else {
+            getCallback().getScheduler().scheduleWithFixedDelay(this::calculate, 0, loopTimeMs,
+                    TimeUnit.MILLISECONDS);
+        }
     }
 
     private <T> T requireNonNull(T obj, String message) {
@@ -162,28 +156,52 @@ public class PIDControllerTriggerHandler extends BaseTriggerModuleHandler implem
     }
 
     private void calculate() {
-        double input;
-        double setpoint;
+        double input = readInput();
+        if (Double.isNaN(input)) {
+            return;
+        }
+
+        double setpoint = readSetpoint();
+        if (Double.isNaN(setpoint)) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+
+        PIDOutputDTO output;
+        Membership localGroupMembership = groupMembership;
+        if (localGroupMembership != null) {
+            output = localGroupMembership.group().calculate(localGroupMembership.slot(), input, setpoint, now);
+        } else {
+            output = controller.calculate(input, setpoint, now - previousTimeMs, loopTimeMs);
+            previousTimeMs = now;
+        }
+
+        publish(output);
+    }
 
+    @Override
+    public double readInput() {
         try {
-            input = getItemValueAsNumber(inputItem);
+            return getItemValueAsNumber(inputItem);
         } catch (PIDException e) {
             logger.warn("Input item: {}: {}", inputItem.getName(), e.getMessage());
-            return;
+            return Double.NaN;
         }
+    }
 
+    @Override
+    public double readSetpoint() {
         try {
-            setpoint = getItemValueAsNumber(setpointItem);
+            return getItemValueAsNumber(setpointItem);
         } catch (PIDException e) {
             logger.warn("Setpoint item: {}: {}", setpointItem.getName(), e.getMessage());
-            return;
+            return Double.NaN;
         }
+    }
 
-        long now = System.currentTimeMillis();
-
-        PIDOutputDTO output = controller.calculate(input, setpoint, now - previousTimeMs, loopTimeMs);
-        previousTimeMs = now;
-
+    @Override
+    public void publish(PIDOutputDTO output) {
         updateItem(pInspector, output.getProportionalPart());
         updateItem(iInspector, output.getIntegralPart());
         updateItem(dInspector, output.getDerivativePart());
@@ -252,36 +270,34 @@ public class PIDControllerTriggerHandler extends BaseTriggerModuleHandler implem
         throw new PIDException("Not a number: " + setpointState.getClass().getSimpleName() + ": " + setpointState);
     }
 
-    @Override
-    public void receive(Event event) {
-        if (event instanceof ItemStateChangedEvent changedEvent) {
-            if (commandTopic.isPresent() && event.getTopic().equals(commandTopic.get())) {
-                if ("RESET".equals(changedEvent.getItemState().toString())) {
+    private void receive(ItemStateChangedEvent changedEvent) {
+        if (commandItemName.isPresent() && changedEvent.getItemName().equals(commandItemName.get())) {
+            if ("RESET".equals(changedEvent.getItemState().toString())) {
+                Membership localGroupMembership = groupMembership;
+                if (localGroupMembership != null) {
+                    localGroupMembership.group().reset(localGroupMembership.slot());
+                } else {
                     controller.setIntegralResult(0);
                     controller.setDerivativeResult(0);
-                    eventPublisher.post(ItemEventFactory.createStateEvent(changedEvent.getItemName(), UnDefType.NULL));
-                } else if (changedEvent.getItemState() != UnDefType.NULL) {
-                    logger.warn("Unknown command: {}", changedEvent.getItemState());
                 }
-            } else {
-                calculate();
+                eventPublisher.post(ItemEventFactory.createStateEvent(changedEvent.getItemName(), UnDefType.NULL));
+            } else if (changedEvent.getItemState() != UnDefType.NULL) {
+                logger.warn("Unknown command: {}", changedEvent.getItemState());
             }
+        } else {
+            calculate();
         }
     }
 
-    @Override
-    public Set<String> getSubscribedEventTypes() {
-        return SUBSCRIBED_EVENT_TYPES;
-    }
-
-    @Override
-    public @Nullable EventFilter getEventFilter() {
-        return eventFilter;
-    }
-
     @Override
     public void dispose() {
-        eventSubscriberRegistration.unregister();
+        eventDispatcher.unsubscribe(eventListener);
+
+        Membership localGroupMembership = groupMembership;
+        if (localGroupMembership != null) {
+            groupMembership = null;
+            groupRegistry.leave(localGroupMembership);
+        }
 
         super.dispose();
     }
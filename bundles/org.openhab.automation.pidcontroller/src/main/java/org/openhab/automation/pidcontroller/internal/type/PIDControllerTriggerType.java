@@ -32,6 +32,7 @@ import org.openhab.core.config.core.ConfigDescriptionParameterBuilder;
  *
  * @author Hilbrand Bouwkamp - Initial Contribution
  * @author Fabian Wolter - Add inspector Items for debugging
+ * @author openHAB Contributors - Add grouped loop
  */
 @NonNullByDefault
 public class PIDControllerTriggerType extends TriggerType {
@@ -94,6 +95,14 @@ public class PIDControllerTriggerType extends TriggerType {
                 .withDescription("The interval the output value is updated in ms") //
                 .withUnit("ms") //
                 .build());
+        configDescriptions.add(ConfigDescriptionParameterBuilder.create(CONFIG_GROUPED_LOOP, Type.BOOLEAN) //
+                .withRequired(false) //
+                .withMultiple(false) //
+                .withDefault("false") //
+                .withAdvanced(true) //
+                .withLabel("Grouped Loop") //
+                .withDescription("Calculate with all grouped controllers of the same loop time in one job.") //
+                .build());
         configDescriptions.add(ConfigDescriptionParameterBuilder.create(CONFIG_I_MIN, Type.DECIMAL) //
                 .withRequired(false) //
                 .withMultiple(false) //
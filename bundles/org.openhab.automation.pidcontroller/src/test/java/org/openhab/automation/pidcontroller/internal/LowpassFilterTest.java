@@ -65,4 +65,17 @@ class LowpassFilterTest {
         double output = LowpassFilter.calculate(1, 0, 1);
         assertEquals(0.36, output, 0.01);
     }
+
+    @Test
+    void testArrayRange() {
+        double[] outputs = { 5, 0, 1, 0 };
+        double[] newValues = { 5, 1, 0, 1 };
+        double[] timeQuotients = { 1, 1, 1, 0 };
+        LowpassFilter.calculate(outputs, newValues, timeQuotients, 1, 4);
+        assertEquals(5, outputs[0]);
+        assertEquals(LowpassFilter.calculate(0, 1, 1), outputs[1]);
+        assertEquals(LowpassFilter.calculate(1, 0, 1), outputs[2]);
+        // a time quotient of 0 keeps the filter value
+        assertEquals(0, outputs[3]);
+    }
 }
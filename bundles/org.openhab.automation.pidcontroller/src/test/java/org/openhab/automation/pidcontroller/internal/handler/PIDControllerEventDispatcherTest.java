@@ -0,0 +1,93 @@
+/**
+ * Copyright (c) 2010-2023 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.automation.pidcontroller.internal.handler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.openhab.core.items.events.ItemEventFactory;
+import org.openhab.core.items.events.ItemStateChangedEvent;
+import org.openhab.core.library.types.DecimalType;
+
+/**
+ * Test for PIDControllerEventDispatcher.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+class PIDControllerEventDispatcherTest {
+    private final PIDControllerEventDispatcher dispatcher = new PIDControllerEventDispatcher();
+
+    private static ItemStateChangedEvent stateChanged(String itemName) {
+        return ItemEventFactory.createStateChangedEvent(itemName, new DecimalType(1), new DecimalType(0));
+    }
+
+    @Test
+    void testEventsAreRoutedByItemName() {
+        List<String> received = new ArrayList<>();
+        dispatcher.subscribe("input", event -> received.add("first:" + event.getItemName()));
+        dispatcher.subscribe("setpoint", event -> received.add("first:" + event.getItemName()));
+        dispatcher.subscribe("input", event -> received.add("second:" + event.getItemName()));
+
+        dispatcher.receive(stateChanged("input"));
+        dispatcher.receive(stateChanged("setpoint"));
+        dispatcher.receive(stateChanged("other"));
+
+        assertEquals(List.of("first:input", "second:input", "first:setpoint"), received);
+    }
+
+    @Test
+    void testOtherEventTypesAreIgnored() {
+        List<String> received = new ArrayList<>();
+        dispatcher.subscribe("input", event -> received.add(event.getItemName()));
+
+        dispatcher.receive(ItemEventFactory.createStateEvent("input", new DecimalType(1)));
+
+        assertEquals(List.of(), received);
+    }
+
+    @Test
+    void testUnsubscribeRemovesListenerFromAllItems() {
+        List<String> received = new ArrayList<>();
+        Consumer<ItemStateChangedEvent> listener = event -> received.add(event.getItemName());
+        dispatcher.subscribe("input", listener);
+        dispatcher.subscribe("setpoint", listener);
+        dispatcher.subscribe("command", event -> received.add("other:" + event.getItemName()));
+        assertEquals(3, dispatcher.getSubscribedItemCount());
+
+        dispatcher.unsubscribe(listener);
+        dispatcher.receive(stateChanged("input"));
+        dispatcher.receive(stateChanged("command"));
+
+        assertEquals(List.of("other:command"), received);
+        assertEquals(1, dispatcher.getSubscribedItemCount());
+    }
+
+    @Test
+    void testFailingListenerDoesNotStopOthers() {
+        List<String> received = new ArrayList<>();
+        dispatcher.subscribe("input", event -> {
+            throw new IllegalStateException("The module callback is not set");
+        });
+        dispatcher.subscribe("input", event -> received.add(event.getItemName()));
+
+        dispatcher.receive(stateChanged("input"));
+
+        assertEquals(List.of("input"), received);
+    }
+}
@@ -0,0 +1,149 @@
+/**
+ * Copyright (c) 2010-2023 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.automation.pidcontroller.internal.handler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for PIDControllerGroup.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+class PIDControllerGroupTest {
+    private static final int LOOP_TIME_MS = 1000;
+
+    private static class TestMember implements PIDControllerGroup.Member {
+        private final double input;
+        private final double setpoint;
+        private final List<PIDOutputDTO> outputs = new ArrayList<>();
+
+        TestMember(double input, double setpoint) {
+            this.input = input;
+            this.setpoint = setpoint;
+        }
+
+        @Override
+        public double readInput() {
+            return input;
+        }
+
+        @Override
+        public double readSetpoint() {
+            return setpoint;
+        }
+
+        @Override
+        public void publish(PIDOutputDTO output) {
+            outputs.add(output);
+        }
+    }
+
+    private static PIDController createController(double kdTimeConstant, double iMinValue, double iMaxValue) {
+        return new PIDController(2, 0.5, 3, kdTimeConstant, iMinValue, iMaxValue, 1, 0.5, 0.25);
+    }
+
+    private static void assertOutputEquals(PIDOutputDTO expected, PIDOutputDTO actual) {
+        assertEquals(expected.getOutput(), actual.getOutput());
+        assertEquals(expected.getProportionalPart(), actual.getProportionalPart());
+        assertEquals(expected.getIntegralPart(), actual.getIntegralPart());
+        assertEquals(expected.getDerivativePart(), actual.getDerivativePart());
+        assertEquals(expected.getError(), actual.getError());
+    }
+
+    @Test
+    void testGroupCalculatesLikeSingleControllers() {
+        // derivative time constant, I-part min and max
+        double[][] parameters = { { 1, Double.NaN, Double.NaN }, { 0, Double.NaN, Double.NaN }, { 2.5, -1, 3 } };
+        PIDControllerGroup group = new PIDControllerGroup(LOOP_TIME_MS);
+        PIDController[] controllers = new PIDController[parameters.length];
+        int[] slots = new int[parameters.length];
+        long nowMs = System.currentTimeMillis();
+        for (int i = 0; i < parameters.length; i++) {
+            controllers[i] = createController(parameters[i][0], parameters[i][1], parameters[i][2]);
+            slots[i] = group.add(createController(parameters[i][0], parameters[i][1], parameters[i][2]),
+                    new TestMember(0, 0), nowMs);
+        }
+
+        long previousTimeMs = nowMs;
+        double[] inputs = { 18, 21.5, 19, 24, 20.25 };
+        for (int step = 0; step < inputs.length; step++) {
+            nowMs += 700 + step * 150;
+            for (int i = 0; i < controllers.length; i++) {
+                double input = inputs[step] + i;
+                PIDOutputDTO expected = controllers[i].calculate(input, 21, nowMs - previousTimeMs, LOOP_TIME_MS);
+                assertOutputEquals(expected, group.calculate(slots[i], input, 21, nowMs));
+            }
+            previousTimeMs = nowMs;
+        }
+    }
+
+    @Test
+    void testTickPublishesOutputsOfAllMembers() {
+        PIDControllerGroup group = new PIDControllerGroup(LOOP_TIME_MS);
+        TestMember first = new TestMember(20, 21);
+        TestMember unavailable = new TestMember(Double.NaN, 21);
+        TestMember second = new TestMember(22, 21);
+        group.add(createController(1, Double.NaN, Double.NaN), first);
+        group.add(createController(1, Double.NaN, Double.NaN), unavailable);
+        group.add(createController(1, Double.NaN, Double.NaN), second);
+
+        group.tick();
+        group.tick();
+
+        assertEquals(2, first.outputs.size());
+        assertEquals(0, unavailable.outputs.size());
+        assertEquals(2, second.outputs.size());
+        assertEquals(1, first.outputs.get(0).getError());
+        assertEquals(-1, second.outputs.get(0).getError());
+        assertEquals(2, group.getTickCount());
+        assertTrue(group.getMaxComputationTime().compareTo(group.getLastComputationTime()) >= 0);
+        assertTrue(group.getMaxJitter().compareTo(group.getLastJitter()) >= 0);
+    }
+
+    @Test
+    void testSlotsAreReused() {
+        PIDControllerGroup group = new PIDControllerGroup(LOOP_TIME_MS);
+        List<Integer> slots = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            slots.add(group.add(createController(1, Double.NaN, Double.NaN), new TestMember(20, 21)));
+        }
+        assertEquals(20, group.getMemberCount());
+
+        group.remove(slots.get(3));
+        group.remove(slots.get(19));
+        assertEquals(18, group.getMemberCount());
+        assertEquals(3, group.add(createController(1, Double.NaN, Double.NaN), new TestMember(20, 21)));
+        assertEquals(19, group.add(createController(1, Double.NaN, Double.NaN), new TestMember(20, 21)));
+    }
+
+    @Test
+    void testReset() {
+        PIDControllerGroup group = new PIDControllerGroup(LOOP_TIME_MS);
+        long nowMs = System.currentTimeMillis();
+        int slot = group.add(createController(1, Double.NaN, Double.NaN), new TestMember(20, 21), nowMs);
+        group.calculate(slot, 20, 21, nowMs);
+
+        group.reset(slot);
+        PIDOutputDTO output = group.calculate(slot, 21, 21, nowMs);
+
+        assertEquals(0, output.getIntegralPart());
+        assertEquals(0, output.getDerivativePart());
+    }
+}
@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) 2010-2023 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.automation.pwm.internal.handler;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.events.Event;
+import org.openhab.core.events.EventFilter;
+import org.openhab.core.events.EventSubscriber;
+import org.openhab.core.items.events.ItemStateEvent;
+import org.osgi.service.component.annotations.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Single {@link EventSubscriber} of the bundle, which routes the state updates of items to the PWM trigger handlers
+ * that subscribed to these items. This way each event is looked up once by its item name, instead of being filtered by
+ * an event subscriber per rule.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@Component(service = { EventSubscriber.class, PWMEventDispatcher.class })
+@NonNullByDefault
+public class PWMEventDispatcher implements EventSubscriber {
+    private static final Set<String> SUBSCRIBED_EVENT_TYPES = Set.of(ItemStateEvent.TYPE);
+    private final Logger logger = LoggerFactory.getLogger(PWMEventDispatcher.class);
+    private final Map<String, Set<Consumer<ItemStateEvent>>> listeners = new ConcurrentHashMap<>();
+
+    /**
+     * Subscribes a listener to the state updates of an item
+     *
+     * @param itemName the name of the item
+     * @param listener the listener
+     */
+    public void subscribe(String itemName, Consumer<ItemStateEvent> listener) {
+        listeners.compute(itemName, (name, itemListeners) -> {
+            Set<Consumer<ItemStateEvent>> localItemListeners = itemListeners != null ? itemListeners
+                    : new CopyOnWriteArraySet<>();
+            localItemListeners.add(listener);
+            return localItemListeners;
+        });
+    }
+
+    /**
+     * Unsubscribes a listener from all items
+     *
+     * @param listener the listener
+     */
+    public void unsubscribe(Consumer<ItemStateEvent> listener) {
+        for (String itemName : listeners.keySet()) {
+            listeners.computeIfPresent(itemName, (name, itemListeners) -> {
+                itemListeners.remove(listener);
+                return itemListeners.isEmpty() ? null : itemListeners;
+            });
+        }
+    }
+
+    @Override
+    public Set<String> getSubscribedEventTypes() {
+        return SUBSCRIBED_EVENT_TYPES;
+    }
+
+    @Override
+    public @Nullable EventFilter getEventFilter() {
+        return null;
+    }
+
+    @Override
+    public void receive(Event event) {
+        if (event instanceof ItemStateEvent stateEvent) {
+            Set<Consumer<ItemStateEvent>> itemListeners = listeners.get(stateEvent.getItemName());
+            if (itemListeners != null) {
+                for (Consumer<ItemStateEvent> listener : itemListeners) {
+                    try {
+                        listener.accept(stateEvent);
+                    } catch (RuntimeException e) {
+                        logger.warn("Failed to handle state update of item '{}': {}", stateEvent.getItemName(),
+                                e.getMessage(), e);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,414 @@
+/**
+ * Copyright (c) 2010-2023 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.dynamodb.internal;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.exception.SdkServiceException;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchWriteItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchWriteResult;
+import software.amazon.awssdk.enhanced.dynamodb.model.WriteBatch;
+import software.amazon.awssdk.services.dynamodb.model.ResourceNotFoundException;
+
+/**
+ * Buffers DTOs and writes them with BatchWriteItem requests instead of a PutItem request per value.
+ *
+ * A batch is written as soon as enough values are queued, otherwise after the flush interval. At most
+ * {@link #MAX_BATCHES_IN_FLIGHT} batches are written at the same time, further values stay queued. Values that
+ * DynamoDB reports as unprocessed (e.g. when the provisioned write capacity is exceeded) and batches that failed with
+ * a transient error are retried with an exponential backoff.
+ *
+ * BatchWriteItem does not create missing tables. If a table does not exist, the first value of each table of the
+ * batch is written with {@link TableCreatingPutItem}, which creates the table, and the remaining values are retried
+ * as a batch afterwards.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class DynamoDBBatchWriter {
+    /** Maximum number of put requests in a single BatchWriteItem request */
+    public static final int MAX_BATCH_SIZE = 25;
+    private static final int MAX_BATCHES_IN_FLIGHT = 4;
+    private static final int MAX_QUEUED_BATCHES = 100;
+    private static final int MAX_ATTEMPTS = 8;
+    private static final long INITIAL_BACKOFF_MILLIS = 50;
+    private static final long MAX_BACKOFF_MILLIS = 10_000;
+    private static final Duration STOP_TIMEOUT = Duration.ofSeconds(10);
+
+    private final Logger logger = LoggerFactory.getLogger(DynamoDBBatchWriter.class);
+
+    private final DynamoDBPersistenceService service;
+    private final DynamoDbEnhancedAsyncClient client;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService executor;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final int maxQueueSize;
+
+    // guarded by this
+    private final Deque<PendingWrite<?>> queue = new ArrayDeque<>();
+    private @Nullable ScheduledFuture<?> flushJob;
+    private int batchesInFlight;
+    private boolean stopped;
+
+    private final AtomicInteger inFlightCount = new AtomicInteger();
+    private final AtomicLong writtenCount = new AtomicLong();
+    private final AtomicLong retriedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    private record PendingWrite<T extends DynamoDBItem<?>> (DynamoDbAsyncTable<T> table, T item) {
+
+        /**
+         * Returns the primary key of the item, a batch must not contain two requests with the same key.
+         */
+        String key() {
+            return table.tableName() + "/" + item.getName() + "/" + item.getTime().toInstant().toEpochMilli();
+        }
+
+        CompletableFuture<Void> putItemAsync(DynamoDBPersistenceService service) {
+            try {
+                return new TableCreatingPutItem<T>(service, item, table).putItemAsync();
+            } catch (IllegalStateException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+    }
+
+    /**
+     * @param service the persistence service, used for writing values with {@link TableCreatingPutItem}
+     * @param client the client used for the BatchWriteItem requests
+     * @param scheduler scheduler for the flush interval and the backoff of retries
+     * @param executor executor for handling the responses
+     * @param batchSize the number of values that are written with one request (at most {@link #MAX_BATCH_SIZE})
+     * @param flushIntervalMillis the maximum time a value is queued before it is written
+     */
+    public DynamoDBBatchWriter(DynamoDBPersistenceService service, DynamoDbEnhancedAsyncClient client,
+            ScheduledExecutorService scheduler, ExecutorService executor, int batchSize, long flushIntervalMillis) {
+        this.service = service;
+        this.client = client;
+        this.scheduler = scheduler;
+        this.executor = executor;
+        this.batchSize = Math.max(1, Math.min(batchSize, MAX_BATCH_SIZE));
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.maxQueueSize = MAX_QUEUED_BATCHES * this.batchSize;
+    }
+
+    /**
+     * Queues a DTO for writing.
+     *
+     * @param table the table of the DTO
+     * @param item the DTO
+     */
+    public <T extends DynamoDBItem<?>> void add(DynamoDbAsyncTable<T> table, T item) {
+        synchronized (this) {
+            if (stopped) {
+                logger.debug("Batch writer is stopped, not storing item {}.", item.getName());
+                return;
+            }
+            if (queue.size() >= maxQueueSize) {
+                droppedCount.incrementAndGet();
+                logger.warn("Write queue is full ({} values), not storing item {}.", queue.size(), item.getName());
+                return;
+            }
+            queue.add(new PendingWrite<>(table, item));
+            if (queue.size() < batchSize) {
+                scheduleFlush();
+                return;
+            }
+        }
+        flush(false);
+    }
+
+    /**
+     * Writes all queued values and waits until they are written, at most for {@link #STOP_TIMEOUT}. Values added
+     * afterwards are not stored.
+     */
+    public void stop() {
+        List<List<PendingWrite<?>>> batches = new ArrayList<>();
+        synchronized (this) {
+            stopped = true;
+            ScheduledFuture<?> localFlushJob = flushJob;
+            if (localFlushJob != null) {
+                localFlushJob.cancel(false);
+                flushJob = null;
+            }
+            while (!queue.isEmpty()) {
+                batches.add(takeBatch());
+                batchesInFlight++;
+            }
+        }
+        batches.forEach(this::send);
+
+        synchronized (this) {
+            long deadline = System.nanoTime() + STOP_TIMEOUT.toNanos();
+            try {
+                long remaining;
+                while (batchesInFlight > 0 && (remaining = deadline - System.nanoTime()) > 0) {
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        int notWritten = inFlightCount.get();
+        if (notWritten > 0) {
+            logger.warn("{} values were not written before the persistence service was stopped.", notWritten);
+        }
+        logger.debug("Batch writer stopped: {} values written, {} retried, {} dropped", writtenCount.get(),
+                retriedCount.get(), droppedCount.get());
+    }
+
+    /**
+     * @return the number of values waiting for a batch
+     */
+    public synchronized int getQueuedCount() {
+        return queue.size();
+    }
+
+    /**
+     * @return the number of values that are currently written, including values waiting for a retry
+     */
+    public int getInFlightCount() {
+        return inFlightCount.get();
+    }
+
+    public long getWrittenCount() {
+        return writtenCount.get();
+    }
+
+    public long getRetriedCount() {
+        return retriedCount.get();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    private synchronized void scheduleFlush() {
+        if (flushJob == null && !stopped) {
+            flushJob = scheduler.schedule(this::scheduledFlush, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void scheduledFlush() {
+        synchronized (this) {
+            flushJob = null;
+        }
+        flush(true);
+    }
+
+    /**
+     * Sends queued values as long as less than {@link #MAX_BATCHES_IN_FLIGHT} batches are being written.
+     *
+     * @param partial whether a batch with less than the batch size is sent
+     */
+    private void flush(boolean partial) {
+        List<List<PendingWrite<?>>> batches = new ArrayList<>();
+        synchronized (this) {
+            while (batchesInFlight < MAX_BATCHES_IN_FLIGHT && !queue.isEmpty()
+                    && (partial || queue.size() >= batchSize)) {
+                batches.add(takeBatch());
+                batchesInFlight++;
+            }
+            if (!queue.isEmpty()) {
+                scheduleFlush();
+            }
+        }
+        batches.forEach(this::send);
+    }
+
+    /**
+     * Takes the values of the next batch from the queue. If a key is queued more than once, the newer value replaces
+     * the older one, as it would with separate PutItem requests.
+     */
+    private List<PendingWrite<?>> takeBatch() {
+        Map<String, PendingWrite<?>> batch = new LinkedHashMap<>();
+        PendingWrite<?> write;
+        while (batch.size() < batchSize && (write = queue.poll()) != null) {
+            if (batch.put(write.key(), write) != null) {
+                logger.trace("BatchWriteItem: value of {} replaced by a newer value with the same timestamp",
+                        write.item().getName());
+            }
+        }
+        return new ArrayList<>(batch.values());
+    }
+
+    private void send(List<PendingWrite<?>> batch) {
+        inFlightCount.addAndGet(batch.size());
+        write(batch, 1);
+    }
+
+    private void write(List<PendingWrite<?>> batch, int attempt) {
+        Map<DynamoDbAsyncTable<? extends DynamoDBItem<?>>, List<PendingWrite<?>>> writesByTable = new LinkedHashMap<>();
+        for (PendingWrite<?> write : batch) {
+            writesByTable.computeIfAbsent(write.table(), table -> new ArrayList<>()).add(write);
+        }
+        List<WriteBatch> writeBatches = new ArrayList<>(writesByTable.size());
+        writesByTable.forEach((table, writes) -> writeBatches.add(toWriteBatch(table, writes)));
+
+        Instant start = Instant.now();
+        client.batchWriteItem(BatchWriteItemEnhancedRequest.builder().writeBatches(writeBatches).build())
+                .whenCompleteAsync((result, exception) -> {
+                    if (exception == null) {
+                        List<PendingWrite<?>> unprocessed = new ArrayList<>();
+                        writesByTable.keySet().forEach(table -> unprocessed.addAll(getUnprocessed(result, table)));
+                        int written = batch.size() - unprocessed.size();
+                        writtenCount.addAndGet(written);
+                        inFlightCount.addAndGet(-written);
+                        logger.trace("BatchWriteItem: {} values written in {} ms, {} unprocessed", written,
+                                Duration.between(start, Instant.now()).toMillis(), unprocessed.size());
+                        if (unprocessed.isEmpty()) {
+                            batchCompleted();
+                        } else {
+                            retry(unprocessed, attempt, "unprocessed items");
+                        }
+                        return;
+                    }
+                    Throwable cause = exception.getCause();
+                    if (!(exception instanceof CompletionException) || cause == null) {
+                        cause = exception;
+                    }
+                    if (cause instanceof ResourceNotFoundException) {
+                        createTablesAndRetry(batch, attempt, cause);
+                    } else if (isTransient(cause)) {
+                        retry(batch, attempt, cause.getClass().getSimpleName() + " " + cause.getMessage());
+                    } else {
+                        drop(batch, cause.getClass().getSimpleName() + " " + cause.getMessage());
+                    }
+                }, executor);
+    }
+
+    private void retry(List<PendingWrite<?>> writes, int attempt, String reason) {
+        if (attempt >= MAX_ATTEMPTS) {
+            drop(writes, reason);
+            return;
+        }
+        long backoff = Math.min(MAX_BACKOFF_MILLIS, INITIAL_BACKOFF_MILLIS << (attempt - 1));
+        // randomized, so that concurrent batches are not retried at the same time
+        long delay = ThreadLocalRandom.current().nextLong(backoff / 2, backoff + 1);
+        retriedCount.addAndGet(writes.size());
+        logger.debug("BatchWriteItem: retrying {} values in {} ms after {} (attempt {}/{})", writes.size(), delay,
+                reason, attempt, MAX_ATTEMPTS);
+        scheduler.schedule(() -> write(writes, attempt + 1), delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void createTablesAndRetry(List<PendingWrite<?>> writes, int attempt, Throwable cause) {
+        if (attempt >= MAX_ATTEMPTS) {
+            drop(writes, cause.getClass().getSimpleName() + " " + cause.getMessage());
+            return;
+        }
+        // The response does not tell which table is missing. The first value of each table is written with PutItem,
+        // creating the table if needed, the other values are written as a batch again afterwards.
+        Map<DynamoDbAsyncTable<? extends DynamoDBItem<?>>, PendingWrite<?>> firstWrites = new LinkedHashMap<>();
+        List<PendingWrite<?>> remainingWrites = new ArrayList<>();
+        for (PendingWrite<?> write : writes) {
+            if (firstWrites.putIfAbsent(write.table(), write) != null) {
+                remainingWrites.add(write);
+            }
+        }
+        logger.trace("BatchWriteItem: table does not exist. Writing {} values with PutItem, creating the tables",
+                firstWrites.size());
+        CompletableFuture<?>[] putFutures = firstWrites.values().stream()
+                .map(write -> write.putItemAsync(service).handle((result, exception) -> {
+                    // failures are logged by TableCreatingPutItem
+                    if (exception == null) {
+                        writtenCount.incrementAndGet();
+                    } else {
+                        droppedCount.incrementAndGet();
+                    }
+                    inFlightCount.decrementAndGet();
+                    return result;
+                })).toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(putFutures).whenCompleteAsync((result, exception) -> {
+            if (remainingWrites.isEmpty()) {
+                batchCompleted();
+            } else {
+                write(remainingWrites, attempt + 1);
+            }
+        }, executor);
+    }
+
+    private void drop(List<PendingWrite<?>> writes, String reason) {
+        droppedCount.addAndGet(writes.size());
+        inFlightCount.addAndGet(-writes.size());
+        logger.warn("BatchWriteItem: failed (final) with {}. {} values were not stored.", reason, writes.size());
+        batchCompleted();
+    }
+
+    private void batchCompleted() {
+        synchronized (this) {
+            batchesInFlight--;
+            notifyAll();
+            if (stopped) {
+                return;
+            }
+        }
+        flush(false);
+    }
+
+    /**
+     * Returns whether a request failed with an error that may not occur again, e.g. throttling or a timeout.
+     * Such errors have already been retried by the retry policy of the client, but the values are not given up yet.
+     */
+    private static boolean isTransient(Throwable cause) {
+        if (cause instanceof SdkServiceException serviceException) {
+            return serviceException.isThrottlingException() || serviceException.statusCode() >= 500;
+        }
+        return cause instanceof SdkClientException;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends DynamoDBItem<?>> WriteBatch toWriteBatch(DynamoDbAsyncTable<T> table,
+            List<PendingWrite<?>> writes) {
+        WriteBatch.Builder<T> builder = WriteBatch.builder(table.tableSchema().itemType().rawClass())
+                .mappedTableResource(table);
+        for (PendingWrite<?> write : writes) {
+            // all writes belong to the table and therefore have its item type
+            builder.addPutItem((T) write.item());
+        }
+        return builder.build();
+    }
+
+    private static <T extends DynamoDBItem<?>> List<PendingWrite<?>> getUnprocessed(BatchWriteResult result,
+            DynamoDbAsyncTable<T> table) {
+        List<PendingWrite<?>> unprocessed = new ArrayList<>();
+        for (T item : result.unprocessedPutItemsForTable(table)) {
+            unprocessed.add(new PendingWrite<>(table, item));
+        }
+        return unprocessed;
+    }
+}
@@ -49,6 +49,8 @@ public class DynamoDBConfig {
     public static final String DEFAULT_TABLE_NAME = "openhab";
     public static final long DEFAULT_READ_CAPACITY_UNITS = 1;
     public static final long DEFAULT_WRITE_CAPACITY_UNITS = 1;
+    public static final int DEFAULT_WRITE_BATCH_SIZE = 0;
+    public static final long DEFAULT_WRITE_BATCH_INTERVAL_MILLIS = 1000;
     private static final Logger LOGGER = LoggerFactory.getLogger(DynamoDBConfig.class);
 
     private long readCapacityUnits;
@@ -60,6 +62,8 @@ public class DynamoDBConfig {
     private String table;
     private String tablePrefixLegacy;
     private @Nullable Integer expireDays;
+    private int writeBatchSize = DEFAULT_WRITE_BATCH_SIZE;
+    private long writeBatchIntervalMillis = DEFAULT_WRITE_BATCH_INTERVAL_MILLIS;
 
     /**
      *
@@ -168,25 +172,58 @@ public class DynamoDBConfig {
                 }
             }
 
+            final int writeBatchSize;
+            String writeBatchSizeParam = (String) config.get("writeBatchSize");
+            if (writeBatchSizeParam == null || writeBatchSizeParam.isBlank()) {
+                writeBatchSize = DEFAULT_WRITE_BATCH_SIZE;
+            } else {
+                writeBatchSize = Integer.parseInt(writeBatchSizeParam);
+                if (writeBatchSize < 0 || writeBatchSize > DynamoDBBatchWriter.MAX_BATCH_SIZE) {
+                    LOGGER.error("writeBatchSize should be between 0 and {}", DynamoDBBatchWriter.MAX_BATCH_SIZE);
+                    return null;
+                }
+            }
+
+            final long writeBatchIntervalMillis;
+            String writeBatchIntervalParam = (String) config.get("writeBatchInterval");
+            if (writeBatchIntervalParam == null || writeBatchIntervalParam.isBlank()) {
+                writeBatchIntervalMillis = DEFAULT_WRITE_BATCH_INTERVAL_MILLIS;
+            } else {
+                writeBatchIntervalMillis = Long.parseLong(writeBatchIntervalParam);
+                if (writeBatchIntervalMillis <= 0) {
+                    LOGGER.error("writeBatchInterval should be positive integer");
+                    return null;
+                }
+            }
+
+            final DynamoDBConfig dbConfig;
             switch (tableRevision) {
                 case NEW:
                     LOGGER.debug("Using new DynamoDB table schema");
-                    return DynamoDBConfig.newSchema(region, credentials, retryMode.map(AwsRetryPolicy::forRetryMode),
-                            table, readCapacityUnits, writeCapacityUnits, expireDays);
+                    dbConfig = DynamoDBConfig.newSchema(region, credentials,
+                            retryMode.map(AwsRetryPolicy::forRetryMode), table, readCapacityUnits, writeCapacityUnits,
+                            expireDays);
+                    break;
                 case LEGACY:
                     LOGGER.warn(
                             "Using legacy DynamoDB table schema. It is recommended to transition to new schema by defining 'table' parameter and not configuring 'tablePrefix'");
-                    return DynamoDBConfig.legacySchema(region, credentials, retryMode.map(AwsRetryPolicy::forRetryMode),
-                            tablePrefixLegacy, readCapacityUnits, writeCapacityUnits);
+                    dbConfig = DynamoDBConfig.legacySchema(region, credentials,
+                            retryMode.map(AwsRetryPolicy::forRetryMode), tablePrefixLegacy, readCapacityUnits,
+                            writeCapacityUnits);
+                    break;
                 case MAYBE_LEGACY:
                     LOGGER.debug(
                             "Unclear whether we should use new legacy DynamoDB table schema. It is recommended to explicitly define new 'table' parameter. The correct table schema will be detected at runtime.");
-                    return DynamoDBConfig.maybeLegacySchema(region, credentials,
+                    dbConfig = DynamoDBConfig.maybeLegacySchema(region, credentials,
                             retryMode.map(AwsRetryPolicy::forRetryMode), table, tablePrefixLegacy, readCapacityUnits,
                             writeCapacityUnits, expireDays);
+                    break;
                 default:
                     throw new IllegalStateException("Unhandled enum. Bug");
             }
+            dbConfig.writeBatchSize = writeBatchSize;
+            dbConfig.writeBatchIntervalMillis = writeBatchIntervalMillis;
+            return dbConfig;
         } catch (Exception e) {
             LOGGER.error("Error with configuration: {} {}", e.getClass().getSimpleName(), e.getMessage());
             return null;
@@ -263,4 +300,16 @@ public class DynamoDBConfig {
     public @Nullable Integer getExpireDays() {
         return expireDays;
     }
+
+    /**
+     * @return the number of values written with one BatchWriteItem request, or 0 if every value is written with its
+     *         own PutItem request
+     */
+    public int getWriteBatchSize() {
+        return writeBatchSize;
+    }
+
+    public long getWriteBatchIntervalMillis() {
+        return writeBatchIntervalMillis;
+    }
 }
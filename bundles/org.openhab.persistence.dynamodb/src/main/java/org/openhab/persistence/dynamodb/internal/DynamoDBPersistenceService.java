@@ -58,21 +58,18 @@ import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Reference;
-import org.reactivestreams.Subscriber;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.awscore.AwsRequestOverrideConfiguration;
 import software.amazon.awssdk.awscore.defaultsmode.DefaultsMode;
-import software.amazon.awssdk.core.async.SdkPublisher;
 import software.amazon.awssdk.core.client.config.ClientAsyncConfiguration;
 import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
 import software.amazon.awssdk.core.client.config.SdkAdvancedAsyncClientOption;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
 import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
-import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
 import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
 import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
 import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClientBuilder;
@@ -104,10 +101,13 @@ public class DynamoDBPersistenceService implements QueryablePersistenceService {
 
     private static final String DYNAMODB_THREADPOOL_NAME = "dynamodbPersistenceService";
 
+    private static final String PERSISTENCE_SCHEDULED_THREADPOOL_NAME = "persistence";
+
     private final ItemRegistry itemRegistry;
     private final UnitProvider unitProvider;
     private @Nullable DynamoDbEnhancedAsyncClient client;
     private @Nullable DynamoDbAsyncClient lowLevelClient;
+    private @Nullable DynamoDBBatchWriter batchWriter;
     private static final Logger logger = LoggerFactory.getLogger(DynamoDBPersistenceService.class);
     private boolean isProperlyConfigured;
     private @Nullable DynamoDBConfig dbConfig;
@@ -115,6 +115,7 @@ public class DynamoDBPersistenceService implements QueryablePersistenceService {
     private final ExecutorService executor = ThreadPoolManager.getPool(DYNAMODB_THREADPOOL_NAME);
     private static final Duration TIMEOUT_API_CALL = Duration.ofSeconds(60);
     private static final Duration TIMEOUT_API_CALL_ATTEMPT = Duration.ofSeconds(5);
+    private final DynamoDBQueryExecutor queryExecutor = new DynamoDBQueryExecutor();
     private Map<Class<? extends DynamoDBItem<?>>, DynamoDbAsyncTable<? extends DynamoDBItem<?>>> tableCache = new ConcurrentHashMap<>(
             2);
 
@@ -162,6 +163,11 @@ public class DynamoDBPersistenceService implements QueryablePersistenceService {
         return lowLevelClient;
     }
 
+    @Nullable
+    DynamoDbEnhancedAsyncClient getClient() {
+        return client;
+    }
+
     ExecutorService getExecutor() {
         return executor;
     }
@@ -197,6 +203,13 @@ public class DynamoDBPersistenceService implements QueryablePersistenceService {
             return;
         }
 
+        DynamoDbEnhancedAsyncClient localClient = client;
+        if (localDbConfig.getWriteBatchSize() > 0 && localClient != null) {
+            batchWriter = new DynamoDBBatchWriter(this, localClient,
+                    ThreadPoolManager.getScheduledPool(PERSISTENCE_SCHEDULED_THREADPOOL_NAME), executor,
+                    localDbConfig.getWriteBatchSize(), localDbConfig.getWriteBatchIntervalMillis());
+        }
+
         isProperlyConfigured = true;
         logger.debug("dynamodb persistence service activated");
     }
@@ -277,7 +290,7 @@ public class DynamoDBPersistenceService implements QueryablePersistenceService {
         }
     }
 
-    private <T extends DynamoDBItem<?>> DynamoDbAsyncTable<T> getTable(Class<T> dtoClass) {
+    <T extends DynamoDBItem<?>> DynamoDbAsyncTable<T> getTable(Class<T> dtoClass) {
         DynamoDbEnhancedAsyncClient localClient = client;
         DynamoDBTableNameResolver localTableNameResolver = tableNameResolver;
         if (!ensureClient() || localClient == null || localTableNameResolver == null) {
@@ -320,6 +333,12 @@ public class DynamoDBPersistenceService implements QueryablePersistenceService {
         if (client == null || localLowLevelClient == null) {
             return;
         }
+        DynamoDBBatchWriter localBatchWriter = batchWriter;
+        if (localBatchWriter != null) {
+            // write the queued values while the client is still open
+            localBatchWriter.stop();
+            batchWriter = null;
+        }
         localLowLevelClient.close();
         lowLevelClient = null;
         client = null;
@@ -327,6 +346,7 @@ public class DynamoDBPersistenceService implements QueryablePersistenceService {
         tableNameResolver = null;
         isProperlyConfigured = false;
         tableCache.clear();
+        queryExecutor.clear();
     }
 
     protected boolean isReadyToStore() {
@@ -418,17 +438,13 @@ public class DynamoDBPersistenceService implements QueryablePersistenceService {
             logger.debug("Item {} (of type {}) will be tried to query using DTO class {} from table {}", itemName,
                     item.getClass().getSimpleName(), dtoClass.getSimpleName(), tableName);
 
-            QueryEnhancedRequest queryExpression = DynamoDBQueryUtils.createQueryExpression(dtoClass,
-                    localTableNameResolver.getTableSchema(), item, filter, unitProvider);
-
-            CompletableFuture<List<DynamoDBItem<?>>> itemsFuture = new CompletableFuture<>();
-            final SdkPublisher<? extends DynamoDBItem<?>> itemPublisher = table.query(queryExpression).items();
-            Subscriber<DynamoDBItem<?>> pageSubscriber = new PageOfInterestSubscriber<DynamoDBItem<?>>(itemsFuture,
-                    filter.getPageNumber(), filter.getPageSize());
-            itemPublisher.subscribe(pageSubscriber);
+            final Item localItem = item;
+            ExpectedTableSchema tableSchema = localTableNameResolver.getTableSchema();
+            CompletableFuture<List<DynamoDBItem<?>>> itemsFuture = queryExecutor.query(table, filter,
+                    queryFilter -> DynamoDBQueryUtils.createQueryExpression(dtoClass, tableSchema, localItem,
+                            queryFilter, unitProvider));
             // NumberItem.getUnit() is expensive, we avoid calling it in the loop
             // by fetching the unit here.
-            final Item localItem = item;
             final Unit<?> itemUnit = localItem instanceof NumberItem ni ? ni.getUnit() : null;
             try {
                 @SuppressWarnings("null")
@@ -561,6 +577,24 @@ public class DynamoDBPersistenceService implements QueryablePersistenceService {
             }
             logger.trace("store() called with item {} {} '{}', which was converted to DTO {}",
                     copiedItem.getClass().getSimpleName(), effectiveName, copiedItem.getState(), dto);
+            DynamoDBBatchWriter localBatchWriter = batchWriter;
+            if (localBatchWriter != null) {
+                dto.accept(new DynamoDBItemVisitor<@Nullable Void>() {
+
+                    @Override
+                    public @Nullable Void visit(DynamoDBBigDecimalItem dynamoBigDecimalItem) {
+                        localBatchWriter.add(getTable(DynamoDBBigDecimalItem.class), dynamoBigDecimalItem);
+                        return null;
+                    }
+
+                    @Override
+                    public @Nullable Void visit(DynamoDBStringItem dynamoStringItem) {
+                        localBatchWriter.add(getTable(DynamoDBStringItem.class), dynamoStringItem);
+                        return null;
+                    }
+                });
+                return;
+            }
             dto.accept(new DynamoDBItemVisitor<TableCreatingPutItem<? extends DynamoDBItem<?>>>() {
 
                 @Override
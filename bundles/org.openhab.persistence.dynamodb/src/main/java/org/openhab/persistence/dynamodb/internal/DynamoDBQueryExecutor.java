@@ -0,0 +1,233 @@
+/**
+ * Copyright (c) 2010-2023 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.dynamodb.internal;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.persistence.FilterCriteria;
+import org.openhab.core.persistence.FilterCriteria.Ordering;
+import org.openhab.core.types.State;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
+import software.amazon.awssdk.enhanced.dynamodb.TableMetadata;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+/**
+ * Executes queries, fetching only the items that are needed for the requested page.
+ *
+ * DynamoDB cannot skip items of a query, they have to be read. The key of the last item of every page that was read
+ * is remembered as a cursor, so that a query for a later page with otherwise the same filter starts reading after the
+ * cursor of the nearest preceding page (exclusive start key). Cursors are only used as long as the pages cannot be
+ * shifted by new values, i.e. with ascending order or a range that ended before the cursors were collected.
+ *
+ * Unpaged queries of a long time range are split into sub-ranges that are queried in parallel and merged in order.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class DynamoDBQueryExecutor {
+    static final int MAX_PARALLEL_QUERIES = 4;
+    static final Duration MIN_PARALLEL_QUERY_RANGE = Duration.ofDays(1);
+    private static final int MAX_REQUEST_LIMIT = 1000;
+    private static final int MAX_CURSOR_ENTRIES = 100;
+    private static final int MAX_CURSORS_PER_ENTRY = 1000;
+    private static final Duration CURSOR_TIME_TO_LIVE = Duration.ofMinutes(10);
+
+    private final Logger logger = LoggerFactory.getLogger(DynamoDBQueryExecutor.class);
+
+    private final Map<String, CursorEntry> cursors = new LinkedHashMap<>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CursorEntry> eldest) {
+            return size() > MAX_CURSOR_ENTRIES;
+        }
+    };
+
+    private static class CursorEntry {
+        final Instant created = Instant.now();
+        // page index -> key of the last item of the preceding page
+        final NavigableMap<Integer, Map<String, AttributeValue>> startKeys = new TreeMap<>();
+    }
+
+    /**
+     * Queries the items of a filter
+     *
+     * @param table table to query
+     * @param filter filter for the query
+     * @param requestFactory creates the query request for a filter, it is called with sub-range filters of the given
+     *            filter when the range is queried in parallel
+     * @return future that completes with the items of the requested page, in the requested order
+     */
+    public <T extends DynamoDBItem<?>> CompletableFuture<List<DynamoDBItem<?>>> query(DynamoDbAsyncTable<T> table,
+            FilterCriteria filter, Function<FilterCriteria, QueryEnhancedRequest> requestFactory) {
+        ZonedDateTime begin = filter.getBeginDate();
+        ZonedDateTime end = filter.getEndDate();
+        boolean unpaged = filter.getPageNumber() == 0 && filter.getPageSize() == Integer.MAX_VALUE;
+        if (unpaged && begin != null && end != null) {
+            long parts = Math.min(MAX_PARALLEL_QUERIES,
+                    Duration.between(begin, end).toMillis() / MIN_PARALLEL_QUERY_RANGE.toMillis());
+            if (parts > 1) {
+                return queryParallel(table, filter, requestFactory, begin, end, (int) parts);
+            }
+        }
+        return queryPage(table, filter, requestFactory.apply(filter));
+    }
+
+    /**
+     * Removes all cursors, e.g. when the tables change
+     */
+    public synchronized void clear() {
+        cursors.clear();
+    }
+
+    /**
+     * Queries the sub-ranges of a range in parallel. The bounds of the sub-ranges are inclusive like the range of a
+     * query with begin and end, and they are in millisecond precision like the stored timestamps.
+     */
+    private <T extends DynamoDBItem<?>> CompletableFuture<List<DynamoDBItem<?>>> queryParallel(
+            DynamoDbAsyncTable<T> table, FilterCriteria filter,
+            Function<FilterCriteria, QueryEnhancedRequest> requestFactory, ZonedDateTime begin, ZonedDateTime end,
+            int parts) {
+        long beginMillis = begin.toInstant().toEpochMilli();
+        long endMillis = end.toInstant().toEpochMilli();
+        long partMillis = (endMillis - beginMillis + 1) / parts;
+        List<CompletableFuture<List<DynamoDBItem<?>>>> futures = new ArrayList<>(parts);
+        for (int i = 0; i < parts; i++) {
+            long partBeginMillis = beginMillis + i * partMillis;
+            long partEndMillis = i == parts - 1 ? endMillis : partBeginMillis + partMillis - 1;
+            FilterCriteria partFilter = copyFilter(filter)
+                    .setBeginDate(ZonedDateTime.ofInstant(Instant.ofEpochMilli(partBeginMillis), begin.getZone()))
+                    .setEndDate(ZonedDateTime.ofInstant(Instant.ofEpochMilli(partEndMillis), end.getZone()));
+            futures.add(queryPage(table, partFilter, requestFactory.apply(partFilter)));
+        }
+        logger.trace("Querying range of {} in {} parallel queries", filter.getItemName(), parts);
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).thenApply(result -> {
+            List<DynamoDBItem<?>> items = new ArrayList<>();
+            boolean descending = filter.getOrdering() == Ordering.DESCENDING;
+            for (int i = 0; i < parts; i++) {
+                // all futures are completed, join does not block
+                items.addAll(futures.get(descending ? parts - 1 - i : i).join());
+            }
+            return items;
+        });
+    }
+
+    private <T extends DynamoDBItem<?>> CompletableFuture<List<DynamoDBItem<?>>> queryPage(DynamoDbAsyncTable<T> table,
+            FilterCriteria filter, QueryEnhancedRequest request) {
+        int pageNumber = filter.getPageNumber();
+        int pageSize = filter.getPageSize();
+        QueryEnhancedRequest.Builder requestBuilder = request.toBuilder();
+        int startPage = 0;
+        PageOfInterestSubscriber<T> subscriber;
+        CompletableFuture<List<T>> future = new CompletableFuture<>();
+        if (isCursorCacheable(filter)) {
+            String cursorKey = getCursorKey(table, filter);
+            Map.@Nullable Entry<Integer, Map<String, AttributeValue>> cursor = getCursor(cursorKey, pageNumber);
+            if (cursor != null) {
+                startPage = cursor.getKey();
+                requestBuilder.exclusiveStartKey(cursor.getValue());
+                logger.trace("Query of page {} of {} starts at page {}", pageNumber, filter.getItemName(), startPage);
+            }
+            final int cursorOffset = startPage;
+            subscriber = new PageOfInterestSubscriber<>(future, pageNumber - startPage, pageSize,
+                    (pageIndex, lastItem) -> putCursor(cursorKey, cursorOffset + pageIndex, table, lastItem));
+        } else {
+            subscriber = new PageOfInterestSubscriber<>(future, pageNumber, pageSize);
+        }
+        // limit the size of the DynamoDB result pages to the items needed, instead of up to 1 MB per page
+        long neededItems = (long) pageSize * (pageNumber - startPage + 1);
+        if (neededItems <= MAX_REQUEST_LIMIT) {
+            requestBuilder.limit((int) neededItems);
+        }
+        table.query(requestBuilder.build()).items().subscribe(subscriber);
+        return future.thenApply(items -> new ArrayList<DynamoDBItem<?>>(items));
+    }
+
+    /**
+     * Returns whether the pages of a query stay the same while new values are stored
+     */
+    private static boolean isCursorCacheable(FilterCriteria filter) {
+        if (filter.getPageSize() == Integer.MAX_VALUE) {
+            // single page
+            return false;
+        }
+        if (filter.getOrdering() == Ordering.ASCENDING) {
+            return true;
+        }
+        ZonedDateTime end = filter.getEndDate();
+        return end != null && end.toInstant().isBefore(Instant.now());
+    }
+
+    private static String getCursorKey(DynamoDbAsyncTable<?> table, FilterCriteria filter) {
+        ZonedDateTime begin = filter.getBeginDate();
+        ZonedDateTime end = filter.getEndDate();
+        State state = filter.getState();
+        return String.join("|", table.tableName(), String.valueOf(filter.getItemName()),
+                begin == null ? "" : String.valueOf(begin.toInstant().toEpochMilli()),
+                end == null ? "" : String.valueOf(end.toInstant().toEpochMilli()), String.valueOf(filter.getOrdering()),
+                String.valueOf(filter.getOperator()), state == null ? "" : state.toFullString(),
+                String.valueOf(filter.getPageSize()));
+    }
+
+    private synchronized Map.@Nullable Entry<Integer, Map<String, AttributeValue>> getCursor(String cursorKey,
+            int pageNumber) {
+        CursorEntry entry = cursors.get(cursorKey);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.created.plus(CURSOR_TIME_TO_LIVE).isBefore(Instant.now())) {
+            cursors.remove(cursorKey);
+            return null;
+        }
+        return entry.startKeys.floorEntry(pageNumber);
+    }
+
+    private synchronized <T extends DynamoDBItem<?>> void putCursor(String cursorKey, int pageNumber,
+            DynamoDbAsyncTable<T> table, T lastItem) {
+        CursorEntry entry = cursors.computeIfAbsent(cursorKey, key -> new CursorEntry());
+        if (entry.startKeys.size() < MAX_CURSORS_PER_ENTRY) {
+            entry.startKeys.put(pageNumber,
+                    table.keyFrom(lastItem).keyMap(table.tableSchema(), TableMetadata.primaryIndexName()));
+        }
+    }
+
+    private static FilterCriteria copyFilter(FilterCriteria filter) {
+        FilterCriteria copy = new FilterCriteria().setOrdering(filter.getOrdering())
+                .setPageNumber(filter.getPageNumber()).setPageSize(filter.getPageSize());
+        String itemName = filter.getItemName();
+        if (itemName != null) {
+            copy.setItemName(itemName);
+        }
+        State state = filter.getState();
+        if (state != null) {
+            copy.setState(state);
+        }
+        return copy.setOperator(filter.getOperator());
+    }
+}
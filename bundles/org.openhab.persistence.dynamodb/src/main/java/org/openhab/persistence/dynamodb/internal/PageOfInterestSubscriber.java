@@ -16,6 +16,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -37,6 +38,7 @@ public class PageOfInterestSubscriber<T> implements Subscriber<T> {
     private int pageSize;
     private List<T> page;
     private CompletableFuture<List<T>> future;
+    private @Nullable BiConsumer<Integer, T> pageEndListener;
 
     /**
      * Create new PageOfInterestSubscriber
@@ -53,11 +55,26 @@ public class PageOfInterestSubscriber<T> implements Subscriber<T> {
         this.skip = pageIndex * pageSize;
     }
 
+    /**
+     * Create new PageOfInterestSubscriber that also reports the last element of every page up to the page of
+     * interest, e.g. for resuming a query at a later page
+     *
+     * @param subscriber subscriber to get the page of interest
+     * @param pageIndex page index that we want subscribe
+     * @param pageSize page size
+     * @param pageEndListener called with the index of a page and the last element before that page
+     */
+    protected PageOfInterestSubscriber(CompletableFuture<List<T>> future, int pageIndex, int pageSize,
+            BiConsumer<Integer, T> pageEndListener) {
+        this(future, pageIndex, pageSize);
+        this.pageEndListener = pageEndListener;
+    }
+
     @Override
     public void onSubscribe(@Nullable Subscription subscription) {
         this.subscription = subscription;
         if (subscription != null) {
-            subscription.request(pageSize * (pageIndex + 1));
+            subscription.request((long) pageSize * (pageIndex + 1));
         }
     }
 
@@ -71,7 +88,15 @@ public class PageOfInterestSubscriber<T> implements Subscriber<T> {
         if (future.isCancelled()) {
             localSubscription.cancel();
             onError(new InterruptedException());
-        } else if (skipped.getAndIncrement() >= skip && page.size() < pageSize) {
+        } else {
+            int index = skipped.getAndIncrement();
+            BiConsumer<Integer, T> localPageEndListener = pageEndListener;
+            if (localPageEndListener != null && (index + 1) % pageSize == 0) {
+                localPageEndListener.accept((index + 1) / pageSize, t);
+            }
+            if (index < skip || page.size() >= pageSize) {
+                return;
+            }
             // We have skipped enough, start accumulating
             page.add(t);
             if (page.size() == pageSize) {
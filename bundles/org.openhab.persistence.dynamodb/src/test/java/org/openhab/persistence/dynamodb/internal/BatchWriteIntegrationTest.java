@@ -0,0 +1,101 @@
+/**
+ * Copyright (c) 2010-2023 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.dynamodb.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.core.common.ThreadPoolManager;
+import org.openhab.core.library.items.NumberItem;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.persistence.FilterCriteria;
+import org.openhab.core.persistence.FilterCriteria.Ordering;
+import org.openhab.core.persistence.HistoricItem;
+
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
+
+/**
+ * Tests writing values with the {@link DynamoDBBatchWriter}
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class BatchWriteIntegrationTest extends BaseIntegrationTest {
+
+    public static final boolean LEGACY_MODE = false;
+    private static final String NAME = "batchNumber";
+    private static final int STATE_COUNT = 60;
+
+    @AfterEach
+    public void tearDownLocalItems() {
+        ITEMS.remove(NAME);
+    }
+
+    @SuppressWarnings("null")
+    @Test
+    public void testBatchWrite() {
+        DynamoDBPersistenceService localService = service;
+        assertNotNull(localService);
+        DynamoDbEnhancedAsyncClient client = localService.getClient();
+        assertNotNull(client);
+        DynamoDBBatchWriter writer = new DynamoDBBatchWriter(localService, client,
+                ThreadPoolManager.getScheduledPool("persistence"), localService.getExecutor(),
+                DynamoDBBatchWriter.MAX_BATCH_SIZE, 100);
+        DynamoDbAsyncTable<DynamoDBBigDecimalItem> table = localService.getTable(DynamoDBBigDecimalItem.class);
+
+        NumberItem item = new NumberItem(NAME);
+        ITEMS.put(NAME, item);
+        // timestamps are stored with millisecond precision
+        ZonedDateTime storeStart = ZonedDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        for (int i = 0; i < STATE_COUNT; i++) {
+            item.setState(new DecimalType(i));
+            writer.add(table, (DynamoDBBigDecimalItem) AbstractDynamoDBItem.fromStateNew(item,
+                    storeStart.plus(i, ChronoUnit.MILLIS), null));
+            if (i == 0) {
+                // same key within the batch, replaces the previous value
+                item.setState(new DecimalType(-1));
+                writer.add(table, (DynamoDBBigDecimalItem) AbstractDynamoDBItem.fromStateNew(item, storeStart, null));
+            }
+        }
+        // the tables do not exist yet, the batches are written after creating them
+        writer.stop();
+
+        assertEquals(0, writer.getQueuedCount());
+        assertEquals(0, writer.getInFlightCount());
+        assertEquals(0, writer.getDroppedCount());
+        assertEquals(STATE_COUNT, writer.getWrittenCount());
+
+        waitForAssert(() -> {
+            FilterCriteria criteria = new FilterCriteria();
+            criteria.setItemName(NAME);
+            criteria.setBeginDate(storeStart);
+            criteria.setOrdering(Ordering.ASCENDING);
+            List<BigDecimal> values = new ArrayList<>();
+            for (HistoricItem historicItem : BaseIntegrationTest.service.query(criteria)) {
+                values.add(((DecimalType) historicItem.getState()).toBigDecimal());
+            }
+            assertEquals(STATE_COUNT, values.size());
+            assertEquals(new BigDecimal(-1), values.get(0));
+            assertEquals(new BigDecimal(STATE_COUNT - 1), values.get(STATE_COUNT - 1));
+        });
+    }
+}
@@ -255,4 +255,24 @@ public class DynamoDBConfigTest {
         assertEquals(Optional.empty(), fromConfig.getRetryPolicy().map(RetryPolicy::retryMode));
         assertEquals(ExpectedTableSchema.MAYBE_LEGACY, fromConfig.getTableRevision());
     }
+
+    @SuppressWarnings("null")
+    @Test
+    public void testWriteBatchSettings() throws Exception {
+        DynamoDBConfig fromConfig = DynamoDBConfig.fromConfig(mapFrom("region", "eu-west-1", "accessKey", "access1",
+                "secretKey", "secret1", "writeBatchSize", "25", "writeBatchInterval", "200"));
+        assertEquals(25, fromConfig.getWriteBatchSize());
+        assertEquals(200, fromConfig.getWriteBatchIntervalMillis());
+
+        fromConfig = DynamoDBConfig
+                .fromConfig(mapFrom("region", "eu-west-1", "accessKey", "access1", "secretKey", "secret1"));
+        assertEquals(0, fromConfig.getWriteBatchSize());
+        assertEquals(1000, fromConfig.getWriteBatchIntervalMillis());
+    }
+
+    @Test
+    public void testInvalidWriteBatchSize() throws Exception {
+        assertNull(DynamoDBConfig.fromConfig(mapFrom("region", "eu-west-1", "accessKey", "access1", "secretKey",
+                "secret1", "writeBatchSize", "26")));
+    }
 }
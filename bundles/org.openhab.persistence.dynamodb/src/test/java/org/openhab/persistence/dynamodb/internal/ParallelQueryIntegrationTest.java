@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) 2010-2023 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.dynamodb.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.openhab.core.library.items.NumberItem;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.persistence.FilterCriteria;
+import org.openhab.core.persistence.FilterCriteria.Ordering;
+import org.openhab.core.persistence.HistoricItem;
+
+/**
+ * Tests queries of long time ranges, which are split into parallel queries, and paging with the
+ * {@link DynamoDBQueryExecutor}
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class ParallelQueryIntegrationTest extends BaseIntegrationTest {
+
+    public static final boolean LEGACY_MODE = false;
+    private static final String NAME = "parallelNumber";
+    private static final int STATE_COUNT = 10;
+
+    private static @Nullable ZonedDateTime storeStart;
+
+    @SuppressWarnings("null")
+    @BeforeAll
+    public static void populateData() throws InterruptedException, ExecutionException {
+        // a value every 12 hours, starting six days ago than the time of the query
+        ZonedDateTime start = ZonedDateTime.now().minusDays(6).truncatedTo(ChronoUnit.MILLIS);
+        storeStart = start;
+        NumberItem item = new NumberItem(NAME);
+        ITEMS.put(NAME, item);
+        for (int i = 0; i < STATE_COUNT; i++) {
+            item.setState(new DecimalType(i));
+            DynamoDBBigDecimalItem dto = (DynamoDBBigDecimalItem) AbstractDynamoDBItem.fromStateNew(item,
+                    start.plusHours(12 * i), null);
+            new TableCreatingPutItem<DynamoDBBigDecimalItem>(service, dto,
+                    service.getTable(DynamoDBBigDecimalItem.class)).putItemAsync().get();
+        }
+    }
+
+    @AfterAll
+    public static void tearDownLocalItems() {
+        ITEMS.remove(NAME);
+    }
+
+    @SuppressWarnings("null")
+    private List<Integer> query(ZonedDateTime begin, ZonedDateTime end, Ordering ordering, int pageNumber,
+            int pageSize) {
+        FilterCriteria criteria = new FilterCriteria();
+        criteria.setItemName(NAME);
+        criteria.setBeginDate(begin);
+        criteria.setEndDate(end);
+        criteria.setOrdering(ordering);
+        criteria.setPageNumber(pageNumber);
+        criteria.setPageSize(pageSize);
+        List<Integer> values = new ArrayList<>();
+        for (HistoricItem historicItem : BaseIntegrationTest.service.query(criteria)) {
+            values.add(((DecimalType) historicItem.getState()).toBigDecimal().intValueExact());
+        }
+        return values;
+    }
+
+    @SuppressWarnings("null")
+    @Test
+    public void testLongRangeQuery() {
+        ZonedDateTime start = storeStart;
+        ZonedDateTime end = ZonedDateTime.now();
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9),
+                query(start, end, Ordering.ASCENDING, 0, Integer.MAX_VALUE));
+        assertEquals(List.of(9, 8, 7, 6, 5, 4, 3, 2, 1, 0),
+                query(start, end, Ordering.DESCENDING, 0, Integer.MAX_VALUE));
+        // the range is split at millisecond precision, values at the bounds of the range are included once
+        assertEquals(List.of(2, 3, 4, 5, 6, 7, 8),
+                query(start.plusDays(1), start.plusDays(4), Ordering.ASCENDING, 0, Integer.MAX_VALUE));
+    }
+
+    @SuppressWarnings("null")
+    @Test
+    public void testPagingWithCursors() {
+        ZonedDateTime start = storeStart;
+        ZonedDateTime end = ZonedDateTime.now();
+        // later pages start after the last item of an already queried page
+        assertEquals(List.of(9, 8, 7), query(start, end, Ordering.DESCENDING, 0, 3));
+        assertEquals(List.of(3, 2, 1), query(start, end, Ordering.DESCENDING, 2, 3));
+        assertEquals(List.of(0), query(start, end, Ordering.DESCENDING, 3, 3));
+        assertEquals(List.of(6, 5, 4), query(start, end, Ordering.DESCENDING, 1, 3));
+        assertEquals(List.of(), query(start, end, Ordering.DESCENDING, 4, 3));
+        assertEquals(List.of(3, 4, 5), query(start, end, Ordering.ASCENDING, 1, 3));
+    }
+}
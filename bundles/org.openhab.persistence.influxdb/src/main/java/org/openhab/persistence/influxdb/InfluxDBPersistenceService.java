@@ -14,10 +14,12 @@ package org.openhab.persistence.influxdb;
 
 import static org.openhab.persistence.influxdb.internal.InfluxDBConstants.*;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -25,15 +27,12 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.OpenHAB;
 import org.openhab.core.common.ThreadPoolManager;
 import org.openhab.core.config.core.ConfigurableService;
 import org.openhab.core.items.Item;
@@ -54,9 +53,12 @@ import org.openhab.persistence.influxdb.internal.InfluxDBConfiguration;
 import org.openhab.persistence.influxdb.internal.InfluxDBHistoricItem;
 import org.openhab.persistence.influxdb.internal.InfluxDBMetadataService;
 import org.openhab.persistence.influxdb.internal.InfluxDBPersistentItemInfo;
+import org.openhab.persistence.influxdb.internal.InfluxDBQueryCache;
 import org.openhab.persistence.influxdb.internal.InfluxDBRepository;
 import org.openhab.persistence.influxdb.internal.InfluxDBStateConvertUtils;
+import org.openhab.persistence.influxdb.internal.InfluxDBWriteQueue;
 import org.openhab.persistence.influxdb.internal.InfluxPoint;
+import org.openhab.persistence.influxdb.internal.InfluxPointSpillFile;
 import org.openhab.persistence.influxdb.internal.influx1.InfluxDB1RepositoryImpl;
 import org.openhab.persistence.influxdb.internal.influx2.InfluxDB2RepositoryImpl;
 import org.osgi.framework.Constants;
@@ -98,7 +100,8 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
 
     private final Logger logger = LoggerFactory.getLogger(InfluxDBPersistenceService.class);
 
-    private static final int COMMIT_INTERVAL = 3; // in s
+    private static final Path SPILL_FILE = Path.of(OpenHAB.getUserDataFolder(), "persistence", "influxdb",
+            "spill.dat");
     protected static final String CONFIG_URI = "persistence:influxdb";
 
     // External dependencies
@@ -110,8 +113,8 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
     private boolean serviceActivated;
 
     // storage
-    private final ScheduledFuture<?> storeJob;
-    private final BlockingQueue<InfluxPoint> pointsQueue = new LinkedBlockingQueue<>();
+    private final InfluxDBWriteQueue writeQueue;
+    private final @Nullable InfluxDBQueryCache queryCache;
 
     // conversion
     private final Set<ItemFactory> itemFactories = new HashSet<>();
@@ -126,8 +129,14 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
         if (configuration.isValid()) {
             this.influxDBRepository = createInfluxDBRepository();
             this.influxDBRepository.connect();
-            this.storeJob = ThreadPoolManager.getScheduledPool("org.openhab.influxdb")
-                    .scheduleWithFixedDelay(this::commit, COMMIT_INTERVAL, COMMIT_INTERVAL, TimeUnit.SECONDS);
+            this.queryCache = configuration.getQueryCacheTtl() > 0
+                    ? new InfluxDBQueryCache(configuration.getQueryCacheSize(),
+                            Duration.ofSeconds(configuration.getQueryCacheTtl()), this::getQueryMeasurementName)
+                    : null;
+            this.writeQueue = new InfluxDBWriteQueue(configuration, influxDBRepository, this::checkConnection,
+                    this::pointsWritten, ThreadPoolManager.getScheduledPool("org.openhab.influxdb"),
+                    createSpillFile());
+            this.writeQueue.start();
             serviceActivated = true;
         } else {
             throw new IllegalArgumentException("Configuration invalid.");
@@ -145,6 +154,20 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
         };
     }
 
+    // Visible for testing
+    protected @Nullable InfluxPointSpillFile createSpillFile() {
+        if (!configuration.isSpillEnabled()) {
+            return null;
+        }
+        try {
+            return new InfluxPointSpillFile(SPILL_FILE, configuration.getSpillMaxSize() * 1024L * 1024L);
+        } catch (IOException e) {
+            logger.warn("Failed to open spill file '{}', points are dropped if the queue is full: {}", SPILL_FILE,
+                    e.getMessage());
+            return null;
+        }
+    }
+
     /**
      * Disconnect from database when service is deactivated
      */
@@ -152,12 +175,7 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
     public void deactivate() {
         serviceActivated = false;
 
-        storeJob.cancel(false);
-        commit(); // ensure we at least tried to store the data;
-
-        if (!pointsQueue.isEmpty()) {
-            logger.warn("InfluxDB failed to finally store {} points.", pointsQueue.size());
-        }
+        writeQueue.stop(); // ensure we at least tried to store the data;
 
         influxDBRepository.disconnect();
         logger.info("InfluxDB persistence service stopped.");
@@ -209,21 +227,22 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
                 logger.trace("Ignoring item {}, conversion to an InfluxDB point failed.", item.getName());
                 return;
             }
-            if (pointsQueue.offer(point)) {
-                logger.trace("Queued {} for item {}", point, item);
-            } else {
-                logger.warn("Failed to queue {} for item {}", point, item);
-            }
+            writeQueue.add(point);
         });
     }
 
     @Override
     public boolean remove(FilterCriteria filter) throws IllegalArgumentException {
         if (serviceActivated && checkConnection()) {
-            if (filter.getItemName() == null) {
+            String itemName = filter.getItemName();
+            if (itemName == null) {
                 logger.warn("Item name is missing in filter {} when trying to remove data.", filter);
                 return false;
             }
+            InfluxDBQueryCache queryCache = this.queryCache;
+            if (queryCache != null) {
+                queryCache.invalidate(itemName);
+            }
             return influxDBRepository.remove(filter);
         } else {
             logger.debug("Remove query {} ignored, InfluxDB is not connected.", filter);
@@ -243,8 +262,10 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
                 return List.of();
             }
 
-            List<InfluxDBRepository.InfluxRow> results = influxDBRepository.query(filter,
-                    configuration.getRetentionPolicy());
+            InfluxDBQueryCache queryCache = this.queryCache;
+            List<InfluxDBRepository.InfluxRow> results = queryCache != null
+                    ? queryCache.query(filter, f -> influxDBRepository.query(f, configuration.getRetentionPolicy()))
+                    : influxDBRepository.query(filter, configuration.getRetentionPolicy());
             return results.stream().map(this::mapRowToHistoricItem).collect(Collectors.toList());
         } else {
             logger.debug("Query for persisted data ignored, InfluxDB is not connected");
@@ -278,19 +299,21 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
         return false;
     }
 
-    private void commit() {
-        if (!pointsQueue.isEmpty() && checkConnection()) {
-            List<InfluxPoint> points = new ArrayList<>();
-            pointsQueue.drainTo(points);
-            if (!influxDBRepository.write(points)) {
-                logger.warn("Re-queuing {} elements, failed to write batch.", points.size());
-                pointsQueue.addAll(points);
-            } else {
-                logger.trace("Wrote {} elements to database", points.size());
-            }
+    private void pointsWritten(List<InfluxPoint> points) {
+        InfluxDBQueryCache queryCache = this.queryCache;
+        if (queryCache != null) {
+            queryCache.addWrittenPoints(points);
         }
     }
 
+    /**
+     * Returns the name of the measurement that is queried for an item, see {@link FilterCriteriaQueryCreator}.
+     */
+    private String getQueryMeasurementName(String itemName) {
+        String measurementName = influxDBMetadataService.getMeasurementNameOrDefault(itemName, itemName);
+        return configuration.isReplaceUnderscore() ? measurementName.replace('_', '.') : measurementName;
+    }
+
     /**
      * Convert incoming data to an {@link InfluxPoint} for further processing. This is needed because storage is
      * asynchronous and the item data may have changed.
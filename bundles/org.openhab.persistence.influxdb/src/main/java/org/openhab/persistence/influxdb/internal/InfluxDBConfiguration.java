@@ -40,6 +40,14 @@ public class InfluxDBConfiguration {
     public static final String ADD_CATEGORY_TAG_PARAM = "addCategoryTag";
     public static final String ADD_LABEL_TAG_PARAM = "addLabelTag";
     public static final String ADD_TYPE_TAG_PARAM = "addTypeTag";
+    public static final String MAX_QUEUE_SIZE_PARAM = "maxQueueSize";
+    public static final String BATCH_SIZE_PARAM = "batchSize";
+    public static final String COMMIT_INTERVAL_PARAM = "commitInterval";
+    public static final String MAX_RETRY_DELAY_PARAM = "maxRetryDelay";
+    public static final String SPILL_ENABLED_PARAM = "spillEnabled";
+    public static final String SPILL_MAX_SIZE_PARAM = "spillMaxSize";
+    public static final String QUERY_CACHE_TTL_PARAM = "queryCacheTtl";
+    public static final String QUERY_CACHE_SIZE_PARAM = "queryCacheSize";
     private final Logger logger = LoggerFactory.getLogger(InfluxDBConfiguration.class);
     private final String url;
     private final String user;
@@ -52,6 +60,14 @@ public class InfluxDBConfiguration {
     private final boolean addCategoryTag;
     private final boolean addTypeTag;
     private final boolean addLabelTag;
+    private final int maxQueueSize;
+    private final int batchSize;
+    private final int commitInterval;
+    private final int maxRetryDelay;
+    private final boolean spillEnabled;
+    private final int spillMaxSize;
+    private final int queryCacheTtl;
+    private final int queryCacheSize;
 
     public InfluxDBConfiguration(Map<String, Object> config) {
         url = ConfigParser.valueAsOrElse(config.get(URL_PARAM), String.class, "http://127.0.0.1:8086");
@@ -65,6 +81,17 @@ public class InfluxDBConfiguration {
         addCategoryTag = ConfigParser.valueAsOrElse(config.get(ADD_CATEGORY_TAG_PARAM), Boolean.class, false);
         addLabelTag = ConfigParser.valueAsOrElse(config.get(ADD_LABEL_TAG_PARAM), Boolean.class, false);
         addTypeTag = ConfigParser.valueAsOrElse(config.get(ADD_TYPE_TAG_PARAM), Boolean.class, false);
+        batchSize = Math.max(1, ConfigParser.valueAsOrElse(config.get(BATCH_SIZE_PARAM), Integer.class, 1000));
+        maxQueueSize = Math.max(batchSize,
+                ConfigParser.valueAsOrElse(config.get(MAX_QUEUE_SIZE_PARAM), Integer.class, 10000));
+        commitInterval = Math.max(1,
+                ConfigParser.valueAsOrElse(config.get(COMMIT_INTERVAL_PARAM), Integer.class, 3));
+        maxRetryDelay = ConfigParser.valueAsOrElse(config.get(MAX_RETRY_DELAY_PARAM), Integer.class, 300);
+        spillEnabled = ConfigParser.valueAsOrElse(config.get(SPILL_ENABLED_PARAM), Boolean.class, false);
+        spillMaxSize = Math.max(1, ConfigParser.valueAsOrElse(config.get(SPILL_MAX_SIZE_PARAM), Integer.class, 100));
+        queryCacheTtl = ConfigParser.valueAsOrElse(config.get(QUERY_CACHE_TTL_PARAM), Integer.class, 0);
+        queryCacheSize = Math.max(1,
+                ConfigParser.valueAsOrElse(config.get(QUERY_CACHE_SIZE_PARAM), Integer.class, 100));
     }
 
     private InfluxDBVersion parseInfluxVersion(@Nullable String value) {
@@ -143,6 +170,53 @@ public class InfluxDBConfiguration {
         return addLabelTag;
     }
 
+    public int getMaxQueueSize() {
+        return maxQueueSize;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * @return commit interval in seconds
+     */
+    public int getCommitInterval() {
+        return commitInterval;
+    }
+
+    /**
+     * @return maximum delay between two write attempts after failures in seconds
+     */
+    public int getMaxRetryDelay() {
+        return maxRetryDelay;
+    }
+
+    public boolean isSpillEnabled() {
+        return spillEnabled;
+    }
+
+    /**
+     * @return maximum size of the spill file in MB
+     */
+    public int getSpillMaxSize() {
+        return spillMaxSize;
+    }
+
+    /**
+     * @return time to live of cached query results in seconds, 0 if the cache is disabled
+     */
+    public int getQueryCacheTtl() {
+        return queryCacheTtl;
+    }
+
+    /**
+     * @return maximum number of items with cached query results
+     */
+    public int getQueryCacheSize() {
+        return queryCacheSize;
+    }
+
     public String getUser() {
         return user;
     }
@@ -161,6 +235,9 @@ public class InfluxDBConfiguration {
                 + " chars', token='" + token.length() + " chars', databaseName='" + databaseName
                 + "', retentionPolicy='" + retentionPolicy + "', version=" + version + ", replaceUnderscore="
                 + replaceUnderscore + ", addCategoryTag=" + addCategoryTag + ", addTypeTag=" + addTypeTag
-                + ", addLabelTag=" + addLabelTag + '}';
+                + ", addLabelTag=" + addLabelTag + ", maxQueueSize=" + maxQueueSize + ", batchSize=" + batchSize
+                + ", commitInterval=" + commitInterval + ", maxRetryDelay=" + maxRetryDelay + ", spillEnabled="
+                + spillEnabled + ", spillMaxSize=" + spillMaxSize + ", queryCacheTtl=" + queryCacheTtl
+                + ", queryCacheSize=" + queryCacheSize + '}';
     }
 }
@@ -0,0 +1,282 @@
+/**
+ * Copyright (c) 2010-2023 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import static org.openhab.persistence.influxdb.internal.InfluxDBConstants.TAG_ITEM_NAME;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.persistence.FilterCriteria;
+import org.openhab.core.persistence.FilterCriteria.Ordering;
+import org.openhab.persistence.influxdb.internal.InfluxDBRepository.InfluxRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Caches the results of time range queries per item.
+ *
+ * Only queries without state filter and paging are cached. The cache holds the rows of the last queried time range of
+ * an item and answers all queries for a range within it, e.g. charts that are refreshed with the same relative range.
+ * Points written by this service are added to the cached rows, so that a range without end stays complete while time
+ * proceeds. Entries expire after the configured time to live, which limits how long changes of other writers or of the
+ * measurement configuration stay unnoticed.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class InfluxDBQueryCache {
+    private static final int MAX_ROWS_PER_ENTRY = 10000;
+    private static final Comparator<InfluxRow> BY_TIME = Comparator.comparing(InfluxRow::time);
+
+    private final Logger logger = LoggerFactory.getLogger(InfluxDBQueryCache.class);
+
+    private final Duration timeToLive;
+    private final UnaryOperator<String> measurementNameProvider;
+    private final Map<String, Entry> entries;
+    private final Map<String, Long> lastWriteSequences = new HashMap<>();
+    private long writeSequence;
+    private int runningQueries;
+
+    private static class Entry {
+        final @Nullable Instant begin;
+        final @Nullable Instant end;
+        final Instant created;
+        final List<InfluxRow> rows;
+
+        Entry(@Nullable Instant begin, @Nullable Instant end, Instant created, List<InfluxRow> rows) {
+            this.begin = begin;
+            this.end = end;
+            this.created = created;
+            this.rows = rows;
+        }
+
+        boolean covers(@Nullable Instant begin, @Nullable Instant end) {
+            Instant entryBegin = this.begin;
+            Instant entryEnd = this.end;
+            return (entryBegin == null || (begin != null && !begin.isBefore(entryBegin)))
+                    && (entryEnd == null || (end != null && !end.isAfter(entryEnd)));
+        }
+
+        boolean contains(Instant time) {
+            Instant begin = this.begin;
+            Instant end = this.end;
+            return (begin == null || !time.isBefore(begin)) && (end == null || !time.isAfter(end));
+        }
+    }
+
+    /**
+     * @param maxEntries maximum number of cached items, the least recently used item is evicted first
+     * @param timeToLive time after which a cached result is queried again
+     * @param measurementNameProvider returns the name of the measurement that is queried for an item
+     */
+    public InfluxDBQueryCache(int maxEntries, Duration timeToLive, UnaryOperator<String> measurementNameProvider) {
+        this.timeToLive = timeToLive;
+        this.measurementNameProvider = measurementNameProvider;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns if the result of a query can be cached.
+     *
+     * @param filter the query filter
+     * @return <code>true</code> if the query has no state filter and is not paged
+     */
+    public static boolean isCacheable(FilterCriteria filter) {
+        return filter.getItemName() != null && filter.getState() == null && filter.getPageNumber() == 0
+                && filter.getPageSize() == Integer.MAX_VALUE;
+    }
+
+    /**
+     * Returns the result of a query from the cache or executes and caches the query.
+     *
+     * A range ending within the time to live before now is queried without end, so that the cached result can be
+     * completed with the written points and answers the same relative range later on.
+     *
+     * @param filter the query filter
+     * @param queryFunction executes a query on the database
+     * @return the rows of the query in the requested order
+     */
+    public List<InfluxRow> query(FilterCriteria filter, Function<FilterCriteria, List<InfluxRow>> queryFunction) {
+        String itemName = filter.getItemName();
+        if (itemName == null || !isCacheable(filter)) {
+            return queryFunction.apply(filter);
+        }
+        List<InfluxRow> cachedRows = get(itemName, filter);
+        if (cachedRows != null) {
+            logger.trace("Query result of {} taken from cache", itemName);
+            return cachedRows;
+        }
+
+        ZonedDateTime end = filter.getEndDate();
+        FilterCriteria cachedFilter = filter;
+        if (end == null || !end.toInstant().isBefore(Instant.now().minus(timeToLive))) {
+            cachedFilter = new FilterCriteria().setItemName(itemName).setOrdering(Ordering.ASCENDING);
+            ZonedDateTime begin = filter.getBeginDate();
+            if (begin != null) {
+                cachedFilter.setBeginDate(begin);
+            }
+        }
+        List<InfluxRow> rows;
+        long sequence = startQuery();
+        try {
+            rows = queryFunction.apply(cachedFilter);
+            put(itemName, cachedFilter, rows, sequence);
+        } finally {
+            finishQuery();
+        }
+        return cachedFilter == filter ? rows : select(sort(rows), filter);
+    }
+
+    private synchronized @Nullable List<InfluxRow> get(String itemName, FilterCriteria filter) {
+        Entry entry = entries.get(itemName);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.created.plus(timeToLive).isBefore(Instant.now())) {
+            entries.remove(itemName);
+            return null;
+        }
+        if (!entry.covers(toInstant(filter.getBeginDate()), toInstant(filter.getEndDate()))) {
+            return null;
+        }
+        return select(entry.rows, filter);
+    }
+
+    /**
+     * Caches the result of a query. The result is not cached if points of the item were written or its cached result
+     * was invalidated since the query was started, because the result may be incomplete then. Empty results are not
+     * cached, the repositories also return them if the query failed.
+     */
+    private synchronized void put(String itemName, FilterCriteria filter, List<InfluxRow> rows, long sequence) {
+        Long lastWriteSequence = lastWriteSequences.get(itemName);
+        if ((lastWriteSequence != null && lastWriteSequence > sequence) || rows.isEmpty()
+                || rows.size() > MAX_ROWS_PER_ENTRY) {
+            return;
+        }
+        entries.put(itemName, new Entry(toInstant(filter.getBeginDate()), toInstant(filter.getEndDate()),
+                Instant.now(), sort(rows)));
+    }
+
+    private synchronized long startQuery() {
+        runningQueries++;
+        return writeSequence;
+    }
+
+    private synchronized void finishQuery() {
+        runningQueries--;
+        if (runningQueries == 0) {
+            // the write sequences are only needed for queries that are running
+            lastWriteSequences.clear();
+        }
+    }
+
+    private void recordWrite(String itemName) {
+        if (runningQueries > 0) {
+            lastWriteSequences.put(itemName, writeSequence);
+        }
+    }
+
+    /**
+     * Adds written points to the cached results of their items.
+     *
+     * @param points the points that were written to the database
+     */
+    public synchronized void addWrittenPoints(List<InfluxPoint> points) {
+        writeSequence++;
+        for (InfluxPoint point : points) {
+            String itemName = point.getTags().get(TAG_ITEM_NAME);
+            if (itemName == null) {
+                continue;
+            }
+            recordWrite(itemName);
+            Entry entry = entries.get(itemName);
+            if (entry == null || !entry.contains(point.getTime())) {
+                continue;
+            }
+            if (!point.getMeasurementName().equals(measurementNameProvider.apply(itemName))) {
+                // e.g. stored with an alias, not part of the query result
+                continue;
+            }
+            InfluxRow row = new InfluxRow(point.getTime(), itemName, point.getValue());
+            int index = Collections.binarySearch(entry.rows, row, BY_TIME);
+            if (index >= 0) {
+                // the database replaces a point with the same time too
+                entry.rows.set(index, row);
+            } else if (entry.rows.size() < MAX_ROWS_PER_ENTRY) {
+                entry.rows.add(-index - 1, row);
+            } else {
+                entries.remove(itemName);
+            }
+        }
+    }
+
+    /**
+     * Removes the cached result of an item, e.g. after data was removed.
+     *
+     * @param itemName the name of the item
+     */
+    public synchronized void invalidate(String itemName) {
+        writeSequence++;
+        recordWrite(itemName);
+        entries.remove(itemName);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static List<InfluxRow> sort(List<InfluxRow> rows) {
+        List<InfluxRow> sortedRows = new ArrayList<>(rows);
+        sortedRows.sort(BY_TIME);
+        return sortedRows;
+    }
+
+    private static List<InfluxRow> select(List<InfluxRow> rows, FilterCriteria filter) {
+        Instant begin = toInstant(filter.getBeginDate());
+        Instant end = toInstant(filter.getEndDate());
+        List<InfluxRow> result = new ArrayList<>();
+        for (InfluxRow row : rows) {
+            if ((begin == null || !row.time().isBefore(begin)) && (end == null || !row.time().isAfter(end))) {
+                result.add(row);
+            }
+        }
+        if (filter.getOrdering() == Ordering.DESCENDING) {
+            Collections.reverse(result);
+        }
+        return result;
+    }
+
+    private static @Nullable Instant toInstant(@Nullable ZonedDateTime dateTime) {
+        return dateTime != null ? dateTime.toInstant() : null;
+    }
+}
@@ -0,0 +1,326 @@
+/**
+ * Copyright (c) 2010-2023 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded queue of points waiting to be written to the database.
+ *
+ * The queue is committed every <code>commitInterval</code> and as soon as it holds <code>batchSize</code> points. A
+ * batch that could not be written is retried with exponential backoff, up to <code>maxRetryDelay</code>. Points that
+ * do not fit into the queue are appended to the optional spill file. Once points were spilled, new points are spilled
+ * too until the spill file was replayed, so that the points are written in order. Only if the spill file is full, new
+ * points are queued while older points are still spilled. Points that fit neither into the spill file nor into the
+ * queue are dropped.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class InfluxDBWriteQueue {
+    private final Logger logger = LoggerFactory.getLogger(InfluxDBWriteQueue.class);
+
+    private final InfluxDBRepository repository;
+    private final BooleanSupplier connectionCheck;
+    private final Consumer<List<InfluxPoint>> writtenPointsListener;
+    private final ScheduledExecutorService scheduler;
+    private final @Nullable InfluxPointSpillFile spillFile;
+    private final int batchSize;
+    private final long commitIntervalMillis;
+    private final long maxRetryDelayMillis;
+
+    private final BlockingQueue<InfluxPoint> pointsQueue;
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private volatile boolean spilling;
+    private @Nullable ScheduledFuture<?> commitJob;
+
+    // only accessed within commit()
+    private final List<InfluxPoint> pendingPoints = new ArrayList<>();
+    private boolean pendingFromSpill;
+    private int failedAttempts;
+    private long nextAttempt = System.nanoTime();
+    private long droppedLogged;
+    private long spilledLogged;
+
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+    private final AtomicLong replayed = new AtomicLong();
+
+    public InfluxDBWriteQueue(InfluxDBConfiguration configuration, InfluxDBRepository repository,
+            BooleanSupplier connectionCheck, Consumer<List<InfluxPoint>> writtenPointsListener,
+            ScheduledExecutorService scheduler, @Nullable InfluxPointSpillFile spillFile) {
+        this.repository = repository;
+        this.connectionCheck = connectionCheck;
+        this.writtenPointsListener = writtenPointsListener;
+        this.scheduler = scheduler;
+        this.spillFile = spillFile;
+        this.batchSize = configuration.getBatchSize();
+        this.commitIntervalMillis = TimeUnit.SECONDS.toMillis(configuration.getCommitInterval());
+        this.maxRetryDelayMillis = Math.max(commitIntervalMillis,
+                TimeUnit.SECONDS.toMillis(configuration.getMaxRetryDelay()));
+        this.pointsQueue = new ArrayBlockingQueue<>(configuration.getMaxQueueSize());
+        if (spillFile != null) {
+            try {
+                // replay points spilled before the last shutdown before accepting new points into the queue
+                spilling = !spillFile.isEmpty();
+            } catch (IOException e) {
+                logger.warn("Failed to access spill file: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Starts committing the queue every <code>commitInterval</code>.
+     */
+    public void start() {
+        commitJob = scheduler.scheduleWithFixedDelay(this::commit, commitIntervalMillis, commitIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the regular commits and tries to write all remaining points. Points that could not be written are spilled
+     * if a spill file is configured.
+     */
+    public synchronized void stop() {
+        ScheduledFuture<?> commitJob = this.commitJob;
+        if (commitJob != null) {
+            commitJob.cancel(false);
+            this.commitJob = null;
+        }
+        commit(true);
+
+        List<InfluxPoint> remaining = new ArrayList<>();
+        if (!pendingFromSpill) {
+            remaining.addAll(pendingPoints);
+        }
+        pendingPoints.clear();
+        pointsQueue.drainTo(remaining);
+        InfluxPointSpillFile spillFile = this.spillFile;
+        if (spillFile != null) {
+            if (!remaining.isEmpty() && spillToFile(remaining)) {
+                logger.info("Spilled {} points that could not be written before shutdown.", remaining.size());
+                remaining.clear();
+            }
+            try {
+                spillFile.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close spill file: {}", e.getMessage());
+            }
+        }
+        if (!remaining.isEmpty()) {
+            dropped.addAndGet(remaining.size());
+            logger.warn("InfluxDB failed to finally store {} points.", remaining.size());
+        }
+        logger.debug("Write queue statistics: written={}, dropped={}, spilled={}, replayed={}", written.get(),
+                dropped.get(), spilled.get(), replayed.get());
+    }
+
+    /**
+     * Adds a point to the queue. If the queue is full or spilled points are waiting to be replayed, the point is
+     * spilled. Points that can neither be spilled nor queued are dropped.
+     *
+     * @param point the point to add
+     */
+    public void add(InfluxPoint point) {
+        if (spilling && !hasSpilledPoints()) {
+            // all spilled points were replayed
+            spilling = false;
+        }
+        if (!spilling && offer(point)) {
+            return;
+        }
+        if (spillToFile(List.of(point))) {
+            spilling = true;
+        } else if (!offer(point)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    private boolean offer(InfluxPoint point) {
+        if (!pointsQueue.offer(point)) {
+            return false;
+        }
+        logger.trace("Queued {}", point);
+        if (pointsQueue.size() >= batchSize && flushScheduled.compareAndSet(false, true)) {
+            scheduler.execute(() -> {
+                flushScheduled.set(false);
+                commit();
+            });
+        }
+        return true;
+    }
+
+    /**
+     * Writes the queued points, unless the last attempt failed and the retry delay has not passed yet.
+     */
+    public void commit() {
+        commit(false);
+    }
+
+    private synchronized void commit(boolean force) {
+        logStatistics();
+        if (!force && System.nanoTime() - nextAttempt < 0) {
+            return;
+        }
+        if (pendingPoints.isEmpty() && pointsQueue.isEmpty() && !hasSpilledPoints()) {
+            return;
+        }
+        if (!connectionCheck.getAsBoolean()) {
+            scheduleRetry("database is not connected");
+            return;
+        }
+        while (true) {
+            if (pendingPoints.isEmpty()) {
+                fillPendingPoints();
+            }
+            if (pendingPoints.isEmpty()) {
+                return;
+            }
+            int count = pendingPoints.size();
+            if (!repository.write(pendingPoints)) {
+                scheduleRetry("failed to write batch");
+                return;
+            }
+            if (pendingFromSpill) {
+                commitSpillRead(count);
+            }
+            written.addAndGet(count);
+            writtenPointsListener.accept(pendingPoints);
+            pendingPoints.clear();
+            failedAttempts = 0;
+            logger.trace("Wrote {} elements to database", count);
+        }
+    }
+
+    private void fillPendingPoints() {
+        pendingFromSpill = false;
+        pointsQueue.drainTo(pendingPoints, batchSize);
+        InfluxPointSpillFile spillFile = this.spillFile;
+        if (pendingPoints.isEmpty() && spillFile != null) {
+            try {
+                pendingPoints.addAll(spillFile.read(batchSize));
+                pendingFromSpill = !pendingPoints.isEmpty();
+                if (!pendingFromSpill) {
+                    spilling = false;
+                }
+            } catch (IOException e) {
+                logger.warn("Failed to read spill file: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void commitSpillRead(int count) {
+        InfluxPointSpillFile spillFile = this.spillFile;
+        if (spillFile != null) {
+            try {
+                spillFile.commitRead();
+                replayed.addAndGet(count);
+                if (spillFile.isEmpty()) {
+                    spilling = false;
+                    logger.info("Replayed all spilled points, {} points in total.", replayed.get());
+                }
+            } catch (IOException e) {
+                logger.warn("Failed to update spill file, points may be written twice: {}", e.getMessage());
+            }
+        }
+    }
+
+    private boolean hasSpilledPoints() {
+        InfluxPointSpillFile spillFile = this.spillFile;
+        try {
+            return spillFile != null && !spillFile.isEmpty();
+        } catch (IOException e) {
+            logger.warn("Failed to access spill file: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean spillToFile(List<InfluxPoint> points) {
+        InfluxPointSpillFile spillFile = this.spillFile;
+        if (spillFile == null) {
+            return false;
+        }
+        try {
+            if (spillFile.append(points)) {
+                spilled.addAndGet(points.size());
+                return true;
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to write to spill file: {}", e.getMessage());
+        }
+        return false;
+    }
+
+    private void scheduleRetry(String reason) {
+        failedAttempts++;
+        long delay = Math.min(commitIntervalMillis << Math.min(failedAttempts, 20), maxRetryDelayMillis);
+        nextAttempt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay);
+        logger.warn("Could not write {} queued points ({}), retrying in {} s.",
+                pendingPoints.size() + pointsQueue.size(), reason, TimeUnit.MILLISECONDS.toSeconds(delay));
+    }
+
+    private void logStatistics() {
+        long dropped = this.dropped.get();
+        if (dropped > droppedLogged) {
+            logger.warn("Dropped {} points because the write queue is full, {} points dropped in total.",
+                    dropped - droppedLogged, dropped);
+            droppedLogged = dropped;
+        }
+        long spilled = this.spilled.get();
+        if (spilled > spilledLogged) {
+            logger.info("Spilled {} points to disk because the write queue is full, {} points spilled in total.",
+                    spilled - spilledLogged, spilled);
+            spilledLogged = spilled;
+        }
+    }
+
+    /**
+     * @return number of points waiting in the queue, not counting a batch waiting for retry and spilled points
+     */
+    public int getQueueSize() {
+        return pointsQueue.size();
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getSpilledCount() {
+        return spilled.get();
+    }
+
+    public long getReplayedCount() {
+        return replayed.get();
+    }
+}
@@ -0,0 +1,268 @@
+/**
+ * Copyright (c) 2010-2023 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only file for points that do not fit into the write queue.
+ *
+ * The file starts with the position of the next unread record, followed by length-prefixed records. Points are read in
+ * the order they were appended and the read position is only advanced by {@link #commitRead()}, i.e. after the points
+ * were written to the database. If the service stops before, the points are read again after the next start. Writing
+ * a point twice is harmless, InfluxDB replaces points with identical measurement, tags and time.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class InfluxPointSpillFile {
+    private static final int HEADER_SIZE = Long.BYTES;
+
+    private static final byte TYPE_DECIMAL = 1;
+    private static final byte TYPE_STRING = 2;
+    private static final byte TYPE_INTEGER = 3;
+    private static final byte TYPE_LONG = 4;
+    private static final byte TYPE_BOOLEAN = 5;
+    private static final byte TYPE_DOUBLE = 6;
+    private static final byte TYPE_NULL = 7;
+
+    private final Logger logger = LoggerFactory.getLogger(InfluxPointSpillFile.class);
+
+    private final Path path;
+    private final long maxSize;
+    private final RandomAccessFile file;
+    private long readPosition;
+    private long uncommittedReadPosition;
+
+    /**
+     * Opens or creates the spill file.
+     *
+     * @param path location of the file, missing parent directories are created
+     * @param maxSize maximum size of the file in bytes
+     * @throws IOException if the file cannot be opened
+     */
+    public InfluxPointSpillFile(Path path, long maxSize) throws IOException {
+        this.path = path;
+        this.maxSize = maxSize;
+        Path parent = path.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        file = new RandomAccessFile(path.toFile(), "rw");
+        if (file.length() < HEADER_SIZE) {
+            reset();
+        } else {
+            readPosition = file.readLong();
+            if (readPosition < HEADER_SIZE || readPosition > file.length()) {
+                logger.warn("Spill file '{}' has an invalid read position, discarding its content.", path);
+                reset();
+            }
+        }
+        uncommittedReadPosition = readPosition;
+    }
+
+    /**
+     * Appends points to the end of the file.
+     *
+     * @param points the points to append
+     * @return <code>true</code> if the points were appended, <code>false</code> if the maximum size would be exceeded
+     * @throws IOException if writing failed
+     */
+    public synchronized boolean append(List<InfluxPoint> points) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (InfluxPoint point : points) {
+            byte[] record = encode(point);
+            out.writeInt(record.length);
+            out.write(record);
+        }
+        long length = file.length();
+        if (length + bytes.size() > maxSize) {
+            return false;
+        }
+        file.seek(length);
+        file.write(bytes.toByteArray());
+        return true;
+    }
+
+    /**
+     * Reads the next points without removing them from the file. Until {@link #commitRead()} is called, every call
+     * returns the same points.
+     *
+     * @param maxPoints maximum number of points to read
+     * @return the points, an empty list if all points were read
+     * @throws IOException if reading failed
+     */
+    public synchronized List<InfluxPoint> read(int maxPoints) throws IOException {
+        List<InfluxPoint> points = new ArrayList<>();
+        long position = readPosition;
+        long length = file.length();
+        try {
+            while (points.size() < maxPoints && position + Integer.BYTES <= length) {
+                file.seek(position);
+                int recordLength = file.readInt();
+                if (recordLength <= 0 || position + Integer.BYTES + recordLength > length) {
+                    throw new IOException("truncated record at position " + position);
+                }
+                byte[] record = new byte[recordLength];
+                file.readFully(record);
+                points.add(decode(record));
+                position += Integer.BYTES + recordLength;
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // usually caused by a crash while appending, nothing after this record can be read anymore
+            logger.warn("Spill file '{}' is corrupt, discarding {} bytes: {}", path, length - position,
+                    e.getMessage());
+            file.setLength(position);
+        }
+        uncommittedReadPosition = position;
+        return points;
+    }
+
+    /**
+     * Removes the points returned by the last call of {@link #read(int)}. The file is truncated once all points were
+     * read.
+     *
+     * @throws IOException if writing failed
+     */
+    public synchronized void commitRead() throws IOException {
+        if (uncommittedReadPosition >= file.length()) {
+            reset();
+        } else {
+            readPosition = uncommittedReadPosition;
+            file.seek(0);
+            file.writeLong(readPosition);
+        }
+        uncommittedReadPosition = readPosition;
+    }
+
+    public synchronized boolean isEmpty() throws IOException {
+        return readPosition >= file.length();
+    }
+
+    /**
+     * @return size of the unread records in bytes
+     */
+    public synchronized long size() throws IOException {
+        return file.length() - readPosition;
+    }
+
+    public synchronized void close() throws IOException {
+        file.close();
+    }
+
+    private void reset() throws IOException {
+        file.setLength(0);
+        file.seek(0);
+        file.writeLong(HEADER_SIZE);
+        readPosition = HEADER_SIZE;
+    }
+
+    private static byte[] encode(InfluxPoint point) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        writeString(out, point.getMeasurementName());
+        out.writeLong(point.getTime().getEpochSecond());
+        out.writeInt(point.getTime().getNano());
+        @Nullable
+        Object value = point.getValue();
+        if (value == null) {
+            // the repositories decide how a point without value is written
+            out.writeByte(TYPE_NULL);
+        } else if (value instanceof BigDecimal decimal) {
+            out.writeByte(TYPE_DECIMAL);
+            writeString(out, decimal.toString());
+        } else if (value instanceof Integer integer) {
+            out.writeByte(TYPE_INTEGER);
+            out.writeInt(integer);
+        } else if (value instanceof Long longValue) {
+            out.writeByte(TYPE_LONG);
+            out.writeLong(longValue);
+        } else if (value instanceof Boolean booleanValue) {
+            out.writeByte(TYPE_BOOLEAN);
+            out.writeBoolean(booleanValue);
+        } else if (value instanceof Number number) {
+            out.writeByte(TYPE_DOUBLE);
+            out.writeDouble(number.doubleValue());
+        } else {
+            out.writeByte(TYPE_STRING);
+            writeString(out, String.valueOf(value));
+        }
+        Map<String, String> tags = point.getTags();
+        out.writeInt(tags.size());
+        for (Map.Entry<String, String> tag : tags.entrySet()) {
+            writeString(out, tag.getKey());
+            writeString(out, tag.getValue());
+        }
+        return bytes.toByteArray();
+    }
+
+    private static InfluxPoint decode(byte[] record) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+        InfluxPoint.Builder builder = InfluxPoint.newBuilder(readString(in));
+        builder.withTime(Instant.ofEpochSecond(in.readLong(), in.readInt()));
+        byte type = in.readByte();
+        switch (type) {
+            case TYPE_DECIMAL -> builder.withValue(new BigDecimal(readString(in)));
+            case TYPE_STRING -> builder.withValue(readString(in));
+            case TYPE_INTEGER -> builder.withValue(in.readInt());
+            case TYPE_LONG -> builder.withValue(in.readLong());
+            case TYPE_BOOLEAN -> builder.withValue(in.readBoolean());
+            case TYPE_DOUBLE -> builder.withValue(in.readDouble());
+            case TYPE_NULL -> {
+                // no value
+            }
+            default -> throw new IOException("unknown value type " + type);
+        }
+        int tagCount = in.readInt();
+        for (int i = 0; i < tagCount; i++) {
+            builder.withTag(readString(in), readString(in));
+        }
+        return builder.build();
+    }
+
+    // DataOutputStream.writeUTF is limited to 64k, string values may be longer
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > in.available()) {
+            throw new IOException("invalid string length " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
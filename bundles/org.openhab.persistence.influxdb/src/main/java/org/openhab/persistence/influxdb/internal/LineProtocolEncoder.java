@@ -0,0 +1,186 @@
+/**
+ * Copyright (c) 2010-2023 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import static org.openhab.persistence.influxdb.internal.InfluxDBConstants.FIELD_VALUE_NAME;
+import static org.openhab.persistence.influxdb.internal.InfluxDBConstants.TAG_ITEM_NAME;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Encodes {@link InfluxPoint}s to the InfluxDB line protocol, so that a batch can be written with a single request
+ * without converting every point to the point objects of the client libraries first.
+ *
+ * The measurement and tag part of a line only changes if the measurement name or the tags of an item change. It is
+ * cached per item and appended to a buffer that is reused for all batches. Timestamps are encoded with millisecond
+ * precision.
+ *
+ * Points are skipped like the client libraries did: a point without value is written as the string "null" for
+ * InfluxDB 1 and skipped for InfluxDB 2, a point with a NaN or infinite value is skipped and a point with a value of
+ * an unsupported type is skipped with a warning.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class LineProtocolEncoder {
+    private static final int MAX_CACHED_PREFIXES = 1000;
+    private static final int MAX_RETAINED_BUFFER_SIZE = 1024 * 1024;
+
+    private final Logger logger = LoggerFactory.getLogger(LineProtocolEncoder.class);
+
+    private final Map<String, Prefix> prefixCache = new LinkedHashMap<>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Prefix> eldest) {
+            return size() > MAX_CACHED_PREFIXES;
+        }
+    };
+    private final boolean writeNullAsString;
+    private StringBuilder buffer = new StringBuilder();
+
+    private record Prefix(String measurementName, Map<String, String> tags, String line) {
+    }
+
+    /**
+     * @param writeNullAsString whether a point without value is written with the string "null" as value, otherwise it
+     *            is skipped
+     */
+    public LineProtocolEncoder(boolean writeNullAsString) {
+        this.writeNullAsString = writeNullAsString;
+    }
+
+    /**
+     * Encodes a batch of points. Points with a value that cannot be written are skipped.
+     *
+     * @param points the points to encode
+     * @return the points in line protocol, one point per line, or an empty string if no point could be encoded
+     */
+    public synchronized String encode(List<InfluxPoint> points) {
+        StringBuilder buffer = this.buffer;
+        buffer.setLength(0);
+        for (InfluxPoint point : points) {
+            @Nullable
+            Object value = point.getValue();
+            if (value == null) {
+                if (!writeNullAsString) {
+                    logger.debug("Skipping {}, points without value are not written", point);
+                    continue;
+                }
+                value = "null";
+            } else if ((value instanceof Double || value instanceof Float)
+                    && !Double.isFinite(((Number) value).doubleValue())) {
+                logger.debug("Skipping {}, NaN and infinite values are not written", point);
+                continue;
+            }
+            int lineStart = buffer.length();
+            if (lineStart > 0) {
+                buffer.append('\n');
+            }
+            buffer.append(getPrefix(point));
+            if (appendValue(buffer, value)) {
+                buffer.append(' ').append(point.getTime().toEpochMilli());
+            } else {
+                logger.warn("Could not convert {}, discarding this datapoint", point);
+                buffer.setLength(lineStart);
+            }
+        }
+        String lines = buffer.toString();
+        if (buffer.capacity() > MAX_RETAINED_BUFFER_SIZE) {
+            // do not keep the memory of an exceptionally large batch forever
+            this.buffer = new StringBuilder();
+        }
+        return lines;
+    }
+
+    private String getPrefix(InfluxPoint point) {
+        String measurementName = point.getMeasurementName();
+        Map<String, String> tags = point.getTags();
+        String key = tags.getOrDefault(TAG_ITEM_NAME, measurementName);
+        Prefix prefix = prefixCache.get(key);
+        if (prefix == null || !prefix.measurementName().equals(measurementName) || !prefix.tags().equals(tags)) {
+            prefix = new Prefix(measurementName, Map.copyOf(tags), createPrefix(measurementName, tags));
+            prefixCache.put(key, prefix);
+        }
+        return prefix.line();
+    }
+
+    private static String createPrefix(String measurementName, Map<String, String> tags) {
+        StringBuilder sb = new StringBuilder();
+        escape(sb, measurementName, false);
+        // tags are sorted by key, as recommended for best performance of the database
+        for (Map.Entry<String, String> tag : new TreeMap<>(tags).entrySet()) {
+            if (!tag.getKey().isEmpty() && !tag.getValue().isEmpty()) {
+                sb.append(',');
+                escape(sb, tag.getKey(), true);
+                sb.append('=');
+                escape(sb, tag.getValue(), true);
+            }
+        }
+        sb.append(' ').append(FIELD_VALUE_NAME).append('=');
+        return sb.toString();
+    }
+
+    private static boolean appendValue(StringBuilder sb, Object value) {
+        if (value instanceof String string) {
+            sb.append('"');
+            for (int i = 0; i < string.length(); i++) {
+                char c = string.charAt(i);
+                if (c == '"' || c == '\\') {
+                    sb.append('\\');
+                }
+                sb.append(c);
+            }
+            sb.append('"');
+        } else if (value instanceof BigDecimal decimal) {
+            sb.append(decimal.stripTrailingZeros().toPlainString());
+        } else if (value instanceof Double || value instanceof Float) {
+            sb.append(BigDecimal.valueOf(((Number) value).doubleValue()).stripTrailingZeros().toPlainString());
+        } else if (value instanceof Number number) {
+            sb.append(number).append('i');
+        } else if (value instanceof Boolean booleanValue) {
+            sb.append(booleanValue.booleanValue());
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    private static void escape(StringBuilder sb, String value, boolean escapeEquals) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                case ' ', ',' -> sb.append('\\').append(c);
+                case '=' -> {
+                    if (escapeEquals) {
+                        sb.append('\\');
+                    }
+                    sb.append(c);
+                }
+                default -> sb.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/**
+ * Copyright (c) 2010-2023 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.openhab.core.persistence.FilterCriteria;
+import org.openhab.core.persistence.FilterCriteria.Ordering;
+import org.openhab.persistence.influxdb.internal.InfluxDBRepository.InfluxRow;
+
+/**
+ * Tests the {@link InfluxDBQueryCache}.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class InfluxDBQueryCacheTest {
+    private static final String ITEM_NAME = "sensor";
+
+    private final ZonedDateTime now = ZonedDateTime.now();
+    private final InfluxDBQueryCache cache = new InfluxDBQueryCache(10, Duration.ofMinutes(1), itemName -> itemName);
+    private final List<FilterCriteria> executedQueries = new ArrayList<>();
+    private final List<InfluxRow> storedRows = new ArrayList<>(List.of(row(now.minusMinutes(50), 1),
+            row(now.minusMinutes(20), 2), row(now.minusMinutes(10), 3)));
+
+    private FilterCriteria filter(ZonedDateTime begin, ZonedDateTime end) {
+        return new FilterCriteria().setItemName(ITEM_NAME).setBeginDate(begin).setEndDate(end)
+                .setOrdering(Ordering.ASCENDING);
+    }
+
+    private InfluxRow row(ZonedDateTime time, int value) {
+        return new InfluxRow(time.toInstant(), ITEM_NAME, BigDecimal.valueOf(value));
+    }
+
+    private InfluxPoint point(String measurement, ZonedDateTime time, int value) {
+        return InfluxPoint.newBuilder(measurement).withTime(time.toInstant()).withValue(BigDecimal.valueOf(value))
+                .withTag(InfluxDBConstants.TAG_ITEM_NAME, ITEM_NAME).build();
+    }
+
+    private List<BigDecimal> query(FilterCriteria filter) {
+        return cache.query(filter, f -> {
+            executedQueries.add(f);
+            // the database returns the rows in descending order by default
+            List<InfluxRow> rows = new ArrayList<>(storedRows);
+            rows.sort((r1, r2) -> r2.time().compareTo(r1.time()));
+            return rows;
+        }).stream().map(row -> (BigDecimal) row.value()).toList();
+    }
+
+    @Test
+    public void queriesWithinCachedRangeAreAnswered() {
+        assertThat(query(filter(now.minusHours(1), now)), contains(BigDecimal.valueOf(1), BigDecimal.valueOf(2),
+                BigDecimal.valueOf(3)));
+        assertThat(executedQueries, hasSize(1));
+        // a range ending now is queried without end
+        assertThat(executedQueries.get(0).getEndDate(), is(nullValue()));
+
+        assertThat(query(filter(now.minusMinutes(30), now.minusMinutes(15))), contains(BigDecimal.valueOf(2)));
+        assertThat(query(filter(now.minusMinutes(30), now.plusMinutes(1)).setOrdering(Ordering.DESCENDING)),
+                contains(BigDecimal.valueOf(3), BigDecimal.valueOf(2)));
+        assertThat(executedQueries, hasSize(1));
+
+        // not covered and not cacheable
+        query(filter(now.minusHours(2), now));
+        query(filter(now.minusHours(1), now).setPageSize(1));
+        assertThat(executedQueries, hasSize(3));
+    }
+
+    @Test
+    public void writtenPointsAreAddedToCachedRange() {
+        storedRows.remove(1);
+        query(filter(now.minusHours(1), now));
+
+        cache.addWrittenPoints(List.of(point(ITEM_NAME, now.minusMinutes(20), 2),
+                point(ITEM_NAME, now.plusSeconds(1), 4), point("alias", now.minusMinutes(30), 5),
+                point(ITEM_NAME, now.minusHours(2), 6)));
+
+        assertThat(query(filter(now.minusHours(1), now.plusMinutes(1))), contains(BigDecimal.valueOf(1),
+                BigDecimal.valueOf(2), BigDecimal.valueOf(3), BigDecimal.valueOf(4)));
+        assertThat(executedQueries, hasSize(1));
+    }
+
+    @Test
+    public void resultIsNotCachedIfPointsWereWrittenDuringQuery() {
+        cache.query(filter(now.minusHours(1), now), f -> {
+            cache.addWrittenPoints(List.of(point(ITEM_NAME, now, 4)));
+            return storedRows;
+        });
+
+        assertThat(cache.size(), is(0));
+    }
+
+    @Test
+    public void resultIsCachedIfPointsOfOtherItemsWereWrittenDuringQuery() {
+        cache.query(filter(now.minusHours(1), now), f -> {
+            cache.addWrittenPoints(List.of(InfluxPoint.newBuilder("other").withTime(now.toInstant())
+                    .withValue(BigDecimal.ONE).withTag(InfluxDBConstants.TAG_ITEM_NAME, "other").build()));
+            cache.invalidate("removed");
+            return storedRows;
+        });
+
+        assertThat(cache.size(), is(1));
+        query(filter(now.minusMinutes(30), now));
+        assertThat(executedQueries, is(empty()));
+    }
+
+    @Test
+    public void invalidatedResultIsQueriedAgain() {
+        query(filter(now.minusHours(1), now));
+        cache.invalidate(ITEM_NAME);
+        query(filter(now.minusHours(1), now));
+
+        assertThat(executedQueries, hasSize(2));
+    }
+}
@@ -0,0 +1,223 @@
+/**
+ * Copyright (c) 2010-2023 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.openhab.persistence.influxdb.internal.InfluxDBConfiguration.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+/**
+ * Tests the {@link InfluxDBWriteQueue} and {@link InfluxPointSpillFile}.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@NonNullByDefault
+public class InfluxDBWriteQueueTest {
+    private static final InfluxDBConfiguration CONFIGURATION = new InfluxDBConfiguration(Map.of( //
+            MAX_QUEUE_SIZE_PARAM, 2, //
+            BATCH_SIZE_PARAM, 2));
+
+    private @Mock @NonNullByDefault({}) InfluxDBRepository repositoryMock;
+    private @Mock @NonNullByDefault({}) ScheduledExecutorService schedulerMock;
+    private @TempDir @NonNullByDefault({}) Path tempDir;
+
+    private final List<List<InfluxPoint>> writtenBatches = new ArrayList<>();
+    private final List<InfluxPoint> writtenPoints = new ArrayList<>();
+
+    private InfluxDBWriteQueue createQueue(@Nullable InfluxPointSpillFile spillFile) {
+        when(repositoryMock.write(any())).thenAnswer(invocation -> {
+            writtenBatches.add(new ArrayList<>(invocation.<List<InfluxPoint>> getArgument(0)));
+            return true;
+        });
+        return new InfluxDBWriteQueue(CONFIGURATION, repositoryMock, () -> true, writtenPoints::addAll,
+                schedulerMock, spillFile);
+    }
+
+    private static InfluxPoint point(int i) {
+        return InfluxPoint.newBuilder("measurement").withTime(Instant.ofEpochSecond(i))
+                .withValue(BigDecimal.valueOf(i)).withTag("item", "item" + i).build();
+    }
+
+    private List<BigDecimal> writtenValues() {
+        return writtenBatches.stream().flatMap(List::stream).map(point -> (BigDecimal) point.getValue()).toList();
+    }
+
+    @Test
+    public void pointsAreDroppedWhenQueueIsFull() {
+        InfluxDBWriteQueue queue = createQueue(null);
+        queue.add(point(1));
+        queue.add(point(2));
+        queue.add(point(3));
+
+        assertThat(queue.getQueueSize(), is(2));
+        assertThat(queue.getDroppedCount(), is(1L));
+        verify(schedulerMock).execute(any());
+
+        queue.commit();
+        assertThat(writtenValues(), contains(BigDecimal.valueOf(1), BigDecimal.valueOf(2)));
+        assertThat(queue.getWrittenCount(), is(2L));
+        assertThat(writtenPoints, hasSize(2));
+    }
+
+    @Test
+    public void failedBatchIsRetriedAfterDelay() {
+        InfluxDBWriteQueue queue = createQueue(null);
+        when(repositoryMock.write(any())).thenReturn(false);
+        queue.add(point(1));
+
+        queue.commit();
+        queue.commit();
+        verify(repositoryMock, times(1)).write(any());
+        assertThat(queue.getWrittenCount(), is(0L));
+
+        // stopping forces a last attempt
+        when(repositoryMock.write(any())).thenReturn(true);
+        queue.stop();
+        verify(repositoryMock, times(2)).write(any());
+        assertThat(queue.getWrittenCount(), is(1L));
+        assertThat(queue.getDroppedCount(), is(0L));
+    }
+
+    @Test
+    public void spilledPointsAreReplayedInOrder() throws IOException {
+        InfluxPointSpillFile spillFile = new InfluxPointSpillFile(tempDir.resolve("spill.dat"), 1024 * 1024);
+        InfluxDBWriteQueue queue = createQueue(spillFile);
+        for (int i = 1; i <= 5; i++) {
+            queue.add(point(i));
+        }
+        assertThat(queue.getSpilledCount(), is(3L));
+        assertThat(queue.getDroppedCount(), is(0L));
+
+        queue.commit();
+        assertThat(writtenValues(), contains(BigDecimal.valueOf(1), BigDecimal.valueOf(2), BigDecimal.valueOf(3),
+                BigDecimal.valueOf(4), BigDecimal.valueOf(5)));
+        assertThat(queue.getReplayedCount(), is(3L));
+        assertThat(spillFile.isEmpty(), is(true));
+    }
+
+    @Test
+    public void unwrittenPointsAreReadAgainAfterRestart() throws IOException {
+        Path path = tempDir.resolve("spill.dat");
+        InfluxPointSpillFile spillFile = new InfluxPointSpillFile(path, 1024 * 1024);
+        InfluxPoint point = InfluxPoint.newBuilder("measurement").withTime(Instant.ofEpochSecond(10, 500))
+                .withValue("text").withTag("item", "item").build();
+        spillFile.append(List.of(point(1), point));
+        assertThat(spillFile.read(1), hasSize(1));
+        spillFile.commitRead();
+        assertThat(spillFile.read(10), hasSize(1));
+        spillFile.close();
+
+        spillFile = new InfluxPointSpillFile(path, 1024 * 1024);
+        List<InfluxPoint> points = spillFile.read(10);
+        assertThat(points, hasSize(1));
+        assertThat(points.get(0).getMeasurementName(), is("measurement"));
+        assertThat(points.get(0).getTime(), is(Instant.ofEpochSecond(10, 500)));
+        assertThat(points.get(0).getValue(), is("text"));
+        assertThat(points.get(0).getTags(), is(Map.of("item", "item")));
+        spillFile.commitRead();
+        assertThat(spillFile.isEmpty(), is(true));
+        spillFile.close();
+    }
+
+    @Test
+    public void pointsWithoutValueAreReadWithoutValue() throws IOException {
+        InfluxPointSpillFile spillFile = new InfluxPointSpillFile(tempDir.resolve("spill.dat"), 1024 * 1024);
+        InfluxPoint point = InfluxPoint.newBuilder("measurement").withTime(Instant.ofEpochSecond(10))
+                .withTag("item", "item").build();
+        spillFile.append(List.of(point, point(1)));
+
+        List<InfluxPoint> points = spillFile.read(10);
+        assertThat(points, hasSize(2));
+        assertThat(points.get(0).getValue(), is(nullValue()));
+        assertThat(points.get(0).getTime(), is(Instant.ofEpochSecond(10)));
+        assertThat(points.get(0).getTags(), is(Map.of("item", "item")));
+        assertThat(points.get(1).getValue(), is(BigDecimal.valueOf(1)));
+        // InfluxDB 2 still skips the point without value after it was spilled
+        assertThat(new LineProtocolEncoder(false).encode(points), is("measurement,item=item1 value=1 1000"));
+        spillFile.close();
+    }
+
+    @Test
+    public void pointsAreDroppedWhenSpillFileIsFull() throws IOException {
+        InfluxPointSpillFile spillFile = new InfluxPointSpillFile(tempDir.resolve("spill.dat"), 100);
+        InfluxDBWriteQueue queue = createQueue(spillFile);
+        for (int i = 1; i <= 5; i++) {
+            queue.add(point(i));
+        }
+        assertThat(queue.getSpilledCount() + queue.getDroppedCount(), is(3L));
+        assertThat(queue.getDroppedCount(), greaterThan(0L));
+        spillFile.close();
+    }
+
+    @Test
+    public void pointsAreQueuedAgainAfterSpillFileWasReplayed() throws IOException {
+        InfluxPointSpillFile spillFile = new InfluxPointSpillFile(tempDir.resolve("spill.dat"), 1024 * 1024);
+        InfluxDBWriteQueue queue = createQueue(spillFile);
+        for (int i = 1; i <= 3; i++) {
+            queue.add(point(i));
+        }
+        assertThat(queue.getSpilledCount(), is(1L));
+
+        queue.commit();
+        assertThat(spillFile.isEmpty(), is(true));
+        queue.add(point(4));
+        assertThat(queue.getQueueSize(), is(1));
+        assertThat(queue.getSpilledCount(), is(1L));
+        spillFile.close();
+    }
+
+    @Test
+    public void pointsAreQueuedWhenSpillFileIsFull() throws IOException {
+        InfluxPointSpillFile spillFile = new InfluxPointSpillFile(tempDir.resolve("spill.dat"), 500);
+        int spilledPoints = 0;
+        while (spillFile.append(List.of(point(spilledPoints)))) {
+            spilledPoints++;
+        }
+        assertThat(spilledPoints, greaterThan(0));
+
+        InfluxDBWriteQueue queue = createQueue(spillFile);
+        queue.add(point(100));
+        queue.add(point(101));
+        queue.add(point(102));
+        assertThat(queue.getQueueSize(), is(2));
+        assertThat(queue.getDroppedCount(), is(1L));
+
+        queue.commit();
+        assertThat(queue.getWrittenCount(), is(2L + spilledPoints));
+        assertThat(spillFile.isEmpty(), is(true));
+        spillFile.close();
+    }
+}
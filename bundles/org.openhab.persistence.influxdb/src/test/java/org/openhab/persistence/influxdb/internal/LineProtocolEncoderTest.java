@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) 2010-2023 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the {@link LineProtocolEncoder}.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class LineProtocolEncoderTest {
+    private static final Instant TIME = Instant.ofEpochMilli(1558302027124L);
+
+    private final LineProtocolEncoder encoder = new LineProtocolEncoder(false);
+
+    private static InfluxPoint point(String measurement, Object value) {
+        return InfluxPoint.newBuilder(measurement).withTime(TIME).withValue(value).withTag("item", measurement)
+                .build();
+    }
+
+    @Test
+    public void valuesAreEncodedWithTheirType() {
+        String lines = encoder.encode(List.of( //
+                point("decimal", new BigDecimal("21.50")), //
+                point("large", new BigDecimal("1E+3")), //
+                point("switch", 1), //
+                point("date", 1558302027124L), //
+                point("string", "on \"air\" \\o/"), //
+                point("bool", true), //
+                point("double", 0.5d)));
+
+        assertThat(lines, is(String.join("\n", //
+                "decimal,item=decimal value=21.5 1558302027124", //
+                "large,item=large value=1000 1558302027124", //
+                "switch,item=switch value=1i 1558302027124", //
+                "date,item=date value=1558302027124i 1558302027124", //
+                "string,item=string value=\"on \\\"air\\\" \\\\o/\" 1558302027124", //
+                "bool,item=bool value=true 1558302027124", //
+                "double,item=double value=0.5 1558302027124")));
+    }
+
+    @Test
+    public void measurementAndTagsAreEscapedAndSorted() {
+        InfluxPoint point = InfluxPoint.newBuilder("my measurement,1").withTime(TIME).withValue(BigDecimal.ONE)
+                .withTag("item", "my_item").withTag("floor", "ground floor").withTag("a=b", "c,d").withTag("empty", "")
+                .build();
+
+        assertThat(encoder.encode(List.of(point)),
+                is("my\\ measurement\\,1,a\\=b=c\\,d,floor=ground\\ floor,item=my_item value=1 1558302027124"));
+    }
+
+    @Test
+    public void changedTagsAreNotTakenFromCache() {
+        InfluxPoint first = InfluxPoint.newBuilder("temperature").withTime(TIME).withValue(BigDecimal.ONE)
+                .withTag("item", "item").withTag("floor", "ground").build();
+        InfluxPoint second = InfluxPoint.newBuilder("temperature").withTime(TIME).withValue(BigDecimal.ONE)
+                .withTag("item", "item").withTag("floor", "first").build();
+
+        assertThat(encoder.encode(List.of(first)), is("temperature,floor=ground,item=item value=1 1558302027124"));
+        assertThat(encoder.encode(List.of(second)), is("temperature,floor=first,item=item value=1 1558302027124"));
+    }
+
+    @Test
+    public void unsupportedValuesAreSkipped() {
+        String lines = encoder.encode(List.of(point("nan", Double.NaN), point("number", BigDecimal.TEN),
+                point("object", new Object())));
+
+        assertThat(lines, is("number,item=number value=10 1558302027124"));
+        assertThat(encoder.encode(List.of(point("nan", Double.NaN))), is(""));
+    }
+
+    @Test
+    public void pointsWithoutValueAreSkippedForInfluxDB2() {
+        InfluxPoint noValue = InfluxPoint.newBuilder("null").withTime(TIME).withTag("item", "null").build();
+
+        assertThat(encoder.encode(List.of(noValue, point("number", BigDecimal.TEN))),
+                is("number,item=number value=10 1558302027124"));
+    }
+
+    @Test
+    public void pointsWithoutValueAreWrittenAsStringForInfluxDB1() {
+        InfluxPoint noValue = InfluxPoint.newBuilder("null").withTime(TIME).withTag("item", "null").build();
+
+        assertThat(new LineProtocolEncoder(true).encode(List.of(noValue, point("nan", Double.NaN))),
+                is("null,item=null value=\"null\" 1558302027124"));
+    }
+}
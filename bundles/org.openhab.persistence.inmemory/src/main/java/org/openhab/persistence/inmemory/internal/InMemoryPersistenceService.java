@@ -14,14 +14,14 @@ package org.openhab.persistence.inmemory.internal;
 
 import java.time.Instant;
 import java.time.ZonedDateTime;
-import java.util.Comparator;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -31,6 +31,7 @@ import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.core.config.core.ConfigParser;
 import org.openhab.core.config.core.ConfigurableService;
+import org.openhab.core.i18n.TimeZoneProvider;
 import org.openhab.core.items.Item;
 import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.core.persistence.HistoricItem;
@@ -45,6 +46,7 @@ import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Modified;
+import org.osgi.service.component.annotations.Reference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -69,9 +71,15 @@ public class InMemoryPersistenceService implements ModifiablePersistenceService
 
     private final Logger logger = LoggerFactory.getLogger(InMemoryPersistenceService.class);
 
+    private final TimeZoneProvider timeZoneProvider;
     private final Map<String, PersistItem> persistMap = new ConcurrentHashMap<>();
     private long maxEntries = MAX_ENTRIES_DEFAULT;
 
+    @Activate
+    public InMemoryPersistenceService(final @Reference TimeZoneProvider timeZoneProvider) {
+        this.timeZoneProvider = timeZoneProvider;
+    }
+
     @Activate
     public void activate(Map<String, Object> config) {
         modified(config);
@@ -86,9 +94,7 @@ public class InMemoryPersistenceService implements ModifiablePersistenceService
             Lock lock = persistItem.lock();
             lock.lock();
             try {
-                while (persistItem.database().size() > maxEntries) {
-                    persistItem.database().pollFirst();
-                }
+                persistItem.database().trim(maxEntries);
             } finally {
                 lock.unlock();
             }
@@ -146,8 +152,9 @@ public class InMemoryPersistenceService implements ModifiablePersistenceService
         Lock lock = persistItem.lock();
         lock.lock();
         try {
-            List<PersistEntry> toRemove = persistItem.database().stream().filter(e -> applies(e, filter)).toList();
-            toRemove.forEach(persistItem.database()::remove);
+            InMemoryTimeSeries database = persistItem.database();
+            database.removeIf(getFirstIndex(database, filter), getLastIndex(database, filter),
+                    index -> applies(database.getState(index), filter));
         } finally {
             lock.unlock();
         }
@@ -169,13 +176,40 @@ public class InMemoryPersistenceService implements ModifiablePersistenceService
         Lock lock = persistItem.lock();
         lock.lock();
         try {
-            return persistItem.database().stream().filter(e -> applies(e, filter)).map(e -> toHistoricItem(itemName, e))
-                    .toList();
+            InMemoryTimeSeries database = persistItem.database();
+            int lastIndex = getLastIndex(database, filter);
+            List<HistoricItem> result = new ArrayList<>();
+            for (int index = getFirstIndex(database, filter); index < lastIndex; index++) {
+                State state = database.getState(index);
+                if (applies(state, filter)) {
+                    result.add(toHistoricItem(itemName, toZonedDateTime(database.getTimestamp(index)), state));
+                }
+            }
+            return result;
         } finally {
             lock.unlock();
         }
     }
 
+    /**
+     * Returns the estimated memory used by the stored values of each item.
+     *
+     * @return the memory footprint in bytes by item name
+     */
+    public Map<String, Long> getMemoryUsage() {
+        Map<String, Long> memoryUsage = new HashMap<>();
+        persistMap.forEach((name, persistItem) -> {
+            Lock lock = persistItem.lock();
+            lock.lock();
+            try {
+                memoryUsage.put(name, persistItem.database().getMemoryUsage());
+            } finally {
+                lock.unlock();
+            }
+        });
+        return memoryUsage;
+    }
+
     @Override
     public List<PersistenceStrategy> getDefaultStrategies() {
         // persist nothing by default
@@ -187,9 +221,12 @@ public class InMemoryPersistenceService implements ModifiablePersistenceService
         lock.lock();
         try {
             String name = itemEntry.getKey();
-            Integer count = itemEntry.getValue().database().size();
-            Instant earliest = itemEntry.getValue().database().first().timestamp().toInstant();
-            Instant latest = itemEntry.getValue().database.last().timestamp.toInstant();
+            InMemoryTimeSeries database = itemEntry.getValue().database();
+            Integer count = database.size();
+            @Nullable
+            Instant earliest = count > 0 ? Instant.ofEpochMilli(database.getTimestamp(0)) : null;
+            @Nullable
+            Instant latest = count > 0 ? Instant.ofEpochMilli(database.getTimestamp(count - 1)) : null;
             return new PersistenceItemInfo() {
 
                 @Override
@@ -204,12 +241,12 @@ public class InMemoryPersistenceService implements ModifiablePersistenceService
 
                 @Override
                 public @Nullable Date getEarliest() {
-                    return Date.from(earliest);
+                    return earliest != null ? Date.from(earliest) : null;
                 }
 
                 @Override
                 public @Nullable Date getLatest() {
-                    return Date.from(latest);
+                    return latest != null ? Date.from(latest) : null;
                 }
             };
         } finally {
@@ -217,16 +254,16 @@ public class InMemoryPersistenceService implements ModifiablePersistenceService
         }
     }
 
-    private HistoricItem toHistoricItem(String itemName, PersistEntry entry) {
+    private HistoricItem toHistoricItem(String itemName, ZonedDateTime timestamp, State state) {
         return new HistoricItem() {
             @Override
             public ZonedDateTime getTimestamp() {
-                return entry.timestamp();
+                return timestamp;
             }
 
             @Override
             public State getState() {
-                return entry.state();
+                return state;
             }
 
             @Override
@@ -242,33 +279,45 @@ public class InMemoryPersistenceService implements ModifiablePersistenceService
         }
 
         PersistItem persistItem = Objects.requireNonNull(persistMap.computeIfAbsent(itemName,
-                k -> new PersistItem(new TreeSet<>(Comparator.comparing(PersistEntry::timestamp)),
-                        new ReentrantLock())));
+                k -> new PersistItem(new InMemoryTimeSeries(), new ReentrantLock())));
 
         Lock lock = persistItem.lock();
         lock.lock();
         try {
-            persistItem.database().add(new PersistEntry(timestamp, state));
-
-            while (persistItem.database.size() > maxEntries) {
-                persistItem.database().pollFirst();
+            InMemoryTimeSeries database = persistItem.database();
+            int capacity = database.capacity();
+            database.add(timestamp.toInstant().toEpochMilli(), state, maxEntries);
+            if (database.capacity() != capacity && logger.isDebugEnabled()) {
+                logger.debug("Storage of item '{}' resized to {} values, using about {} bytes", itemName,
+                        database.capacity(), database.getMemoryUsage());
             }
         } finally {
             lock.unlock();
         }
     }
 
-    @SuppressWarnings({ "rawType", "unchecked" })
-    private boolean applies(PersistEntry entry, FilterCriteria filter) {
+    private int getFirstIndex(InMemoryTimeSeries database, FilterCriteria filter) {
         ZonedDateTime beginDate = filter.getBeginDate();
-        if (beginDate != null && entry.timestamp().isBefore(beginDate)) {
-            return false;
+        if (beginDate == null) {
+            return 0;
         }
+        Instant begin = beginDate.toInstant();
+        // values are stored with millisecond precision, a begin within a millisecond excludes that millisecond
+        long beginMillis = begin.toEpochMilli() + (begin.getNano() % 1_000_000 != 0 ? 1 : 0);
+        return database.lowerBound(beginMillis);
+    }
+
+    private int getLastIndex(InMemoryTimeSeries database, FilterCriteria filter) {
         ZonedDateTime endDate = filter.getEndDate();
-        if (endDate != null && entry.timestamp().isAfter(endDate)) {
-            return false;
-        }
+        return endDate == null ? database.size() : database.upperBound(endDate.toInstant().toEpochMilli());
+    }
+
+    private ZonedDateTime toZonedDateTime(long timestamp) {
+        return Instant.ofEpochMilli(timestamp).atZone(timeZoneProvider.getTimeZone());
+    }
 
+    @SuppressWarnings({ "rawType", "unchecked" })
+    private boolean applies(State state, FilterCriteria filter) {
         State refState = filter.getState();
         FilterCriteria.Operator operator = filter.getOperator();
         if (refState == null) {
@@ -277,14 +326,14 @@ public class InMemoryPersistenceService implements ModifiablePersistenceService
         }
 
         if (operator == FilterCriteria.Operator.EQ) {
-            return entry.state().equals(refState);
+            return state.equals(refState);
         }
 
         if (operator == FilterCriteria.Operator.NEQ) {
-            return !entry.state().equals(refState);
+            return !state.equals(refState);
         }
 
-        if (entry.state() instanceof Comparable comparableState && entry.state.getClass().equals(refState.getClass())) {
+        if (state instanceof Comparable comparableState && state.getClass().equals(refState.getClass())) {
             if (operator == FilterCriteria.Operator.GT) {
                 return comparableState.compareTo(refState) > 0;
             }
@@ -303,9 +352,6 @@ public class InMemoryPersistenceService implements ModifiablePersistenceService
         return true;
     }
 
-    private record PersistEntry(ZonedDateTime timestamp, State state) {
-    };
-
-    private record PersistItem(TreeSet<PersistEntry> database, Lock lock) {
+    private record PersistItem(InMemoryTimeSeries database, Lock lock) {
     };
 }
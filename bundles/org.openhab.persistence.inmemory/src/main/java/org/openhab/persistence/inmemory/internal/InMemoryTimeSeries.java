@@ -0,0 +1,303 @@
+/**
+ * Copyright (c) 2010-2023 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.inmemory.internal;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+import java.util.function.IntPredicate;
+
+import javax.measure.Unit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.library.types.QuantityType;
+import org.openhab.core.types.State;
+
+/**
+ * The {@link InMemoryTimeSeries} stores the values of an item ordered by their timestamp.
+ *
+ * Timestamps (epoch milliseconds) and numeric values are kept in primitive arrays that are used as a ring buffer, so
+ * that appending a value and evicting the oldest value do not allocate. A {@link DecimalType} or a
+ * {@link QuantityType} with the unit of the first numeric value is stored as a double if it can be restored exactly,
+ * including its scale. All other states are kept as objects in an additional array, which is only allocated when the
+ * first such state is stored.
+ *
+ * Values are addressed by their index in timestamp order. The class is not thread-safe.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class InMemoryTimeSeries {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final @Nullable State[] NO_STATES = new State[0];
+
+    private long[] timestamps = new long[INITIAL_CAPACITY];
+    private double[] values = new double[INITIAL_CAPACITY];
+    // null elements are numeric values, an empty array means that all values are numeric
+    private @Nullable State[] states = NO_STATES;
+    private boolean hasNumericValues;
+    private @Nullable Unit<?> unit;
+    private int start;
+    private int size;
+
+    /**
+     * Adds a value. A value with the same timestamp as an already stored value replaces that value.
+     *
+     * @param timestamp the timestamp in epoch milliseconds
+     * @param state the state to store
+     * @param maxEntries the maximum number of values, the oldest value is removed if it is exceeded (0 = infinite)
+     */
+    public void add(long timestamp, State state, long maxEntries) {
+        int index = lowerBound(timestamp);
+        if (index < size && timestamps[physical(index)] == timestamp) {
+            set(physical(index), state);
+            return;
+        }
+        if (maxEntries > 0 && size >= maxEntries) {
+            if (index == 0) {
+                // older than all stored values, it would be removed immediately
+                return;
+            }
+            removeOldest();
+            index--;
+        }
+        if (size == timestamps.length) {
+            resize(maxEntries > 0 ? (int) Math.min(2L * size, maxEntries) : 2 * size);
+        }
+        // move the newer values by one, nothing is moved if the value is appended
+        for (int i = size; i > index; i--) {
+            int to = physical(i);
+            int from = physical(i - 1);
+            timestamps[to] = timestamps[from];
+            values[to] = values[from];
+            if (states.length > 0) {
+                states[to] = states[from];
+            }
+        }
+        size++;
+        int position = physical(index);
+        timestamps[position] = timestamp;
+        set(position, state);
+    }
+
+    /**
+     * Removes the oldest values until at most the given number of values is stored.
+     *
+     * @param maxEntries the maximum number of values (0 = infinite)
+     */
+    public void trim(long maxEntries) {
+        if (maxEntries <= 0 || size <= maxEntries) {
+            return;
+        }
+        while (size > maxEntries) {
+            removeOldest();
+        }
+        resize(Math.max(size, INITIAL_CAPACITY));
+    }
+
+    /**
+     * Removes all values in an index range that match a predicate.
+     *
+     * @param fromIndex the index of the first value to test (inclusive)
+     * @param toIndex the index of the last value to test (exclusive)
+     * @param predicate tests the index of a value and returns <code>true</code> if it shall be removed
+     */
+    public void removeIf(int fromIndex, int toIndex, IntPredicate predicate) {
+        int target = fromIndex;
+        for (int i = fromIndex; i < size; i++) {
+            if (i < toIndex && predicate.test(i)) {
+                continue;
+            }
+            if (target != i) {
+                int to = physical(target);
+                int from = physical(i);
+                timestamps[to] = timestamps[from];
+                values[to] = values[from];
+                if (states.length > 0) {
+                    states[to] = states[from];
+                }
+            }
+            target++;
+        }
+        if (states.length > 0) {
+            for (int i = target; i < size; i++) {
+                states[physical(i)] = null;
+            }
+        }
+        size = target;
+    }
+
+    /**
+     * Returns the index of the first value with a timestamp at or after the given timestamp.
+     *
+     * @param timestamp the timestamp in epoch milliseconds
+     * @return the index, or the number of values if all values are older
+     */
+    public int lowerBound(long timestamp) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timestamps[physical(mid)] < timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the index of the first value with a timestamp after the given timestamp.
+     *
+     * @param timestamp the timestamp in epoch milliseconds
+     * @return the index, or the number of values if no value is newer
+     */
+    public int upperBound(long timestamp) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timestamps[physical(mid)] <= timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    public long getTimestamp(int index) {
+        return timestamps[physical(index)];
+    }
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    public State getState(int index) {
+        int position = physical(index);
+        State state = states.length > 0 ? states[position] : null;
+        if (state != null) {
+            return state;
+        }
+        BigDecimal value = toDecimal(values[position]);
+        Unit<?> unit = this.unit;
+        return unit != null ? new QuantityType(value, unit) : new DecimalType(value);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return timestamps.length;
+    }
+
+    /**
+     * Returns the estimated memory used by the arrays of this time series. States that are stored as objects are
+     * only counted with their reference, as they are usually shared with the item.
+     *
+     * @return the memory footprint in bytes
+     */
+    public long getMemoryUsage() {
+        // object header and fields, array headers and elements, with compressed references
+        long usage = 48;
+        usage += 16 + 8L * timestamps.length;
+        usage += 16 + 8L * values.length;
+        usage += 16 + 4L * states.length;
+        return usage;
+    }
+
+    private int physical(int index) {
+        int position = start + index;
+        return position < timestamps.length ? position : position - timestamps.length;
+    }
+
+    private void set(int position, State state) {
+        double value = toDouble(state);
+        if (!Double.isNaN(value)) {
+            values[position] = value;
+            if (states.length > 0) {
+                states[position] = null;
+            }
+        } else {
+            if (states.length == 0) {
+                states = new State[timestamps.length];
+            }
+            states[position] = state;
+        }
+    }
+
+    /**
+     * Converts a state to a double that can be stored in the numeric column.
+     *
+     * @return the value, or {@link Double#NaN} if the state must be stored as an object
+     */
+    private double toDouble(State state) {
+        BigDecimal decimal;
+        Unit<?> stateUnit;
+        if (state.getClass() == DecimalType.class) {
+            decimal = ((DecimalType) state).toBigDecimal();
+            stateUnit = null;
+        } else if (state instanceof QuantityType<?> quantity) {
+            decimal = quantity.toBigDecimal();
+            stateUnit = quantity.getUnit();
+        } else {
+            return Double.NaN;
+        }
+        if (hasNumericValues && !Objects.equals(unit, stateUnit)) {
+            return Double.NaN;
+        }
+        double value = decimal.doubleValue();
+        if (Double.isNaN(value) || Double.isInfinite(value) || !toDecimal(value).equals(decimal)) {
+            // the value cannot be restored exactly, including its scale
+            return Double.NaN;
+        }
+        hasNumericValues = true;
+        unit = stateUnit;
+        return value;
+    }
+
+    private static BigDecimal toDecimal(double value) {
+        if (value == Math.rint(value) && Math.abs(value) < 1L << 53) {
+            return BigDecimal.valueOf((long) value);
+        }
+        return BigDecimal.valueOf(value);
+    }
+
+    private void removeOldest() {
+        if (states.length > 0) {
+            states[start] = null;
+        }
+        start = physical(1);
+        size--;
+    }
+
+    private void resize(int capacity) {
+        long[] newTimestamps = new long[capacity];
+        double[] newValues = new double[capacity];
+        @Nullable
+        State[] newStates = states.length > 0 ? new State[capacity] : NO_STATES;
+        for (int i = 0; i < size; i++) {
+            int position = physical(i);
+            newTimestamps[i] = timestamps[position];
+            newValues[i] = values[position];
+            if (states.length > 0) {
+                newStates[i] = states[position];
+            }
+        }
+        timestamps = newTimestamps;
+        values = newValues;
+        states = newStates;
+        start = 0;
+    }
+}
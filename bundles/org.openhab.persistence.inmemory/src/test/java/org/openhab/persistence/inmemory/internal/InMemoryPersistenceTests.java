@@ -14,14 +14,20 @@ package org.openhab.persistence.inmemory.internal;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.Mockito.when;
 
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
 import java.util.TreeSet;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -32,11 +38,15 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.openhab.core.i18n.TimeZoneProvider;
 import org.openhab.core.items.GenericItem;
 import org.openhab.core.library.types.DecimalType;
 import org.openhab.core.library.types.HSBType;
+import org.openhab.core.library.types.OnOffType;
 import org.openhab.core.library.types.PercentType;
+import org.openhab.core.library.types.QuantityType;
 import org.openhab.core.library.types.StringType;
+import org.openhab.core.library.unit.SIUnits;
 import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.core.persistence.HistoricItem;
 import org.openhab.core.types.State;
@@ -55,6 +65,7 @@ public class InMemoryPersistenceTests {
 
     private @NonNullByDefault({}) InMemoryPersistenceService service;
     private @NonNullByDefault({}) @Mock GenericItem item;
+    private @NonNullByDefault({}) @Mock TimeZoneProvider timeZoneProvider;
 
     private @NonNullByDefault({}) FilterCriteria filterCriteria;
 
@@ -65,7 +76,8 @@ public class InMemoryPersistenceTests {
         filterCriteria = new FilterCriteria();
         filterCriteria.setItemName(ITEM_NAME);
 
-        service = new InMemoryPersistenceService();
+        when(timeZoneProvider.getTimeZone()).thenReturn(ZoneId.systemDefault());
+        service = new InMemoryPersistenceService(timeZoneProvider);
     }
 
     @Test
@@ -128,6 +140,20 @@ public class InMemoryPersistenceTests {
         assertThat(storedStates.first().getTimestamp(), is(expectedTime));
     }
 
+    @Test
+    public void queryReturnsTimestampsInConfiguredTimeZone() {
+        ZoneId zone = ZoneId.of("Pacific/Auckland");
+        when(timeZoneProvider.getTimeZone()).thenReturn(zone);
+        ZonedDateTime time = ZonedDateTime.of(2022, 05, 31, 10, 0, 0, 0, ZoneId.of("UTC"));
+        service.store(item, time, new DecimalType(1));
+
+        List<HistoricItem> storedStates = new ArrayList<>();
+        service.query(filterCriteria).forEach(storedStates::add);
+
+        assertThat(storedStates, hasSize(1));
+        assertThat(storedStates.get(0).getTimestamp(), is(time.withZoneSameInstant(zone)));
+    }
+
     @Test
     public void queryWithoutItemNameReturnsEmptyList() {
         TreeSet<HistoricItem> storedStates = new TreeSet<>(Comparator.comparing(HistoricItem::getTimestamp));
@@ -180,4 +206,74 @@ public class InMemoryPersistenceTests {
         assertThat(storedStates.last().getState(), is(historicState3));
         assertThat(storedStates.last().getTimestamp(), is(expectedTime.plusHours(4)));
     }
+
+    private List<State> queryStates() {
+        List<State> states = new ArrayList<>();
+        service.query(filterCriteria).forEach(historicItem -> states.add(historicItem.getState()));
+        return states;
+    }
+
+    @Test
+    public void numericAndOtherStatesAreRestored() {
+        ZonedDateTime time = ZonedDateTime.of(2022, 05, 31, 10, 0, 0, 0, ZoneId.systemDefault());
+        State quantity = new QuantityType<>("21.5 °C");
+        State otherUnit = new QuantityType<>(70, SIUnits.CELSIUS.getSystemUnit());
+        State precise = new DecimalType("0.12345678901234567890123");
+        service.store(item, time, quantity);
+        service.store(item, time.plusMinutes(1), otherUnit);
+        service.store(item, time.plusMinutes(2), precise);
+        service.store(item, time.plusMinutes(3), OnOffType.ON);
+        State negative = new QuantityType<>("-3 °C");
+        service.store(item, time.plusMinutes(4), negative);
+
+        List<State> states = queryStates();
+        assertThat(states, contains(quantity, otherUnit, precise, OnOffType.ON, negative));
+        assertThat(states.get(4), is(instanceOf(QuantityType.class)));
+        assertThat(((QuantityType<?>) states.get(4)).getUnit(), is(SIUnits.CELSIUS));
+        assertThat(service.getMemoryUsage().get(ITEM_NAME), is(greaterThan(0L)));
+    }
+
+    @Test
+    public void oldestValuesAreRemovedWhenMaxEntriesIsReached() {
+        service.activate(Map.of("maxEntries", 3L));
+        ZonedDateTime time = ZonedDateTime.of(2022, 05, 31, 10, 0, 0, 0, ZoneId.systemDefault());
+        for (int i = 0; i < 40; i++) {
+            service.store(item, time.plusMinutes(i), new DecimalType(i));
+        }
+        // older than all stored values
+        service.store(item, time, new DecimalType(100));
+        // inserted between stored values
+        service.store(item, time.plusMinutes(38).plusSeconds(30), new DecimalType(101));
+        // replaces the value with the same timestamp
+        service.store(item, time.plusMinutes(39), new DecimalType(102));
+
+        assertThat(queryStates(), contains(new DecimalType(38), new DecimalType(101), new DecimalType(102)));
+
+        service.modified(Map.of("maxEntries", 1L));
+        assertThat(queryStates(), contains(new DecimalType(102)));
+    }
+
+    @Test
+    public void queryAndRemoveWithinTimeRange() {
+        ZonedDateTime time = ZonedDateTime.of(2022, 05, 31, 10, 0, 0, 0, ZoneId.systemDefault());
+        for (int i = 0; i < 10; i++) {
+            service.store(item, time.plusMinutes(i), new DecimalType(i % 2));
+        }
+
+        filterCriteria.setBeginDate(time.plusMinutes(2));
+        filterCriteria.setEndDate(time.plusMinutes(5));
+        assertThat(queryStates(), contains(new DecimalType(0), new DecimalType(1), new DecimalType(0),
+                new DecimalType(1)));
+
+        filterCriteria.setState(new DecimalType(1));
+        filterCriteria.setOperator(FilterCriteria.Operator.EQ);
+        service.remove(filterCriteria);
+
+        filterCriteria = new FilterCriteria();
+        filterCriteria.setItemName(ITEM_NAME);
+        filterCriteria.setBeginDate(time.plusMinutes(1));
+        filterCriteria.setEndDate(time.plusMinutes(6));
+        assertThat(queryStates(), contains(new DecimalType(1), new DecimalType(0), new DecimalType(0),
+                new DecimalType(0)));
+    }
 }
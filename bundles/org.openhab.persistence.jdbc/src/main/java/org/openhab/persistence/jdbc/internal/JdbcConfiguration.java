@@ -24,6 +24,7 @@ import java.util.regex.Pattern;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.persistence.jdbc.internal.db.JdbcBaseDAO;
+import org.openhab.persistence.jdbc.internal.dto.AggregationFunction;
 import org.openhab.persistence.jdbc.internal.utils.MovingAverage;
 import org.openhab.persistence.jdbc.internal.utils.StringUtilsExt;
 import org.slf4j.Logger;
@@ -65,6 +66,20 @@ public class JdbcConfiguration {
 
     private int errReconnectThreshold = 0;
 
+    // write-behind mode, disabled if writeQueueSize is 0
+    private int writeQueueSize = 0;
+    private int writeBatchSize = 100;
+    private int writeFlushInterval = 1000;
+    private JdbcWriteQueue.OverflowPolicy writeOverflowPolicy = JdbcWriteQueue.OverflowPolicy.DROP_OLDEST;
+
+    // downsampling of long-range queries, disabled if aggregationMaxPoints is 0
+    private int aggregationMaxPoints = 0;
+    private AggregationFunction aggregationFunction = AggregationFunction.MINMAX;
+
+    // streaming of query results, disabled if queryFetchSize is 0
+    private int queryFetchSize = 0;
+    private int queryMaxOpenCursors = 2;
+
     public int timerCount = 0;
     public int time1000Statements = 0;
     public long timer1000 = 0;
@@ -189,6 +204,72 @@ public class JdbcConfiguration {
             logger.debug("JDBC::updateConfig: rebuildTableNames={}", rebuildTableNames);
         }
 
+        String wq = (String) configuration.get("writeQueueSize");
+        if (wq != null && !wq.isBlank() && isNumericPattern.matcher(wq).matches()) {
+            writeQueueSize = Integer.parseInt(wq);
+            logger.debug("JDBC::updateConfig: writeQueueSize={}", writeQueueSize);
+        }
+
+        String wb = (String) configuration.get("writeBatchSize");
+        if (wb != null && !wb.isBlank() && isNumericPattern.matcher(wb).matches()) {
+            writeBatchSize = Math.max(1, Integer.parseInt(wb));
+            logger.debug("JDBC::updateConfig: writeBatchSize={}", writeBatchSize);
+        }
+
+        String wf = (String) configuration.get("writeFlushInterval");
+        if (wf != null && !wf.isBlank() && isNumericPattern.matcher(wf).matches()) {
+            writeFlushInterval = Math.max(1, Integer.parseInt(wf));
+            logger.debug("JDBC::updateConfig: writeFlushInterval={}", writeFlushInterval);
+        }
+
+        String wo = (String) configuration.get("writeOverflowPolicy");
+        if (wo != null && !wo.isBlank()) {
+            switch (wo.toLowerCase()) {
+                case "dropnewest":
+                    writeOverflowPolicy = JdbcWriteQueue.OverflowPolicy.DROP_NEWEST;
+                    break;
+                case "dropoldest":
+                    writeOverflowPolicy = JdbcWriteQueue.OverflowPolicy.DROP_OLDEST;
+                    break;
+                case "block":
+                    writeOverflowPolicy = JdbcWriteQueue.OverflowPolicy.BLOCK;
+                    break;
+                default:
+                    logger.warn("JDBC::updateConfig: unknown writeOverflowPolicy '{}', using '{}'", wo,
+                            writeOverflowPolicy);
+            }
+            logger.debug("JDBC::updateConfig: writeOverflowPolicy={}", writeOverflowPolicy);
+        }
+
+        String am = (String) configuration.get("aggregationMaxPoints");
+        if (am != null && !am.isBlank() && isNumericPattern.matcher(am).matches()) {
+            aggregationMaxPoints = Integer.parseInt(am);
+            logger.debug("JDBC::updateConfig: aggregationMaxPoints={}", aggregationMaxPoints);
+        }
+
+        String af = (String) configuration.get("aggregationFunction");
+        if (af != null && !af.isBlank()) {
+            try {
+                aggregationFunction = AggregationFunction.valueOf(af.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                logger.warn("JDBC::updateConfig: unknown aggregationFunction '{}', using '{}'", af,
+                        aggregationFunction);
+            }
+            logger.debug("JDBC::updateConfig: aggregationFunction={}", aggregationFunction);
+        }
+
+        String qf = (String) configuration.get("queryFetchSize");
+        if (qf != null && !qf.isBlank() && isNumericPattern.matcher(qf).matches()) {
+            queryFetchSize = Integer.parseInt(qf);
+            logger.debug("JDBC::updateConfig: queryFetchSize={}", queryFetchSize);
+        }
+
+        String qc = (String) configuration.get("queryMaxOpenCursors");
+        if (qc != null && !qc.isBlank() && isNumericPattern.matcher(qc).matches()) {
+            queryMaxOpenCursors = Integer.parseInt(qc);
+            logger.debug("JDBC::updateConfig: queryMaxOpenCursors={}", queryMaxOpenCursors);
+        }
+
         // undocumented
         String ac = (String) configuration.get("maximumPoolSize");
         if (ac != null && !ac.isBlank()) {
@@ -394,6 +475,56 @@ public class JdbcConfiguration {
         return tableUseRealItemNames && tableCaseSensitiveItemNames;
     }
 
+    /**
+     * Checks if the write-behind mode is enabled.
+     *
+     * @return true if a write queue size greater than 0 is configured.
+     */
+    public boolean isWriteBehindEnabled() {
+        return writeQueueSize > 0;
+    }
+
+    public int getWriteQueueSize() {
+        return writeQueueSize;
+    }
+
+    public int getWriteBatchSize() {
+        return writeBatchSize;
+    }
+
+    public int getWriteFlushInterval() {
+        return writeFlushInterval;
+    }
+
+    public JdbcWriteQueue.OverflowPolicy getWriteOverflowPolicy() {
+        return writeOverflowPolicy;
+    }
+
+    public int getAggregationMaxPoints() {
+        return aggregationMaxPoints;
+    }
+
+    public AggregationFunction getAggregationFunction() {
+        return aggregationFunction;
+    }
+
+    /**
+     * Checks if query results are streamed.
+     *
+     * @return true if a query fetch size greater than 0 is configured.
+     */
+    public boolean isStreamingQueryEnabled() {
+        return queryFetchSize > 0;
+    }
+
+    public int getQueryFetchSize() {
+        return queryFetchSize;
+    }
+
+    public int getQueryMaxOpenCursors() {
+        return queryMaxOpenCursors;
+    }
+
     public int getTableIdDigitCount() {
         return tableIdDigitCount;
     }
@@ -421,6 +552,8 @@ public class JdbcConfiguration {
         dBDAO.initAfterFirstDbConnection();
         // Running once again to prior external configured SqlTypes!
         setSqlTypes();
+        // Statements rendered before are outdated now
+        dBDAO.invalidateStatementCache();
         this.dbConnected = dbConnected;
     }
 
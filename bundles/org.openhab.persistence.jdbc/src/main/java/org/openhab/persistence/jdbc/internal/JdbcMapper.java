@@ -16,10 +16,14 @@ import java.sql.SQLInvalidAuthorizationSpecException;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -32,10 +36,13 @@ import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.core.persistence.HistoricItem;
 import org.openhab.core.persistence.PersistenceItemInfo;
 import org.openhab.core.types.State;
+import org.openhab.persistence.jdbc.internal.db.JdbcHistoricItemIterable;
+import org.openhab.persistence.jdbc.internal.dto.AggregationFunction;
 import org.openhab.persistence.jdbc.internal.dto.Column;
 import org.openhab.persistence.jdbc.internal.dto.ItemVO;
 import org.openhab.persistence.jdbc.internal.dto.ItemsVO;
 import org.openhab.persistence.jdbc.internal.dto.JdbcPersistenceItemInfo;
+import org.openhab.persistence.jdbc.internal.dto.PendingItemValue;
 import org.openhab.persistence.jdbc.internal.exceptions.JdbcException;
 import org.openhab.persistence.jdbc.internal.exceptions.JdbcSQLException;
 import org.slf4j.Logger;
@@ -56,10 +63,12 @@ public class JdbcMapper {
     private final TimeZoneProvider timeZoneProvider;
 
     // Error counter - used to reconnect to database on error
-    protected int errCnt;
+    protected volatile int errCnt;
     protected boolean initialized = false;
     protected @NonNullByDefault({}) JdbcConfiguration conf;
-    protected final Map<String, String> itemNameToTableNameMap = new HashMap<>();
+    protected final Map<String, String> itemNameToTableNameMap = new ConcurrentHashMap<>();
+    // Table creations in progress, so that a table is created only once when several threads store the same new item
+    private final Map<String, CompletableFuture<String>> pendingTableCreations = new ConcurrentHashMap<>();
     protected @NonNullByDefault({}) NamingStrategy namingStrategy;
     private long afterAccessMin = 10000;
     private long afterAccessMax = 0;
@@ -142,6 +151,7 @@ public class JdbcMapper {
         logger.debug("JDBC::dropTable");
         long timerStart = System.currentTimeMillis();
         conf.getDBDAO().doDropTable(tableName);
+        conf.getDBDAO().invalidateStatementCache(tableName);
         logTime("doDropTable", timerStart, System.currentTimeMillis());
     }
 
@@ -193,6 +203,7 @@ public class JdbcMapper {
         logger.debug("JDBC::updateItemTableNames");
         long timerStart = System.currentTimeMillis();
         conf.getDBDAO().doUpdateItemTableNames(vol);
+        conf.getDBDAO().invalidateStatementCache();
         logTime("updateItemTableNames", timerStart, System.currentTimeMillis());
     }
 
@@ -209,6 +220,7 @@ public class JdbcMapper {
         logger.debug("JDBC::alterTableColumn");
         long timerStart = System.currentTimeMillis();
         conf.getDBDAO().doAlterTableColumn(tableName, columnName, columnType, nullable);
+        conf.getDBDAO().invalidateStatementCache(tableName);
         logTime("alterTableColumn", timerStart, System.currentTimeMillis());
     }
 
@@ -225,6 +237,46 @@ public class JdbcMapper {
         errCnt = 0;
     }
 
+    /**
+     * Store multiple values of the same item with one batched statement.
+     *
+     * @param values values to store, all belonging to the same item
+     * @throws JdbcException on SQL errors
+     */
+    protected void storeItemValues(List<PendingItemValue> values) throws JdbcException {
+        if (values.isEmpty()) {
+            return;
+        }
+        Item item = values.get(0).getItem();
+        logger.debug("JDBC::storeItemValues: item={} values={}", item, values.size());
+        String tableName = getTable(item);
+        // Several values with the same time would violate the primary key within one statement, keep the latest one
+        Map<Long, PendingItemValue> valuesByTime = new LinkedHashMap<>();
+        for (PendingItemValue value : values) {
+            valuesByTime.put(value.getDate().toInstant().toEpochMilli(), value);
+        }
+        long timerStart = System.currentTimeMillis();
+        conf.getDBDAO().doStoreItemValues(tableName, new ArrayList<>(valuesByTime.values()));
+        logTime("storeItemValues", timerStart, System.currentTimeMillis());
+        errCnt = 0;
+    }
+
+    /**
+     * Counts a failed store of one or more values. When more than <code>errReconnectThreshold</code> stores failed in a
+     * row, the connection pool is closed and opened again.
+     */
+    protected synchronized void handleStoreError() {
+        errCnt++;
+        int threshold = conf.getErrReconnectThreshold();
+        if (threshold > 0 && errCnt > threshold) {
+            logger.warn("JDBC::handleStoreError: {} stores failed in a row, reconnecting to database", errCnt);
+            closeConnection();
+            if (openConnection()) {
+                errCnt = 0;
+            }
+        }
+    }
+
     public long getRowCount(String tableName) throws JdbcSQLException {
         return conf.getDBDAO().doGetRowCount(tableName);
     }
@@ -242,6 +294,27 @@ public class JdbcMapper {
         return result;
     }
 
+    protected JdbcHistoricItemIterable getHistItemFilterQueryStreaming(FilterCriteria filter, int numberDecimalcount,
+            String table, Item item, int fetchSize) {
+        logger.debug("JDBC::getHistItemFilterQueryStreaming filter='{}' table='{}' item='{}' fetchSize='{}'", filter,
+                table, item.getName(), fetchSize);
+        return conf.getDBDAO().doGetHistItemFilterQueryStreaming(item, filter, numberDecimalcount, table,
+                item.getName(), timeZoneProvider.getTimeZone(), fetchSize);
+    }
+
+    protected List<HistoricItem> getHistItemAggregatedQuery(FilterCriteria filter, int numberDecimalcount, String table,
+            Item item, AggregationFunction function, long bucketSeconds) throws JdbcSQLException {
+        logger.debug(
+                "JDBC::getHistItemAggregatedQuery filter='{}' table='{}' item='{}' function='{}' bucketSeconds='{}'",
+                filter, table, item.getName(), function, bucketSeconds);
+        long timerStart = System.currentTimeMillis();
+        List<HistoricItem> result = conf.getDBDAO().doGetHistItemAggregatedQuery(item, filter, numberDecimalcount,
+                table, function, bucketSeconds, timeZoneProvider.getTimeZone());
+        logTime("getHistItemAggregatedQuery", timerStart, System.currentTimeMillis());
+        errCnt = 0;
+        return result;
+    }
+
     protected void deleteItemValues(FilterCriteria filter, String table) throws JdbcSQLException {
         logger.debug("JDBC::deleteItemValues filter='{}' table='{}' itemName='{}'", true, table, filter.getItemName());
         long timerStart = System.currentTimeMillis();
@@ -335,10 +408,11 @@ public class JdbcMapper {
     }
 
     public void populateItemNameToTableNameMap() throws JdbcSQLException {
-        itemNameToTableNameMap.clear();
+        // Build the new mapping first, so concurrent lookups never miss an existing table and create it again
+        Map<String, String> newItemNameToTableNameMap = new HashMap<>();
         if (conf.getTableUseRealCaseSensitiveItemNames()) {
             for (String itemName : getItemTables().stream().map(t -> t.getTableName()).collect(Collectors.toList())) {
-                itemNameToTableNameMap.put(itemName, itemName);
+                newItemNameToTableNameMap.put(itemName, itemName);
             }
         } else {
             for (ItemsVO vo : getItemIDTableNames()) {
@@ -347,10 +421,12 @@ public class JdbcMapper {
                     logger.warn("Skipping invalid item name {}", itemName);
                     continue;
                 }
-                itemNameToTableNameMap.put(vo.getItemName(),
+                newItemNameToTableNameMap.put(vo.getItemName(),
                         namingStrategy.getTableName(vo.getItemId(), vo.getItemName()));
             }
         }
+        itemNameToTableNameMap.putAll(newItemNameToTableNameMap);
+        itemNameToTableNameMap.keySet().retainAll(newItemNameToTableNameMap.keySet());
     }
 
     protected String getTable(Item item) throws JdbcException {
@@ -367,6 +443,45 @@ public class JdbcMapper {
 
         logger.debug("JDBC::getTable: no table found for item '{}' in itemNameToTableNameMap", itemName);
 
+        // Only the first caller creates the table, all other callers for the same item wait for its result
+        CompletableFuture<String> tableCreation = new CompletableFuture<>();
+        CompletableFuture<String> pendingTableCreation = pendingTableCreations.putIfAbsent(itemName, tableCreation);
+        if (pendingTableCreation != null) {
+            logger.debug("JDBC::getTable: waiting for table creation of item '{}'", itemName);
+            try {
+                return pendingTableCreation.join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                throw cause instanceof JdbcException jdbcException ? jdbcException
+                        : new JdbcException("Unable to create table for item " + itemName, e);
+            }
+        }
+        try {
+            // The table may have been created while this caller was checking the map
+            tableName = itemNameToTableNameMap.get(itemName);
+            if (tableName == null) {
+                tableName = createTable(item);
+                itemNameToTableNameMap.put(itemName, tableName);
+            }
+            tableCreation.complete(tableName);
+            return tableName;
+        } catch (JdbcException | RuntimeException e) {
+            tableCreation.completeExceptionally(e);
+            throw e;
+        } finally {
+            pendingTableCreations.remove(itemName, tableCreation);
+        }
+    }
+
+    /**
+     * Creates the items table entry and the table of an item.
+     *
+     * @param item the item
+     * @return the name of the created table
+     * @throws JdbcException on SQL errors
+     */
+    protected String createTable(Item item) throws JdbcException {
+        String itemName = item.getName();
         int itemId = 0;
 
         if (!conf.getTableUseRealCaseSensitiveItemNames()) {
@@ -383,7 +498,7 @@ public class JdbcMapper {
 
         // Create the table name
         logger.debug("JDBC::getTable: getTableName with rowId={} itemName={}", itemId, itemName);
-        tableName = namingStrategy.getTableName(itemId, itemName);
+        String tableName = namingStrategy.getTableName(itemId, itemName);
 
         // Create table for item
         String dataType = conf.getDBDAO().getDataType(item);
@@ -393,8 +508,6 @@ public class JdbcMapper {
         logger.debug("JDBC::getTable: Table created for item '{}' with dataType {} in SQL database.", itemName,
                 dataType);
 
-        itemNameToTableNameMap.put(itemName, tableName);
-
         return tableName;
     }
 
@@ -12,6 +12,7 @@
  */
 package org.openhab.persistence.jdbc.internal;
 
+import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -41,8 +42,10 @@ import org.openhab.core.persistence.strategy.PersistenceStrategy;
 import org.openhab.core.types.State;
 import org.openhab.core.types.UnDefType;
 import org.openhab.persistence.jdbc.internal.db.JdbcBaseDAO;
+import org.openhab.persistence.jdbc.internal.db.JdbcHistoricItemIterable;
 import org.openhab.persistence.jdbc.internal.dto.Column;
 import org.openhab.persistence.jdbc.internal.dto.ItemsVO;
+import org.openhab.persistence.jdbc.internal.dto.PendingItemValue;
 import org.openhab.persistence.jdbc.internal.exceptions.JdbcException;
 import org.openhab.persistence.jdbc.internal.exceptions.JdbcSQLException;
 import org.osgi.framework.BundleContext;
@@ -71,6 +74,8 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
 
     private final ItemRegistry itemRegistry;
 
+    private volatile @Nullable JdbcWriteQueue writeQueue;
+
     @Activate
     public JdbcPersistenceService(final @Reference ItemRegistry itemRegistry,
             final @Reference TimeZoneProvider timeZoneProvider) {
@@ -114,6 +119,7 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
     @Deactivate
     public void deactivate(final int reason) {
         logger.debug("JDBC::deactivate:  persistence bundle stopping. Disconnecting from database. reason={}", reason);
+        stopWriteQueue();
         // closeConnection();
         initialized = false;
     }
@@ -157,6 +163,18 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
                     state, item, errCnt, conf.getErrReconnectThreshold());
             return;
         }
+        JdbcWriteQueue writeQueue = this.writeQueue;
+        if (writeQueue != null) {
+            // the time must be taken now, as the value is stored later
+            if (writeQueue.add(new PendingItemValue(item, state, date != null ? date : ZonedDateTime.now()))) {
+                logger.trace("JDBC: Queued item '{}' as '{}', {} values queued.", item.getName(), state,
+                        writeQueue.getQueueSize());
+            } else {
+                logger.debug("JDBC::store: Write queue full, dropped state '{}' for item '{}'", state,
+                        item.getName());
+            }
+            return;
+        }
         try {
             long timerStart = System.currentTimeMillis();
             storeItemValue(item, state, date);
@@ -166,6 +184,7 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
             }
         } catch (JdbcException e) {
             logger.warn("JDBC::store: Unable to store item", e);
+            handleStoreError();
         }
     }
 
@@ -227,7 +246,19 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
 
         try {
             long timerStart = System.currentTimeMillis();
-            List<HistoricItem> items = getHistItemFilterQuery(filter, conf.getNumberDecimalcount(), table, item);
+            long bucketSeconds = getAggregationBucketSeconds(filter);
+            if (bucketSeconds == 0 && conf.isStreamingQueryEnabled() && filter.getPageSize() == Integer.MAX_VALUE
+                    && isCursorAvailable()) {
+                // rows are read while the result is iterated
+                logger.debug("JDBC: Query for item '{}' is streamed with fetch size {}", itemName,
+                        conf.getQueryFetchSize());
+                return getHistItemFilterQueryStreaming(filter, conf.getNumberDecimalcount(), table, item,
+                        conf.getQueryFetchSize());
+            }
+            List<HistoricItem> items = bucketSeconds > 0
+                    ? getHistItemAggregatedQuery(filter, conf.getNumberDecimalcount(), table, item,
+                            conf.getAggregationFunction(), bucketSeconds)
+                    : getHistItemFilterQuery(filter, conf.getNumberDecimalcount(), table, item);
             if (logger.isDebugEnabled()) {
                 logger.debug("JDBC: Query for item '{}' returned {} rows in {} ms", itemName, items.size(),
                         System.currentTimeMillis() - timerStart);
@@ -241,9 +272,45 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
         }
     }
 
+    /**
+     * Checks if another query can be streamed. Callers that do not read the whole result keep the connection of a
+     * streamed query until the result is garbage collected, so the number of these connections is limited.
+     */
+    private boolean isCursorAvailable() {
+        int openCursors = JdbcHistoricItemIterable.getTotalOpenCursorCount();
+        if (openCursors < conf.getQueryMaxOpenCursors()) {
+            return true;
+        }
+        logger.debug("JDBC: {} streamed query results are still open, loading the result into memory", openCursors);
+        return false;
+    }
+
+    /**
+     * Determines the bucket size for downsampling a query, so that it returns at most aggregationMaxPoints values.
+     * Only unpaged queries with begin and end date are downsampled, queries for a state are never downsampled.
+     *
+     * @param filter the query filter
+     * @return the bucket size in seconds or 0 if the query should not be downsampled
+     */
+    private long getAggregationBucketSeconds(FilterCriteria filter) {
+        int maxPoints = conf.getAggregationMaxPoints();
+        ZonedDateTime beginDate = filter.getBeginDate();
+        ZonedDateTime endDate = filter.getEndDate();
+        if (maxPoints <= 0 || beginDate == null || endDate == null || filter.getPageSize() != Integer.MAX_VALUE
+                || filter.getState() != null) {
+            return 0;
+        }
+        long rangeSeconds = Duration.between(beginDate, endDate).getSeconds();
+        if (rangeSeconds <= maxPoints) {
+            return 0;
+        }
+        return (rangeSeconds + maxPoints - 1) / maxPoints;
+    }
+
     public void updateConfig(Map<Object, Object> configuration) {
         logger.debug("JDBC::updateConfig");
 
+        stopWriteQueue();
         conf = new JdbcConfiguration(configuration);
         if (conf.valid && checkDBAccessability()) {
             namingStrategy = new NamingStrategy(conf);
@@ -258,10 +325,33 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
         } else {
             initialized = false;
         }
+        if (conf.valid && conf.isWriteBehindEnabled()) {
+            JdbcWriteQueue writeQueue = new JdbcWriteQueue(this, conf.getWriteQueueSize(), conf.getWriteBatchSize(),
+                    conf.getWriteFlushInterval(), conf.getWriteOverflowPolicy());
+            writeQueue.start();
+            this.writeQueue = writeQueue;
+        }
 
         logger.debug("JDBC::updateConfig: configuration complete for service={}.", getId());
     }
 
+    private void stopWriteQueue() {
+        JdbcWriteQueue writeQueue = this.writeQueue;
+        if (writeQueue != null) {
+            this.writeQueue = null;
+            writeQueue.stop();
+        }
+    }
+
+    /**
+     * Get the write queue used in write-behind mode.
+     *
+     * @return the write queue or null if write-behind mode is disabled
+     */
+    public @Nullable JdbcWriteQueue getWriteQueue() {
+        return writeQueue;
+    }
+
     @Override
     public List<PersistenceStrategy> getDefaultStrategies() {
         return List.of(PersistenceStrategy.Globals.CHANGE);
@@ -0,0 +1,337 @@
+/**
+ * Copyright (c) 2010-2023 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.internal;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.common.NamedThreadFactory;
+import org.openhab.persistence.jdbc.internal.dto.PendingItemValue;
+import org.openhab.persistence.jdbc.internal.exceptions.JdbcException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link JdbcWriteQueue} implements the write-behind mode of the JDBC persistence service.
+ *
+ * Item states are put into a bounded queue by the caller and stored by a dedicated writer thread. The writer collects
+ * up to <code>maxBatchSize</code> values or waits at most <code>flushInterval</code> milliseconds, groups the values
+ * per item table and stores every group with a single batched statement.
+ *
+ * Values that could not be stored are written again with the next batch. At most <code>MAX_RETRY_BATCHES</code> times
+ * <code>maxBatchSize</code> of these values are kept, the oldest ones are dropped first.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class JdbcWriteQueue {
+
+    /**
+     * Defines what happens when a value is added to a full queue.
+     */
+    public enum OverflowPolicy {
+        /** Discard the value that should be added. */
+        DROP_NEWEST,
+        /** Discard the oldest queued value to make room for the new one. */
+        DROP_OLDEST,
+        /** Block the caller until the writer has made room. */
+        BLOCK
+    }
+
+    private static final long STOP_TIMEOUT = 30; // in s
+    static final int MAX_RETRY_BATCHES = 10;
+
+    private final Logger logger = LoggerFactory.getLogger(JdbcWriteQueue.class);
+
+    private final JdbcMapper mapper;
+    private final BlockingQueue<PendingItemValue> queue;
+    private final int maxBatchSize;
+    private final long flushInterval;
+    private final OverflowPolicy overflowPolicy;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(new NamedThreadFactory("JDBC-Writer"));
+    // add() holds the read lock while queuing, so no value is queued after stop() has let the writer drain the queue
+    private final ReadWriteLock runningLock = new ReentrantReadWriteLock();
+    private volatile boolean running = false;
+    // values that could not be stored, only accessed by the writer thread
+    private final Deque<PendingItemValue> retryValues = new ArrayDeque<>();
+    private final int maxRetryValues;
+    private volatile int retryCount = 0;
+
+    // statistics
+    private final AtomicLong storedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong flushTimeTotal = new AtomicLong();
+    private volatile long flushTimeLast = 0;
+    private volatile long flushTimeMax = 0;
+
+    public JdbcWriteQueue(JdbcMapper mapper, int capacity, int maxBatchSize, long flushInterval,
+            OverflowPolicy overflowPolicy) {
+        this.mapper = mapper;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxBatchSize = maxBatchSize;
+        this.flushInterval = flushInterval;
+        this.overflowPolicy = overflowPolicy;
+        this.maxRetryValues = MAX_RETRY_BATCHES * maxBatchSize;
+    }
+
+    /**
+     * Starts the writer thread.
+     */
+    public void start() {
+        logger.debug(
+                "JDBC::JdbcWriteQueue: starting writer, capacity={} maxBatchSize={} flushInterval={} ms overflowPolicy={}",
+                queue.remainingCapacity(), maxBatchSize, flushInterval, overflowPolicy);
+        running = true;
+        writer.execute(this::run);
+    }
+
+    /**
+     * Stops the writer thread after all queued values have been stored.
+     */
+    public void stop() {
+        runningLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            runningLock.writeLock().unlock();
+        }
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(STOP_TIMEOUT, TimeUnit.SECONDS)) {
+                logger.warn("JDBC::JdbcWriteQueue: writer did not finish within {} s, {} values may be lost",
+                        STOP_TIMEOUT, queue.size() + retryCount);
+                writer.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            writer.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Adds a value to the queue, applying the configured {@link OverflowPolicy} if the queue is full.
+     *
+     * @param value the value to store
+     * @return true if the value was queued, false if it was dropped
+     */
+    public boolean add(PendingItemValue value) {
+        runningLock.readLock().lock();
+        try {
+            if (!running) {
+                logger.debug("JDBC::JdbcWriteQueue: writer stopped, dropping value for item '{}'",
+                        value.getItem().getName());
+                droppedCount.incrementAndGet();
+                return false;
+            }
+            return offer(value);
+        } finally {
+            runningLock.readLock().unlock();
+        }
+    }
+
+    private boolean offer(PendingItemValue value) {
+        switch (overflowPolicy) {
+            case BLOCK:
+                try {
+                    queue.put(value);
+                    return true;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    droppedCount.incrementAndGet();
+                    return false;
+                }
+            case DROP_OLDEST:
+                while (!queue.offer(value)) {
+                    @Nullable
+                    PendingItemValue dropped = queue.poll();
+                    if (dropped != null) {
+                        droppedCount.incrementAndGet();
+                        logger.debug("JDBC::JdbcWriteQueue: queue full, dropped oldest value for item '{}'",
+                                dropped.getItem().getName());
+                    }
+                }
+                return true;
+            case DROP_NEWEST:
+            default:
+                if (queue.offer(value)) {
+                    return true;
+                }
+                droppedCount.incrementAndGet();
+                logger.debug("JDBC::JdbcWriteQueue: queue full, dropped value for item '{}'",
+                        value.getItem().getName());
+                return false;
+        }
+    }
+
+    private void run() {
+        List<PendingItemValue> batch = new ArrayList<>(maxBatchSize);
+        try {
+            while (running) {
+                @Nullable
+                PendingItemValue value = queue.poll(flushInterval, TimeUnit.MILLISECONDS);
+                // failed values are written again before newer ones
+                batch.addAll(retryValues);
+                retryValues.clear();
+                if (value == null) {
+                    // nothing new within the interval, write the failed values again
+                    flush(batch);
+                    batch.clear();
+                    continue;
+                }
+                int maxSize = batch.size() + maxBatchSize;
+                batch.add(value);
+                long flushAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushInterval);
+                while (batch.size() < maxSize) {
+                    queue.drainTo(batch, maxSize - batch.size());
+                    long remaining = flushAt - System.nanoTime();
+                    if (batch.size() >= maxSize || remaining <= 0) {
+                        break;
+                    }
+                    value = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (value == null) {
+                        break;
+                    }
+                    batch.add(value);
+                }
+                flush(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // store whatever is left before the writer terminates, failed values are tried once more
+        batch.addAll(retryValues);
+        retryValues.clear();
+        queue.drainTo(batch);
+        for (int i = 0; i < batch.size(); i += maxBatchSize) {
+            flush(batch.subList(i, Math.min(i + maxBatchSize, batch.size())));
+        }
+        if (!retryValues.isEmpty()) {
+            long total = failedCount.addAndGet(retryValues.size());
+            logger.warn("JDBC::JdbcWriteQueue: writer stopped, {} values could not be stored and are lost, {} in total",
+                    retryValues.size(), total);
+            retryValues.clear();
+            retryCount = 0;
+        }
+    }
+
+    private void flush(List<PendingItemValue> values) {
+        if (values.isEmpty()) {
+            return;
+        }
+        long timerStart = System.currentTimeMillis();
+        // every item has its own table, so grouping by item name groups the values per table
+        Map<String, List<PendingItemValue>> valuesPerItem = new LinkedHashMap<>();
+        for (PendingItemValue value : values) {
+            valuesPerItem.computeIfAbsent(value.getItem().getName(), k -> new ArrayList<>()).add(value);
+        }
+        for (Entry<String, List<PendingItemValue>> entry : valuesPerItem.entrySet()) {
+            List<PendingItemValue> itemValues = entry.getValue();
+            try {
+                mapper.storeItemValues(itemValues);
+                storedCount.addAndGet(itemValues.size());
+            } catch (JdbcException e) {
+                logger.warn("JDBC::JdbcWriteQueue: Unable to store {} values for item '{}', trying again",
+                        itemValues.size(), entry.getKey(), e);
+                mapper.handleStoreError();
+                retryValues.addAll(itemValues);
+            }
+        }
+        int dropped = retryValues.size() - maxRetryValues;
+        if (dropped > 0) {
+            for (int i = 0; i < dropped; i++) {
+                retryValues.poll();
+            }
+            long total = failedCount.addAndGet(dropped);
+            logger.warn("JDBC::JdbcWriteQueue: {} values could not be stored and were dropped, {} in total", dropped,
+                    total);
+        }
+        retryCount = retryValues.size();
+        long flushTime = System.currentTimeMillis() - timerStart;
+        flushCount.incrementAndGet();
+        flushTimeTotal.addAndGet(flushTime);
+        flushTimeLast = flushTime;
+        if (flushTime > flushTimeMax) {
+            flushTimeMax = flushTime;
+        }
+        logger.debug("JDBC::JdbcWriteQueue: Stored {} values of {} items in {} ms, {} values still queued",
+                values.size(), valuesPerItem.size(), flushTime, queue.size());
+    }
+
+    /******************************
+     * public Getters and Setters *
+     ******************************/
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    public int getQueueCapacity() {
+        return queue.size() + queue.remainingCapacity();
+    }
+
+    public long getStoredCount() {
+        return storedCount.get();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * @return the number of values that could not be stored and were dropped
+     */
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    /**
+     * @return the number of values that could not be stored yet and are written again with the next batch
+     */
+    public int getRetryCount() {
+        return retryCount;
+    }
+
+    public long getFlushCount() {
+        return flushCount.get();
+    }
+
+    public long getFlushTimeLast() {
+        return flushTimeLast;
+    }
+
+    public long getFlushTimeMax() {
+        return flushTimeMax;
+    }
+
+    public long getFlushTimeAverage() {
+        long count = flushCount.get();
+        return count == 0 ? 0 : flushTimeTotal.get() / count;
+    }
+}
@@ -13,17 +13,20 @@
 package org.openhab.persistence.jdbc.internal.db;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.StringJoiner;
 import java.util.stream.Collectors;
 
 import javax.measure.Quantity;
@@ -56,12 +59,15 @@ import org.openhab.core.persistence.FilterCriteria.Ordering;
 import org.openhab.core.persistence.HistoricItem;
 import org.openhab.core.types.State;
 import org.openhab.core.types.TypeParser;
+import org.openhab.persistence.jdbc.internal.dto.AggregationFunction;
 import org.openhab.persistence.jdbc.internal.dto.Column;
 import org.openhab.persistence.jdbc.internal.dto.ItemVO;
 import org.openhab.persistence.jdbc.internal.dto.ItemsVO;
 import org.openhab.persistence.jdbc.internal.dto.JdbcHistoricItem;
+import org.openhab.persistence.jdbc.internal.dto.PendingItemValue;
 import org.openhab.persistence.jdbc.internal.exceptions.JdbcSQLException;
 import org.openhab.persistence.jdbc.internal.utils.DbMetaData;
+import org.openhab.persistence.jdbc.internal.utils.SqlStatementCache;
 import org.openhab.persistence.jdbc.internal.utils.StringUtilsExt;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -73,6 +79,8 @@ import org.slf4j.LoggerFactory;
  */
 @NonNullByDefault
 public class JdbcBaseDAO {
+    private static final int STATEMENT_CACHE_SIZE = 500; // number of item tables
+
     private final Logger logger = LoggerFactory.getLogger(JdbcBaseDAO.class);
 
     public final Properties databaseProps = new Properties();
@@ -97,6 +105,15 @@ public class JdbcBaseDAO {
     protected String sqlAlterTableColumn = "ALTER TABLE #tableName# MODIFY COLUMN #columnName# #columnType#";
     protected String sqlInsertItemValue = "INSERT INTO #tableName# (time, value) VALUES( #tablePrimaryValue#, ? ) ON DUPLICATE KEY UPDATE VALUE= ?";
     protected String sqlGetRowCount = "SELECT COUNT(*) FROM #tableName#";
+    // Multi-row insert used by the write-behind mode, null if not supported by the database (one statement per row)
+    protected @Nullable String sqlInsertItemValues = null;
+    protected String sqlInsertItemValuesRow = "(?, ?)";
+    // Maps the time column to the start of its bucket, used by the downsampling queries
+    protected String sqlTimeBucket = "FROM_UNIXTIME(FLOOR(UNIX_TIMESTAMP(time) / #bucketSeconds#) * #bucketSeconds#)";
+
+    // Rendered statements per item table, keeps the SQL text stable for the statement caches of the JDBC drivers.
+    // Range queries and deletes contain the time bounds as literals, only their table specific part is cached.
+    protected final SqlStatementCache statementCache = new SqlStatementCache(STATEMENT_CACHE_SIZE);
 
     /********
      * INIT *
@@ -430,9 +447,10 @@ public class JdbcBaseDAO {
 
     public void doStoreItemValue(Item item, State itemState, ItemVO vo) throws JdbcSQLException {
         ItemVO storedVO = storeItemValueProvider(item, itemState, vo);
-        String sql = StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
-                new String[] { "#tableName#", "#tablePrimaryValue#" },
-                new String[] { storedVO.getTableName(), sqlTypes.get("tablePrimaryValue") });
+        String sql = statementCache.get(storedVO.getTableName(), "insertItemValue#" + storedVO.getDbType(),
+                () -> StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
+                        new String[] { "#tableName#", "#tablePrimaryValue#" },
+                        new String[] { storedVO.getTableName(), sqlTypes.get("tablePrimaryValue") }));
         Object[] params = { storedVO.getValue(), storedVO.getValue() };
         logger.debug("JDBC::doStoreItemValue sql={} value='{}'", sql, storedVO.getValue());
         try {
@@ -444,8 +462,10 @@ public class JdbcBaseDAO {
 
     public void doStoreItemValue(Item item, State itemState, ItemVO vo, ZonedDateTime date) throws JdbcSQLException {
         ItemVO storedVO = storeItemValueProvider(item, itemState, vo);
-        String sql = StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
-                new String[] { "#tableName#", "#tablePrimaryValue#" }, new String[] { storedVO.getTableName(), "?" });
+        String sql = statementCache.get(storedVO.getTableName(), "insertItemValueAt#" + storedVO.getDbType(),
+                () -> StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
+                        new String[] { "#tableName#", "#tablePrimaryValue#" },
+                        new String[] { storedVO.getTableName(), "?" }));
         java.sql.Timestamp timestamp = new java.sql.Timestamp(date.toInstant().toEpochMilli());
         Object[] params = { timestamp, storedVO.getValue(), storedVO.getValue() };
         logger.debug("JDBC::doStoreItemValue sql={} timestamp={} value='{}'", sql, timestamp, storedVO.getValue());
@@ -456,6 +476,35 @@ public class JdbcBaseDAO {
         }
     }
 
+    public void doStoreItemValues(String tableName, List<PendingItemValue> values) throws JdbcSQLException {
+        String sqlInsertItemValues = this.sqlInsertItemValues;
+        if (sqlInsertItemValues == null) {
+            for (PendingItemValue value : values) {
+                doStoreItemValue(value.getItem(), value.getState(), new ItemVO(tableName, null), value.getDate());
+            }
+            return;
+        }
+        StringJoiner rows = new StringJoiner(", ");
+        Object[] params = new Object[values.size() * 2];
+        int i = 0;
+        for (PendingItemValue value : values) {
+            ItemVO storedVO = storeItemValueProvider(value.getItem(), value.getState(), new ItemVO(tableName, null));
+            rows.add(statementCache.get(tableName, "insertItemValuesRow#" + storedVO.getDbType(),
+                    () -> StringUtilsExt.replaceArrayMerge(sqlInsertItemValuesRow, new String[] { "#dbType#" },
+                            new String[] { storedVO.getDbType() })));
+            params[i++] = new java.sql.Timestamp(value.getDate().toInstant().toEpochMilli());
+            params[i++] = storedVO.getValue();
+        }
+        String sql = StringUtilsExt.replaceArrayMerge(sqlInsertItemValues, new String[] { "#tableName#", "#rows#" },
+                new String[] { tableName, rows.toString() });
+        logger.debug("JDBC::doStoreItemValues sql={} rows={}", sql, values.size());
+        try {
+            Yank.execute(sql, params);
+        } catch (YankSQLException e) {
+            throw new JdbcSQLException(e);
+        }
+    }
+
     public List<HistoricItem> doGetHistItemFilterQuery(Item item, FilterCriteria filter, int numberDecimalcount,
             String table, String name, ZoneId timeZone) throws JdbcSQLException {
         String sql = histItemFilterQueryProvider(filter, numberDecimalcount, table, name, timeZone);
@@ -478,6 +527,77 @@ public class JdbcBaseDAO {
                 .collect(Collectors.<HistoricItem> toList());
     }
 
+    public JdbcHistoricItemIterable doGetHistItemFilterQueryStreaming(Item item, FilterCriteria filter,
+            int numberDecimalcount, String table, String name, ZoneId timeZone, int fetchSize) {
+        String sql = histItemFilterQueryProvider(filter, numberDecimalcount, table, name, timeZone);
+        logger.debug("JDBC::doGetHistItemFilterQueryStreaming sql={} fetchSize={}", sql, fetchSize);
+        // we already retrieve the unit here once as it is a very costly operation
+        String itemName = item.getName();
+        Unit<? extends Quantity<?>> unit = item instanceof NumberItem numberItem ? numberItem.getUnit() : null;
+        return new JdbcHistoricItemIterable(sql, fetchSize, (time, value) -> new JdbcHistoricItem(itemName,
+                objectAsState(item, unit, value), objectAsZonedDateTime(time)));
+    }
+
+    public List<HistoricItem> doGetHistItemAggregatedQuery(Item item, FilterCriteria filter, int numberDecimalcount,
+            String table, AggregationFunction function, long bucketSeconds, ZoneId timeZone) throws JdbcSQLException {
+        // only numeric values can be averaged, all other item types are downsampled by their last value
+        AggregationFunction effectiveFunction = isNumericAggregationSupported(item) ? function
+                : AggregationFunction.LAST;
+        String sql = histItemAggregatedQueryProvider(filter, table, effectiveFunction, bucketSeconds, timeZone);
+        logger.debug("JDBC::doGetHistItemAggregatedQuery sql={}", sql);
+        List<Object[]> m;
+        try {
+            m = Yank.queryObjectArrays(sql, null);
+        } catch (YankSQLException e) {
+            throw new JdbcSQLException(e);
+        }
+        if (m == null) {
+            logger.debug("JDBC::doGetHistItemAggregatedQuery Query failed. Returning an empty list.");
+            return List.of();
+        }
+        String itemName = item.getName();
+        Unit<? extends Quantity<?>> unit = item instanceof NumberItem numberItem ? numberItem.getUnit() : null;
+        if (effectiveFunction == AggregationFunction.MINMAX) {
+            return minMaxRowsAsHistoricItems(m, filter.getOrdering() == Ordering.ASCENDING,
+                    (time, value) -> new JdbcHistoricItem(itemName,
+                            aggregatedObjectAsState(item, unit, value, numberDecimalcount),
+                            objectAsZonedDateTime(time)));
+        }
+        return m.stream().filter(o -> o[1] != null)
+                .map(o -> new JdbcHistoricItem(itemName, aggregatedObjectAsState(item, unit, o[1], numberDecimalcount),
+                        objectAsZonedDateTime(o[0])))
+                .collect(Collectors.<HistoricItem> toList());
+    }
+
+    /**
+     * Converts the rows of a {@link AggregationFunction#MINMAX} query to two values per bucket: the minimum at the time
+     * of the first value of the bucket and the maximum at the time of the last value of the bucket. Buckets with a
+     * single value result in one value.
+     *
+     * @param rows rows with the first time, the minimum, the last time and the maximum of each bucket
+     * @param ascending true if the values are returned in ascending order of time
+     * @param rowMapper maps a time and a value to a {@link HistoricItem}
+     * @return the values
+     */
+    static List<HistoricItem> minMaxRowsAsHistoricItems(List<Object[]> rows, boolean ascending,
+            JdbcHistoricItemIterable.RowMapper rowMapper) {
+        List<HistoricItem> items = new ArrayList<>(rows.size() * 2);
+        for (Object[] row : rows) {
+            if (row[1] == null || row[3] == null) {
+                continue;
+            }
+            HistoricItem min = rowMapper.map(row[0], row[1]);
+            if (Objects.equals(row[0], row[2])) {
+                items.add(min);
+                continue;
+            }
+            HistoricItem max = rowMapper.map(row[2], row[3]);
+            items.add(ascending ? min : max);
+            items.add(ascending ? max : min);
+        }
+        return items;
+    }
+
     public void doDeleteItemValues(FilterCriteria filter, String table, ZoneId timeZone) throws JdbcSQLException {
         String sql = histItemFilterDeleteProvider(filter, table, timeZone);
         logger.debug("JDBC::doDeleteItemValues sql={}", sql);
@@ -518,9 +638,10 @@ public class JdbcBaseDAO {
         }
         // SELECT time, ROUND(value,3) FROM number_item_0114 ORDER BY time DESC LIMIT 0,1
         // rounding HALF UP
-        String queryString = "NUMBERITEM".equalsIgnoreCase(simpleName) && numberDecimalcount > -1
-                ? "SELECT time, ROUND(value," + numberDecimalcount + ") FROM " + table
-                : "SELECT time, value FROM " + table;
+        int decimals = "NUMBERITEM".equalsIgnoreCase(simpleName) && numberDecimalcount > -1 ? numberDecimalcount : -1;
+        String queryString = statementCache.get(table, "selectItemValues#" + decimals,
+                () -> decimals > -1 ? "SELECT time, ROUND(value," + decimals + ") FROM " + table
+                        : "SELECT time, value FROM " + table);
         if (!filterString.isEmpty()) {
             queryString += filterString;
         }
@@ -528,12 +649,42 @@ public class JdbcBaseDAO {
         return queryString;
     }
 
+    /**
+     * Creates a query returning one row per time bucket of <code>bucketSeconds</code> seconds within the time range of
+     * the filter. Paging is not applied, the number of rows is limited by the bucket size. The rows of
+     * {@link AggregationFunction#MINMAX} contain the first time, the minimum, the last time and the maximum of the
+     * bucket, so that the table is scanned only once.
+     */
+    protected String histItemAggregatedQueryProvider(FilterCriteria filter, String table, AggregationFunction function,
+            long bucketSeconds, ZoneId timeZone) {
+        logger.debug("JDBC::histItemAggregatedQueryProvider filter = {}, table = {}, function = {}, bucketSeconds = {}",
+                filter, table, function, bucketSeconds);
+
+        String bucket = sqlTimeBucket.replace("#bucketSeconds#", Long.toString(bucketSeconds));
+        String buckets = "(SELECT " + bucket + " AS bucket_time, time, value FROM " + table
+                + resolveTimeFilter(filter, timeZone) + ") b";
+        String ordering = (filter.getOrdering() == Ordering.ASCENDING) ? " ASC" : " DESC";
+        // SELECT bucket_time, AVG(value) FROM (SELECT <bucket> AS bucket_time, time, value FROM item0001 WHERE ...) b
+        // GROUP BY bucket_time ORDER BY bucket_time ASC
+        String queryString = switch (function) {
+            case MINMAX -> "SELECT MIN(time), MIN(value), MAX(time), MAX(value) FROM " + buckets
+                    + " GROUP BY bucket_time ORDER BY 1" + ordering;
+            case LAST -> "SELECT time, value FROM " + table + " WHERE time IN (SELECT MAX(time) FROM " + buckets
+                    + " GROUP BY bucket_time) ORDER BY time" + ordering;
+            default -> "SELECT bucket_time, " + function.name() + "(value) FROM " + buckets
+                    + " GROUP BY bucket_time ORDER BY bucket_time" + ordering;
+        };
+        logger.debug("JDBC::query queryString = {}", queryString);
+        return queryString;
+    }
+
     protected String histItemFilterDeleteProvider(FilterCriteria filter, String table, ZoneId timeZone) {
         logger.debug("JDBC::histItemFilterDeleteProvider filter = {}, table = {}", filter, table);
 
         String filterString = resolveTimeFilter(filter, timeZone);
-        String deleteString = filterString.isEmpty() ? "TRUNCATE TABLE " + table
-                : "DELETE FROM " + table + filterString;
+        String deleteString = filterString.isEmpty()
+                ? statementCache.get(table, "truncateItemValues", () -> "TRUNCATE TABLE " + table)
+                : statementCache.get(table, "deleteItemValues", () -> "DELETE FROM " + table) + filterString;
         logger.debug("JDBC::delete deleteString = {}", deleteString);
         return deleteString;
     }
@@ -704,6 +855,27 @@ public class JdbcBaseDAO {
         }
     }
 
+    protected boolean isNumericAggregationSupported(Item item) {
+        return item instanceof NumberItem || item instanceof DimmerItem || item instanceof RollershutterItem;
+    }
+
+    protected State aggregatedObjectAsState(Item item, @Nullable Unit<? extends Quantity<?>> unit, Object v,
+            int numberDecimalcount) {
+        if (!(v instanceof Number number) || !isNumericAggregationSupported(item)) {
+            return objectAsState(item, unit, v);
+        }
+        // aggregated values have the type of the aggregate function, e.g. AVG of an integer column is a decimal
+        BigDecimal value = number instanceof BigDecimal bigDecimal ? bigDecimal : new BigDecimal(number.toString());
+        if (item instanceof NumberItem) {
+            if (numberDecimalcount > -1) {
+                // rounding HALF UP
+                value = value.setScale(numberDecimalcount, RoundingMode.HALF_UP);
+            }
+            return unit == null ? new DecimalType(value) : QuantityType.valueOf(value.doubleValue(), unit);
+        }
+        return new PercentType(value.setScale(0, RoundingMode.HALF_UP));
+    }
+
     protected ZonedDateTime objectAsZonedDateTime(Object v) {
         if (v instanceof Long) {
             return ZonedDateTime.ofInstant(Instant.ofEpochMilli(((Number) v).longValue()), ZoneId.systemDefault());
@@ -792,6 +964,22 @@ public class JdbcBaseDAO {
         return sqlTypes;
     }
 
+    /**
+     * Removes the cached statements of a table. Must be called after the table was altered, renamed or dropped.
+     *
+     * @param tableName the table name
+     */
+    public void invalidateStatementCache(String tableName) {
+        statementCache.invalidate(tableName);
+    }
+
+    /**
+     * Removes all cached statements. Must be called after the SQL templates or types were changed.
+     */
+    public void invalidateStatementCache() {
+        statementCache.invalidateAll();
+    }
+
     public String getDataType(Item item) {
         String dataType = sqlTypes.get(getItemType(item));
         if (dataType == null) {
@@ -0,0 +1,260 @@
+/**
+ * Copyright (c) 2010-2023 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.internal.db;
+
+import java.lang.ref.Cleaner;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.knowm.yank.Yank;
+import org.openhab.core.common.NamedThreadFactory;
+import org.openhab.core.persistence.HistoricItem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Lazily evaluated result of a historic query.
+ *
+ * Every call of {@link #iterator()} executes the query and reads the rows with a forward-only cursor, fetching
+ * <code>fetchSize</code> rows at a time. The connection is returned to the pool as soon as {@link Iterator#hasNext()}
+ * returned false, the query or reading a row failed or the iteration was closed. Callers that may abandon an iteration
+ * should close the iterator or this iterable. Otherwise the connection is only returned once the iterator was garbage
+ * collected, so streaming is unsafe for callers that do not read the whole result. {@link #getTotalOpenCursorCount()}
+ * allows to limit the number of connections held by such iterations.
+ *
+ * Errors of the query are thrown as {@link IllegalStateException} by {@link Iterator#hasNext()} and
+ * {@link Iterator#next()}, so that an incomplete result is never mistaken for the end of the data.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class JdbcHistoricItemIterable implements Iterable<HistoricItem>, AutoCloseable {
+
+    private static final Cleaner CLEANER = Cleaner.create(new NamedThreadFactory("JDBC-Cursor-Cleaner"));
+    private static final AtomicInteger TOTAL_OPEN_CURSORS = new AtomicInteger();
+
+    /**
+     * Maps the time and value column of a row to a {@link HistoricItem}.
+     */
+    @FunctionalInterface
+    public interface RowMapper {
+        HistoricItem map(Object time, Object value);
+    }
+
+    /**
+     * Provides the connection of an iteration, which is closed when the iteration ends.
+     */
+    @FunctionalInterface
+    interface ConnectionProvider {
+        Connection getConnection() throws SQLException;
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(JdbcHistoricItemIterable.class);
+
+    private final String sql;
+    private final int fetchSize;
+    private final RowMapper rowMapper;
+    private final ConnectionProvider connectionProvider;
+    private final Set<Cursor> openCursors = ConcurrentHashMap.newKeySet();
+
+    public JdbcHistoricItemIterable(String sql, int fetchSize, RowMapper rowMapper) {
+        this(sql, fetchSize, rowMapper, () -> Yank.getDefaultConnectionPool().getConnection());
+    }
+
+    JdbcHistoricItemIterable(String sql, int fetchSize, RowMapper rowMapper, ConnectionProvider connectionProvider) {
+        this.sql = sql;
+        this.fetchSize = fetchSize;
+        this.rowMapper = rowMapper;
+        this.connectionProvider = connectionProvider;
+    }
+
+    @Override
+    public CursorIterator iterator() {
+        return new CursorIterator();
+    }
+
+    /**
+     * Returns the connections of all iterations that are still open to the pool. These iterations throw an
+     * {@link IllegalStateException} when they are continued.
+     */
+    @Override
+    public void close() {
+        for (Cursor cursor : openCursors) {
+            cursor.run();
+        }
+    }
+
+    /**
+     * @return the number of iterations that still hold a connection
+     */
+    int getOpenCursorCount() {
+        return openCursors.size();
+    }
+
+    /**
+     * @return the number of iterations of all results that still hold a connection
+     */
+    public static int getTotalOpenCursorCount() {
+        return TOTAL_OPEN_CURSORS.get();
+    }
+
+    /**
+     * Iterator over the rows of one execution of the query.
+     */
+    public class CursorIterator implements Iterator<HistoricItem>, AutoCloseable {
+        private final Cursor cursor = new Cursor(openCursors);
+        private final Cleaner.Cleanable cleanable;
+        private @Nullable HistoricItem next;
+        private boolean finished = false;
+        private int rowCount = 0;
+
+        CursorIterator() {
+            cleanable = CLEANER.register(this, cursor);
+            try {
+                cursor.open(connectionProvider, sql, fetchSize);
+                logger.debug("JDBC::JdbcHistoricItemIterable: opened cursor with fetchSize={} sql={}", fetchSize, sql);
+            } catch (SQLException e) {
+                close();
+                throw new IllegalStateException("Unable to query item: " + e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next != null) {
+                return true;
+            }
+            if (finished) {
+                return false;
+            }
+            ResultSet resultSet = cursor.resultSet;
+            if (resultSet == null) {
+                throw new IllegalStateException("The query result was closed before all rows were read");
+            }
+            try {
+                if (resultSet.next()) {
+                    next = rowMapper.map(resultSet.getObject(1), resultSet.getObject(2));
+                    rowCount++;
+                    return true;
+                }
+            } catch (SQLException e) {
+                close();
+                throw new IllegalStateException("Unable to read row " + (rowCount + 1) + ": " + e.getMessage(), e);
+            } catch (RuntimeException e) {
+                close();
+                throw e;
+            }
+            logger.debug("JDBC::JdbcHistoricItemIterable: read {} rows, closing cursor", rowCount);
+            finished = true;
+            close();
+            return false;
+        }
+
+        @Override
+        public HistoricItem next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            HistoricItem item = next;
+            next = null;
+            if (item == null) {
+                throw new NoSuchElementException();
+            }
+            return item;
+        }
+
+        /**
+         * Returns the connection to the pool. Does nothing if the iteration already ended.
+         */
+        @Override
+        public void close() {
+            cleanable.clean();
+        }
+    }
+
+    /**
+     * Holds the JDBC resources of an iteration. Must not reference the iterator, otherwise it would never become
+     * unreachable and the resources would not be released by the {@link Cleaner}.
+     */
+    private static class Cursor implements Runnable {
+        private final Logger logger = LoggerFactory.getLogger(Cursor.class);
+        private final Set<Cursor> openCursors;
+
+        private @Nullable Connection connection;
+        private @Nullable PreparedStatement statement;
+        private volatile @Nullable ResultSet resultSet;
+
+        Cursor(Set<Cursor> openCursors) {
+            this.openCursors = openCursors;
+        }
+
+        synchronized void open(ConnectionProvider connectionProvider, String sql, int fetchSize) throws SQLException {
+            if (openCursors.add(this)) {
+                TOTAL_OPEN_CURSORS.incrementAndGet();
+            }
+            Connection connection = connectionProvider.getConnection();
+            this.connection = connection;
+            // some drivers (e.g. PostgreSQL) only fetch rows in chunks within a transaction
+            connection.setAutoCommit(false);
+            PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            this.statement = statement;
+            // MySQL only uses a cursor with useCursorFetch=true, which is set by JdbcMysqlDAO. MariaDB streams the
+            // rows without further configuration.
+            statement.setFetchSize(fetchSize);
+            resultSet = statement.executeQuery();
+        }
+
+        @Override
+        public synchronized void run() {
+            if (openCursors.remove(this)) {
+                TOTAL_OPEN_CURSORS.decrementAndGet();
+            }
+            ResultSet resultSet = this.resultSet;
+            this.resultSet = null;
+            PreparedStatement statement = this.statement;
+            this.statement = null;
+            Connection connection = this.connection;
+            this.connection = null;
+            try {
+                if (resultSet != null) {
+                    resultSet.close();
+                }
+                if (statement != null) {
+                    statement.close();
+                }
+            } catch (SQLException e) {
+                logger.debug("JDBC::JdbcHistoricItemIterable: Unable to close cursor: {}", e.getMessage());
+            } finally {
+                if (connection != null) {
+                    try {
+                        // the pool rolls back the read-only transaction and restores auto-commit
+                        connection.close();
+                    } catch (SQLException e) {
+                        logger.debug("JDBC::JdbcHistoricItemIterable: Unable to close connection: {}",
+                                e.getMessage());
+                    }
+                }
+            }
+        }
+    }
+}
@@ -49,6 +49,7 @@ public class JdbcMariadbDAO extends JdbcBaseDAO {
 
     private void initSqlQueries() {
         logger.debug("JDBC::initSqlQueries: '{}'", this.getClass().getSimpleName());
+        sqlInsertItemValues = "INSERT INTO #tableName# (time, value) VALUES #rows# ON DUPLICATE KEY UPDATE VALUE=VALUES(VALUE)";
     }
 
     /**
@@ -53,6 +53,7 @@ public class JdbcMysqlDAO extends JdbcBaseDAO {
 
     private void initSqlQueries() {
         logger.debug("JDBC::initSqlQueries: '{}'", this.getClass().getSimpleName());
+        sqlInsertItemValues = "INSERT INTO #tableName# (time, value) VALUES #rows# ON DUPLICATE KEY UPDATE VALUE=VALUES(VALUE)";
     }
 
     /**
@@ -73,6 +74,8 @@ public class JdbcMysqlDAO extends JdbcBaseDAO {
         databaseProps.setProperty("dataSource.prepStmtCacheSqlLimit", "2048");
         databaseProps.setProperty("dataSource.jdbcCompliantTruncation", "false");// jdbc standard max varchar max length
                                                                                  // of 21845
+        // fetch the rows of streaming queries in chunks instead of loading all rows
+        databaseProps.setProperty("dataSource.useCursorFetch", "true");
 
         // Properties for HikariCP
         // Use driverClassName
@@ -78,7 +78,10 @@ public class JdbcPostgresqlDAO extends JdbcBaseDAO {
         // NOTICE: on PostgreSql >= 9.5, sqlInsertItemValue query template is modified to do an "upsert" (overwrite
         // existing value). The version check and query change is performed at initAfterFirstDbConnection()
         sqlInsertItemValue = "INSERT INTO #tableName# (TIME, VALUE) VALUES( #tablePrimaryValue#, CAST( ? as #dbType#) )";
+        sqlInsertItemValues = "INSERT INTO #tableName# (TIME, VALUE) VALUES #rows#";
+        sqlInsertItemValuesRow = "(?, CAST( ? as #dbType#))";
         sqlAlterTableColumn = "ALTER TABLE #tableName# ALTER COLUMN #columnName# TYPE #columnType#";
+        sqlTimeBucket = "TO_TIMESTAMP(FLOOR(EXTRACT(EPOCH FROM time) / #bucketSeconds#) * #bucketSeconds#)";
     }
 
     @Override
@@ -95,6 +98,7 @@ public class JdbcPostgresqlDAO extends JdbcBaseDAO {
                     INSERT INTO #tableName# (TIME, VALUE) VALUES( #tablePrimaryValue#, CAST( ? as #dbType#) )\
                      ON CONFLICT (TIME) DO UPDATE SET VALUE=EXCLUDED.VALUE\
                     """;
+            sqlInsertItemValues = "INSERT INTO #tableName# (TIME, VALUE) VALUES #rows# ON CONFLICT (TIME) DO UPDATE SET VALUE=EXCLUDED.VALUE";
         }
     }
 
@@ -226,9 +230,11 @@ public class JdbcPostgresqlDAO extends JdbcBaseDAO {
     @Override
     public void doStoreItemValue(Item item, State itemState, ItemVO vo) throws JdbcSQLException {
         ItemVO storedVO = storeItemValueProvider(item, itemState, vo);
-        String sql = StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
-                new String[] { "#tableName#", "#dbType#", "#tablePrimaryValue#" },
-                new String[] { storedVO.getTableName(), storedVO.getDbType(), sqlTypes.get("tablePrimaryValue") });
+        String sql = statementCache.get(storedVO.getTableName(), "insertItemValue#" + storedVO.getDbType(),
+                () -> StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
+                        new String[] { "#tableName#", "#dbType#", "#tablePrimaryValue#" },
+                        new String[] { storedVO.getTableName(), storedVO.getDbType(),
+                                sqlTypes.get("tablePrimaryValue") }));
         Object[] params = { storedVO.getValue() };
         logger.debug("JDBC::doStoreItemValue sql={} value='{}'", sql, storedVO.getValue());
         try {
@@ -241,9 +247,10 @@ public class JdbcPostgresqlDAO extends JdbcBaseDAO {
     @Override
     public void doStoreItemValue(Item item, State itemState, ItemVO vo, ZonedDateTime date) throws JdbcSQLException {
         ItemVO storedVO = storeItemValueProvider(item, itemState, vo);
-        String sql = StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
-                new String[] { "#tableName#", "#dbType#", "#tablePrimaryValue#" },
-                new String[] { storedVO.getTableName(), storedVO.getDbType(), "?" });
+        String sql = statementCache.get(storedVO.getTableName(), "insertItemValueAt#" + storedVO.getDbType(),
+                () -> StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
+                        new String[] { "#tableName#", "#dbType#", "#tablePrimaryValue#" },
+                        new String[] { storedVO.getTableName(), storedVO.getDbType(), "?" }));
         java.sql.Timestamp timestamp = new java.sql.Timestamp(date.toInstant().toEpochMilli());
         Object[] params = { timestamp, storedVO.getValue() };
         logger.debug("JDBC::doStoreItemValue sql={} timestamp={} value='{}'", sql, timestamp, storedVO.getValue());
@@ -283,9 +290,10 @@ public class JdbcPostgresqlDAO extends JdbcBaseDAO {
             filterString += " OFFSET " + filter.getPageNumber() * filter.getPageSize() + " LIMIT "
                     + filter.getPageSize();
         }
-        String queryString = "NUMBERITEM".equalsIgnoreCase(simpleName) && numberDecimalcount > -1
-                ? "SELECT time, ROUND(CAST (value AS numeric)," + numberDecimalcount + ") FROM " + table
-                : "SELECT time, value FROM " + table;
+        int decimals = "NUMBERITEM".equalsIgnoreCase(simpleName) && numberDecimalcount > -1 ? numberDecimalcount : -1;
+        String queryString = statementCache.get(table, "selectItemValues#" + decimals,
+                () -> decimals > -1 ? "SELECT time, ROUND(CAST (value AS numeric)," + decimals + ") FROM " + table
+                        : "SELECT time, value FROM " + table);
         if (!filterString.isEmpty()) {
             queryString += filterString;
         }
@@ -36,6 +36,11 @@ public class JdbcTimescaledbDAO extends JdbcPostgresqlDAO {
 
     private final String sqlCreateHypertable = "SELECT created from create_hypertable('#tableName#', 'time')";
 
+    public JdbcTimescaledbDAO() {
+        // https://docs.timescale.com/api/latest/hyperfunctions/time_bucket/
+        sqlTimeBucket = "time_bucket(INTERVAL '#bucketSeconds# seconds', time)";
+    }
+
     @Override
     public Properties getConnectionProperties() {
         Properties properties = (Properties) this.databaseProps.clone();
@@ -0,0 +1,37 @@
+/**
+ * Copyright (c) 2010-2023 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.internal.dto;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * This enum defines how the values of a time bucket are aggregated by downsampling queries.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public enum AggregationFunction {
+    /**
+     * Minimum and maximum value in the bucket, each reported with its original time. Keeps the extremes of the data,
+     * so the minimum and maximum of a downsampled query are the same as without downsampling.
+     */
+    MINMAX,
+    /** Average of all values in the bucket, reported at the start of the bucket. */
+    AVG,
+    /** Minimum of all values in the bucket, reported at the start of the bucket. */
+    MIN,
+    /** Maximum of all values in the bucket, reported at the start of the bucket. */
+    MAX,
+    /** Last value in the bucket, reported with its original time. Supported for all item types. */
+    LAST
+}
@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2010-2023 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.internal.utils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Bounded LRU cache of rendered SQL statements per item table.
+ *
+ * Rendering the SQL templates with {@link StringUtilsExt#replaceArrayMerge} is costly and must result in exactly the
+ * same statement text for every call, so that the statement caches of the JDBC drivers can reuse the already parsed
+ * (prepared) statements. The cache holds the statements of at most <code>maxTables</code> tables, the least recently
+ * used table is evicted first.
+ *
+ * Cached statements are looked up without locking, only evicting a table is synchronized.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class SqlStatementCache {
+
+    private final int maxTables;
+    private final Map<String, TableStatements> statementsPerTable = new ConcurrentHashMap<>();
+    private final AtomicLong useCounter = new AtomicLong();
+
+    public SqlStatementCache(int maxTables) {
+        this.maxTables = maxTables;
+    }
+
+    /**
+     * Returns the cached statement or renders and caches it.
+     *
+     * @param tableName table the statement operates on
+     * @param statement name of the statement, e.g. "insert"
+     * @param sqlProvider renders the statement if not cached
+     * @return the SQL statement
+     */
+    public String get(String tableName, String statement, Supplier<String> sqlProvider) {
+        TableStatements tableStatements = statementsPerTable.get(tableName);
+        if (tableStatements == null) {
+            tableStatements = statementsPerTable.computeIfAbsent(tableName, k -> new TableStatements());
+            evictLeastRecentlyUsed();
+        }
+        tableStatements.lastUsed = useCounter.incrementAndGet();
+        String sql = tableStatements.statements.get(statement);
+        return sql != null ? sql : tableStatements.statements.computeIfAbsent(statement, k -> sqlProvider.get());
+    }
+
+    private synchronized void evictLeastRecentlyUsed() {
+        while (statementsPerTable.size() > maxTables) {
+            @Nullable
+            Map.Entry<String, TableStatements> eldest = null;
+            for (Map.Entry<String, TableStatements> entry : statementsPerTable.entrySet()) {
+                if (eldest == null || entry.getValue().lastUsed < eldest.getValue().lastUsed) {
+                    eldest = entry;
+                }
+            }
+            if (eldest == null) {
+                return;
+            }
+            statementsPerTable.remove(eldest.getKey(), eldest.getValue());
+        }
+    }
+
+    /**
+     * Removes all statements of a table, e.g. after the table was altered, renamed or dropped.
+     *
+     * @param tableName table to invalidate
+     */
+    public void invalidate(String tableName) {
+        statementsPerTable.remove(tableName);
+    }
+
+    /**
+     * Removes all statements, e.g. after the SQL templates or types were changed.
+     */
+    public void invalidateAll() {
+        statementsPerTable.clear();
+    }
+
+    public int size() {
+        return statementsPerTable.size();
+    }
+
+    private class TableStatements {
+        private final Map<String, String> statements = new ConcurrentHashMap<>();
+        // a new table is the most recently used one, so it is not evicted right away
+        private volatile long lastUsed = useCounter.incrementAndGet();
+    }
+}
@@ -0,0 +1,102 @@
+/**
+ * Copyright (c) 2010-2023 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.core.i18n.TimeZoneProvider;
+import org.openhab.core.items.Item;
+import org.openhab.core.library.items.NumberItem;
+import org.openhab.persistence.jdbc.internal.exceptions.JdbcException;
+
+/**
+ * Tests the table lookup of the {@link JdbcMapper}.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class JdbcMapperTest {
+
+    private static final int THREADS = 8;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    private final AtomicInteger createCount = new AtomicInteger();
+    private final CountDownLatch createAllowed = new CountDownLatch(1);
+    private boolean failCreation = false;
+
+    private final JdbcMapper mapper = new JdbcMapper(mock(TimeZoneProvider.class)) {
+        {
+            initialized = true;
+        }
+
+        @Override
+        protected String createTable(Item item) throws JdbcException {
+            createCount.incrementAndGet();
+            try {
+                createAllowed.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (failCreation) {
+                throw new JdbcException("creation failed");
+            }
+            return "item0001";
+        }
+    };
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void tableIsCreatedOnlyOnceForConcurrentCallers() throws Exception {
+        NumberItem item = new NumberItem("Item");
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            results.add(executor.submit(() -> mapper.getTable(item)));
+        }
+        createAllowed.countDown();
+        for (Future<String> result : results) {
+            assertEquals("item0001", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, createCount.get());
+        assertEquals("item0001", mapper.itemNameToTableNameMap.get("Item"));
+    }
+
+    @Test
+    void failedCreationIsRetriedByNextCaller() throws Exception {
+        NumberItem item = new NumberItem("Item");
+        createAllowed.countDown();
+        failCreation = true;
+        assertThrows(JdbcException.class, () -> mapper.getTable(item));
+        assertNull(mapper.itemNameToTableNameMap.get("Item"));
+
+        failCreation = false;
+        assertEquals("item0001", mapper.getTable(item));
+        assertEquals(2, createCount.get());
+    }
+}
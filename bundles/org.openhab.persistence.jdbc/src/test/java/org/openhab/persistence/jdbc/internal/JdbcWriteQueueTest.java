@@ -0,0 +1,216 @@
+/**
+ * Copyright (c) 2010-2023 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.openhab.core.library.items.NumberItem;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.persistence.jdbc.internal.dto.PendingItemValue;
+import org.openhab.persistence.jdbc.internal.exceptions.JdbcException;
+
+/**
+ * Tests the {@link JdbcWriteQueue}.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class JdbcWriteQueueTest {
+
+    private final JdbcMapper mapper = mock(JdbcMapper.class);
+
+    @Test
+    void valuesAreStoredGroupedPerItem() throws Exception {
+        List<List<PendingItemValue>> batches = new ArrayList<>();
+        doAnswer(invocation -> {
+            List<PendingItemValue> values = invocation.getArgument(0);
+            batches.add(new ArrayList<>(values));
+            return null;
+        }).when(mapper).storeItemValues(anyList());
+
+        JdbcWriteQueue writeQueue = new JdbcWriteQueue(mapper, 100, 100, 50, JdbcWriteQueue.OverflowPolicy.BLOCK);
+        writeQueue.start();
+        NumberItem item1 = new NumberItem("Item1");
+        NumberItem item2 = new NumberItem("Item2");
+        ZonedDateTime now = ZonedDateTime.now();
+        for (int i = 0; i < 3; i++) {
+            assertTrue(writeQueue.add(new PendingItemValue(item1, new DecimalType(i), now.plusSeconds(i))));
+            assertTrue(writeQueue.add(new PendingItemValue(item2, new DecimalType(i), now.plusSeconds(i))));
+        }
+        writeQueue.stop();
+
+        Map<String, Integer> valuesPerItem = new HashMap<>();
+        for (List<PendingItemValue> batch : batches) {
+            String itemName = batch.get(0).getItem().getName();
+            assertTrue(batch.stream().allMatch(v -> itemName.equals(v.getItem().getName())));
+            valuesPerItem.merge(itemName, batch.size(), Integer::sum);
+        }
+        assertEquals(Map.of("Item1", 3, "Item2", 3), valuesPerItem);
+        assertEquals(6, writeQueue.getStoredCount());
+        assertEquals(0, writeQueue.getDroppedCount());
+        assertEquals(0, writeQueue.getQueueSize());
+    }
+
+    @Test
+    void dropNewestDiscardsValuesIfQueueIsFull() throws Exception {
+        CountDownLatch flushStarted = new CountDownLatch(1);
+        CountDownLatch flushAllowed = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            flushStarted.countDown();
+            flushAllowed.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(mapper).storeItemValues(anyList());
+
+        JdbcWriteQueue writeQueue = new JdbcWriteQueue(mapper, 1, 1, 50, JdbcWriteQueue.OverflowPolicy.DROP_NEWEST);
+        writeQueue.start();
+        NumberItem item = new NumberItem("Item");
+        ZonedDateTime now = ZonedDateTime.now();
+        assertTrue(writeQueue.add(new PendingItemValue(item, new DecimalType(1), now)));
+        assertTrue(flushStarted.await(5, TimeUnit.SECONDS));
+
+        // writer is busy, first value fills the queue, second one is dropped
+        assertTrue(writeQueue.add(new PendingItemValue(item, new DecimalType(2), now.plusSeconds(1))));
+        assertFalse(writeQueue.add(new PendingItemValue(item, new DecimalType(3), now.plusSeconds(2))));
+        assertEquals(1, writeQueue.getQueueSize());
+        assertEquals(1, writeQueue.getDroppedCount());
+
+        flushAllowed.countDown();
+        writeQueue.stop();
+        assertEquals(2, writeQueue.getStoredCount());
+    }
+
+    @Test
+    void failedBatchIsCountedAsStoreError() throws Exception {
+        doThrow(new JdbcException("connection lost")).when(mapper).storeItemValues(anyList());
+
+        JdbcWriteQueue writeQueue = new JdbcWriteQueue(mapper, 10, 10, 50, JdbcWriteQueue.OverflowPolicy.BLOCK);
+        writeQueue.start();
+        ZonedDateTime now = ZonedDateTime.now();
+        assertTrue(writeQueue.add(new PendingItemValue(new NumberItem("Item1"), new DecimalType(1), now)));
+        assertTrue(writeQueue.add(new PendingItemValue(new NumberItem("Item2"), new DecimalType(2), now)));
+        writeQueue.stop();
+
+        // every attempt of both items counts, failed values are written again until the writer stops
+        verify(mapper, atLeast(2)).handleStoreError();
+        assertEquals(2, writeQueue.getFailedCount());
+        assertEquals(0, writeQueue.getStoredCount());
+        assertEquals(0, writeQueue.getRetryCount());
+    }
+
+    @Test
+    void failedValuesAreWrittenAgain() throws Exception {
+        List<PendingItemValue> stored = new ArrayList<>();
+        doThrow(new JdbcException("connection lost")).doAnswer(invocation -> {
+            stored.addAll(invocation.getArgument(0));
+            return null;
+        }).when(mapper).storeItemValues(anyList());
+
+        JdbcWriteQueue writeQueue = new JdbcWriteQueue(mapper, 10, 10, 50, JdbcWriteQueue.OverflowPolicy.BLOCK);
+        writeQueue.start();
+        PendingItemValue value = new PendingItemValue(new NumberItem("Item"), new DecimalType(1), ZonedDateTime.now());
+        assertTrue(writeQueue.add(value));
+        writeQueue.stop();
+
+        assertEquals(List.of(value), stored);
+        assertEquals(1, writeQueue.getStoredCount());
+        assertEquals(0, writeQueue.getFailedCount());
+        verify(mapper).handleStoreError();
+    }
+
+    @Test
+    void oldestFailedValuesAreDroppedIfRetryLimitIsExceeded() throws Exception {
+        List<PendingItemValue> attempted = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            attempted.addAll(invocation.getArgument(0));
+            throw new JdbcException("value too large");
+        }).when(mapper).storeItemValues(anyList());
+
+        JdbcWriteQueue writeQueue = new JdbcWriteQueue(mapper, 100, 1, 10, JdbcWriteQueue.OverflowPolicy.BLOCK);
+        writeQueue.start();
+        NumberItem item = new NumberItem("Item");
+        ZonedDateTime now = ZonedDateTime.now();
+        int valueCount = JdbcWriteQueue.MAX_RETRY_BATCHES + 5;
+        List<PendingItemValue> values = new ArrayList<>();
+        for (int i = 0; i < valueCount; i++) {
+            PendingItemValue value = new PendingItemValue(item, new DecimalType(i), now.plusSeconds(i));
+            values.add(value);
+            assertTrue(writeQueue.add(value));
+        }
+        for (int i = 0; i < 500 && (writeQueue.getQueueSize() > 0 || writeQueue.getFailedCount() < 5); i++) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(0, writeQueue.getQueueSize());
+        assertEquals(5, writeQueue.getFailedCount());
+        assertEquals(JdbcWriteQueue.MAX_RETRY_BATCHES, writeQueue.getRetryCount());
+        // the newest values are kept and written again
+        attempted.clear();
+        for (int i = 0; i < 500 && attempted.size() < JdbcWriteQueue.MAX_RETRY_BATCHES; i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(values.subList(5, valueCount).containsAll(attempted));
+
+        writeQueue.stop();
+        assertEquals(valueCount, writeQueue.getFailedCount());
+        assertEquals(0, writeQueue.getStoredCount());
+    }
+
+    @Test
+    void noValueIsLostWhileStopping() throws Exception {
+        JdbcWriteQueue writeQueue = new JdbcWriteQueue(mapper, 1000, 10, 10, JdbcWriteQueue.OverflowPolicy.BLOCK);
+        writeQueue.start();
+        NumberItem item = new NumberItem("Item");
+        ZonedDateTime now = ZonedDateTime.now();
+        CountDownLatch producing = new CountDownLatch(1);
+        AtomicInteger queued = new AtomicInteger();
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < 1000; i++) {
+                if (writeQueue.add(new PendingItemValue(item, new DecimalType(i), now.plusSeconds(i)))) {
+                    queued.incrementAndGet();
+                }
+                producing.countDown();
+            }
+        });
+        producer.start();
+        assertTrue(producing.await(5, TimeUnit.SECONDS));
+
+        writeQueue.stop();
+        producer.join(5000);
+
+        // every value that was accepted has been stored, the others were rejected
+        assertEquals(queued.get(), writeQueue.getStoredCount());
+        assertEquals(1000 - queued.get(), writeQueue.getDroppedCount());
+    }
+
+    @Test
+    void valuesAreRejectedIfWriterIsNotRunning() {
+        JdbcWriteQueue writeQueue = new JdbcWriteQueue(mapper, 10, 10, 50, JdbcWriteQueue.OverflowPolicy.BLOCK);
+        assertFalse(writeQueue.add(new PendingItemValue(new NumberItem("Item"), new DecimalType(1),
+                ZonedDateTime.now())));
+        assertEquals(1, writeQueue.getDroppedCount());
+    }
+}
@@ -13,16 +13,19 @@
 package org.openhab.persistence.jdbc.internal.db;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.startsWith;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 import java.util.Objects;
 import java.util.stream.Stream;
 
@@ -65,7 +68,10 @@ import org.openhab.core.library.types.StringType;
 import org.openhab.core.library.unit.SIUnits;
 import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.core.persistence.FilterCriteria.Ordering;
+import org.openhab.core.persistence.HistoricItem;
 import org.openhab.core.types.State;
+import org.openhab.persistence.jdbc.internal.dto.AggregationFunction;
+import org.openhab.persistence.jdbc.internal.dto.JdbcHistoricItem;
 
 /**
  * Tests the {@link JdbcBaseDAO}.
@@ -212,6 +218,85 @@ public class JdbcBaseDAOTest {
                 + "'"));
     }
 
+    @Test
+    void testHistItemFilterQueryAndDeleteProviderUseCachedTableStatements() {
+        filter.setBeginDate(parseDateTimeString("2022-01-10T15:01:44"));
+        String sql1 = jdbcBaseDAO.histItemFilterQueryProvider(filter, 2, DB_TABLE_NAME, "NUMBERITEM", UTC_ZONE_ID);
+        String delete1 = jdbcBaseDAO.histItemFilterDeleteProvider(filter, DB_TABLE_NAME, UTC_ZONE_ID);
+        filter.setBeginDate(parseDateTimeString("2022-01-11T15:01:44"));
+        String sql2 = jdbcBaseDAO.histItemFilterQueryProvider(filter, 2, DB_TABLE_NAME, "NUMBERITEM", UTC_ZONE_ID);
+        String delete2 = jdbcBaseDAO.histItemFilterDeleteProvider(filter, DB_TABLE_NAME, UTC_ZONE_ID);
+
+        assertThat(sql2, is(sql1.replace("2022-01-10", "2022-01-11")));
+        assertThat(sql2, startsWith("SELECT time, ROUND(value,2) FROM " + DB_TABLE_NAME + " WHERE"));
+        assertThat(delete2, is(delete1.replace("2022-01-10", "2022-01-11")));
+        assertThat(jdbcBaseDAO.statementCache.size(), is(1));
+    }
+
+    @Test
+    void testHistItemAggregatedQueryProviderReturnsGroupedQueryAscendingOrder() {
+        filter.setOrdering(Ordering.ASCENDING);
+
+        String sql = jdbcBaseDAO.histItemAggregatedQueryProvider(filter, DB_TABLE_NAME, AggregationFunction.AVG, 60,
+                UTC_ZONE_ID);
+        assertThat(sql, is("SELECT bucket_time, AVG(value) FROM"
+                + " (SELECT FROM_UNIXTIME(FLOOR(UNIX_TIMESTAMP(time) / 60) * 60) AS bucket_time, time, value FROM "
+                + DB_TABLE_NAME + ") b GROUP BY bucket_time ORDER BY bucket_time ASC"));
+    }
+
+    @Test
+    void testHistItemAggregatedQueryProviderWithLastReturnsLastValuePerBucket() {
+        filter.setBeginDate(parseDateTimeString("2022-01-10T15:01:44"));
+
+        String sql = jdbcBaseDAO.histItemAggregatedQueryProvider(filter, DB_TABLE_NAME, AggregationFunction.LAST, 3600,
+                UTC_ZONE_ID);
+        assertThat(sql, is("SELECT time, value FROM " + DB_TABLE_NAME
+                + " WHERE time IN (SELECT MAX(time) FROM"
+                + " (SELECT FROM_UNIXTIME(FLOOR(UNIX_TIMESTAMP(time) / 3600) * 3600) AS bucket_time, time, value FROM "
+                + DB_TABLE_NAME + " WHERE TIME>='"
+                + JdbcBaseDAO.JDBC_DATE_FORMAT.format(Objects.requireNonNull(filter.getBeginDate()))
+                + "') b GROUP BY bucket_time) ORDER BY time DESC"));
+    }
+
+    @Test
+    void testHistItemAggregatedQueryProviderWithMinMaxReturnsExtremesPerBucket() {
+        filter.setOrdering(Ordering.ASCENDING);
+
+        String sql = jdbcBaseDAO.histItemAggregatedQueryProvider(filter, DB_TABLE_NAME, AggregationFunction.MINMAX, 60,
+                UTC_ZONE_ID);
+        assertThat(sql, is("SELECT MIN(time), MIN(value), MAX(time), MAX(value) FROM"
+                + " (SELECT FROM_UNIXTIME(FLOOR(UNIX_TIMESTAMP(time) / 60) * 60) AS bucket_time, time, value FROM "
+                + DB_TABLE_NAME + ") b GROUP BY bucket_time ORDER BY 1 ASC"));
+    }
+
+    @Test
+    void testMinMaxRowsAsHistoricItemsReturnsMinimumAtFirstAndMaximumAtLastTime() {
+        java.sql.Timestamp first = java.sql.Timestamp.valueOf("2023-08-15 21:00:00");
+        java.sql.Timestamp last = java.sql.Timestamp.valueOf("2023-08-15 21:00:50");
+        java.sql.Timestamp single = java.sql.Timestamp.valueOf("2023-08-15 21:01:10");
+        List<Object[]> rows = List.of(new Object[] { first, 1.0, last, 3.0 },
+                new Object[] { single, 2.0, single, 2.0 }, new Object[] { single, null, single, null });
+        JdbcHistoricItemIterable.RowMapper rowMapper = (time, value) -> new JdbcHistoricItem("item",
+                new DecimalType((Double) value), jdbcBaseDAO.objectAsZonedDateTime(time));
+
+        List<HistoricItem> ascending = JdbcBaseDAO.minMaxRowsAsHistoricItems(rows, true, rowMapper);
+        List<HistoricItem> descending = JdbcBaseDAO.minMaxRowsAsHistoricItems(rows, false, rowMapper);
+
+        assertThat(ascending.stream().map(HistoricItem::getState).toList(),
+                is(List.of(new DecimalType(1.0), new DecimalType(3.0), new DecimalType(2.0))));
+        assertThat(ascending.get(1).getTimestamp(), is(jdbcBaseDAO.objectAsZonedDateTime(last)));
+        assertThat(descending.stream().map(HistoricItem::getState).toList(),
+                is(List.of(new DecimalType(3.0), new DecimalType(1.0), new DecimalType(2.0))));
+    }
+
+    @Test
+    void testAggregatedObjectAsStateRoundsAverageOfNumberItem() {
+        assertThat(jdbcBaseDAO.aggregatedObjectAsState(new NumberItem("testNumberItem"), null, 21.33333, 2),
+                is(new DecimalType("21.33")));
+        assertThat(jdbcBaseDAO.aggregatedObjectAsState(new DimmerItem("testDimmerItem"), null,
+                new BigDecimal("52.5"), 2), is(new PercentType(53)));
+    }
+
     @Test
     void testResolveTimeFilterWithNoDatesReturnsEmptyString() {
         String sql = jdbcBaseDAO.resolveTimeFilter(filter, UTC_ZONE_ID);
@@ -0,0 +1,169 @@
+/**
+ * Copyright (c) 2010-2023 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.internal.db;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.ZonedDateTime;
+import java.util.Iterator;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.persistence.HistoricItem;
+import org.openhab.persistence.jdbc.internal.dto.JdbcHistoricItem;
+
+/**
+ * Tests the {@link JdbcHistoricItemIterable}.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class JdbcHistoricItemIterableTest {
+
+    private final Connection connection = mock(Connection.class);
+    private final PreparedStatement statement = mock(PreparedStatement.class);
+    private final ResultSet resultSet = mock(ResultSet.class);
+    private final JdbcHistoricItemIterable iterable = new JdbcHistoricItemIterable("SELECT", 2,
+            (time, value) -> new JdbcHistoricItem("item", new DecimalType((Integer) value), ZonedDateTime.now()),
+            () -> connection);
+
+    @BeforeEach
+    public void setup() throws SQLException {
+        when(connection.prepareStatement(anyString(), anyInt(), anyInt())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.getObject(2)).thenReturn(1, 2);
+    }
+
+    @Test
+    public void connectionIsClosedAfterLastRow() throws SQLException {
+        when(resultSet.next()).thenReturn(true, true, false);
+
+        int count = 0;
+        for (HistoricItem item : iterable) {
+            assertEquals(new DecimalType(++count), item.getState());
+        }
+
+        assertEquals(2, count);
+        verify(statement).setFetchSize(2);
+        verify(resultSet).close();
+        verify(connection).close();
+        assertEquals(0, iterable.getOpenCursorCount());
+    }
+
+    @Test
+    public void connectionIsClosedWhenHasNextFirstReturnsFalse() throws SQLException {
+        when(resultSet.next()).thenReturn(true, false);
+        Iterator<HistoricItem> iterator = iterable.iterator();
+        iterator.next();
+        verify(connection, never()).close();
+
+        assertFalse(iterator.hasNext());
+
+        verify(connection).close();
+        assertFalse(iterator.hasNext());
+        verify(resultSet, times(2)).next();
+    }
+
+    @Test
+    public void partialIterationKeepsConnectionUntilClosed() throws SQLException {
+        when(resultSet.next()).thenReturn(true, true, true, false);
+        int openCursors = JdbcHistoricItemIterable.getTotalOpenCursorCount();
+
+        for (HistoricItem item : iterable) {
+            assertEquals(new DecimalType(1), item.getState());
+            break;
+        }
+
+        verify(connection, never()).close();
+        assertEquals(1, iterable.getOpenCursorCount());
+        assertEquals(openCursors + 1, JdbcHistoricItemIterable.getTotalOpenCursorCount());
+
+        iterable.close();
+
+        verify(connection).close();
+        assertEquals(0, iterable.getOpenCursorCount());
+        assertEquals(openCursors, JdbcHistoricItemIterable.getTotalOpenCursorCount());
+    }
+
+    @Test
+    public void mappingErrorReleasesConnection() throws SQLException {
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getObject(2)).thenReturn("not a number");
+        Iterator<HistoricItem> iterator = iterable.iterator();
+
+        assertThrows(ClassCastException.class, iterator::hasNext);
+
+        verify(connection).close();
+        assertEquals(0, iterable.getOpenCursorCount());
+    }
+
+    @Test
+    public void closingIteratorReleasesConnection() throws SQLException {
+        when(resultSet.next()).thenReturn(true);
+
+        try (JdbcHistoricItemIterable.CursorIterator iterator = iterable.iterator()) {
+            iterator.next();
+            assertEquals(1, iterable.getOpenCursorCount());
+        }
+
+        verify(connection).close();
+        assertEquals(0, iterable.getOpenCursorCount());
+    }
+
+    @Test
+    public void closingIterableReleasesOpenIterations() throws SQLException {
+        when(resultSet.next()).thenReturn(true);
+        Iterator<HistoricItem> first = iterable.iterator();
+        Iterator<HistoricItem> second = iterable.iterator();
+        first.next();
+        assertEquals(2, iterable.getOpenCursorCount());
+
+        iterable.close();
+
+        verify(connection, times(2)).close();
+        assertEquals(0, iterable.getOpenCursorCount());
+        assertThrows(IllegalStateException.class, second::hasNext);
+    }
+
+    @Test
+    public void readErrorIsPropagated() throws SQLException {
+        when(resultSet.next()).thenReturn(true).thenThrow(new SQLException("connection lost"));
+        Iterator<HistoricItem> iterator = iterable.iterator();
+        iterator.next();
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, iterator::hasNext);
+
+        assertInstanceOf(SQLException.class, e.getCause());
+        verify(connection).close();
+        assertEquals(0, iterable.getOpenCursorCount());
+    }
+
+    @Test
+    public void queryErrorIsPropagated() throws SQLException {
+        when(statement.executeQuery()).thenThrow(new SQLException("table not found"));
+
+        assertThrows(IllegalStateException.class, iterable::iterator);
+
+        verify(statement).close();
+        verify(connection).close();
+        assertEquals(0, iterable.getOpenCursorCount());
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2010-2023 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.internal.utils;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the {@link SqlStatementCache}.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class SqlStatementCacheTest {
+
+    private final AtomicInteger renderCount = new AtomicInteger();
+
+    private String render(String tableName) {
+        renderCount.incrementAndGet();
+        return "INSERT INTO " + tableName + " (time, value) VALUES( NOW(), ? )";
+    }
+
+    @Test
+    void statementIsRenderedOnlyOnce() {
+        SqlStatementCache cache = new SqlStatementCache(10);
+        String sql1 = cache.get("item0001", "insert", () -> render("item0001"));
+        String sql2 = cache.get("item0001", "insert", () -> render("item0001"));
+        assertThat(sql2, is(sql1));
+        assertThat(renderCount.get(), is(1));
+    }
+
+    @Test
+    void invalidatedStatementIsRenderedAgain() {
+        SqlStatementCache cache = new SqlStatementCache(10);
+        cache.get("item0001", "insert", () -> render("item0001"));
+        cache.get("item0002", "insert", () -> render("item0002"));
+        cache.invalidate("item0001");
+        cache.get("item0001", "insert", () -> render("item0001"));
+        cache.get("item0002", "insert", () -> render("item0002"));
+        assertThat(renderCount.get(), is(3));
+
+        cache.invalidateAll();
+        assertThat(cache.size(), is(0));
+    }
+
+    @Test
+    void leastRecentlyUsedTableIsEvicted() {
+        SqlStatementCache cache = new SqlStatementCache(2);
+        cache.get("item0001", "insert", () -> render("item0001"));
+        cache.get("item0002", "insert", () -> render("item0002"));
+        cache.get("item0001", "insert", () -> render("item0001"));
+        cache.get("item0003", "insert", () -> render("item0003"));
+        assertThat(cache.size(), is(2));
+        assertThat(renderCount.get(), is(3));
+
+        // item0002 was evicted, item0001 is still cached
+        cache.get("item0001", "insert", () -> render("item0001"));
+        assertThat(renderCount.get(), is(3));
+        cache.get("item0002", "insert", () -> render("item0002"));
+        assertThat(renderCount.get(), is(4));
+    }
+
+    @Test
+    void concurrentLookupsRenderStatementOnlyOnce() throws Exception {
+        SqlStatementCache cache = new SqlStatementCache(10);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                String tableName = "item000" + (i % 5);
+                results.add(executor.submit(() -> cache.get(tableName, "insert", () -> render(tableName))));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                assertThat(results.get(i).get(), is(render("item000" + (i % 5))));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        // every table was rendered once by the lookups and 1000 times by the assertions
+        assertThat(renderCount.get(), is(1005));
+        assertThat(cache.size(), is(5));
+    }
+}
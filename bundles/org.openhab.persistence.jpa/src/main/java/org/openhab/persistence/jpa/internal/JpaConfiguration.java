@@ -35,12 +35,18 @@ public class JpaConfiguration {
     private static final String CFG_USERNAME = "user";
     private static final String CFG_PASSWORD = "password";
     private static final String CFG_SYNCMAPPING = "syncmappings";
+    private static final String CFG_WRITE_BEHIND_INTERVAL = "writeBehindInterval";
+    private static final String CFG_WRITE_BEHIND_SIZE = "writeBehindSize";
+
+    private static final int DEFAULT_WRITE_BEHIND_SIZE = 100;
 
     public final String dbConnectionUrl;
     public final String dbDriverClass;
     public final String dbUserName;
     public final String dbPassword;
     public final String dbSyncMapping;
+    public final long writeBehindIntervalMillis;
+    public final int writeBehindSize;
 
     public JpaConfiguration(final Map<String, @Nullable Object> properties) throws IllegalArgumentException {
         logger.debug("Creating JPA config...");
@@ -81,6 +87,31 @@ public class JpaConfiguration {
         }
         dbSyncMapping = param == null ? "" : param;
 
+        writeBehindIntervalMillis = getNumber(properties, CFG_WRITE_BEHIND_INTERVAL, 0);
+        if (writeBehindIntervalMillis < 0) {
+            throw new IllegalArgumentException("Negative write behind interval in JPA configuration!");
+        }
+        long size = getNumber(properties, CFG_WRITE_BEHIND_SIZE, DEFAULT_WRITE_BEHIND_SIZE);
+        if (size < 1 || size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid write behind size in JPA configuration!");
+        }
+        writeBehindSize = (int) size;
+
         logger.debug("Creating JPA config... done");
     }
+
+    private static long getNumber(final Map<String, @Nullable Object> properties, String name, long defaultValue)
+            throws IllegalArgumentException {
+        Object param = properties.get(name);
+        if (param instanceof Number number) {
+            return number.longValue();
+        } else if (param instanceof String string && !string.isBlank()) {
+            try {
+                return Long.parseLong(string.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid " + name + " in JPA configuration: " + string);
+            }
+        }
+        return defaultValue;
+    }
 }
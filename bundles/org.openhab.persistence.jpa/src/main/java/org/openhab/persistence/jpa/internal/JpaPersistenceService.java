@@ -12,20 +12,28 @@
  */
 package org.openhab.persistence.jpa.internal;
 
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.Persistence;
-import javax.persistence.Query;
+import javax.persistence.TypedQuery;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.common.ThreadPoolManager;
 import org.openhab.core.config.core.ConfigurableService;
 import org.openhab.core.items.Item;
 import org.openhab.core.items.ItemNotFoundException;
@@ -64,6 +72,12 @@ public class JpaPersistenceService implements QueryablePersistenceService {
     private static final String SERVICE_LABEL = "JPA";
     protected static final String CONFIG_URI = "persistence:jpa";
 
+    // bounds of the time range of queries without begin or end date, supported by the timestamp types of all databases
+    static final Date MIN_DATE = new Date(0);
+    static final Date MAX_DATE = Date.from(Instant.parse("9999-01-01T00:00:00Z"));
+    // values of failed write behind transactions are kept up to this multiple of the write behind size
+    static final int MAX_PENDING_BATCHES = 10;
+
     private final Logger logger = LoggerFactory.getLogger(JpaPersistenceService.class);
 
     private final ItemRegistry itemRegistry;
@@ -74,14 +88,30 @@ public class JpaPersistenceService implements QueryablePersistenceService {
 
     private boolean initialized;
 
+    private final ScheduledExecutorService scheduler;
+    private final List<JpaPersistentItem> pendingItems = new ArrayList<>();
+    private @Nullable ScheduledFuture<?> writeBehindJob;
+    private final AtomicLong droppedItemCount = new AtomicLong();
+
     @Activate
     public JpaPersistenceService(BundleContext context, Map<String, @Nullable Object> properties,
             final @Reference ItemRegistry itemRegistry) {
+        this(properties, itemRegistry, ThreadPoolManager.getScheduledPool("persistence"));
+    }
+
+    JpaPersistenceService(Map<String, @Nullable Object> properties, ItemRegistry itemRegistry,
+            ScheduledExecutorService scheduler) {
         this.itemRegistry = itemRegistry;
+        this.scheduler = scheduler;
         logger.debug("Activating JPA persistence service");
         try {
-            config = new JpaConfiguration(properties);
+            JpaConfiguration config = new JpaConfiguration(properties);
+            this.config = config;
             initialized = true;
+            if (config.writeBehindIntervalMillis > 0) {
+                writeBehindJob = scheduler.scheduleWithFixedDelay(this::flushPendingItems,
+                        config.writeBehindIntervalMillis, config.writeBehindIntervalMillis, TimeUnit.MILLISECONDS);
+            }
         } catch (IllegalArgumentException e) {
             logger.warn("{}", e.getMessage());
         }
@@ -92,7 +122,7 @@ public class JpaPersistenceService implements QueryablePersistenceService {
      *
      * @return EntityManagerFactory
      */
-    protected EntityManagerFactory getEntityManagerFactory() {
+    protected synchronized EntityManagerFactory getEntityManagerFactory() {
         EntityManagerFactory emf = this.emf;
         if (emf == null) {
             emf = newEntityManagerFactory();
@@ -107,6 +137,19 @@ public class JpaPersistenceService implements QueryablePersistenceService {
     @Deactivate
     public void deactivate() {
         logger.debug("Deactivating JPA persistence service");
+        ScheduledFuture<?> writeBehindJob = this.writeBehindJob;
+        if (writeBehindJob != null) {
+            writeBehindJob.cancel(false);
+            this.writeBehindJob = null;
+        }
+        flushPendingItems();
+        synchronized (pendingItems) {
+            if (!pendingItems.isEmpty()) {
+                logger.warn("Dropped {} queued values that could not be written, {} values dropped in total",
+                        pendingItems.size(), droppedItemCount.addAndGet(pendingItems.size()));
+                pendingItems.clear();
+            }
+        }
         closeEntityManagerFactory();
     }
 
@@ -155,22 +198,101 @@ public class JpaPersistenceService implements QueryablePersistenceService {
         pItem.setRealName(item.getName());
         pItem.setTimestamp(new Date());
 
+        if (writeBehindJob != null) {
+            boolean flush;
+            synchronized (pendingItems) {
+                pendingItems.add(pItem);
+                flush = pendingItems.size() == config.writeBehindSize;
+            }
+            if (flush) {
+                scheduler.execute(this::flushPendingItems);
+            }
+            logger.debug("Storing item...queued");
+            return;
+        }
+
+        persist(List.of(pItem));
+        logger.debug("Storing item...done");
+    }
+
+    /**
+     * Persists the items that were queued in write behind mode
+     */
+    void flushPendingItems() {
+        List<JpaPersistentItem> items;
+        synchronized (pendingItems) {
+            if (pendingItems.isEmpty()) {
+                return;
+            }
+            items = new ArrayList<>(pendingItems);
+            pendingItems.clear();
+        }
+        logger.debug("Flushing {} queued items", items.size());
+        if (!persist(items)) {
+            requeuePendingItems(items);
+        }
+    }
+
+    /**
+     * Queues the items of a failed write behind transaction again, in front of the items that were queued meanwhile.
+     * The oldest items are dropped if more than {@link #MAX_PENDING_BATCHES} times the write behind size are queued.
+     *
+     * @param items the items that could not be persisted
+     */
+    private void requeuePendingItems(List<JpaPersistentItem> items) {
+        int dropped;
+        synchronized (pendingItems) {
+            List<JpaPersistentItem> retryItems = new ArrayList<>(items.size() + pendingItems.size());
+            // the rolled back entities may already have an id assigned, so they are persisted as new entities
+            items.stream().map(JpaPersistenceService::copyOf).forEach(retryItems::add);
+            retryItems.addAll(pendingItems);
+            dropped = Math.max(0, retryItems.size() - MAX_PENDING_BATCHES * config.writeBehindSize);
+            pendingItems.clear();
+            pendingItems.addAll(retryItems.subList(dropped, retryItems.size()));
+        }
+        if (dropped > 0) {
+            logger.warn("Write behind queue is full, dropped the {} oldest values that could not be written, "
+                    + "{} values dropped in total", dropped, droppedItemCount.addAndGet(dropped));
+        } else {
+            logger.debug("Queued {} values again that could not be written", items.size());
+        }
+    }
+
+    private static JpaPersistentItem copyOf(JpaPersistentItem item) {
+        JpaPersistentItem copy = new JpaPersistentItem();
+        copy.setName(item.getName());
+        copy.setRealName(item.getRealName());
+        copy.setTimestamp(Date.from(item.getTimestamp().toInstant()));
+        copy.setValue(item.getValue());
+        return copy;
+    }
+
+    /**
+     * Persists items in a single transaction. The inserts are sent in JDBC batches on commit, see the
+     * openjpa.jdbc.DBDictionary property in persistence.xml.
+     *
+     * @param items the items to persist
+     * @return <code>true</code> if the items were persisted, <code>false</code> if the transaction was rolled back
+     */
+    private boolean persist(List<JpaPersistentItem> items) {
         EntityManager em = getEntityManagerFactory().createEntityManager();
         try {
-            logger.debug("Persisting item...");
+            logger.debug("Persisting {} items...", items.size());
             // In RESOURCE_LOCAL calls to EntityManager require a begin/commit
             em.getTransaction().begin();
-            em.persist(pItem);
+            for (JpaPersistentItem pItem : items) {
+                em.persist(pItem);
+            }
             em.getTransaction().commit();
-            logger.debug("Persisting item...done");
+            logger.debug("Persisting items...done");
+            return true;
         } catch (Exception e) {
-            logger.error("Error while persisting item! Rolling back!", e);
+            logger.error("Error while persisting {} items! Rolling back!", items.size(), e);
             em.getTransaction().rollback();
+            return false;
         } finally {
             em.close();
         }
-
-        logger.debug("Storing item...done");
     }
 
     @Override
@@ -198,28 +320,14 @@ public class JpaPersistenceService implements QueryablePersistenceService {
             return List.of();
         }
 
-        String sortOrder;
-        if (filter.getOrdering() == Ordering.ASCENDING) {
-            sortOrder = "ASC";
-        } else {
-            sortOrder = "DESC";
-        }
+        // queued values are written first, so that they are part of the result
+        flushPendingItems();
 
-        boolean hasBeginDate = false;
-        boolean hasEndDate = false;
-        String queryString = "SELECT n FROM " + JpaPersistentItem.class.getSimpleName()
-                + " n WHERE n.realName = :itemName";
-        if (filter.getBeginDate() != null) {
-            queryString += " AND n.timestamp >= :beginDate";
-            hasBeginDate = true;
-        }
-        if (filter.getEndDate() != null) {
-            queryString += " AND n.timestamp <= :endDate";
-            hasEndDate = true;
-        }
-        queryString += " ORDER BY n.timestamp " + sortOrder;
-
-        logger.debug("The query: {}", queryString);
+        ZonedDateTime beginDate = filter.getBeginDate();
+        ZonedDateTime endDate = filter.getEndDate();
+        String queryName = filter.getOrdering() == Ordering.ASCENDING ? JpaPersistentItem.QUERY_RANGE_ASCENDING
+                : JpaPersistentItem.QUERY_RANGE_DESCENDING;
+        logger.debug("The query: {}", queryName);
 
         EntityManager em = getEntityManagerFactory().createEntityManager();
         try {
@@ -227,21 +335,16 @@ public class JpaPersistenceService implements QueryablePersistenceService {
             em.getTransaction().begin();
 
             logger.debug("Creating query...");
-            Query query = em.createQuery(queryString);
+            TypedQuery<JpaPersistentItem> query = em.createNamedQuery(queryName, JpaPersistentItem.class);
             query.setParameter("itemName", item.getName());
-            if (hasBeginDate) {
-                query.setParameter("beginDate", Date.from(filter.getBeginDate().toInstant()));
-            }
-            if (hasEndDate) {
-                query.setParameter("endDate", Date.from(filter.getEndDate().toInstant()));
-            }
+            query.setParameter("beginDate", beginDate == null ? MIN_DATE : Date.from(beginDate.toInstant()));
+            query.setParameter("endDate", endDate == null ? MAX_DATE : Date.from(endDate.toInstant()));
 
             query.setFirstResult(filter.getPageNumber() * filter.getPageSize());
             query.setMaxResults(filter.getPageSize());
             logger.debug("Creating query...done");
 
             logger.debug("Retrieving result list...");
-            @SuppressWarnings("unchecked")
             List<JpaPersistentItem> result = query.getResultList();
             logger.debug("Retrieving result list...done");
 
@@ -295,7 +398,7 @@ public class JpaPersistenceService implements QueryablePersistenceService {
     /**
      * Closes EntityManagerFactory
      */
-    protected void closeEntityManagerFactory() {
+    protected synchronized void closeEntityManagerFactory() {
         if (emf != null) {
             emf.close();
             emf = null;
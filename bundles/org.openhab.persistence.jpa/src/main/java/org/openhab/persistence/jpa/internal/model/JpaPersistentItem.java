@@ -22,6 +22,9 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
 import javax.persistence.Table;
 import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
@@ -39,10 +42,25 @@ import org.openhab.core.types.UnDefType;
  */
 
 @Entity
-@Table(name = "HISTORIC_ITEM")
+@Table(name = "HISTORIC_ITEM", indexes = {
+        @Index(name = "HISTORIC_ITEM_REALNAME_TIMESTAMP", columnList = "realName, timestamp") })
+@NamedQueries({
+        @NamedQuery(name = JpaPersistentItem.QUERY_RANGE_ASCENDING, query = "SELECT n FROM JpaPersistentItem n "
+                + "WHERE n.realName = :itemName AND n.timestamp >= :beginDate AND n.timestamp <= :endDate "
+                + "ORDER BY n.timestamp ASC"),
+        @NamedQuery(name = JpaPersistentItem.QUERY_RANGE_DESCENDING, query = "SELECT n FROM JpaPersistentItem n "
+                + "WHERE n.realName = :itemName AND n.timestamp >= :beginDate AND n.timestamp <= :endDate "
+                + "ORDER BY n.timestamp DESC") })
 @NonNullByDefault
 public class JpaPersistentItem implements HistoricItem {
 
+    /**
+     * Named queries for the values of an item in a time range, with the parameters itemName, beginDate and endDate.
+     * They are parsed once by the persistence provider and use the index on realName and timestamp.
+     */
+    public static final String QUERY_RANGE_ASCENDING = "JpaPersistentItem.rangeAscending";
+    public static final String QUERY_RANGE_DESCENDING = "JpaPersistentItem.rangeDescending";
+
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
     private @NonNullByDefault({}) Long id;
@@ -0,0 +1,211 @@
+/**
+ * Copyright (c) 2010-2023 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jpa.internal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.EntityTransaction;
+import javax.persistence.RollbackException;
+import javax.persistence.TypedQuery;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.openhab.core.items.ItemNotFoundException;
+import org.openhab.core.items.ItemRegistry;
+import org.openhab.core.library.items.NumberItem;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.persistence.FilterCriteria;
+import org.openhab.core.persistence.FilterCriteria.Ordering;
+import org.openhab.persistence.jpa.internal.model.JpaPersistentItem;
+
+/**
+ * Tests the write behind mode and the queries of the {@link JpaPersistenceService}.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@NonNullByDefault
+public class JpaPersistenceServiceTest {
+    private static final int WRITE_BEHIND_SIZE = 2;
+
+    private @Mock @NonNullByDefault({}) ItemRegistry itemRegistryMock;
+    private @Mock @NonNullByDefault({}) ScheduledExecutorService schedulerMock;
+    private @Mock @NonNullByDefault({}) ScheduledFuture<?> writeBehindJobMock;
+    private @Mock @NonNullByDefault({}) EntityManagerFactory emfMock;
+    private @Mock @NonNullByDefault({}) EntityManager emMock;
+    private @Mock @NonNullByDefault({}) EntityTransaction transactionMock;
+    private @Mock @NonNullByDefault({}) TypedQuery<JpaPersistentItem> queryMock;
+
+    private final List<JpaPersistentItem> persisted = new ArrayList<>();
+    private final NumberItem item = new NumberItem("item");
+    private @NonNullByDefault({}) JpaPersistenceService service;
+
+    @BeforeEach
+    public void setup() throws ItemNotFoundException {
+        doAnswer(invocation -> writeBehindJobMock).when(schedulerMock).scheduleWithFixedDelay(any(), anyLong(),
+                anyLong(), any());
+        when(emfMock.createEntityManager()).thenReturn(emMock);
+        when(emMock.getTransaction()).thenReturn(transactionMock);
+        doAnswer(invocation -> persisted.add(invocation.getArgument(0))).when(emMock).persist(any());
+        when(emMock.createNamedQuery(anyString(), eq(JpaPersistentItem.class))).thenReturn(queryMock);
+        when(queryMock.getResultList()).thenReturn(List.of());
+        when(itemRegistryMock.getItem("item")).thenReturn(item);
+
+        service = new JpaPersistenceService(Map.of("url", "jdbc:derby:openhab", "driver",
+                "org.apache.derby.jdbc.EmbeddedDriver", "writeBehindInterval", 1000, "writeBehindSize",
+                WRITE_BEHIND_SIZE), itemRegistryMock, schedulerMock) {
+            @Override
+            protected EntityManagerFactory newEntityManagerFactory() {
+                return emfMock;
+            }
+        };
+    }
+
+    private void store(int value) {
+        item.setState(new DecimalType(value));
+        service.store(item);
+    }
+
+    private List<String> persistedValues() {
+        return persisted.stream().map(JpaPersistentItem::getValue).collect(Collectors.toList());
+    }
+
+    @Test
+    public void queuedValuesAreWrittenInOneTransaction() {
+        store(1);
+        verify(schedulerMock, never()).execute(any());
+        store(2);
+        // a full batch is written without waiting for the interval
+        verify(schedulerMock).execute(any());
+
+        service.flushPendingItems();
+
+        assertThat(persistedValues(), contains("1.0", "2.0"));
+        verify(transactionMock).commit();
+        verify(emMock).close();
+    }
+
+    @Test
+    public void valuesOfAFailedTransactionAreWrittenAgain() {
+        doThrow(new RollbackException("connection lost")).doNothing().when(transactionMock).commit();
+        store(1);
+        service.flushPendingItems();
+        verify(transactionMock).rollback();
+        JpaPersistentItem rolledBack = persisted.get(0);
+        persisted.clear();
+        store(2);
+
+        service.flushPendingItems();
+
+        // the failed values are written before the newer ones, as new entities
+        assertThat(persistedValues(), contains("1.0", "2.0"));
+        assertThat(persisted.get(0), is(not(sameInstance(rolledBack))));
+        assertThat(persisted.get(0).getTimestamp(), is(rolledBack.getTimestamp()));
+        service.flushPendingItems();
+        verify(transactionMock, times(2)).commit();
+    }
+
+    @Test
+    public void oldestValuesAreDroppedIfTooManyValuesCouldNotBeWritten() {
+        int maxPendingItems = JpaPersistenceService.MAX_PENDING_BATCHES * WRITE_BEHIND_SIZE;
+        doThrow(new RollbackException("connection lost")).doNothing().when(transactionMock).commit();
+        IntStream.range(0, maxPendingItems + 5).forEach(this::store);
+        service.flushPendingItems();
+        persisted.clear();
+
+        service.flushPendingItems();
+
+        // numbers are stored with their double value
+        assertThat(persistedValues(), is(IntStream.range(5, maxPendingItems + 5).mapToObj(i -> i + ".0")
+                .collect(Collectors.toList())));
+    }
+
+    @Test
+    public void valuesThatCouldNotBeWrittenAreDroppedOnDeactivation() {
+        doThrow(new RollbackException("connection lost")).when(transactionMock).commit();
+        store(1);
+
+        service.deactivate();
+
+        verify(writeBehindJobMock).cancel(false);
+        verify(transactionMock).rollback();
+        verify(emfMock).close();
+        persisted.clear();
+        service.flushPendingItems();
+        assertThat(persisted, is(empty()));
+    }
+
+    @Test
+    public void queryWithoutDatesIsBoundedByMinAndMaxDate() {
+        FilterCriteria filter = new FilterCriteria();
+        filter.setItemName("item");
+
+        service.query(filter);
+
+        verify(emMock).createNamedQuery(JpaPersistentItem.QUERY_RANGE_DESCENDING, JpaPersistentItem.class);
+        verify(queryMock).setParameter("itemName", "item");
+        verify(queryMock).setParameter("beginDate", JpaPersistenceService.MIN_DATE);
+        verify(queryMock).setParameter("endDate", JpaPersistenceService.MAX_DATE);
+    }
+
+    @Test
+    public void queryWithDatesIsBoundedByTheseDates() {
+        ZonedDateTime beginDate = ZonedDateTime.parse("2023-01-01T00:00:00Z");
+        ZonedDateTime endDate = ZonedDateTime.parse("2023-02-01T00:00:00+01:00");
+        FilterCriteria filter = new FilterCriteria();
+        filter.setItemName("item");
+        filter.setBeginDate(beginDate);
+        filter.setEndDate(endDate);
+        filter.setOrdering(Ordering.ASCENDING);
+
+        service.query(filter);
+
+        verify(emMock).createNamedQuery(JpaPersistentItem.QUERY_RANGE_ASCENDING, JpaPersistentItem.class);
+        verify(queryMock).setParameter("beginDate", Date.from(beginDate.toInstant()));
+        verify(queryMock).setParameter("endDate", Date.from(endDate.toInstant()));
+    }
+
+    @Test
+    public void queryWritesQueuedValuesFirst() {
+        store(1);
+        FilterCriteria filter = new FilterCriteria();
+        filter.setItemName("item");
+
+        service.query(filter);
+
+        assertThat(persistedValues(), contains("1.0"));
+        verify(emMock).createNamedQuery(anyString(), eq(JpaPersistentItem.class));
+    }
+}
@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) 2010-2023 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.library.types.DateTimeType;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.library.types.HSBType;
+import org.openhab.core.library.types.OnOffType;
+import org.openhab.core.library.types.OpenClosedType;
+import org.openhab.core.library.types.PercentType;
+import org.openhab.core.library.types.PlayPauseType;
+import org.openhab.core.library.types.PointType;
+import org.openhab.core.library.types.QuantityType;
+import org.openhab.core.library.types.StringListType;
+import org.openhab.core.library.types.StringType;
+import org.openhab.core.library.types.UpDownType;
+import org.openhab.core.types.State;
+import org.openhab.core.types.TypeParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Serializes a {@link MapDbItem} to a compact binary format.
+ *
+ * The format consists of a version byte, the timestamp in epoch milliseconds, a byte for the state type and the full
+ * string of the state. Common state types are identified by their index in {@link #STATE_TYPES}, all other types
+ * by their class name. The item name is not part of the format, as it is the key of the value.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class MapDbItemSerializer {
+    private static final byte FORMAT_VERSION = 1;
+    private static final byte TYPE_BY_NAME = 0;
+
+    // the index of a type is stored, types must not be removed or reordered
+    private static final List<Class<? extends State>> STATE_TYPES = List.of(DecimalType.class, QuantityType.class,
+            OnOffType.class, OpenClosedType.class, PercentType.class, HSBType.class, StringType.class,
+            DateTimeType.class, UpDownType.class, PlayPauseType.class, PointType.class, StringListType.class);
+
+    private final Logger logger = LoggerFactory.getLogger(MapDbItemSerializer.class);
+
+    public byte[] serialize(MapDbItem item) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            State state = item.getState();
+            out.writeByte(FORMAT_VERSION);
+            out.writeLong(item.getTimestamp().toInstant().toEpochMilli());
+            int typeIndex = STATE_TYPES.indexOf(state.getClass());
+            if (typeIndex >= 0) {
+                out.writeByte(typeIndex + 1);
+            } else {
+                out.writeByte(TYPE_BY_NAME);
+                writeString(out, state.getClass().getName());
+            }
+            writeString(out, state.toFullString());
+        } catch (IOException e) {
+            // cannot happen when writing to a byte array
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public @Nullable MapDbItem deserialize(String name, byte[] data) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            byte version = in.readByte();
+            if (version != FORMAT_VERSION) {
+                logger.warn("Couldn't deserialize state of '{}': unknown format version {}", name, version);
+                return null;
+            }
+            long timestamp = in.readLong();
+            int typeIndex = in.readByte();
+            Class<? extends State> stateType;
+            if (typeIndex == TYPE_BY_NAME) {
+                @SuppressWarnings("unchecked")
+                Class<? extends State> type = (Class<? extends State>) Class.forName(readString(in));
+                stateType = type;
+            } else {
+                stateType = STATE_TYPES.get(typeIndex - 1);
+            }
+            State state = TypeParser.parseState(List.of(stateType), readString(in));
+            if (state == null) {
+                logger.warn("Couldn't deserialize state of '{}' as {}", name, stateType.getSimpleName());
+                return null;
+            }
+
+            MapDbItem item = new MapDbItem();
+            item.setName(name);
+            item.setState(state);
+            item.setTimestamp(new Date(timestamp));
+            return item;
+        } catch (IOException | ClassNotFoundException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+            logger.warn("Couldn't deserialize state of '{}': {}", name, e.getMessage());
+            return null;
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        // not DataOutputStream.writeUTF, which is limited to 64 kB
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
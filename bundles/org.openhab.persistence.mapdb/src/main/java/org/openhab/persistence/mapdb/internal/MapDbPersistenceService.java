@@ -19,14 +19,17 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -34,6 +37,8 @@ import org.mapdb.DB;
 import org.mapdb.DBMaker;
 import org.openhab.core.OpenHAB;
 import org.openhab.core.common.ThreadPoolManager;
+import org.openhab.core.config.core.ConfigParser;
+import org.openhab.core.config.core.ConfigurableService;
 import org.openhab.core.items.Item;
 import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.core.persistence.HistoricItem;
@@ -43,9 +48,11 @@ import org.openhab.core.persistence.QueryablePersistenceService;
 import org.openhab.core.persistence.strategy.PersistenceStrategy;
 import org.openhab.core.types.State;
 import org.openhab.core.types.UnDefType;
+import org.osgi.framework.Constants;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -60,45 +67,103 @@ import com.google.gson.GsonBuilder;
  * @author Martin Kühl - Port to 3.x
  */
 @NonNullByDefault
-@Component(service = { PersistenceService.class, QueryablePersistenceService.class })
+@Component(service = { PersistenceService.class,
+        QueryablePersistenceService.class }, configurationPid = "org.openhab.mapdb", //
+        property = Constants.SERVICE_PID + "=org.openhab.mapdb")
+@ConfigurableService(category = "persistence", label = "MapDB Persistence Service", description_uri = MapDbPersistenceService.CONFIG_URI)
 public class MapDbPersistenceService implements QueryablePersistenceService {
 
     private static final String SERVICE_ID = "mapdb";
     private static final String SERVICE_LABEL = "MapDB";
+    protected static final String CONFIG_URI = "persistence:mapdb";
+    private static final String COMMIT_INTERVAL_CONFIG = "commitInterval";
+    private static final long COMMIT_INTERVAL_DEFAULT = 0;
     private static final Path DB_DIR = new File(OpenHAB.getUserDataFolder(), "persistence").toPath().resolve("mapdb");
-    private static final Path BACKUP_DIR = DB_DIR.resolve("backup");
     private static final String DB_FILE_NAME = "storage.mapdb";
+    private static final String LEGACY_MAP_NAME = "itemStore";
+    private static final String MAP_NAME = "binaryItemStore";
 
     private final Logger logger = LoggerFactory.getLogger(MapDbPersistenceService.class);
 
-    private final ExecutorService threadPool = ThreadPoolManager.getPool(getClass().getSimpleName());
+    private final Path dbDir;
+    private final Path backupDir;
+    private final ExecutorService threadPool;
+    private final ScheduledExecutorService scheduler;
 
     /**
      * holds the local instance of the MapDB database
      */
 
     private @NonNullByDefault({}) DB db;
-    private @NonNullByDefault({}) Map<String, String> map;
+    private @NonNullByDefault({}) Map<String, byte[]> map;
 
+    /**
+     * holds the latest states that are not yet written to the database
+     */
+    private final Map<String, MapDbItem> pendingItems = new ConcurrentHashMap<>();
+    private long commitInterval = COMMIT_INTERVAL_DEFAULT;
+    private @Nullable ScheduledFuture<?> commitJob;
+
+    private final MapDbItemSerializer serializer = new MapDbItemSerializer();
+
+    // only used to read entries of the JSON format used by previous versions
     private transient Gson mapper = new GsonBuilder().registerTypeHierarchyAdapter(State.class, new StateTypeAdapter())
             .create();
 
+    public MapDbPersistenceService() {
+        this(DB_DIR, ThreadPoolManager.getPool(MapDbPersistenceService.class.getSimpleName()),
+                ThreadPoolManager.getScheduledPool("persistence"));
+    }
+
+    MapDbPersistenceService(Path dbDir, ExecutorService threadPool, ScheduledExecutorService scheduler) {
+        this.dbDir = dbDir;
+        this.backupDir = dbDir.resolve("backup");
+        this.threadPool = threadPool;
+        this.scheduler = scheduler;
+    }
+
     @Activate
-    public void activate() {
+    public void activate(Map<String, Object> config) {
         logger.debug("MapDB persistence service is being activated");
+        openDatabase();
+        modified(config);
+        logger.debug("MapDB persistence service is now activated");
+    }
+
+    @Modified
+    public void modified(Map<String, Object> config) {
+        commitInterval = ConfigParser.valueAsOrElse(config.get(COMMIT_INTERVAL_CONFIG), Long.class,
+                COMMIT_INTERVAL_DEFAULT);
+
+        ScheduledFuture<?> commitJob = this.commitJob;
+        if (commitJob != null) {
+            commitJob.cancel(false);
+            this.commitJob = null;
+        }
+        if (commitInterval > 0) {
+            logger.debug("Committing stored states every {} ms", commitInterval);
+            this.commitJob = scheduler.scheduleWithFixedDelay(this::commit, commitInterval, commitInterval,
+                    TimeUnit.MILLISECONDS);
+        } else {
+            // commit states that were collected with the previous interval
+            threadPool.execute(this::commit);
+        }
+    }
+
+    private void openDatabase() {
 
         try {
-            Files.createDirectories(DB_DIR);
+            Files.createDirectories(dbDir);
         } catch (IOException e) {
-            logger.warn("Failed to create one or more directories in the path '{}'", DB_DIR);
+            logger.warn("Failed to create one or more directories in the path '{}'", dbDir);
             logger.warn("MapDB persistence service activation has failed.");
             return;
         }
 
-        File dbFile = DB_DIR.resolve(DB_FILE_NAME).toFile();
+        File dbFile = dbDir.resolve(DB_FILE_NAME).toFile();
         try {
             db = DBMaker.newFileDB(dbFile).closeOnJvmShutdown().make();
-            map = db.createTreeMap("itemStore").makeOrGet();
+            map = db.createTreeMap(MAP_NAME).makeOrGet();
         } catch (RuntimeException re) {
             Throwable cause = re.getCause();
             if (cause instanceof ClassNotFoundException cnf) {
@@ -107,42 +172,66 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
                         dbFile, OpenHAB.getVersion(), cnf.getMessage());
 
                 try {
-                    Files.createDirectories(BACKUP_DIR);
+                    Files.createDirectories(backupDir);
                 } catch (IOException ioe) {
-                    logger.warn("Failed to create one or more directories in the path '{}'", BACKUP_DIR);
+                    logger.warn("Failed to create one or more directories in the path '{}'", backupDir);
                     logger.warn("MapDB persistence service activation has failed.");
                     return;
                 }
 
-                try (DirectoryStream<Path> stream = Files.newDirectoryStream(DB_DIR)) {
+                try (DirectoryStream<Path> stream = Files.newDirectoryStream(dbDir)) {
                     long epochMilli = Instant.now().toEpochMilli();
                     for (Path path : stream) {
                         if (!Files.isDirectory(path)) {
-                            Path newPath = BACKUP_DIR.resolve(epochMilli + "--" + path.getFileName());
+                            Path newPath = backupDir.resolve(epochMilli + "--" + path.getFileName());
                             Files.move(path, newPath);
                             logger.info("Moved incompatible MapDB file '{}' to '{}'", path, newPath);
                         }
                     }
                 } catch (IOException ioe) {
-                    logger.warn("Failed to read files from '{}': {}", DB_DIR, ioe.getMessage());
+                    logger.warn("Failed to read files from '{}': {}", dbDir, ioe.getMessage());
                     logger.warn("MapDB persistence service activation has failed.");
                     return;
                 }
 
                 db = DBMaker.newFileDB(dbFile).closeOnJvmShutdown().make();
-                map = db.createTreeMap("itemStore").makeOrGet();
+                map = db.createTreeMap(MAP_NAME).makeOrGet();
             } else {
                 logger.warn("Failed to create or open the MapDB: {}", re.getMessage());
                 logger.warn("MapDB persistence service activation has failed.");
+                return;
             }
         }
-        logger.debug("MapDB persistence service is now activated");
+        migrateLegacyEntries();
+    }
+
+    /**
+     * Converts the entries stored as JSON by previous versions to the binary format. This is only done as long as no
+     * state was stored in the binary format. The JSON entries are kept, so that a previous version still finds its
+     * states after a downgrade. They are not updated anymore and can be removed with a future version.
+     */
+    private void migrateLegacyEntries() {
+        if (!map.isEmpty() || !db.exists(LEGACY_MAP_NAME)) {
+            return;
+        }
+        Map<String, String> legacyMap = db.createTreeMap(LEGACY_MAP_NAME).makeOrGet();
+        legacyMap.forEach(
+                (name, json) -> deserializeJson(json).ifPresent(item -> map.put(name, serializer.serialize(item))));
+        db.commit();
+        logger.info("Converted {} stored states to the binary format, the previous format is kept", map.size());
     }
 
     @Deactivate
     public void deactivate() {
         logger.debug("MapDB persistence service deactivated");
+        ScheduledFuture<?> commitJob = this.commitJob;
+        if (commitJob != null) {
+            commitJob.cancel(false);
+            this.commitJob = null;
+        }
         if (db != null) {
+            // make sure that the latest states are stored
+            commit();
             db.close();
         }
     }
@@ -159,8 +248,10 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
 
     @Override
     public Set<PersistenceItemInfo> getItemInfo() {
-        return map.values().stream().map(this::deserialize).flatMap(MapDbPersistenceService::streamOptional)
-                .collect(Collectors.<PersistenceItemInfo> toUnmodifiableSet());
+        Map<String, PersistenceItemInfo> itemInfo = new HashMap<>();
+        map.forEach((name, data) -> deserialize(name, data).ifPresent(item -> itemInfo.put(name, item)));
+        itemInfo.putAll(pendingItems);
+        return Set.copyOf(itemInfo.values());
     }
 
     @Override
@@ -183,30 +274,64 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
         mItem.setName(localAlias);
         mItem.setState(state);
         mItem.setTimestamp(new Date());
-        threadPool.submit(() -> {
-            String json = serialize(mItem);
-            map.put(localAlias, json);
-            db.commit();
-            logger.debug("Stored '{}' with state '{}' as '{}' in MapDB database", localAlias, state, json);
-        });
+        // only the latest state of an item is kept until the next commit
+        pendingItems.put(localAlias, mItem);
+        if (commitInterval <= 0) {
+            threadPool.execute(this::commit);
+        }
+    }
+
+    /**
+     * Writes all pending states to the database with a single commit.
+     */
+    private synchronized void commit() {
+        if (pendingItems.isEmpty() || db == null || db.isClosed()) {
+            return;
+        }
+        int count = 0;
+        for (Map.Entry<String, MapDbItem> entry : pendingItems.entrySet()) {
+            String name = entry.getKey();
+            MapDbItem item = entry.getValue();
+            map.put(name, serializer.serialize(item));
+            // keep the state if a newer one was stored in the meantime, it is written with the next commit
+            pendingItems.remove(name, item);
+            count++;
+            logger.debug("Stored '{}' with state '{}' in MapDB database", name, item.getState());
+        }
+        db.commit();
+        logger.trace("Committed {} state(s) to MapDB database", count);
     }
 
     @Override
     public Iterable<HistoricItem> query(FilterCriteria filter) {
-        String json = map.get(filter.getItemName());
-        if (json == null) {
+        String name = filter.getItemName();
+        if (name == null) {
             return List.of();
         }
-        Optional<MapDbItem> item = deserialize(json);
+        MapDbItem pendingItem = pendingItems.get(name);
+        if (pendingItem != null) {
+            return List.of(pendingItem);
+        }
+        byte[] data = map.get(name);
+        if (data == null) {
+            return List.of();
+        }
+        Optional<MapDbItem> item = deserialize(name, data);
         return item.isPresent() ? List.of(item.get()) : List.of();
     }
 
-    private String serialize(MapDbItem item) {
-        return mapper.toJson(item);
+    private Optional<MapDbItem> deserialize(String name, byte[] data) {
+        MapDbItem item = serializer.deserialize(name, data);
+        if (item == null) {
+            return Optional.empty();
+        } else if (logger.isDebugEnabled()) {
+            logger.debug("Deserialized '{}' with state '{}'", name, item.getState());
+        }
+        return Optional.of(item);
     }
 
     @SuppressWarnings("null")
-    private Optional<MapDbItem> deserialize(String json) {
+    private Optional<MapDbItem> deserializeJson(String json) {
         MapDbItem item = mapper.<MapDbItem> fromJson(json, MapDbItem.class);
         if (item == null || !item.isValid()) {
             logger.warn("Deserialized invalid item: {}", item);
@@ -218,10 +343,6 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
         return Optional.of(item);
     }
 
-    private static <T> Stream<T> streamOptional(Optional<T> opt) {
-        return opt.isPresent() ? Stream.of(opt.get()) : Stream.empty();
-    }
-
     @Override
     public List<PersistenceStrategy> getDefaultStrategies() {
         return List.of(PersistenceStrategy.Globals.RESTORE, PersistenceStrategy.Globals.CHANGE);
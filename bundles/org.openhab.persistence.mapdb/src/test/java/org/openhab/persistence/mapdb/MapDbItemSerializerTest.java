@@ -0,0 +1,85 @@
+/**
+ * Copyright (c) 2010-2023 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.openhab.core.library.types.DateTimeType;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.library.types.HSBType;
+import org.openhab.core.library.types.OnOffType;
+import org.openhab.core.library.types.PercentType;
+import org.openhab.core.library.types.PointType;
+import org.openhab.core.library.types.QuantityType;
+import org.openhab.core.library.types.RewindFastforwardType;
+import org.openhab.core.library.types.StringListType;
+import org.openhab.core.library.types.StringType;
+import org.openhab.core.library.unit.SIUnits;
+import org.openhab.core.types.State;
+import org.openhab.persistence.mapdb.internal.MapDbItem;
+import org.openhab.persistence.mapdb.internal.MapDbItemSerializer;
+
+/**
+ * Tests the {@link MapDbItemSerializer}.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class MapDbItemSerializerTest {
+    private final MapDbItemSerializer serializer = new MapDbItemSerializer();
+
+    private MapDbItem item(State state) {
+        MapDbItem item = new MapDbItem();
+        item.setName("item");
+        item.setState(state);
+        item.setTimestamp(new Date(1558302027124L));
+        return item;
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    public void serializeDeserializeRoundtripShouldRecreateTheItem(State state) {
+        byte[] data = serializer.serialize(item(state));
+        MapDbItem actual = Objects.requireNonNull(serializer.deserialize("alias", data));
+
+        assertThat(actual.getName(), is("alias"));
+        assertThat(actual.getState(), is(equalTo(state)));
+        assertThat(actual.getTimestamp().toInstant().toEpochMilli(), is(1558302027124L));
+    }
+
+    public static Stream<State> serializeDeserializeRoundtripShouldRecreateTheItem() {
+        return Stream.of(DecimalType.ZERO, new DecimalType(1.123), OnOffType.ON, PercentType.valueOf("99.999"),
+                HSBType.fromRGB(11, 22, 33), new QuantityType<>(new BigDecimal("21.23"), SIUnits.CELSIUS),
+                StringType.valueOf("@@@###   @@@ äöü"), StringType.valueOf("x".repeat(70000)),
+                new DateTimeType("2019-05-19T21:40:27.124+0200"), new PointType("52.5200066,13.4049540"),
+                new StringListType("a", "b"),
+                // not one of the common types, stored with its class name
+                RewindFastforwardType.FASTFORWARD);
+    }
+
+    @Test
+    public void invalidDataIsIgnored() {
+        assertThat(serializer.deserialize("item", new byte[] { 1, 2, 3 }), is(nullValue()));
+        assertThat(serializer.deserialize("item", new byte[] { 9 }), is(nullValue()));
+    }
+}
@@ -0,0 +1,229 @@
+/**
+ * Copyright (c) 2010-2023 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb.internal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mapdb.DB;
+import org.mapdb.DBMaker;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.openhab.core.library.items.NumberItem;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.persistence.FilterCriteria;
+import org.openhab.core.persistence.HistoricItem;
+import org.openhab.core.types.State;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * Tests the write coalescing, the commit interval and the migration of the {@link MapDbPersistenceService}.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@NonNullByDefault
+public class MapDbPersistenceServiceTest {
+    private static final String DB_FILE_NAME = "storage.mapdb";
+
+    private @TempDir @NonNullByDefault({}) Path dbDir;
+    private @Mock @NonNullByDefault({}) ExecutorService threadPoolMock;
+    private @Mock @NonNullByDefault({}) ScheduledExecutorService schedulerMock;
+    private @Mock @NonNullByDefault({}) ScheduledFuture<?> commitJobMock;
+
+    private final List<Runnable> scheduledCommits = new ArrayList<>();
+    private final List<MapDbPersistenceService> services = new ArrayList<>();
+    private final NumberItem item = new NumberItem("item");
+
+    @BeforeEach
+    public void setup() {
+        // the commits without interval are run right away
+        doAnswer(invocation -> {
+            invocation.<Runnable> getArgument(0).run();
+            return null;
+        }).when(threadPoolMock).execute(any());
+        doAnswer(invocation -> {
+            scheduledCommits.add(invocation.getArgument(0));
+            return commitJobMock;
+        }).when(schedulerMock).scheduleWithFixedDelay(any(), anyLong(), anyLong(), any());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        services.forEach(MapDbPersistenceService::deactivate);
+    }
+
+    private MapDbPersistenceService activate(long commitInterval) {
+        MapDbPersistenceService service = new MapDbPersistenceService(dbDir, threadPoolMock, schedulerMock);
+        service.activate(Map.of("commitInterval", commitInterval));
+        services.add(service);
+        return service;
+    }
+
+    private void deactivate(MapDbPersistenceService service) {
+        services.remove(service);
+        service.deactivate();
+    }
+
+    private void store(MapDbPersistenceService service, int value) {
+        item.setState(new DecimalType(value));
+        service.store(item);
+    }
+
+    private static @Nullable State query(MapDbPersistenceService service) {
+        FilterCriteria filter = new FilterCriteria();
+        filter.setItemName("item");
+        for (HistoricItem historicItem : service.query(filter)) {
+            return historicItem.getState();
+        }
+        return null;
+    }
+
+    /**
+     * @return the state that was committed to the database file
+     */
+    private @Nullable State queryCommitted() {
+        MapDbPersistenceService service = new MapDbPersistenceService(dbDir, threadPoolMock, schedulerMock);
+        service.activate(Map.of());
+        try {
+            return query(service);
+        } finally {
+            service.deactivate();
+        }
+    }
+
+    @Test
+    public void everyStateIsCommittedWithoutCommitInterval() {
+        MapDbPersistenceService service = activate(0);
+
+        store(service, 1);
+
+        verify(schedulerMock, never()).scheduleWithFixedDelay(any(), anyLong(), anyLong(), any());
+        deactivate(service);
+        assertThat(queryCommitted(), is(new DecimalType(1)));
+    }
+
+    @Test
+    public void statesAreCoalescedUntilTheNextCommit() {
+        MapDbPersistenceService service = activate(5000);
+        verify(schedulerMock).scheduleWithFixedDelay(any(), eq(5000L), eq(5000L), eq(TimeUnit.MILLISECONDS));
+
+        store(service, 1);
+        store(service, 2);
+
+        // the latest state is returned before it is written
+        assertThat(query(service), is(new DecimalType(2)));
+        assertThat(service.getItemInfo(), hasSize(1));
+        verify(threadPoolMock, never()).execute(any());
+
+        scheduledCommits.get(0).run();
+        deactivate(service);
+        assertThat(queryCommitted(), is(new DecimalType(2)));
+    }
+
+    @Test
+    public void pendingStatesAreCommittedOnDeactivation() {
+        MapDbPersistenceService service = activate(5000);
+        store(service, 1);
+
+        deactivate(service);
+
+        verify(commitJobMock).cancel(false);
+        assertThat(queryCommitted(), is(new DecimalType(1)));
+    }
+
+    @Test
+    public void pendingStatesAreCommittedWhenTheCommitIntervalIsRemoved() {
+        MapDbPersistenceService service = activate(5000);
+        store(service, 1);
+
+        service.modified(Map.of("commitInterval", 0L));
+
+        verify(commitJobMock).cancel(false);
+        verify(threadPoolMock).execute(any());
+        verify(schedulerMock, times(1)).scheduleWithFixedDelay(any(), anyLong(), anyLong(), any());
+        store(service, 2);
+        verify(threadPoolMock, times(2)).execute(any());
+        deactivate(service);
+        assertThat(queryCommitted(), is(new DecimalType(2)));
+    }
+
+    @Test
+    public void commitJobIsRescheduledWhenTheCommitIntervalChanges() {
+        MapDbPersistenceService service = activate(5000);
+
+        service.modified(Map.of("commitInterval", 1000L));
+
+        verify(commitJobMock).cancel(false);
+        verify(schedulerMock).scheduleWithFixedDelay(any(), eq(1000L), eq(1000L), eq(TimeUnit.MILLISECONDS));
+        verify(threadPoolMock, never()).execute(any());
+        store(service, 1);
+        scheduledCommits.get(1).run();
+        deactivate(service);
+        assertThat(queryCommitted(), is(new DecimalType(1)));
+    }
+
+    @Test
+    public void legacyStatesAreConvertedAndKept() {
+        MapDbItem legacyItem = new MapDbItem();
+        legacyItem.setName("item");
+        legacyItem.setState(new DecimalType(42));
+        legacyItem.setTimestamp(new Date(1558302027124L));
+        Gson gson = new GsonBuilder().registerTypeHierarchyAdapter(State.class, new StateTypeAdapter()).create();
+        DB db = DBMaker.newFileDB(dbDir.resolve(DB_FILE_NAME).toFile()).make();
+        Map<String, String> legacyMap = db.createTreeMap("itemStore").makeOrGet();
+        legacyMap.put("item", gson.toJson(legacyItem));
+        db.commit();
+        db.close();
+
+        MapDbPersistenceService service = activate(0);
+        assertThat(query(service), is(new DecimalType(42)));
+        store(service, 43);
+        deactivate(service);
+
+        // the states of the previous format are kept for a downgrade and not converted again
+        assertThat(queryCommitted(), is(new DecimalType(43)));
+        db = DBMaker.newFileDB(dbDir.resolve(DB_FILE_NAME).toFile()).make();
+        try {
+            assertThat(db.exists("itemStore"), is(true));
+            Map<String, String> keptMap = db.createTreeMap("itemStore").makeOrGet();
+            assertThat(keptMap.get("item"), is(gson.toJson(legacyItem)));
+        } finally {
+            db.close();
+        }
+    }
+}
@@ -17,14 +17,26 @@ import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.bson.types.ObjectId;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.common.ThreadPoolManager;
+import org.openhab.core.config.core.ConfigParser;
 import org.openhab.core.items.Item;
 import org.openhab.core.items.ItemNotFoundException;
 import org.openhab.core.items.ItemRegistry;
@@ -60,11 +72,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.mongodb.BasicDBObject;
+import com.mongodb.BulkWriteError;
+import com.mongodb.BulkWriteException;
+import com.mongodb.BulkWriteOperation;
 import com.mongodb.DBCollection;
 import com.mongodb.DBCursor;
 import com.mongodb.DBObject;
 import com.mongodb.MongoClient;
 import com.mongodb.MongoClientURI;
+import com.mongodb.MongoException;
 
 /**
  * This is the implementation of the MongoDB {@link PersistenceService}.
@@ -83,12 +99,30 @@ public class MongoDBPersistenceService implements QueryablePersistenceService {
     private static final String FIELD_TIMESTAMP = "timestamp";
     private static final String FIELD_VALUE = "value";
 
+    private static final int DEFAULT_BULK_WRITE_INTERVAL = 1000;
+    // number of bulk writes that are kept while the database is not reachable
+    private static final int MAX_PENDING_BULK_WRITES = 100;
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+    private static final int DUPLICATE_KEY_ERROR = 11000;
+
     private final Logger logger = LoggerFactory.getLogger(MongoDBPersistenceService.class);
 
+    private final ScheduledExecutorService scheduler;
+
     private String url = "";
     private String db = "";
     private String collection = "";
     private boolean collectionPerItem;
+    private int bulkWriteSize;
+
+    private final Queue<PendingDocument> pendingDocuments = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingDocumentCount = new AtomicInteger();
+    private final AtomicBoolean bulkWriteScheduled = new AtomicBoolean();
+    private final AtomicLong droppedDocumentCount = new AtomicLong();
+    private @Nullable ScheduledFuture<?> bulkWriteJob;
+
+    // collections whose index was created since the last connect
+    private final Set<String> indexedCollections = ConcurrentHashMap.newKeySet();
 
     private boolean initialized = false;
 
@@ -98,7 +132,12 @@ public class MongoDBPersistenceService implements QueryablePersistenceService {
 
     @Activate
     public MongoDBPersistenceService(final @Reference ItemRegistry itemRegistry) {
+        this(itemRegistry, ThreadPoolManager.getScheduledPool("persistence"));
+    }
+
+    MongoDBPersistenceService(ItemRegistry itemRegistry, ScheduledExecutorService scheduler) {
         this.itemRegistry = itemRegistry;
+        this.scheduler = scheduler;
     }
 
     @Activate
@@ -127,6 +166,15 @@ public class MongoDBPersistenceService implements QueryablePersistenceService {
         collection = dbCollection == null ? "" : dbCollection;
         collectionPerItem = dbCollection == null || dbCollection.isBlank();
 
+        bulkWriteSize = Math.max(0, ConfigParser.valueAsOrElse(config.get("bulkWriteSize"), Integer.class, 0));
+        if (bulkWriteSize > 0) {
+            int bulkWriteInterval = Math.max(1, ConfigParser.valueAsOrElse(config.get("bulkWriteInterval"),
+                    Integer.class, DEFAULT_BULK_WRITE_INTERVAL));
+            logger.debug("MongoDB bulk writes of up to {} documents every {} ms", bulkWriteSize, bulkWriteInterval);
+            bulkWriteJob = scheduler.scheduleWithFixedDelay(this::writePendingDocuments, bulkWriteInterval,
+                    bulkWriteInterval, TimeUnit.MILLISECONDS);
+        }
+
         if (!tryConnectToDatabase()) {
             logger.warn("Failed to connect to MongoDB server. Trying to reconnect later.");
         }
@@ -137,6 +185,12 @@ public class MongoDBPersistenceService implements QueryablePersistenceService {
     @Deactivate
     public void deactivate(final int reason) {
         logger.debug("MongoDB persistence bundle stopping. Disconnecting from database.");
+        ScheduledFuture<?> bulkWriteJob = this.bulkWriteJob;
+        if (bulkWriteJob != null) {
+            bulkWriteJob.cancel(false);
+            this.bulkWriteJob = null;
+        }
+        writePendingDocuments();
         disconnectFromDatabase();
     }
 
@@ -163,6 +217,24 @@ public class MongoDBPersistenceService implements QueryablePersistenceService {
             return;
         }
 
+        String realItemName = item.getName();
+        String collectionName = collectionPerItem ? realItemName : this.collection;
+        String name = (alias != null) ? alias : realItemName;
+        Object value = this.convertValue(item.getState());
+
+        DBObject obj = new BasicDBObject();
+        obj.put(FIELD_ID, new ObjectId());
+        obj.put(FIELD_ITEM, name);
+        obj.put(FIELD_REALNAME, realItemName);
+        obj.put(FIELD_TIMESTAMP, new Date());
+        obj.put(FIELD_VALUE, value);
+
+        if (bulkWriteSize > 0) {
+            addPendingDocument(new PendingDocument(collectionName, obj, 0));
+            logger.debug("MongoDB queued {}={}", name, value);
+            return;
+        }
+
         // Connect to mongodb server if we're not already connected
         // If we can't connect, log.
         if (!tryConnectToDatabase()) {
@@ -172,9 +244,6 @@ public class MongoDBPersistenceService implements QueryablePersistenceService {
             return;
         }
 
-        String realItemName = item.getName();
-        String collectionName = collectionPerItem ? realItemName : this.collection;
-
         @Nullable
         DBCollection collection = connectToCollection(collectionName);
 
@@ -183,20 +252,107 @@ public class MongoDBPersistenceService implements QueryablePersistenceService {
             return;
         }
 
-        String name = (alias != null) ? alias : realItemName;
-        Object value = this.convertValue(item.getState());
-
-        DBObject obj = new BasicDBObject();
-        obj.put(FIELD_ID, new ObjectId());
-        obj.put(FIELD_ITEM, name);
-        obj.put(FIELD_REALNAME, realItemName);
-        obj.put(FIELD_TIMESTAMP, new Date());
-        obj.put(FIELD_VALUE, value);
         collection.save(obj);
 
         logger.debug("MongoDB save {}={}", name, value);
     }
 
+    private void addPendingDocument(PendingDocument document) {
+        if (pendingDocumentCount.get() >= MAX_PENDING_BULK_WRITES * bulkWriteSize) {
+            logger.warn("mongodb: Too many documents are waiting to be written. Discarding value of item '{}' ({} "
+                    + "documents dropped in total).", document.document().get(FIELD_ITEM),
+                    droppedDocumentCount.incrementAndGet());
+            return;
+        }
+        pendingDocuments.add(document);
+        if (pendingDocumentCount.incrementAndGet() >= bulkWriteSize && bulkWriteScheduled.compareAndSet(false, true)) {
+            // do not wait for the next interval if a batch is complete
+            scheduler.execute(this::writePendingDocuments);
+        }
+    }
+
+    /**
+     * Writes all pending documents with unordered bulk inserts, one per collection and batch.
+     */
+    synchronized void writePendingDocuments() {
+        bulkWriteScheduled.set(false);
+        if (pendingDocuments.isEmpty()) {
+            return;
+        }
+        if (!tryConnectToDatabase()) {
+            logger.warn("mongodb: No connection to database. {} documents will be written later.",
+                    pendingDocumentCount.get());
+            return;
+        }
+
+        Map<String, List<PendingDocument>> documentsByCollection = new LinkedHashMap<>();
+        PendingDocument document;
+        while ((document = pendingDocuments.poll()) != null) {
+            pendingDocumentCount.decrementAndGet();
+            documentsByCollection.computeIfAbsent(document.collectionName(), c -> new ArrayList<>()).add(document);
+        }
+
+        documentsByCollection.forEach((collectionName, documents) -> {
+            @Nullable
+            DBCollection collection = connectToCollection(collectionName);
+            if (collection == null) {
+                // Logging is done in connectToCollection(), the documents are written with the next interval
+                requeuePendingDocuments(documents, false);
+                return;
+            }
+            for (int start = 0; start < documents.size(); start += bulkWriteSize) {
+                List<PendingDocument> batch = documents.subList(start,
+                        Math.min(start + bulkWriteSize, documents.size()));
+                BulkWriteOperation bulkWrite = collection.initializeUnorderedBulkOperation();
+                batch.forEach(pendingDocument -> bulkWrite.insert(pendingDocument.document()));
+                try {
+                    int inserted = bulkWrite.execute().getInsertedCount();
+                    logger.debug("MongoDB inserted {} documents into {}", inserted, collectionName);
+                } catch (BulkWriteException e) {
+                    // an unordered bulk write continues after failed documents, only these are written again
+                    List<PendingDocument> failed = new ArrayList<>();
+                    for (BulkWriteError error : e.getWriteErrors()) {
+                        if (error.getCode() != DUPLICATE_KEY_ERROR) {
+                            failed.add(batch.get(error.getIndex()));
+                        }
+                    }
+                    logger.warn("mongodb: {} of {} documents could not be written to {}, retrying {}: {}",
+                            e.getWriteErrors().size(), batch.size(), collectionName, failed.size(), e.getMessage());
+                    requeuePendingDocuments(failed, true);
+                } catch (MongoException e) {
+                    logger.warn("mongodb: Failed to write {} documents to {}, retrying later: {}", batch.size(),
+                            collectionName, e.getMessage());
+                    requeuePendingDocuments(batch, false);
+                }
+            }
+        });
+    }
+
+    /**
+     * Queues documents that could not be written for the next interval.
+     *
+     * @param documents the documents
+     * @param rejected true if the server rejected the documents, which are dropped after {@link #MAX_WRITE_ATTEMPTS},
+     *            false if the server could not be reached
+     */
+    private void requeuePendingDocuments(List<PendingDocument> documents, boolean rejected) {
+        int dropped = 0;
+        for (PendingDocument document : documents) {
+            int attempts = rejected ? document.attempts() + 1 : document.attempts();
+            if (attempts < MAX_WRITE_ATTEMPTS) {
+                // not scheduled again immediately, the documents are written with the next interval
+                pendingDocuments.add(new PendingDocument(document.collectionName(), document.document(), attempts));
+                pendingDocumentCount.incrementAndGet();
+            } else {
+                dropped++;
+            }
+        }
+        if (dropped > 0) {
+            logger.warn("mongodb: Dropped {} documents after {} failed attempts ({} documents dropped in total).",
+                    dropped, MAX_WRITE_ATTEMPTS, droppedDocumentCount.addAndGet(dropped));
+        }
+    }
+
     private Object convertValue(State state) {
         Object value;
         if (state instanceof PercentType type) {
@@ -248,7 +404,7 @@ public class MongoDBPersistenceService implements QueryablePersistenceService {
      *
      * @return True, if the connection was successfully established.
      */
-    private synchronized boolean tryConnectToDatabase() {
+    protected synchronized boolean tryConnectToDatabase() {
         if (isConnected()) {
             return true;
         }
@@ -286,7 +442,7 @@ public class MongoDBPersistenceService implements QueryablePersistenceService {
      *
      * @return The collection object when collection creation was successful. Null otherwise.
      */
-    private @Nullable DBCollection connectToCollection(String collectionName) {
+    protected @Nullable DBCollection connectToCollection(String collectionName) {
         try {
             @Nullable
             MongoClient db = getDatabase();
@@ -298,9 +454,17 @@ public class MongoDBPersistenceService implements QueryablePersistenceService {
 
             DBCollection mongoCollection = db.getDB(this.db).getCollection(collectionName);
 
-            BasicDBObject idx = new BasicDBObject();
-            idx.append(FIELD_ITEM, 1).append(FIELD_TIMESTAMP, 1);
-            mongoCollection.createIndex(idx);
+            // the compound index serves the queries of an item sorted by time, it only needs to be created once
+            if (indexedCollections.add(collectionName)) {
+                BasicDBObject idx = new BasicDBObject();
+                idx.append(FIELD_ITEM, 1).append(FIELD_TIMESTAMP, 1);
+                try {
+                    mongoCollection.createIndex(idx);
+                } catch (RuntimeException e) {
+                    indexedCollections.remove(collectionName);
+                    throw e;
+                }
+            }
 
             return mongoCollection;
         } catch (Exception e) {
@@ -318,6 +482,7 @@ public class MongoDBPersistenceService implements QueryablePersistenceService {
         }
 
         cl = null;
+        indexedCollections.clear();
     }
 
     @Override
@@ -386,8 +551,11 @@ public class MongoDBPersistenceService implements QueryablePersistenceService {
 
         logger.debug("Query: {}", query);
 
+        // only the fields that are needed to create the historic items are read
+        BasicDBObject projection = new BasicDBObject(FIELD_TIMESTAMP, 1).append(FIELD_VALUE, 1).append(FIELD_ID, 0);
+
         Integer sortDir = (filter.getOrdering() == Ordering.ASCENDING) ? 1 : -1;
-        DBCursor cursor = collection.find(query).sort(new BasicDBObject(FIELD_TIMESTAMP, sortDir))
+        DBCursor cursor = collection.find(query, projection).sort(new BasicDBObject(FIELD_TIMESTAMP, sortDir))
                 .skip(filter.getPageNumber() * filter.getPageSize()).limit(filter.getPageSize());
 
         while (cursor.hasNext()) {
@@ -450,4 +618,7 @@ public class MongoDBPersistenceService implements QueryablePersistenceService {
     public List<PersistenceStrategy> getDefaultStrategies() {
         return Collections.emptyList();
     }
+
+    private record PendingDocument(String collectionName, DBObject document, int attempts) {
+    }
 }
@@ -0,0 +1,158 @@
+/**
+ * Copyright (c) 2010-2023 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mongodb.internal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.openhab.core.items.Item;
+import org.openhab.core.items.ItemRegistry;
+import org.openhab.core.library.types.DecimalType;
+import org.osgi.framework.BundleContext;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.BulkWriteError;
+import com.mongodb.BulkWriteException;
+import com.mongodb.BulkWriteOperation;
+import com.mongodb.BulkWriteResult;
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
+import com.mongodb.MongoException;
+
+/**
+ * Tests the bulk writes of the {@link MongoDBPersistenceService}.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@NonNullByDefault
+public class MongoDBPersistenceServiceTest {
+    private static final int DUPLICATE_KEY_ERROR = 11000;
+    private static final int VALIDATION_ERROR = 121;
+
+    private @Mock @NonNullByDefault({}) ItemRegistry itemRegistryMock;
+    private @Mock @NonNullByDefault({}) ScheduledExecutorService schedulerMock;
+    private @Mock @NonNullByDefault({}) BundleContext bundleContextMock;
+    private @Mock @NonNullByDefault({}) DBCollection collectionMock;
+    private @Mock @NonNullByDefault({}) BulkWriteOperation bulkWriteMock;
+    private @Mock @NonNullByDefault({}) BulkWriteResult bulkWriteResultMock;
+
+    private final List<String> insertedItems = new ArrayList<>();
+    private @NonNullByDefault({}) MongoDBPersistenceService service;
+
+    @BeforeEach
+    public void setup() {
+        when(collectionMock.initializeUnorderedBulkOperation()).thenReturn(bulkWriteMock);
+        doAnswer(invocation -> insertedItems.add((String) invocation.<DBObject> getArgument(0).get("item")))
+                .when(bulkWriteMock).insert(any());
+        when(bulkWriteMock.execute()).thenReturn(bulkWriteResultMock);
+
+        service = new MongoDBPersistenceService(itemRegistryMock, schedulerMock) {
+            @Override
+            protected synchronized boolean tryConnectToDatabase() {
+                return true;
+            }
+
+            @Override
+            protected @Nullable DBCollection connectToCollection(String collectionName) {
+                return collectionMock;
+            }
+        };
+        service.activate(bundleContextMock, Map.of("url", "mongodb://localhost:27017", "database", "openhab",
+                "collection", "openhab", "bulkWriteSize", 2, "bulkWriteInterval", 60000));
+    }
+
+    private void store(String itemName) {
+        Item item = mock(Item.class);
+        when(item.getName()).thenReturn(itemName);
+        when(item.getState()).thenReturn(new DecimalType(1));
+        service.store(item);
+    }
+
+    private static BulkWriteException bulkWriteException(BulkWriteError... errors) {
+        BulkWriteException exception = mock(BulkWriteException.class);
+        when(exception.getWriteErrors()).thenReturn(List.of(errors));
+        return exception;
+    }
+
+    private static BulkWriteError error(int code, int index) {
+        return new BulkWriteError(code, "error", new BasicDBObject(), index);
+    }
+
+    @Test
+    public void documentsAreWrittenInBatchesWithUnorderedBulkInserts() {
+        store("item1");
+        store("item2");
+        store("item3");
+        // a complete batch is written without waiting for the interval
+        verify(schedulerMock).execute(any());
+
+        service.writePendingDocuments();
+
+        verify(collectionMock, times(2)).initializeUnorderedBulkOperation();
+        verify(bulkWriteMock, times(2)).execute();
+        assertThat(insertedItems, contains("item1", "item2", "item3"));
+    }
+
+    @Test
+    public void rejectedDocumentsAreWrittenAgainUntilRetryLimit() {
+        when(bulkWriteMock.execute()).thenThrow(
+                bulkWriteException(error(DUPLICATE_KEY_ERROR, 0), error(VALIDATION_ERROR, 1)),
+                bulkWriteException(error(VALIDATION_ERROR, 0)), bulkWriteException(error(VALIDATION_ERROR, 0)));
+        store("item1");
+        store("item2");
+
+        service.writePendingDocuments();
+        // the duplicate is not written again
+        assertThat(insertedItems, contains("item1", "item2"));
+
+        service.writePendingDocuments();
+        service.writePendingDocuments();
+        assertThat(insertedItems, contains("item1", "item2", "item2", "item2"));
+
+        // dropped after the third failed attempt
+        service.writePendingDocuments();
+        verify(bulkWriteMock, times(3)).execute();
+    }
+
+    @Test
+    public void unwrittenDocumentsAreKeptIfTheServerIsNotReachable() {
+        MongoException timeout = new MongoException("timeout");
+        when(bulkWriteMock.execute()).thenThrow(timeout, timeout, timeout).thenReturn(bulkWriteResultMock);
+        store("item1");
+
+        for (int i = 0; i < 4; i++) {
+            service.writePendingDocuments();
+        }
+
+        verify(bulkWriteMock, times(4)).execute();
+        assertThat(insertedItems, contains("item1", "item1", "item1", "item1"));
+    }
+}
@@ -21,17 +21,25 @@ import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -78,10 +86,13 @@ import org.rrd4j.ConsolFun;
 import org.rrd4j.DsType;
 import org.rrd4j.core.FetchData;
 import org.rrd4j.core.FetchRequest;
+import org.rrd4j.core.RrdBackendFactory;
 import org.rrd4j.core.RrdDb;
 import org.rrd4j.core.RrdDb.Builder;
 import org.rrd4j.core.RrdDbPool;
 import org.rrd4j.core.RrdDef;
+import org.rrd4j.core.RrdNioBackendFactory;
+import org.rrd4j.core.RrdRandomAccessFileBackendFactory;
 import org.rrd4j.core.Sample;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -109,9 +120,28 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
     private static final Set<String> SUPPORTED_TYPES = Set.of(CoreItemFactory.SWITCH, CoreItemFactory.CONTACT,
             CoreItemFactory.DIMMER, CoreItemFactory.NUMBER, CoreItemFactory.ROLLERSHUTTER, CoreItemFactory.COLOR);
 
+    private static final String WRITE_THREADS_PARAM = "writeThreads";
+    private static final String BACKEND_PARAM = "backend";
+    private static final String SYNC_PERIOD_PARAM = "syncPeriod";
+    private static final Set<String> SERVICE_PARAMS = Set.of(WRITE_THREADS_PARAM, BACKEND_PARAM, SYNC_PERIOD_PARAM);
+    private static final String BACKEND_FILE = "file";
+    private static final String BACKEND_NIO = "nio";
+    private static final int DEFAULT_SYNC_PERIOD = 300;
+    private static final int DEFAULT_WRITE_THREADS = 2;
+    private static final int MAX_WRITE_THREADS = 16;
+    private static final int LOCK_STRIPES = 64;
+
     private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1,
             new NamedThreadFactory("RRD4j"));
 
+    // writes the values of different database files concurrently, the size is adjusted to the configuration
+    private final ThreadPoolExecutor writeExecutor = new ThreadPoolExecutor(DEFAULT_WRITE_THREADS,
+            DEFAULT_WRITE_THREADS, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+            new NamedThreadFactory("RRD4j-write"));
+
+    // a database file is only accessed by one thread at a time, files with a different lock are written concurrently
+    private final Lock[] databaseLocks = new Lock[LOCK_STRIPES];
+
     private final Map<String, RrdDefConfig> rrdDefs = new ConcurrentHashMap<>();
 
     private final ConcurrentSkipListMap<Long, Map<String, Double>> storageMap = new ConcurrentSkipListMap<>();
@@ -122,9 +152,13 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
 
     private static final RrdDbPool DATABASE_POOL = new RrdDbPool();
 
+    // null uses the default backend of rrd4j
+    private static volatile @Nullable RrdBackendFactory backendFactory;
+
     private final Logger logger = LoggerFactory.getLogger(RRD4jPersistenceService.class);
     private final ItemRegistry itemRegistry;
     private boolean active = false;
+    private @Nullable String backendName;
 
     public static Path getDatabasePath(String name) {
         return DB_FOLDER.resolve(name + ".rrd");
@@ -134,11 +168,19 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         return DATABASE_POOL;
     }
 
+    public static @Nullable RrdBackendFactory getBackendFactory() {
+        return backendFactory;
+    }
+
     private final ScheduledFuture<?> storeJob;
 
     @Activate
     public RRD4jPersistenceService(final @Reference ItemRegistry itemRegistry, Map<String, Object> config) {
         this.itemRegistry = itemRegistry;
+        for (int i = 0; i < databaseLocks.length; i++) {
+            databaseLocks[i] = new ReentrantLock();
+        }
+        writeExecutor.allowCoreThreadTimeOut(true);
         storeJob = scheduler.scheduleWithFixedDelay(() -> doStore(false), 1, 1, TimeUnit.SECONDS);
         modified(config);
         active = true;
@@ -149,6 +191,9 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         // clean existing definitions
         rrdDefs.clear();
 
+        setWriteThreads(config.get(WRITE_THREADS_PARAM));
+        setBackendFactory(config.get(BACKEND_PARAM), config.get(SYNC_PERIOD_PARAM));
+
         // add default configurations
 
         RrdDefConfig defaultNumeric = new RrdDefConfig(DEFAULT_NUMERIC);
@@ -197,8 +242,8 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         while (keys.hasNext()) {
             String key = keys.next();
 
-            if ("service.pid".equals(key) || "component.name".equals(key)) {
-                // ignore service.pid and name
+            if ("service.pid".equals(key) || "component.name".equals(key) || SERVICE_PARAMS.contains(key)) {
+                // ignore service.pid, name and service options
                 continue;
             }
 
@@ -252,6 +297,74 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         }
     }
 
+    private void setWriteThreads(@Nullable Object value) {
+        int writeThreads = DEFAULT_WRITE_THREADS;
+        if (value != null) {
+            try {
+                writeThreads = Integer.parseInt(value.toString().trim());
+            } catch (NumberFormatException e) {
+                logger.warn("Ignoring illegal configuration {} = {}", WRITE_THREADS_PARAM, value);
+            }
+        }
+        writeThreads = Math.max(1, Math.min(MAX_WRITE_THREADS, writeThreads));
+        // the maximum size must never be smaller than the core size
+        if (writeThreads > writeExecutor.getMaximumPoolSize()) {
+            writeExecutor.setMaximumPoolSize(writeThreads);
+            writeExecutor.setCorePoolSize(writeThreads);
+        } else {
+            writeExecutor.setCorePoolSize(writeThreads);
+            writeExecutor.setMaximumPoolSize(writeThreads);
+        }
+        logger.debug("Using {} thread(s) for writing rrd4j databases", writeThreads);
+    }
+
+    private void setBackendFactory(@Nullable Object backend, @Nullable Object syncPeriod) {
+        String newBackendName = backend == null || backend.toString().isBlank() ? null
+                : backend.toString().trim().toLowerCase();
+        if (active) {
+            // pooled databases may still be open on the current backend, so a change is only applied on restart
+            if (!Objects.equals(backendName, newBackendName)) {
+                logger.info("The rrd4j backend change to '{}' is applied after a restart of the persistence service",
+                        newBackendName == null ? "default" : newBackendName);
+            }
+            return;
+        }
+        backendName = newBackendName;
+
+        int syncPeriodSeconds = DEFAULT_SYNC_PERIOD;
+        if (syncPeriod != null) {
+            try {
+                syncPeriodSeconds = Math.max(1, Integer.parseInt(syncPeriod.toString().trim()));
+            } catch (NumberFormatException e) {
+                logger.warn("Ignoring illegal configuration {} = {}", SYNC_PERIOD_PARAM, syncPeriod);
+            }
+        }
+
+        if (newBackendName == null) {
+            backendFactory = null;
+            logger.debug("Using the default rrd4j backend");
+        } else if (BACKEND_NIO.equals(newBackendName)) {
+            // updates are written to a memory mapping of the file, which is synchronized to disk periodically
+            backendFactory = new RrdNioBackendFactory(syncPeriodSeconds);
+            logger.debug("Using memory mapped rrd4j databases, synchronized every {} s", syncPeriodSeconds);
+        } else if (BACKEND_FILE.equals(newBackendName)) {
+            backendFactory = new RrdRandomAccessFileBackendFactory();
+            logger.debug("Using file based rrd4j databases");
+        } else {
+            backendFactory = null;
+            logger.warn("Unknown backend '{}', using the default rrd4j backend", newBackendName);
+        }
+    }
+
+    private void closeBackendFactory(RrdBackendFactory factory) {
+        try {
+            // stops the synchronization of memory mapped files, open databases are synchronized when closed
+            factory.close();
+        } catch (IOException e) {
+            logger.debug("Error closing rrd4j backend: {}", e.getMessage());
+        }
+    }
+
     @Deactivate
     protected void deactivate() {
         active = false;
@@ -259,6 +372,21 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
 
         // make sure we really store everything
         doStore(true);
+        writeExecutor.shutdown();
+        try {
+            // the databases written by pending jobs are released to the pool before their backend is closed
+            if (!writeExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+                logger.warn("Timed out waiting for pending rrd4j writes");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        RrdBackendFactory factory = backendFactory;
+        backendFactory = null;
+        if (factory != null) {
+            closeBackendFactory(factory);
+        }
     }
 
     @Override
@@ -325,6 +453,10 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
     }
 
     private void doStore(boolean force) {
+        long startTime = System.nanoTime();
+        // collect the values of all timestamps that are due per database, so that each database is opened once and
+        // its values are written in the order of their timestamps
+        Map<String, Map<Long, Double>> valuesByName = new LinkedHashMap<>();
         while (!storageMap.isEmpty()) {
             long timestamp = storageMap.firstKey();
             long now = System.currentTimeMillis() / 1000;
@@ -332,24 +464,73 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
                 // no new elements can be added for this timestamp because we are already past that time or the service
                 // requires forced storing
                 Map<String, Double> values = storageMap.pollFirstEntry().getValue();
-                values.forEach((name, value) -> writePointToDatabase(name, value, timestamp));
+                values.forEach((name, value) -> valuesByName.computeIfAbsent(name, n -> new LinkedHashMap<>())
+                        .put(timestamp, value));
             } else {
+                break;
+            }
+        }
+        if (valuesByName.isEmpty()) {
+            return;
+        }
+
+        List<Future<?>> futures = new ArrayList<>(valuesByName.size());
+        valuesByName.forEach((name, values) -> {
+            try {
+                futures.add(writeExecutor.submit(() -> writePointsToDatabase(name, values)));
+            } catch (RejectedExecutionException e) {
+                // the service is shutting down, write on the calling thread
+                writePointsToDatabase(name, values);
+            }
+        });
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                logger.warn("Failed to write to rrd4j database: {}", e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
                 return;
             }
         }
+        if (logger.isDebugEnabled()) {
+            int points = valuesByName.values().stream().mapToInt(Map::size).sum();
+            logger.debug("Stored {} value(s) to {} rrd4j database(s) in {} ms", points, valuesByName.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+        }
     }
 
-    private synchronized void writePointToDatabase(String name, double value, long timestamp) {
-        RrdDb db = null;
+    private Lock getDatabaseLock(String name) {
+        return databaseLocks[Math.floorMod(name.hashCode(), databaseLocks.length)];
+    }
+
+    private void writePointsToDatabase(String name, Map<Long, Double> values) {
+        Lock lock = getDatabaseLock(name);
+        lock.lock();
         try {
-            db = getDB(name, true);
-        } catch (Exception e) {
-            logger.warn("Failed to open rrd4j database '{}' to store data ({})", name, e.toString());
-        }
-        if (db == null) {
-            return;
+            RrdDb db = null;
+            try {
+                db = getDB(name, true);
+            } catch (Exception e) {
+                logger.warn("Failed to open rrd4j database '{}' to store data ({})", name, e.toString());
+            }
+            if (db == null) {
+                return;
+            }
+            for (Map.Entry<Long, Double> value : values.entrySet()) {
+                writePointToDatabase(db, name, value.getValue(), value.getKey());
+            }
+            try {
+                db.close();
+            } catch (IOException e) {
+                logger.debug("Error closing rrd4j database: {}", e.getMessage());
+            }
+        } finally {
+            lock.unlock();
         }
+    }
 
+    private void writePointToDatabase(RrdDb db, String name, double value, long timestamp) {
         ConsolFun function = getConsolidationFunction(db);
         if (function != ConsolFun.AVERAGE) {
             try {
@@ -386,11 +567,6 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         } catch (Exception e) {
             logger.warn("Could not persist '{}' to rrd4j database: {}", name, e.getMessage());
         }
-        try {
-            db.close();
-        } catch (IOException e) {
-            logger.debug("Error closing rrd4j database: {}", e.getMessage());
-        }
     }
 
     @Override
@@ -514,12 +690,18 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         return Set.of();
     }
 
-    protected synchronized @Nullable RrdDb getDB(String alias, boolean createFileIfAbsent) {
+    protected @Nullable RrdDb getDB(String alias, boolean createFileIfAbsent) {
         RrdDb db = null;
         Path path = getDatabasePath(alias);
+        Lock lock = getDatabaseLock(alias);
+        lock.lock();
         try {
             Builder builder = RrdDb.getBuilder();
             builder.setPool(DATABASE_POOL);
+            RrdBackendFactory factory = backendFactory;
+            if (factory != null) {
+                builder.setBackendFactory(factory);
+            }
 
             if (Files.exists(path)) {
                 // recreate the RrdDb instance from the file
@@ -545,6 +727,8 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         } catch (RejectedExecutionException e) {
             // this happens if the system is shut down
             logger.debug("Could not create rrd4j database file '{}': {}", path, e.getMessage());
+        } finally {
+            lock.unlock();
         }
         return db;
     }
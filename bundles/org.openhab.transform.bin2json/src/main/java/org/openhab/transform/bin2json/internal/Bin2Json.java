@@ -14,8 +14,11 @@ package org.openhab.transform.bin2json.internal;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.StringWriter;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import org.openhab.core.util.HexUtils;
 import org.slf4j.Logger;
@@ -24,6 +27,7 @@ import org.slf4j.LoggerFactory;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonWriter;
 import com.igormaznitsa.jbbp.JBBPParser;
 import com.igormaznitsa.jbbp.exceptions.JBBPException;
 import com.igormaznitsa.jbbp.model.JBBPAbstractArrayField;
@@ -66,6 +70,9 @@ import com.igormaznitsa.jbbp.model.JBBPFieldUShort;
  * json.toString() = {"a":3,"b":-6,"c":255}}
  * </pre>
  *
+ * <p>
+ * The parser rule is compiled once, a converter can be reused for any number of conversions and by several threads.
+ *
  * @author Pauli Anttila - Initial contribution
  *
  */
@@ -137,6 +144,38 @@ public class Bin2Json {
         }
     }
 
+    /**
+     * Convert {@link String} in hexadecimal string format to a JSON string. The JSON is written directly from the
+     * parsed data, it is the same as the string of the JSON object returned by {@link #convert(String)}.
+     *
+     * @param hexString Data in hexadecimal string format. Example data: 03FAFF
+     * @return JSON string
+     * @throws ConversionException
+     */
+    public String convertToString(String hexString) throws ConversionException {
+        try {
+            JBBPFieldStruct data = parser.parse(HexUtils.hexToBytes(hexString));
+            LocalDateTime start = LocalDateTime.now();
+            StringWriter out = new StringWriter();
+            JsonWriter writer = new JsonWriter(out);
+            writer.setLenient(true);
+            writeStruct(writer, data);
+            writer.flush();
+            String json = out.toString();
+            if (logger.isTraceEnabled()) {
+                Duration duration = Duration.between(start, LocalDateTime.now());
+                logger.trace("Conversion time={}, json={}", duration, json);
+            }
+            return json;
+        } catch (IllegalArgumentException e) {
+            throw new ConversionException(String.format("Illegal hexstring , reason: %s", e.getMessage(), e));
+        } catch (IOException e) {
+            throw new ConversionException(String.format("Unexpected error, reason: %s", e.getMessage(), e));
+        } catch (JBBPException e) {
+            throw new ConversionException(String.format("Unexpected error, reason: %s", e.getMessage(), e));
+        }
+    }
+
     private JsonObject convert(JBBPFieldStruct data) throws ConversionException {
         try {
             LocalDateTime start = LocalDateTime.now();
@@ -234,4 +273,93 @@ public class Bin2Json {
         }
         return jsn;
     }
+
+    private void writeStruct(final JsonWriter writer, final JBBPFieldStruct struct)
+            throws IOException, ConversionException {
+        // like in a JSON object, a later field replaces the value of an earlier field with the same name
+        final Map<String, JBBPAbstractField> fields = new LinkedHashMap<>();
+        for (final JBBPAbstractField f : struct.getArray()) {
+            fields.put(f.getFieldName() == null ? "nonamed" : f.getFieldName(), f);
+        }
+        writer.beginObject();
+        for (final Map.Entry<String, JBBPAbstractField> entry : fields.entrySet()) {
+            writer.name(entry.getKey());
+            writeField(writer, entry.getValue());
+        }
+        writer.endObject();
+    }
+
+    private void writeField(final JsonWriter writer, final JBBPAbstractField field)
+            throws IOException, ConversionException {
+        if (field instanceof JBBPAbstractArrayField) {
+            writer.beginArray();
+            if (field instanceof JBBPFieldArrayBit bit) {
+                for (final byte b : bit.getArray()) {
+                    writer.value(b);
+                }
+            } else if (field instanceof JBBPFieldArrayBoolean boolean1) {
+                for (final boolean b : boolean1.getArray()) {
+                    writer.value(b);
+                }
+            } else if (field instanceof JBBPFieldArrayByte byte1) {
+                for (final byte b : byte1.getArray()) {
+                    writer.value(b);
+                }
+            } else if (field instanceof JBBPFieldArrayInt int1) {
+                for (final int b : int1.getArray()) {
+                    writer.value(b);
+                }
+            } else if (field instanceof JBBPFieldArrayLong long1) {
+                for (final long b : long1.getArray()) {
+                    writer.value(b);
+                }
+            } else if (field instanceof JBBPFieldArrayShort short1) {
+                for (final short b : short1.getArray()) {
+                    writer.value(b);
+                }
+            } else if (field instanceof JBBPFieldArrayStruct array) {
+                for (int i = 0; i < array.size(); i++) {
+                    // every element is an object with the element struct as its only field
+                    final JBBPFieldStruct element = array.getElementAt(i);
+                    writer.beginObject();
+                    writer.name(element.getFieldName() == null ? "nonamed" : element.getFieldName());
+                    writeStruct(writer, element);
+                    writer.endObject();
+                }
+            } else if (field instanceof JBBPFieldArrayUByte byte1) {
+                for (final byte b : byte1.getArray()) {
+                    writer.value(b & 0xFF);
+                }
+            } else if (field instanceof JBBPFieldArrayUShort short1) {
+                for (final short b : short1.getArray()) {
+                    writer.value(b & 0xFFFF);
+                }
+            } else {
+                throw new ConversionException(String.format("Unexpected field type '%s'", field));
+            }
+            writer.endArray();
+        } else {
+            if (field instanceof JBBPFieldBit bit) {
+                writer.value(bit.getAsInt());
+            } else if (field instanceof JBBPFieldBoolean boolean1) {
+                writer.value(boolean1.getAsBool());
+            } else if (field instanceof JBBPFieldByte byte1) {
+                writer.value(byte1.getAsInt());
+            } else if (field instanceof JBBPFieldInt int1) {
+                writer.value(int1.getAsInt());
+            } else if (field instanceof JBBPFieldLong long1) {
+                writer.value(long1.getAsLong());
+            } else if (field instanceof JBBPFieldShort short1) {
+                writer.value(short1.getAsInt());
+            } else if (field instanceof JBBPFieldStruct struct) {
+                writeStruct(writer, struct);
+            } else if (field instanceof JBBPFieldUByte byte1) {
+                writer.value(byte1.getAsInt());
+            } else if (field instanceof JBBPFieldUShort short1) {
+                writer.value(short1.getAsInt());
+            } else {
+                throw new ConversionException(String.format("Unexpected field '%s'", field));
+            }
+        }
+    }
 }
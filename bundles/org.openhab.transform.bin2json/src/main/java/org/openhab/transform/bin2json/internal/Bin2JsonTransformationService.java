@@ -12,6 +12,9 @@
  */
 package org.openhab.transform.bin2json.internal;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.core.transform.TransformationException;
@@ -30,8 +33,20 @@ import org.slf4j.LoggerFactory;
 @Component(property = { "openhab.transform=BIN2JSON" })
 public class Bin2JsonTransformationService implements TransformationService {
 
+    private static final int MAX_CACHED_CONVERTERS = 50;
+
     private Logger logger = LoggerFactory.getLogger(Bin2JsonTransformationService.class);
 
+    // converters with the compiled parser of a syntax
+    private final Map<String, Bin2Json> converters = new LinkedHashMap<>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Bin2Json> eldest) {
+            return size() > MAX_CACHED_CONVERTERS;
+        }
+    };
+
     /**
      * Transforms the input <code>source</code> by Java Binary Block Parser syntax.
      *
@@ -46,7 +61,7 @@ public class Bin2JsonTransformationService implements TransformationService {
         String result = "";
 
         try {
-            result = String.valueOf(new Bin2Json(syntax).convert(source));
+            result = getConverter(syntax).convertToString(source);
             logger.debug("transformation resulted '{}'", result);
             return result;
         } catch (ConversionException e) {
@@ -56,4 +71,13 @@ public class Bin2JsonTransformationService implements TransformationService {
                     result);
         }
     }
+
+    private synchronized Bin2Json getConverter(String syntax) throws ConversionException {
+        Bin2Json converter = converters.get(syntax);
+        if (converter == null) {
+            converter = new Bin2Json(syntax);
+            converters.put(syntax, converter);
+        }
+        return converter;
+    }
 }
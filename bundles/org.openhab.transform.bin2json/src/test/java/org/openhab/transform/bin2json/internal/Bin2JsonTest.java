@@ -0,0 +1,43 @@
+/**
+ * Copyright (c) 2010-2023 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.bin2json.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author openHAB Contributors - Initial contribution
+ */
+public class Bin2JsonTest {
+
+    @Test
+    public void testConvertToString() throws ConversionException {
+        Bin2Json bin2Json = new Bin2Json("byte a; byte b; ubyte c;");
+
+        assertEquals("{\"a\":3,\"b\":-6,\"c\":255}", bin2Json.convertToString("03FAFF"));
+    }
+
+    @Test
+    public void testConvertToStringEqualsJsonObjectForStructArraysAndDuplicateNames() throws ConversionException {
+        // unnamed fields are all written with the name "nonamed", the last one wins
+        Bin2Json bin2Json = new Bin2Json("byte; byte a; ubyte; s [2] { byte b; byte; ushort [2] c; byte; } "
+                + "inner { short d; long [1] e; } bool f;");
+        String data = "FFFAFE" + "01020304050607" + "F1F2F3F4F5F6F7" + "8001000000000000FFFF" + "01";
+
+        String json = bin2Json.convertToString(data);
+
+        assertEquals(bin2Json.convert(data).toString(), json);
+        assertTrue(json.startsWith("{\"nonamed\":254,\"a\":-6,\"s\":[{"), json);
+    }
+}
@@ -16,9 +16,11 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -32,7 +34,13 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hubspot.jinjava.Jinjava;
 import com.hubspot.jinjava.JinjavaConfig;
+import com.hubspot.jinjava.interpret.Context;
 import com.hubspot.jinjava.interpret.FatalTemplateErrorsException;
+import com.hubspot.jinjava.interpret.InterpretException;
+import com.hubspot.jinjava.interpret.JinjavaInterpreter;
+import com.hubspot.jinjava.interpret.TemplateError;
+import com.hubspot.jinjava.interpret.TemplateError.ErrorType;
+import com.hubspot.jinjava.tree.Node;
 
 /**
  * <p>
@@ -45,10 +53,24 @@ import com.hubspot.jinjava.interpret.FatalTemplateErrorsException;
 @Component(property = { "openhab.transform=JINJA" })
 public class JinjaTransformationService implements TransformationService {
 
+    private static final String VALUE_JSON = "value_json";
+    private static final int MAX_CACHED_TEMPLATES = 100;
+
     private final Logger logger = LoggerFactory.getLogger(JinjaTransformationService.class);
 
     private final JinjavaConfig config = JinjavaConfig.newBuilder().withFailOnUnknownTokens(true).build();
     private final Jinjava jinjava = new Jinjava(config);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // parsed template trees, they are only read while rendering
+    private final Map<String, Node> templates = new LinkedHashMap<>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Node> eldest) {
+            return size() > MAX_CACHED_TEMPLATES;
+        }
+    };
 
     /**
      * Transforms the input <code>value</code> by Jinja template.
@@ -66,17 +88,22 @@ public class JinjaTransformationService implements TransformationService {
 
         bindings.put("value", value);
 
-        try {
-            JsonNode tree = new ObjectMapper().readTree(value);
-            bindings.put("value_json", toObject(tree));
-        } catch (IOException e) {
-            // ok, then value_json is null...
+        // the value is only parsed if the template can use it
+        if (template.contains(VALUE_JSON)) {
+            try {
+                JsonNode tree = objectMapper.readTree(value);
+                bindings.put(VALUE_JSON, toObject(tree));
+            } catch (IOException e) {
+                // ok, then value_json is null...
+            }
         }
 
         try {
-            transformationResult = jinjava.render(template, bindings);
+            transformationResult = render(template, bindings);
         } catch (FatalTemplateErrorsException e) {
             throw new TransformationException("An error occurred while transformation. " + e.getMessage(), e);
+        } catch (InterpretException e) {
+            throw new TransformationException("An error occurred while transformation. " + e.getMessage(), e);
         }
 
         logger.debug("transformation resulted in '{}'", transformationResult);
@@ -84,6 +111,49 @@ public class JinjaTransformationService implements TransformationService {
         return transformationResult;
     }
 
+    /**
+     * Renders a template like {@link Jinjava#renderForResult(String, Map)}, but parses each template only once
+     */
+    private String render(String template, Map<String, @Nullable Object> bindings) {
+        Context globalContext = jinjava.getGlobalContext();
+        Context context = new Context(globalContext, bindings, config.getDisabled());
+        JinjavaInterpreter interpreter = globalContext.getInterpreterFactory().newInstance(jinjava, context, config);
+        JinjavaInterpreter.pushCurrent(interpreter);
+        try {
+            Node tree = getTemplate(template);
+            if (tree == null) {
+                tree = interpreter.parse(template);
+                // templates with syntax errors are parsed again, to report the errors every time
+                if (interpreter.getErrors().isEmpty()) {
+                    putTemplate(template, tree);
+                }
+            }
+            String result = interpreter.render(tree);
+            List<TemplateError> fatalErrors = interpreter.getErrors().stream()
+                    .filter(error -> error.getSeverity() == ErrorType.FATAL).collect(Collectors.toList());
+            if (!fatalErrors.isEmpty()) {
+                throw new FatalTemplateErrorsException(template, fatalErrors);
+            }
+            return result;
+        } finally {
+            // drops what was resolved through the global context while rendering
+            globalContext.reset();
+            JinjavaInterpreter.popCurrent();
+        }
+    }
+
+    private synchronized @Nullable Node getTemplate(String template) {
+        return templates.get(template);
+    }
+
+    private synchronized void putTemplate(String template, Node tree) {
+        templates.put(template, tree);
+    }
+
+    synchronized int getCachedTemplateCount() {
+        return templates.size();
+    }
+
     private static @Nullable Object toObject(JsonNode node) {
         switch (node.getNodeType()) {
             case ARRAY: {
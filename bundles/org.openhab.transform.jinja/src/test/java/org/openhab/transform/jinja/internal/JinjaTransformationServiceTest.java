@@ -115,4 +115,21 @@ public class JinjaTransformationServiceTest {
         // then map key is defined
         assertEquals("true", transformedResponse);
     }
+
+    @Test
+    public void testParsedTemplateIsReused() throws TransformationException {
+        String template = "{{value_json['AM2301'].Temperature}}";
+
+        assertEquals("4.7", processor.transform(template, "{\"AM2301\":{\"Temperature\":4.7}}"));
+        assertEquals("5.1", processor.transform(template, "{\"AM2301\":{\"Temperature\":5.1}}"));
+        assertEquals(1, processor.getCachedTemplateCount());
+    }
+
+    @Test
+    public void testTemplateErrorIsReportedEveryTime() {
+        for (int i = 0; i < 2; i++) {
+            assertThrows(TransformationException.class,
+                    () -> processor.transform("Hello {{{ value_json.string }}!", "{\"string\": \"world\"}"));
+        }
+    }
 }
@@ -12,7 +12,12 @@
  */
 package org.openhab.transform.jsonpath.internal;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -24,6 +29,7 @@ import org.osgi.service.component.annotations.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.jayway.jsonpath.Configuration;
 import com.jayway.jsonpath.InvalidJsonException;
 import com.jayway.jsonpath.InvalidPathException;
 import com.jayway.jsonpath.JsonPath;
@@ -41,8 +47,31 @@ import com.jayway.jsonpath.PathNotFoundException;
 @Component(property = { "openhab.transform=JSONPATH" })
 public class JSonPathTransformationService implements TransformationService {
 
+    private static final int MAX_CACHED_PATHS = 500;
+    private static final int MAX_CACHED_DOCUMENTS = 8;
+    private static final long DOCUMENT_TIME_TO_LIVE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
     private final Logger logger = LoggerFactory.getLogger(JSonPathTransformationService.class);
 
+    private final Map<String, JsonPath> compiledPaths = new LinkedHashMap<>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, JsonPath> eldest) {
+            return size() > MAX_CACHED_PATHS;
+        }
+    };
+
+    /**
+     * Recently parsed documents, most recent first. A binding usually transforms the same source string instance
+     * with the expressions of several channels right after it was received, so the documents are only kept for a
+     * short time and are identified by the identity of their source string.
+     */
+    private final Deque<ParsedDocument> parsedDocuments = new ArrayDeque<>(MAX_CACHED_DOCUMENTS);
+
+    private record ParsedDocument(String source, @Nullable Object document, long parsedNanos) {
+    }
+
     /**
      * Transforms the input <code>source</code> by JSonPath expression.
      *
@@ -64,7 +93,9 @@ public class JSonPathTransformationService implements TransformationService {
             return null;
         }
         try {
-            Object transformationResult = JsonPath.read(source, jsonPathExpression);
+            JsonPath jsonPath = getCompiledPath(jsonPathExpression);
+            Object document = getDocument(source);
+            Object transformationResult = document == null ? jsonPath.read(source) : jsonPath.read(document);
             logger.debug("transformation resulted in '{}'", transformationResult);
             if (transformationResult == null) {
                 return null;
@@ -80,6 +111,46 @@ public class JSonPathTransformationService implements TransformationService {
         }
     }
 
+    private synchronized JsonPath getCompiledPath(String jsonPathExpression) {
+        JsonPath jsonPath = compiledPaths.get(jsonPathExpression);
+        if (jsonPath == null) {
+            jsonPath = JsonPath.compile(jsonPathExpression);
+            compiledPaths.put(jsonPathExpression, jsonPath);
+        }
+        return jsonPath;
+    }
+
+    private @Nullable Object getDocument(String source) {
+        long now = System.nanoTime();
+        synchronized (parsedDocuments) {
+            parsedDocuments.removeIf(parsed -> now - parsed.parsedNanos() > DOCUMENT_TIME_TO_LIVE_NANOS);
+            for (ParsedDocument parsed : parsedDocuments) {
+                if (parsed.source() == source) {
+                    return parsed.document();
+                }
+            }
+        }
+        // parse outside of the lock, the result is only read by the expressions
+        Object document = Configuration.defaultConfiguration().jsonProvider().parse(source);
+        synchronized (parsedDocuments) {
+            if (parsedDocuments.size() >= MAX_CACHED_DOCUMENTS) {
+                parsedDocuments.removeLast();
+            }
+            parsedDocuments.addFirst(new ParsedDocument(source, document, now));
+        }
+        return document;
+    }
+
+    synchronized int getCompiledPathCount() {
+        return compiledPaths.size();
+    }
+
+    int getParsedDocumentCount() {
+        synchronized (parsedDocuments) {
+            return parsedDocuments.size();
+        }
+    }
+
     private String flattenList(List<?> list) {
         if (list.size() == 1) {
             return list.get(0).toString();
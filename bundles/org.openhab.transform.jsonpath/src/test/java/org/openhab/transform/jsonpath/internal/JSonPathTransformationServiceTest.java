@@ -78,6 +78,32 @@ public class JSonPathTransformationServiceTest {
         assertEquals(null, transformedResponse);
     }
 
+    @Test
+    public void testSameSourceIsParsedOnce() throws TransformationException {
+        assertEquals("bob", processor.transform("$[0].name", jsonArray));
+        assertEquals("alice", processor.transform("$[1].name", jsonArray));
+        assertEquals("bob", processor.transform("$[0].name", jsonArray));
+        assertEquals(1, processor.getParsedDocumentCount());
+        assertEquals(2, processor.getCompiledPathCount());
+    }
+
+    @Test
+    public void testEqualSourcesAreParsedSeparately() throws TransformationException {
+        // documents are cached by the identity of the source, a new payload is always parsed
+        String otherArray = jsonArray.replace("bob", "carol");
+        assertEquals("bob", processor.transform("$[0].name", new String(jsonArray)));
+        assertEquals("carol", processor.transform("$[0].name", otherArray));
+        assertEquals("bob", processor.transform("$[0].name", new String(jsonArray)));
+        assertEquals(3, processor.getParsedDocumentCount());
+        assertEquals(1, processor.getCompiledPathCount());
+    }
+
+    @Test
+    public void testInvalidPathIsNotCached() {
+        assertThrows(TransformationException.class, () -> processor.transform("$$", jsonArray));
+        assertEquals(0, processor.getCompiledPathCount());
+    }
+
     @Test
     public void testIndefinite_filteredToSingle() throws TransformationException {
         String transformedResponse = processor.transform("$.*[?(@.name=='bob')].id", jsonArray);
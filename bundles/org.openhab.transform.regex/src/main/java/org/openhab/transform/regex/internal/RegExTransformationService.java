@@ -12,6 +12,8 @@
  */
 package org.openhab.transform.regex.internal;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -39,6 +41,22 @@ public class RegExTransformationService implements TransformationService {
     private final Logger logger = LoggerFactory.getLogger(RegExTransformationService.class);
 
     private static final Pattern SUBSTR_PATTERN = Pattern.compile("^s/(.*?[^\\\\])/(.*?[^\\\\])/(.*)$");
+    private static final int MAX_CACHED_EXPRESSIONS = 200;
+
+    private final Map<String, CompiledRegex> compiledExpressions = new LinkedHashMap<>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CompiledRegex> eldest) {
+            return size() > MAX_CACHED_EXPRESSIONS;
+        }
+    };
+
+    /**
+     * A compiled expression, either of the substitution form with a substitution or of the match form without
+     */
+    private record CompiledRegex(Pattern pattern, @Nullable String substitution, boolean global) {
+    }
 
     @Override
     public @Nullable String transform(String regExpression, String source) throws TransformationException {
@@ -50,23 +68,16 @@ public class RegExTransformationService implements TransformationService {
 
         String result = "";
 
-        Matcher substMatcher = SUBSTR_PATTERN.matcher(regExpression);
-        if (substMatcher.matches()) {
+        CompiledRegex compiledRegex = getCompiledRegex(regExpression);
+        String substitution = compiledRegex.substitution();
+        if (substitution != null) {
             logger.debug("Using substitution form of regex transformation");
-            String regex = substMatcher.group(1);
-            String substitution = substMatcher.group(2);
-            String options = substMatcher.group(3);
-            if ("g".equals(options)) {
-                result = source.trim().replaceAll(regex, substitution);
-            } else {
-                result = source.trim().replaceFirst(regex, substitution);
-            }
-            if (result != null) {
-                return result;
-            }
+            Matcher substMatcher = compiledRegex.pattern().matcher(source.trim());
+            return compiledRegex.global() ? substMatcher.replaceAll(substitution)
+                    : substMatcher.replaceFirst(substitution);
         }
 
-        Matcher matcher = Pattern.compile("^" + regExpression + "$", Pattern.DOTALL).matcher(source.trim());
+        Matcher matcher = compiledRegex.pattern().matcher(source.trim());
         if (!matcher.matches()) {
             logger.debug(
                     "the given regex '^{}$' doesn't match the given content '{}' -> couldn't compute transformation",
@@ -94,4 +105,24 @@ public class RegExTransformationService implements TransformationService {
 
         return result;
     }
+
+    private synchronized CompiledRegex getCompiledRegex(String regExpression) {
+        CompiledRegex compiledRegex = compiledExpressions.get(regExpression);
+        if (compiledRegex == null) {
+            Matcher substMatcher = SUBSTR_PATTERN.matcher(regExpression);
+            if (substMatcher.matches()) {
+                compiledRegex = new CompiledRegex(Pattern.compile(substMatcher.group(1)), substMatcher.group(2),
+                        "g".equals(substMatcher.group(3)));
+            } else {
+                compiledRegex = new CompiledRegex(Pattern.compile("^" + regExpression + "$", Pattern.DOTALL), null,
+                        false);
+            }
+            compiledExpressions.put(regExpression, compiledRegex);
+        }
+        return compiledRegex;
+    }
+
+    synchronized int getCompiledExpressionCount() {
+        return compiledExpressions.size();
+    }
 }
@@ -75,4 +75,23 @@ public class RegExTransformationServiceTest extends AbstractTransformationServic
         // Asserts
         assertEquals("varX=12 varY=54 ", transformedResponse);
     }
+
+    @Test
+    public void testTransformByRegex_compiledExpressionsAreCached() throws TransformationException {
+        for (int i = 0; i < 3; i++) {
+            assertEquals("SetMode(42)", processor.transform("s/^OP:(.*?),ARG:(.*)$/$1($2)/", "OP:SetMode,ARG:42"));
+            assertEquals("42", processor.transform("OP:.*?,ARG:(.*)", "OP:SetMode,ARG:42"));
+        }
+
+        assertEquals(2, processor.getCompiledExpressionCount());
+    }
+
+    @Test
+    public void testTransformByRegex_cachedExpressionsAreLimited() throws TransformationException {
+        for (int i = 0; i < 500; i++) {
+            assertEquals(String.valueOf(i), processor.transform("id" + i + ":(.*)", "id" + i + ":" + i));
+        }
+
+        assertTrue(processor.getCompiledExpressionCount() < 500);
+    }
 }
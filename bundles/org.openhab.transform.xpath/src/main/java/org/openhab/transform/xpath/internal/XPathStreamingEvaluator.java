@@ -0,0 +1,166 @@
+/**
+ * Copyright (c) 2010-2023 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.xpath.internal;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Evaluates simple absolute XPath expressions like <code>/root/child/@attribute</code> or <code>/root/child</code>
+ * to their string value while streaming the source, without building a DOM.
+ *
+ * The names of the steps must not have a prefix, so like in a namespace aware DOM they only match elements and
+ * attributes without a namespace. The string value is the one of the first matching node in document order, or an
+ * empty string if there is none. The whole source is read, so that invalid documents are detected.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class XPathStreamingEvaluator {
+
+    private static final String NAME = "[A-Za-z_][A-Za-z0-9_.-]*";
+    private static final Pattern SIMPLE_PATH = Pattern.compile("(/" + NAME + ")+(/@" + NAME + ")?");
+
+    private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+
+    private final List<String> elementNames;
+    private final @Nullable String attributeName;
+
+    private XPathStreamingEvaluator(List<String> elementNames, @Nullable String attributeName) {
+        this.elementNames = elementNames;
+        this.attributeName = attributeName;
+    }
+
+    /**
+     * Creates an evaluator for an expression
+     *
+     * @param xpathExpression the expression
+     * @return the evaluator, or <code>null</code> if the expression is not a simple absolute path
+     */
+    public static @Nullable XPathStreamingEvaluator forExpression(String xpathExpression) {
+        String expression = xpathExpression.trim();
+        if (!SIMPLE_PATH.matcher(expression).matches()) {
+            return null;
+        }
+        List<String> steps = List.of(expression.substring(1).split("/"));
+        String lastStep = steps.get(steps.size() - 1);
+        if (lastStep.startsWith("@")) {
+            return new XPathStreamingEvaluator(steps.subList(0, steps.size() - 1), lastStep.substring(1));
+        }
+        return new XPathStreamingEvaluator(steps, null);
+    }
+
+    /**
+     * Evaluates the expression on a source
+     *
+     * @param source the XML document
+     * @return the string value of the expression, or <code>null</code> if the source cannot be streamed because it
+     *         has a document type declaration or is not a well-formed document
+     */
+    public @Nullable String evaluate(String source) {
+        XMLStreamReader reader = null;
+        try {
+            reader = INPUT_FACTORY.createXMLStreamReader(new StringReader(source));
+            String result = null;
+            StringBuilder text = null;
+            int depth = 0;
+            int matchedDepth = 0;
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.DTD:
+                        // entities declared in the document type need the DOM
+                        return null;
+                    case XMLStreamConstants.START_ELEMENT:
+                        depth++;
+                        if (result == null && text == null && matchedDepth == depth - 1
+                                && depth <= elementNames.size() && matches(reader, elementNames.get(depth - 1))) {
+                            matchedDepth = depth;
+                            if (depth == elementNames.size()) {
+                                String attributeName = this.attributeName;
+                                if (attributeName == null) {
+                                    text = new StringBuilder();
+                                } else {
+                                    result = getAttributeValue(reader, attributeName);
+                                }
+                            }
+                        }
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        if (matchedDepth == depth) {
+                            matchedDepth--;
+                            if (text != null) {
+                                result = text.toString();
+                                text = null;
+                            }
+                        }
+                        depth--;
+                        break;
+                    case XMLStreamConstants.CHARACTERS:
+                    case XMLStreamConstants.CDATA:
+                    case XMLStreamConstants.SPACE:
+                        if (text != null) {
+                            text.append(reader.getText());
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+            return result == null ? "" : result;
+        } catch (XMLStreamException e) {
+            return null;
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException e) {
+                    // nothing to do
+                }
+            }
+        }
+    }
+
+    private static boolean matches(XMLStreamReader reader, String elementName) {
+        String namespace = reader.getNamespaceURI();
+        return (namespace == null || namespace.isEmpty()) && elementName.equals(reader.getLocalName());
+    }
+
+    private static @Nullable String getAttributeValue(XMLStreamReader reader, String attributeName) {
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            String namespace = reader.getAttributeNamespace(i);
+            if ((namespace == null || namespace.isEmpty()) && attributeName.equals(reader.getAttributeLocalName(i))) {
+                return reader.getAttributeValue(i);
+            }
+        }
+        // the next matching element may have the attribute
+        return null;
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        // see https://cheatsheetseries.owasp.org/cheatsheets/XML_External_Entity_Prevention_Cheat_Sheet.html
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        return factory;
+    }
+}
@@ -38,4 +38,51 @@ public class XPathTransformationServiceTest extends AbstractTransformationServic
         // Asserts
         assertEquals("8", transformedResponse);
     }
+
+    @Test
+    public void testTransformBySimplePath() throws TransformationException {
+        assertNotNull(XPathStreamingEvaluator.forExpression("/xml_api_reply/weather/current_conditions/temp_c/@data"));
+
+        String transformedResponse = processor.transform("/xml_api_reply/weather/current_conditions/temp_c/@data",
+                source);
+
+        assertEquals("8", transformedResponse);
+    }
+
+    @Test
+    public void testTransformBySimplePathFirstMatch() throws TransformationException {
+        String xml = "<a><b>1<c>2</c></b><b x=\"y\">3</b></a>";
+
+        assertEquals("12", processor.transform("/a/b", xml));
+        assertEquals("y", processor.transform("/a/b/@x", xml));
+        assertEquals("", processor.transform("/a/c", xml));
+        assertEquals("", processor.transform("/a/b/@z", xml));
+    }
+
+    @Test
+    public void testTransformBySimplePathWithNamespace() throws TransformationException {
+        // like in the DOM, unprefixed names don't match elements in a namespace
+        assertEquals("", processor.transform("/a/b", "<a xmlns=\"urn:test\"><b>1</b></a>"));
+    }
+
+    @Test
+    public void testTransformBySimplePathWithDocumentType() throws TransformationException {
+        String xml = "<!DOCTYPE a [<!ENTITY e \"entity\">]><a><b>&e;</b></a>";
+
+        assertNull(XPathStreamingEvaluator.forExpression("/a/b").evaluate(xml));
+        assertEquals(processor.transform("//b", xml), processor.transform("/a/b", xml));
+    }
+
+    @Test
+    public void testTransformBySimplePathInvalidDocument() {
+        assertThrows(TransformationException.class, () -> processor.transform("/a/b", "<a><b>1</b>"));
+    }
+
+    @Test
+    public void testComplexPathIsNotStreamed() {
+        assertNull(XPathStreamingEvaluator.forExpression("//current_conditions/temp_c/@data"));
+        assertNull(XPathStreamingEvaluator.forExpression("/a/b[1]"));
+        assertNull(XPathStreamingEvaluator.forExpression("/ns:a"));
+        assertNull(XPathStreamingEvaluator.forExpression("count(/a)"));
+    }
 }
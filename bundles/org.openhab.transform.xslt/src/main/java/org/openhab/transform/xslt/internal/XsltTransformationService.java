@@ -15,9 +15,12 @@ package org.openhab.transform.xslt.internal;
 import java.io.File;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
-import javax.xml.transform.Source;
+import javax.xml.transform.Templates;
 import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
@@ -41,8 +44,25 @@ import org.slf4j.LoggerFactory;
 @Component(property = { "openhab.transform=XSLT" })
 public class XsltTransformationService implements TransformationService {
 
+    private static final int MAX_CACHED_TEMPLATES = 50;
+
     private final Logger logger = LoggerFactory.getLogger(XsltTransformationService.class);
 
+    private final TransformerFactory transformerFactory = TransformerFactory.newInstance();
+
+    // compiled stylesheets by path, they are thread safe and create a transformer for each transformation
+    private final Map<String, CachedTemplates> templatesCache = new LinkedHashMap<>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedTemplates> eldest) {
+            return size() > MAX_CACHED_TEMPLATES;
+        }
+    };
+
+    private record CachedTemplates(long lastModified, long length, Templates templates) {
+    }
+
     /**
      * Transforms the input <code>source</code> by XSLT.
      *
@@ -60,12 +80,12 @@ public class XsltTransformationService implements TransformationService {
             throw new TransformationException("the given parameters 'filename' and 'source' must not be null");
         }
 
-        Source xsl = null;
+        File xsl;
 
         try {
             String path = OpenHAB.getConfigFolder() + File.separator + TransformationService.TRANSFORM_FOLDER_NAME
                     + File.separator + filename;
-            xsl = new StreamSource(new File(path));
+            xsl = new File(path);
         } catch (Exception e) {
             String message = "opening file '" + filename + "' throws exception";
 
@@ -78,10 +98,8 @@ public class XsltTransformationService implements TransformationService {
         StringReader xml = new StringReader(source);
         StringWriter out = new StringWriter();
 
-        Transformer transformer;
-
         try {
-            transformer = TransformerFactory.newInstance().newTransformer(xsl);
+            Transformer transformer = getTemplates(xsl).newTransformer();
             transformer.transform(new StreamSource(xml), new StreamResult(out));
         } catch (Exception e) {
             logger.error("transformation throws exception", e);
@@ -92,4 +110,28 @@ public class XsltTransformationService implements TransformationService {
 
         return out.toString();
     }
+
+    /**
+     * Returns the compiled stylesheet of a file. It is compiled again when the file was modified.
+     *
+     * @param xsl the stylesheet file
+     * @return the compiled stylesheet
+     * @throws TransformerConfigurationException if the stylesheet cannot be compiled
+     */
+    private synchronized Templates getTemplates(File xsl) throws TransformerConfigurationException {
+        String path = xsl.getAbsolutePath();
+        long lastModified = xsl.lastModified();
+        long length = xsl.length();
+        CachedTemplates cached = templatesCache.get(path);
+        if (cached == null || cached.lastModified() != lastModified || cached.length() != length) {
+            logger.debug("compiling stylesheet '{}'", path);
+            cached = new CachedTemplates(lastModified, length, transformerFactory.newTemplates(new StreamSource(xsl)));
+            templatesCache.put(path, cached);
+        }
+        return cached.templates();
+    }
+
+    synchronized int getCachedTemplatesCount() {
+        return templatesCache.size();
+    }
 }
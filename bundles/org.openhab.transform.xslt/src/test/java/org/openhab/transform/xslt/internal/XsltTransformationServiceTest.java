@@ -38,4 +38,19 @@ public class XsltTransformationServiceTest extends AbstractTransformationService
         // Asserts
         assertEquals("8", transformedResponse);
     }
+
+    @Test
+    public void testTransformByXSLTReusesCompiledStylesheet() throws TransformationException {
+        for (int i = 0; i < 3; i++) {
+            assertEquals("8", processor.transform("http/google_weather.xsl", source));
+        }
+
+        assertEquals(1, processor.getCachedTemplatesCount());
+    }
+
+    @Test
+    public void testTransformByMissingXSLTIsNotCached() {
+        assertThrows(TransformationException.class, () -> processor.transform("http/missing.xsl", source));
+        assertEquals(0, processor.getCachedTemplatesCount());
+    }
 }